@@ -7,6 +7,7 @@ import com.google.common.collect.Sets;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import com.hubspot.hbase.filter.server.AdaptiveOrder;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.KeyValue;
@@ -33,6 +34,8 @@ public class ProtoFilterList extends FilterBase {
   Operator operator;
   List<Filter> filters = Lists.newArrayList();
   Map<String, byte[]> descriptors = Maps.newHashMap();
+  AdaptiveOrder adaptiveOrder;
+  List<MeasuredFilter> measuredFilters;
 
   @Deprecated
   /* For internal use */
@@ -80,7 +83,43 @@ public class ProtoFilterList extends FilterBase {
       descriptors.put(key, Bytes.readByteArray(inputBuffer));
     }
     decompressDescriptors(this);
-    this.delegate = new FilterList(operator, filters);
+    this.adaptiveOrder = null;
+    this.measuredFilters = null;
+    if (operator == Operator.MUST_PASS_ALL && isReorderable(filters)) {
+      this.adaptiveOrder = AdaptiveOrder.forOperands(filters.size(), false);
+    }
+    if (adaptiveOrder != null) {
+      measuredFilters = Lists.newArrayListWithCapacity(filters.size());
+      for (int i = 0; i < filters.size(); ++i) {
+        measuredFilters.add(new MeasuredFilter(filters.get(i), i, adaptiveOrder));
+      }
+      this.delegate = new FilterList(operator, orderedMeasuredFilters());
+    } else {
+      this.delegate = new FilterList(operator, filters);
+    }
+  }
+
+  /**
+   * An AND stops at the first filter to reject a cell, so its filters can be
+   * put in whatever order rejects cells soonest, as long as none of them has
+   * side effects. An OR is left alone: HBase's FilterList asks every filter of
+   * an OR about every cell, so there is nothing to save.
+   */
+  private static boolean isReorderable(List<Filter> filters) {
+    for (Filter filter : filters) {
+      if (!(filter instanceof ProtobufColumnValueFilter) && !(filter instanceof ProtoFilterList)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<Filter> orderedMeasuredFilters() {
+    List<Filter> ordered = Lists.newArrayListWithCapacity(measuredFilters.size());
+    for (int index : adaptiveOrder.getOrder()) {
+      ordered.add(measuredFilters.get(index));
+    }
+    return ordered;
   }
 
   private Filter getFilter(DataInput in) {
@@ -100,7 +139,19 @@ public class ProtoFilterList extends FilterBase {
 
   @Override
   public void reset() {
+    if (measuredFilters != null) {
+      boolean rowRejected = false;
+      for (MeasuredFilter measuredFilter : measuredFilters) {
+        rowRejected |= measuredFilter.rejectedRow;
+      }
+      for (MeasuredFilter measuredFilter : measuredFilters) {
+        measuredFilter.endRow(rowRejected);
+      }
+    }
     delegate.reset();
+    if (adaptiveOrder != null && adaptiveOrder.endEvaluation()) {
+      delegate = new FilterList(operator, orderedMeasuredFilters());
+    }
   }
 
   @Override
@@ -216,6 +267,127 @@ public class ProtoFilterList extends FilterBase {
     return new ProtoFilterList(filters, Operator.MUST_PASS_ONE);
   }
 
+  /**
+   * Passes everything through to a filter of a reorderable AND, recording in
+   * the AND's {@link AdaptiveOrder} whether the filter passed each row and, now
+   * and then, how long it took to decide.
+   *
+   * A filter includes cells on other columns without looking at them, so its
+   * outcome is only known once it has rejected the row or been asked about the
+   * whole row. A row another filter rejected first is not counted for filters
+   * that hadn't decided yet.
+   */
+  private static class MeasuredFilter extends FilterBase {
+    private final Filter filter;
+    private final int index;
+    private final AdaptiveOrder adaptiveOrder;
+    private boolean startedRow = false;
+    private boolean timedRow = false;
+    private long rowNanos = 0;
+    private boolean rejectedRow = false;
+    private boolean checkedRow = false;
+    private boolean filteredRow = false;
+
+    private MeasuredFilter(Filter filter, int index, AdaptiveOrder adaptiveOrder) {
+      this.filter = filter;
+      this.index = index;
+      this.adaptiveOrder = adaptiveOrder;
+    }
+
+    /**
+     * Records the filter's outcome for the row that just ended, if it is known.
+     */
+    private void endRow(boolean rowRejected) {
+      long elapsedNanos = timedRow ? rowNanos : -1;
+      if (rejectedRow) {
+        adaptiveOrder.record(index, false, elapsedNanos);
+      } else if (checkedRow && !rowRejected) {
+        adaptiveOrder.record(index, !filteredRow, elapsedNanos);
+      }
+      startedRow = false;
+      timedRow = false;
+      rowNanos = 0;
+      rejectedRow = false;
+      checkedRow = false;
+      filteredRow = false;
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(KeyValue v) {
+      if (!startedRow) {
+        startedRow = true;
+        timedRow = adaptiveOrder.shouldTime();
+      }
+      ReturnCode code;
+      if (timedRow) {
+        long start = System.nanoTime();
+        code = filter.filterKeyValue(v);
+        rowNanos += System.nanoTime() - start;
+      } else {
+        code = filter.filterKeyValue(v);
+      }
+      rejectedRow |= code == ReturnCode.NEXT_ROW;
+      return code;
+    }
+
+    @Override
+    public void reset() {
+      filter.reset();
+    }
+
+    @Override
+    public boolean filterRowKey(byte[] buffer, int offset, int length) {
+      return filter.filterRowKey(buffer, offset, length);
+    }
+
+    @Override
+    public boolean filterAllRemaining() {
+      return filter.filterAllRemaining();
+    }
+
+    @Override
+    public KeyValue transform(KeyValue v) {
+      return filter.transform(v);
+    }
+
+    @Override
+    public void filterRow(List<KeyValue> kvs) {
+      filter.filterRow(kvs);
+    }
+
+    @Override
+    public boolean hasFilterRow() {
+      return filter.hasFilterRow();
+    }
+
+    @Override
+    public boolean filterRow() {
+      checkedRow = true;
+      filteredRow = filter.filterRow();
+      return filteredRow;
+    }
+
+    @Override
+    public KeyValue getNextKeyHint(KeyValue currentKV) {
+      return filter.getNextKeyHint(currentKV);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+      filter.write(out);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+      filter.readFields(in);
+    }
+
+    @Override
+    public String toString() {
+      return filter.toString();
+    }
+  }
+
   private static Class getClassByName(Configuration conf, String className)
           throws ClassNotFoundException {
     if(conf != null) {
@@ -1,27 +1,57 @@
 package com.hubspot.hbase.filter;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Doubles;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Lists;
 import com.google.common.io.ByteSource;
 import com.google.common.primitives.Booleans;
-import com.google.common.primitives.Floats;
-import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.hubspot.hbase.filter.models.BitMask;
+import com.hubspot.hbase.filter.models.BloomSpec;
+import com.hubspot.hbase.filter.models.HashBucket;
+import com.hubspot.hbase.filter.models.Inclusivity;
 import com.hubspot.hbase.filter.models.MatchOp;
+import com.hubspot.hbase.filter.models.OperandSet;
+import com.hubspot.hbase.filter.models.ProtobufKey;
+import com.hubspot.hbase.filter.models.RangeOperand;
+import com.hubspot.hbase.filter.models.RelativeTime;
+import com.hubspot.hbase.filter.models.StringPattern;
+import com.hubspot.hbase.filter.server.BitMaskPredicate;
+import com.hubspot.hbase.filter.server.BloomPredicate;
+import com.hubspot.hbase.filter.server.EncodedPattern;
+import com.hubspot.hbase.filter.server.ExpressionPredicate;
+import com.hubspot.hbase.filter.server.FieldComparison;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.FieldPathCache;
+import com.hubspot.hbase.filter.server.FieldPredicate;
+import com.hubspot.hbase.filter.server.GeneratedMessageCache;
+import com.hubspot.hbase.filter.server.HashPredicate;
+import com.hubspot.hbase.filter.server.MessageMatcher;
+import com.hubspot.hbase.filter.server.PredicateCompiler;
+import com.hubspot.hbase.filter.server.PresencePredicate;
+import com.hubspot.hbase.filter.server.PrimitiveComparator;
+import com.hubspot.hbase.filter.server.RangePredicate;
+import com.hubspot.hbase.filter.server.RepeatedPredicate;
+import com.hubspot.hbase.filter.server.ScalarPredicate;
 import com.hubspot.hbase.filter.server.ServerDescriptorCache;
+import com.hubspot.hbase.filter.server.SetPredicate;
+import com.hubspot.hbase.filter.server.StringMatcher;
+import com.hubspot.hbase.filter.server.StringPredicate;
+import com.hubspot.hbase.filter.server.WireFieldExtractor;
+import com.hubspot.hbase.filter.server.WirePredicate;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.filter.FilterBase;
 import org.apache.hadoop.hbase.filter.WritableByteArrayComparable;
 import org.apache.hadoop.hbase.io.HbaseObjectWritable;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 import org.apache.hadoop.io.WritableUtils;
 
 import java.io.DataInput;
@@ -33,7 +63,6 @@ import java.util.Map;
 import static com.google.common.base.Objects.equal;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.protobuf.Descriptors.Descriptor;
-import static com.google.protobuf.Descriptors.EnumValueDescriptor;
 import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
 import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.getDescriptor;
 import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
@@ -52,11 +81,40 @@ public class ProtobufColumnValueFilter extends FilterBase {
   private long descriptorHash;
   private byte[] descriptorBytes;
   private WritableByteArrayComparable byteArrayComparable;
+  private OperandSet operandSet;
+  private BloomSpec bloomSpec;
+  private RangeOperand rangeOperand;
+  private List<ProtobufColumnValueFilter> operands;
+  private String comparedFieldSpec;
+  private RelativeTime relativeTime;
+  private StringPattern stringPattern;
+  private BitMask bitMask;
+  private HashBucket hashBucket;
 
   private boolean foundColumn = false;
   private boolean matchedColumn = false;
 
-  private DynamicMessage operandMessage;
+  private Optional<Message> generatedPrototype;
+  private Message operandMessage;
+  private Map<Descriptors.FieldDescriptor, Object> operandFields;
+  private FieldPath fieldPath;
+  private FieldPath comparedFieldPath;
+  private Optional<EncodedPattern> encodedPattern;
+  private Optional<WirePredicate> compiledPredicate;
+  private ExpressionPredicate expressionPredicate;
+  private Optional<FieldPredicate> scalarPredicate;
+  private Optional<MessageMatcher> messageMatcher;
+  private Optional<FieldPredicate> setPredicate;
+  private Optional<FieldPredicate> bloomPredicate;
+  private Optional<FieldPredicate> rangePredicate;
+  private Optional<FieldPredicate> stringPredicate;
+  private StringMatcher stringMatcher;
+  private Optional<FieldPredicate> bitMaskPredicate;
+  private Optional<FieldPredicate> hashPredicate;
+  private Optional<WirePredicate> presencePredicate;
+  private Optional<WirePredicate> repeatedPredicate;
+  private Optional<WirePredicate> fieldComparison;
+  private int interpretedCells = 0;
 
   public ProtobufColumnValueFilter() {
   }
@@ -67,7 +125,11 @@ public class ProtobufColumnValueFilter extends FilterBase {
                             boolean latestVersionOnly, boolean filterIfMissing,
                             MatchOp matchOp, CompareOp compareOp,
                             byte[] columnQualifier, byte[] columnFamily,
-                            WritableByteArrayComparable byteArrayComparable) {
+                            WritableByteArrayComparable byteArrayComparable,
+                            OperandSet operandSet, BloomSpec bloomSpec,
+                            RangeOperand rangeOperand, List<ProtobufColumnValueFilter> operands,
+                            String comparedFieldSpec, RelativeTime relativeTime,
+                            StringPattern stringPattern, BitMask bitMask, HashBucket hashBucket) {
     this.descriptorBytes = descriptorBytes;
     this.descriptorHash = descriptorHash;
     this.messageName = messageName;
@@ -81,6 +143,15 @@ public class ProtobufColumnValueFilter extends FilterBase {
     this.columnQualifier = columnQualifier;
     this.columnFamily = columnFamily;
     this.byteArrayComparable = byteArrayComparable;
+    this.operandSet = operandSet;
+    this.bloomSpec = bloomSpec;
+    this.rangeOperand = rangeOperand;
+    this.operands = operands;
+    this.comparedFieldSpec = comparedFieldSpec;
+    this.relativeTime = relativeTime;
+    this.stringPattern = stringPattern;
+    this.bitMask = bitMask;
+    this.hashBucket = hashBucket;
   }
 
   @Override
@@ -88,7 +159,7 @@ public class ProtobufColumnValueFilter extends FilterBase {
     Bytes.writeByteArray(out, columnFamily);
     Bytes.writeByteArray(out, columnQualifier);
     WritableUtils.writeEnum(out, compareOp);
-    out.writeByte(matchOp.getKey());
+    out.writeByte(getWireMatchOp().getKey());
     out.writeBoolean(filterIfMissing);
     out.writeBoolean(latestVersionOnly);
     out.writeUTF(nullToEmpty(operandFieldSpec));
@@ -101,6 +172,7 @@ public class ProtobufColumnValueFilter extends FilterBase {
     if (byteArrayComparable != null) {
       HbaseObjectWritable.writeObject(out, byteArrayComparable, WritableByteArrayComparable.class, null);
     }
+    writeOperand(out);
   }
 
   @Override
@@ -128,11 +200,134 @@ public class ProtobufColumnValueFilter extends FilterBase {
     } else {
       byteArrayComparable = null;
     }
+    readOperand(in);
+  }
+
+  /**
+   * Writes what a predicate inside an expression needs beyond what it shares
+   * with the expression (the column, message and descriptor).
+   */
+  private void writePredicate(DataOutput out) throws IOException {
+    WritableUtils.writeEnum(out, compareOp);
+    out.writeByte(getWireMatchOp().getKey());
+    out.writeUTF(nullToEmpty(operandFieldSpec));
+    WritableUtils.writeCompressedByteArray(out, operandValue == null ? null : operandValue.toByteArray());
+    WritableUtils.writeCompressedByteArray(out, operandMessageBytes);
+    out.writeBoolean(byteArrayComparable != null);
+    if (byteArrayComparable != null) {
+      HbaseObjectWritable.writeObject(out, byteArrayComparable, WritableByteArrayComparable.class, null);
+    }
+    writeOperand(out);
+  }
+
+  private static ProtobufColumnValueFilter readPredicate(DataInput in, ProtobufColumnValueFilter expression) throws IOException {
+    ProtobufColumnValueFilter predicate = new ProtobufColumnValueFilter();
+    predicate.columnFamily = expression.columnFamily;
+    predicate.columnQualifier = expression.columnQualifier;
+    predicate.messageName = expression.messageName;
+    predicate.descriptorHash = expression.descriptorHash;
+    predicate.descriptorBytes = expression.descriptorBytes;
+    predicate.compareOp = WritableUtils.readEnum(in, CompareOp.class);
+    predicate.matchOp = MatchOp.fromKey(in.readByte());
+    predicate.operandFieldSpec = in.readUTF();
+    byte[] operandValueBytes = WritableUtils.readCompressedByteArray(in);
+    predicate.operandValue = operandValueBytes == null ? null : DynamicValue.parseFrom(operandValueBytes);
+    predicate.operandMessageBytes = WritableUtils.readCompressedByteArray(in);
+    if (in.readBoolean()) {
+      predicate.byteArrayComparable = (WritableByteArrayComparable) HbaseObjectWritable.readObject(in, null);
+    }
+    predicate.readOperand(in);
+    return predicate;
+  }
+
+  /**
+   * The match op as sent: a scalar comparison to a relative time has its own,
+   * so that other scalar comparisons serialize as they always have.
+   */
+  private MatchOp getWireMatchOp() {
+    return matchOp == MatchOp.MATCH_SCALAR && relativeTime != null ? MatchOp.MATCH_RELATIVE_TIME : matchOp;
+  }
+
+  /**
+   * Writes the operands that only some match ops have, after everything else.
+   */
+  private void writeOperand(DataOutput out) throws IOException {
+    if (getWireMatchOp() == MatchOp.MATCH_RELATIVE_TIME) {
+      relativeTime.write(out);
+    } else if (matchOp == MatchOp.MATCH_IN) {
+      operandSet.write(out);
+    } else if (matchOp == MatchOp.MATCH_IN_APPROXIMATE) {
+      bloomSpec.write(out);
+    } else if (matchOp == MatchOp.MATCH_BETWEEN) {
+      rangeOperand.write(out);
+    } else if (matchOp.isExpression() || matchOp.isElementwise()) {
+      WritableUtils.writeVInt(out, operands.size());
+      for (ProtobufColumnValueFilter operand : operands) {
+        operand.writePredicate(out);
+      }
+    } else if (matchOp == MatchOp.MATCH_FIELD) {
+      out.writeUTF(comparedFieldSpec);
+    } else if (matchOp == MatchOp.MATCH_STRING) {
+      stringPattern.write(out);
+    } else if (matchOp == MatchOp.MATCH_BITS) {
+      bitMask.write(out);
+    } else if (matchOp == MatchOp.MATCH_HASH) {
+      hashBucket.write(out);
+    }
+  }
+
+  private void readOperand(DataInput in) throws IOException {
+    operandSet = null;
+    bloomSpec = null;
+    rangeOperand = null;
+    operands = null;
+    comparedFieldSpec = null;
+    relativeTime = null;
+    stringPattern = null;
+    bitMask = null;
+    hashBucket = null;
+    if (matchOp == MatchOp.MATCH_RELATIVE_TIME) {
+      // Resolved against this server's clock once, as the scanner opens.
+      matchOp = MatchOp.MATCH_SCALAR;
+      relativeTime = new RelativeTime();
+      relativeTime.readFields(in);
+      operandValue = relativeTime.toOperand(EnvironmentEdgeManager.currentTimeMillis());
+    } else if (matchOp == MatchOp.MATCH_IN) {
+      operandSet = new OperandSet();
+      operandSet.readFields(in);
+    } else if (matchOp == MatchOp.MATCH_IN_APPROXIMATE) {
+      bloomSpec = new BloomSpec();
+      bloomSpec.readFields(in);
+    } else if (matchOp == MatchOp.MATCH_BETWEEN) {
+      rangeOperand = new RangeOperand();
+      rangeOperand.readFields(in);
+    } else if (matchOp.isExpression() || matchOp.isElementwise()) {
+      int size = WritableUtils.readVInt(in);
+      operands = Lists.newArrayListWithCapacity(size);
+      for (int i = 0; i < size; ++i) {
+        operands.add(readPredicate(in, this));
+      }
+    } else if (matchOp == MatchOp.MATCH_FIELD) {
+      comparedFieldSpec = in.readUTF();
+    } else if (matchOp == MatchOp.MATCH_STRING) {
+      stringPattern = new StringPattern();
+      stringPattern.readFields(in);
+    } else if (matchOp == MatchOp.MATCH_BITS) {
+      bitMask = new BitMask();
+      bitMask.readFields(in);
+    } else if (matchOp == MatchOp.MATCH_HASH) {
+      hashBucket = new HashBucket();
+      hashBucket.readFields(in);
+    }
   }
 
   public boolean filterRow() {
     // If column was found, return false if it was matched, true if it was not
     // If column not found, return true if we filter if missing, false if not
+    if (!this.foundColumn && this.matchOp == MatchOp.MATCH_HASH) {
+      // Rows without the column belong to the first bucket, like rows without the field.
+      return !this.hashBucket.containsMissing();
+    }
     return this.foundColumn? !this.matchedColumn: this.filterIfMissing;
   }
 
@@ -161,10 +356,14 @@ public class ProtobufColumnValueFilter extends FilterBase {
   }
 
   @VisibleForTesting
-  static boolean matchScalar(String fieldSpec, DynamicValue compareValue,
-                             CompareOp compareOp, DynamicMessage value,
+  static boolean matchScalar(FieldPath fieldPath, DynamicValue compareValue,
+                             CompareOp compareOp, Message value,
                              WritableByteArrayComparable comparable) {
-    Object compareScalar = extractScalar(fieldSpec, value);
+    return matchScalar(fieldPath.extract(value), compareValue, compareOp, comparable);
+  }
+
+  private static boolean matchScalar(Object compareScalar, DynamicValue compareValue,
+                                     CompareOp compareOp, WritableByteArrayComparable comparable) {
     // Only pass nulls if not equal.
     if (compareScalar == null) {
       return compareOp == CompareOp.NOT_EQUAL;
@@ -175,7 +374,213 @@ public class ProtobufColumnValueFilter extends FilterBase {
     } else {
       compareResult = comparable.compareTo(getBytesFromScalar(compareScalar));
     }
-    return interpretCompareResult(compareOp, compareResult);
+    return ScalarPredicate.interpret(compareOp, compareResult);
+  }
+
+  private static boolean matchRange(Object scalar, DynamicValue lowerBound, RangeOperand rangeOperand) {
+    if (scalar == null) {
+      return false;
+    }
+    Inclusivity inclusivity = rangeOperand.getInclusivity();
+    return matchScalar(scalar, lowerBound, inclusivity.getLowerOp(), null)
+            && matchScalar(scalar, rangeOperand.getUpper(), inclusivity.getUpperOp(), null);
+  }
+
+  private static boolean matchSet(FieldPath fieldPath, OperandSet operandSet,
+                                  CompareOp compareOp, Object scalar) {
+    if (scalar == null) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    boolean contains;
+    if (operandSet.getKind() == OperandSet.Kind.NUMBERS) {
+      Long number = toSetNumber(fieldPath, scalar);
+      contains = number != null && operandSet.containsNumber(number);
+    } else {
+      byte[] element = toSetElement(operandSet.getKind(), scalar);
+      contains = element != null && operandSet.containsElement(element);
+    }
+    return contains != (compareOp == CompareOp.NOT_EQUAL);
+  }
+
+  private static boolean matchBloom(FieldPath fieldPath, BloomSpec bloomSpec,
+                                    CompareOp compareOp, Object scalar) {
+    if (scalar == null) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    boolean contains;
+    if (bloomSpec.getKind() == OperandSet.Kind.NUMBERS) {
+      Long number = toSetNumber(fieldPath, scalar);
+      contains = number != null && bloomSpec.mightContainHash(BloomSpec.hashNumber(number));
+    } else {
+      byte[] element = toSetElement(bloomSpec.getKind(), scalar);
+      contains = element != null && bloomSpec.mightContainHash(BloomSpec.hashBytes(element, 0, element.length));
+    }
+    return contains != (compareOp == CompareOp.NOT_EQUAL);
+  }
+
+  /**
+   * Tests a value extracted from a parsed message, for the match ops that test
+   * a single field.
+   */
+  private boolean matchValue(FieldPath fieldPath, Object scalar) {
+    switch (matchOp) {
+      case MATCH_SCALAR:
+        return matchScalar(scalar, operandValue, compareOp, byteArrayComparable);
+      case MATCH_IN:
+        return matchSet(fieldPath, operandSet, compareOp, scalar);
+      case MATCH_IN_APPROXIMATE:
+        return matchBloom(fieldPath, bloomSpec, compareOp, scalar);
+      case MATCH_BETWEEN:
+        return matchRange(scalar, operandValue, rangeOperand);
+      case MATCH_STRING:
+        return matchString(scalar);
+      case MATCH_BITS:
+        return matchBits(bitMask, scalar);
+      default:
+        throw new IllegalStateException("Cannot test a single value with " + matchOp);
+    }
+  }
+
+  /**
+   * Tests the values a path through repeated fields selects in a parsed
+   * message, passing if any of them passes.
+   */
+  private boolean matchAnyValue(FieldPath fieldPath, Message value) {
+    for (Object scalar : fieldPath.extractAll(value)) {
+      if (matchValue(fieldPath, scalar)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tests the elements of a repeated field in a parsed message with this
+   * filter's element predicate.
+   */
+  private boolean matchElements(Descriptor descriptor, Message value) {
+    ProtobufColumnValueFilter element = operands.get(0);
+    FieldPath fieldPath = element.getFieldPath(descriptor);
+    List<Object> elements = fieldPath.extractAll(value);
+    if (matchOp == MatchOp.MATCH_ELEMENT_COUNT) {
+      return element.matchCount(elements.size());
+    }
+    boolean stopOn = matchOp == MatchOp.MATCH_ANY_ELEMENT;
+    for (Object scalar : elements) {
+      if (element.matchValue(fieldPath, scalar) == stopOn) {
+        return stopOn;
+      }
+    }
+    return !stopOn;
+  }
+
+  /**
+   * Compares the two fields in a parsed message. A side that selects several
+   * values passes if any of them does.
+   */
+  private boolean matchFields(Descriptor descriptor, Message value) {
+    FieldPath fieldPath = getFieldPath(descriptor);
+    FieldPath comparedFieldPath = getComparedFieldPath(descriptor);
+    FieldComparison comparison = FieldComparison.forFields(fieldPath, compareOp, comparedFieldPath);
+    List<Object> scalars = fieldPath.extractAll(value);
+    List<Object> comparedScalars = comparedFieldPath.extractAll(value);
+    if (comparison == null || scalars.isEmpty() || comparedScalars.isEmpty()) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    for (Object scalar : scalars) {
+      for (Object comparedScalar : comparedScalars) {
+        if (comparison.test(fieldPath, scalar, comparedFieldPath, comparedScalar)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean matchString(Object scalar) {
+    byte[] bytes;
+    if (scalar instanceof String) {
+      bytes = Bytes.toBytes((String) scalar);
+    } else if (scalar instanceof ByteString) {
+      bytes = ((ByteString) scalar).toByteArray();
+    } else {
+      // Missing, or not a string or bytes field.
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    if (stringMatcher == null) {
+      stringMatcher = StringMatcher.compile(stringPattern);
+    }
+    return stringMatcher.matches(bytes, 0, bytes.length) != (compareOp == CompareOp.NOT_EQUAL);
+  }
+
+  private static boolean matchBits(BitMask bitMask, Object scalar) {
+    if (scalar instanceof Integer) {
+      return bitMask.test((Integer) scalar & 0xffffffffL);
+    } else if (scalar instanceof Long) {
+      return bitMask.test((Long) scalar);
+    }
+    // Missing, or not an integral field.
+    return false;
+  }
+
+  /**
+   * Tests which bucket a value extracted from a parsed message falls in,
+   * hashing it as the wire predicate does.
+   */
+  private static boolean matchHash(FieldPath fieldPath, HashBucket hashBucket, Object scalar) {
+    long hash;
+    if (scalar instanceof String) {
+      byte[] bytes = Bytes.toBytes((String) scalar);
+      hash = HashBucket.hashBytes(bytes, 0, bytes.length);
+    } else if (scalar instanceof ByteString) {
+      byte[] bytes = ((ByteString) scalar).toByteArray();
+      hash = HashBucket.hashBytes(bytes, 0, bytes.length);
+    } else if (scalar instanceof Float || scalar instanceof Double) {
+      hash = HashBucket.hashNumber(Double.doubleToLongBits(((Number) scalar).doubleValue()));
+    } else if (scalar instanceof Boolean) {
+      hash = HashBucket.hashNumber((Boolean) scalar ? 1 : 0);
+    } else {
+      Long number = scalar == null ? null : toSetNumber(fieldPath, scalar);
+      if (number == null) {
+        // Missing, or a message.
+        return hashBucket.containsMissing();
+      }
+      hash = HashBucket.hashNumber(number);
+    }
+    return hashBucket.containsHash(hash);
+  }
+
+  private boolean matchCount(int count) {
+    // Counts are compared in the operand's type.
+    Object scalar = operandValue.getTypeValue() == DynamicValue.Type.type_integer ? (Object) count : (Object) (long) count;
+    return matchValue(null, scalar);
+  }
+
+  /**
+   * The extracted value as a member of a set of numbers, or null if the field
+   * doesn't hold numbers.
+   */
+  private static Long toSetNumber(FieldPath fieldPath, Object scalar) {
+    if (fieldPath.getLeaf().getJavaType() == Descriptors.FieldDescriptor.JavaType.ENUM) {
+      Descriptors.EnumValueDescriptor enumValue = fieldPath.getLeaf().getEnumType().findValueByName(String.valueOf(scalar));
+      return enumValue == null ? null : (long) enumValue.getNumber();
+    } else if (scalar instanceof Integer || scalar instanceof Long) {
+      return ((Number) scalar).longValue();
+    }
+    return null;
+  }
+
+  /**
+   * The extracted value as a member of a set of strings or bytes, or null if
+   * the field doesn't hold that kind of value.
+   */
+  private static byte[] toSetElement(OperandSet.Kind kind, Object scalar) {
+    if (kind == OperandSet.Kind.STRINGS && scalar instanceof String) {
+      return Bytes.toBytes((String) scalar);
+    } else if (kind == OperandSet.Kind.BYTES && scalar instanceof ByteString) {
+      return ((ByteString) scalar).toByteArray();
+    }
+    return null;
   }
 
   private static int getCompareResult(Object compareScalar, DynamicValue compareOperand) {
@@ -183,15 +588,15 @@ public class ProtobufColumnValueFilter extends FilterBase {
       case type_string:
         return String.valueOf(compareScalar).compareTo(compareOperand.getValueString());
       case type_integer:
-        return Ints.compare((Integer)compareScalar, compareOperand.getValueInteger());
+        return Longs.compare(toIntegral(compareScalar), compareOperand.getValueInteger());
       case type_long:
-        return Longs.compare((Long)compareScalar, compareOperand.getValueLong());
+        return Longs.compare(toIntegral(compareScalar), compareOperand.getValueLong());
       case type_float:
-        return Floats.compare((Float)compareScalar, compareOperand.getValueFloat());
+        return Doubles.compare(toFloatingPoint(compareScalar), compareOperand.getValueFloat());
       case type_bool:
         return Booleans.compare((Boolean)compareScalar, compareOperand.getValueBool());
       case type_double:
-        return Doubles.compare((Double)compareScalar, compareOperand.getValueDouble());
+        return Doubles.compare(toFloatingPoint(compareScalar), compareOperand.getValueDouble());
       case type_bytes:
         return Bytes.compareTo(((ByteString)compareScalar).toByteArray(), compareOperand.getValueBytes().toByteArray());
       default:
@@ -199,6 +604,22 @@ public class ProtobufColumnValueFilter extends FilterBase {
     }
   }
 
+  /**
+   * Widens an int32 or int64 value, so either compares to an operand of either
+   * width, as {@link PrimitiveComparator} does on the wire.
+   */
+  private static long toIntegral(Object scalar) {
+    return scalar instanceof Integer ? (Integer) scalar : (Long) scalar;
+  }
+
+  /**
+   * Widens a float or double value, so either compares to an operand of
+   * either width, as {@link PrimitiveComparator} does on the wire.
+   */
+  private static double toFloatingPoint(Object scalar) {
+    return scalar instanceof Float ? (Float) scalar : (Double) scalar;
+  }
+
   private static byte[] getBytesFromScalar(Object scalar) {
     if (scalar instanceof String) {
       return Bytes.toBytes((String)scalar);
@@ -229,51 +650,158 @@ public class ProtobufColumnValueFilter extends FilterBase {
     }
   }
 
-  private static Object extractScalar(String fieldSpec, DynamicMessage value) {
-    List<String> fields = Lists.newArrayList(Splitter.on('.').omitEmptyStrings().limit(2).split(fieldSpec));
-
-    String fieldName = fields.get(0);
+  private boolean keepColumnValue(byte [] data,
+                                  int offset,
+                                  int length) {
+    Descriptor descriptor = getDescriptor();
 
-    for (Map.Entry<Descriptors.FieldDescriptor, Object> field : value.getAllFields().entrySet()) {
-      if (fieldName.equals(field.getKey().getName())) {
-        switch (field.getKey().getJavaType()) {
-          case ENUM:
-            return ((EnumValueDescriptor)field.getValue()).getName();
-          case MESSAGE:
-            return extractScalar(fields.get(1), (DynamicMessage)field.getValue());
-          default:
-            return field.getValue();
-        }
+    if (this.matchOp.isExpression()) {
+      return getExpressionPredicate(descriptor).test(data, offset, length);
+    } else if (this.matchOp.isElementwise()) {
+      Optional<WirePredicate> repeatedPredicate = getRepeatedPredicate(descriptor);
+      if (repeatedPredicate.isPresent()) {
+        return repeatedPredicate.get().test(data, offset, length);
       }
-    }
-
-    // check for defaults
-    for (Descriptors.FieldDescriptor fieldDescriptor : value.getDescriptorForType().getFields()) {
-      if (fieldName.equals(fieldDescriptor.getName())) {
-        if (fieldDescriptor.hasDefaultValue()) {
-          return fieldDescriptor.getDefaultValue();
+    } else if (testsFieldValue() && isWalkedPath(getFieldPath(descriptor))) {
+      Optional<WirePredicate> pathPredicate = getPathPredicate(getFieldPath(descriptor));
+      if (pathPredicate.isPresent()) {
+        return pathPredicate.get().test(data, offset, length);
+      }
+    } else if (this.matchOp == MatchOp.MATCH_SCALAR) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<EncodedPattern> encodedPattern = getEncodedPattern(fieldPath);
+      if (encodedPattern.isPresent() && !encodedPattern.get().occursIn(data, offset, length)) {
+        // No occurrence of the field holds the operand, and it isn't the default.
+        return compareOp == CompareOp.NOT_EQUAL;
+      }
+      Optional<WirePredicate> compiledPredicate = getCompiledPredicate(fieldPath);
+      if (compiledPredicate.isPresent()) {
+        return compiledPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return matchScalar(null, operandValue, compareOp, byteArrayComparable);
+      } else if (fieldPath.isWireReadable()) {
+        Optional<FieldPredicate> scalarPredicate = getScalarPredicate(fieldPath);
+        if (scalarPredicate.isPresent()) {
+          return scalarPredicate.get().test(data, offset, length);
         }
+        return matchScalar(WireFieldExtractor.extractScalar(fieldPath, data, offset, length),
+                operandValue, compareOp, byteArrayComparable);
+      }
+    } else if (this.matchOp == MatchOp.MATCH_IN) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> setPredicate = getSetPredicate(fieldPath);
+      if (setPredicate.isPresent()) {
+        return setPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return compareOp == CompareOp.NOT_EQUAL;
+      }
+    } else if (this.matchOp == MatchOp.MATCH_BETWEEN) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> rangePredicate = getRangePredicate(fieldPath);
+      if (rangePredicate.isPresent()) {
+        return rangePredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return false;
+      }
+    } else if (this.matchOp == MatchOp.MATCH_STRING) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> stringPredicate = getStringPredicate(fieldPath);
+      if (stringPredicate.isPresent()) {
+        return stringPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return compareOp == CompareOp.NOT_EQUAL;
+      }
+    } else if (this.matchOp == MatchOp.MATCH_BITS) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> bitMaskPredicate = getBitMaskPredicate(fieldPath);
+      if (bitMaskPredicate.isPresent()) {
+        return bitMaskPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return false;
+      }
+    } else if (this.matchOp == MatchOp.MATCH_HASH) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> hashPredicate = getHashPredicate(fieldPath);
+      if (hashPredicate.isPresent()) {
+        return hashPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return hashBucket.containsMissing();
+      }
+    } else if (this.matchOp == MatchOp.MATCH_PRESENT) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<WirePredicate> presencePredicate = getPresencePredicate(fieldPath);
+      if (presencePredicate.isPresent()) {
+        return presencePredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return compareOp == CompareOp.NOT_EQUAL;
+      }
+    } else if (this.matchOp == MatchOp.MATCH_FIELD) {
+      Optional<WirePredicate> fieldComparison = getFieldComparison(descriptor);
+      if (fieldComparison.isPresent()) {
+        return fieldComparison.get().test(data, offset, length);
+      }
+    } else if (this.matchOp == MatchOp.MATCH_IN_APPROXIMATE) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      Optional<FieldPredicate> bloomPredicate = getBloomPredicate(fieldPath);
+      if (bloomPredicate.isPresent()) {
+        return bloomPredicate.get().test(data, offset, length);
+      } else if (!fieldPath.isResolved()) {
+        return compareOp == CompareOp.NOT_EQUAL;
+      }
+    } else if (this.matchOp.isExact()
+            && Bytes.equals(data, offset, length, operandMessageBytes, 0, operandMessageBytes.length)) {
+      // Identical bytes always parse to identical messages.
+      return this.matchOp == MatchOp.MATCH_EXACT;
+    } else {
+      Optional<MessageMatcher> messageMatcher = getMessageMatcher(descriptor);
+      if (messageMatcher.isPresent()) {
+        return messageMatcher.get().matches(data, offset, length);
       }
     }
-    return null;
-  }
 
-  private boolean keepColumnValue(byte [] data,
-                                  int offset,
-                                  int length) {
-    Descriptor descriptor = getDescriptor();
-    DynamicMessage dynamicMessage = getMessage(descriptor, data, offset, length);
+    Message dynamicMessage = getMessage(descriptor, data, offset, length);
 
-    if (this.matchOp == MatchOp.MATCH_SCALAR) {
-      return matchScalar(operandFieldSpec, operandValue, compareOp, dynamicMessage, byteArrayComparable);
+    if (testsFieldValue() && getFieldPath(descriptor).isMultiValued()) {
+      return matchAnyValue(getFieldPath(descriptor), dynamicMessage);
+    } else if (this.matchOp == MatchOp.MATCH_SCALAR) {
+      return matchScalar(getFieldPath(descriptor), operandValue, compareOp, dynamicMessage, byteArrayComparable);
+    } else if (this.matchOp == MatchOp.MATCH_IN
+            || this.matchOp == MatchOp.MATCH_BETWEEN
+            || this.matchOp == MatchOp.MATCH_IN_APPROXIMATE
+            || this.matchOp == MatchOp.MATCH_STRING
+            || this.matchOp == MatchOp.MATCH_BITS) {
+      FieldPath fieldPath = getFieldPath(descriptor);
+      return matchValue(fieldPath, fieldPath.extract(dynamicMessage));
+    } else if (this.matchOp.isElementwise()) {
+      return matchElements(descriptor, dynamicMessage);
+    } else if (this.matchOp == MatchOp.MATCH_FIELD) {
+      return matchFields(descriptor, dynamicMessage);
+    } else if (this.matchOp == MatchOp.MATCH_HASH) {
+      // A path selecting several values is hashed by the first.
+      FieldPath fieldPath = getFieldPath(descriptor);
+      return matchHash(fieldPath, hashBucket, fieldPath.extract(dynamicMessage));
+    } else if (this.matchOp == MatchOp.MATCH_PRESENT) {
+      return getFieldPath(descriptor).isSetIn(dynamicMessage) != (compareOp == CompareOp.NOT_EQUAL);
     } else {
-      DynamicMessage operandMessage = getOperandMessage(descriptor);
+      Message operandMessage = getOperandMessage(descriptor);
+      if (this.matchOp.isExact()) {
+        return isExactMatch(operandFields, dynamicMessage) == (this.matchOp == MatchOp.MATCH_EXACT);
+      }
       return matchMessages(operandMessage, dynamicMessage, matchOp);
     }
   }
 
+  /**
+   * An exact match means both messages set the same fields to equal values,
+   * so the field maps are compared directly. Map equality gives up on a
+   * different number of fields before comparing any values.
+   */
+  private static boolean isExactMatch(Map<Descriptors.FieldDescriptor, Object> operandFields, Message value) {
+    return value.getAllFields().equals(operandFields);
+  }
+
   @VisibleForTesting
-  static boolean matchMessages(DynamicMessage operand, DynamicMessage value, MatchOp matchOp) {
+  static boolean matchMessages(Message operand, Message value, MatchOp matchOp) {
     Map<String, Object> valueFields = Maps.newHashMap();
 
     for (Map.Entry<Descriptors.FieldDescriptor, Object> field : value.getAllFields().entrySet()) {
@@ -317,46 +845,297 @@ public class ProtobufColumnValueFilter extends FilterBase {
     }
   }
 
-  private DynamicMessage getOperandMessage(Descriptor descriptor) {
+  private Message getOperandMessage(Descriptor descriptor) {
     if (operandMessage == null) {
-      try {
-        operandMessage = DynamicMessage.parseFrom(descriptor, operandMessageBytes);
-      } catch (InvalidProtocolBufferException e) {
-        throw Throwables.propagate(e);
-      }
+      operandMessage = getMessage(descriptor, operandMessageBytes, 0, operandMessageBytes.length);
+      operandFields = operandMessage.getAllFields();
     }
     return operandMessage;
   }
 
-  private static boolean interpretCompareResult(CompareOp compareOp, int compareResult) {
-    switch (compareOp) {
-      case LESS:
-        return compareResult < 0;
-      case LESS_OR_EQUAL:
-        return compareResult <= 0;
-      case EQUAL:
-        return compareResult == 0;
-      case NOT_EQUAL:
-        return compareResult != 0;
-      case GREATER_OR_EQUAL:
-        return compareResult >= 0;
-      case GREATER:
-        return compareResult > 0;
-      default:
-        throw new RuntimeException("Unknown Compare op " + compareOp.name());
-    }
-  }
-
-  private DynamicMessage getMessage(Descriptor descriptor, byte[] data,
-                                    int offset, int length) {
+  /**
+   * Parses a cell with the generated class if the region server has a
+   * matching one, which {@link #getDescriptor} then also returned.
+   */
+  private Message getMessage(Descriptor descriptor, byte[] data,
+                             int offset, int length) {
     try {
+      Optional<Message> prototype = getGeneratedPrototype();
+      if (prototype.isPresent()) {
+        return prototype.get().newBuilderForType().mergeFrom(data, offset, length).build();
+      }
       return DynamicMessage.parseFrom(descriptor, ByteSource.wrap(data).slice(offset, length).openBufferedStream());
     } catch (Exception e) {
       throw Throwables.propagate(e);
     }
   }
 
+  private FieldPath getFieldPath(Descriptor descriptor) {
+    if (fieldPath == null) {
+      fieldPath = FieldPathCache.INSTANCE.cachedCompile(new ProtobufKey(messageName, descriptorHash), descriptor, operandFieldSpec);
+    }
+    return fieldPath;
+  }
+
+  private FieldPath getComparedFieldPath(Descriptor descriptor) {
+    if (comparedFieldPath == null) {
+      comparedFieldPath = FieldPathCache.INSTANCE.cachedCompile(new ProtobufKey(messageName, descriptorHash), descriptor, comparedFieldSpec);
+    }
+    return comparedFieldPath;
+  }
+
+  private Optional<WirePredicate> getFieldComparison(Descriptor descriptor) {
+    if (fieldComparison == null) {
+      fieldComparison = FieldComparison.predicateFor(getFieldPath(descriptor), compareOp, getComparedFieldPath(descriptor));
+    }
+    return fieldComparison;
+  }
+
+  private Optional<EncodedPattern> getEncodedPattern(FieldPath fieldPath) {
+    if (encodedPattern == null) {
+      if (byteArrayComparable != null || operandValue == null) {
+        encodedPattern = Optional.absent();
+      } else {
+        encodedPattern = EncodedPattern.forEquality(fieldPath, compareOp, operandValue);
+      }
+    }
+    return encodedPattern;
+  }
+
+  private Optional<WirePredicate> getCompiledPredicate(FieldPath fieldPath) {
+    if (compiledPredicate != null) {
+      return compiledPredicate;
+    }
+    if (byteArrayComparable != null || operandValue == null) {
+      compiledPredicate = Optional.absent();
+      return compiledPredicate;
+    }
+
+    ProtobufKey protobufKey = new ProtobufKey(messageName, descriptorHash);
+    if (interpretedCells == 0) {
+      Optional<WirePredicate> existing = PredicateCompiler.INSTANCE.getIfCompiled(protobufKey, fieldPath, compareOp, operandValue);
+      if (existing.isPresent()) {
+        compiledPredicate = existing;
+        return compiledPredicate;
+      }
+    }
+    if (++interpretedCells >= PredicateCompiler.COMPILE_THRESHOLD) {
+      compiledPredicate = PredicateCompiler.INSTANCE.cachedCompile(protobufKey, fieldPath, compareOp, operandValue);
+      return compiledPredicate;
+    }
+    return Optional.absent();
+  }
+
+  private Optional<FieldPredicate> getSetPredicate(FieldPath fieldPath) {
+    if (setPredicate == null) {
+      setPredicate = SetPredicate.forOperand(fieldPath, compareOp, operandSet);
+    }
+    return setPredicate;
+  }
+
+  private ExpressionPredicate getExpressionPredicate(Descriptor descriptor) {
+    if (expressionPredicate == null) {
+      expressionPredicate = new ExpressionPredicate(toExpressionNode(descriptor));
+    }
+    return expressionPredicate;
+  }
+
+  private ExpressionPredicate.Node toExpressionNode(Descriptor descriptor) {
+    if (matchOp.isExpression()) {
+      List<ExpressionPredicate.Node> nodes = Lists.newArrayListWithCapacity(operands.size());
+      for (ProtobufColumnValueFilter operand : operands) {
+        nodes.add(operand.toExpressionNode(descriptor));
+      }
+      if (matchOp == MatchOp.MATCH_ALL_OF) {
+        return ExpressionPredicate.allOf(nodes);
+      } else if (matchOp == MatchOp.MATCH_ANY_OF) {
+        return ExpressionPredicate.anyOf(nodes);
+      } else {
+        return ExpressionPredicate.noneOf(nodes);
+      }
+    }
+    Optional<FieldPredicate> fieldPredicate = getFieldPredicate(descriptor);
+    if (fieldPredicate.isPresent()) {
+      return ExpressionPredicate.field(fieldPredicate.get());
+    }
+    return ExpressionPredicate.cell(new WirePredicate() {
+      @Override
+      public boolean test(byte[] buf, int offset, int length) {
+        return keepColumnValue(buf, offset, length);
+      }
+    });
+  }
+
+  /**
+   * The predicate as a test of its field's extracted value, if it is one.
+   */
+  private Optional<FieldPredicate> getFieldPredicate(Descriptor descriptor) {
+    if (!testsFieldValue() || !getFieldPath(descriptor).isWireReadable()) {
+      return Optional.absent();
+    }
+    return getFieldPredicate(getFieldPath(descriptor));
+  }
+
+  private Optional<FieldPredicate> getFieldPredicate(FieldPath fieldPath) {
+    switch (matchOp) {
+      case MATCH_SCALAR:
+        return fieldPath.isResolved() ? getScalarPredicate(fieldPath) : Optional.<FieldPredicate>absent();
+      case MATCH_IN:
+        return getSetPredicate(fieldPath);
+      case MATCH_IN_APPROXIMATE:
+        return getBloomPredicate(fieldPath);
+      case MATCH_BETWEEN:
+        return getRangePredicate(fieldPath);
+      case MATCH_STRING:
+        return getStringPredicate(fieldPath);
+      case MATCH_BITS:
+        return getBitMaskPredicate(fieldPath);
+      default:
+        return Optional.absent();
+    }
+  }
+
+  private Optional<WirePredicate> getRepeatedPredicate(Descriptor descriptor) {
+    if (repeatedPredicate == null) {
+      ProtobufColumnValueFilter element = operands.get(0);
+      FieldPath fieldPath = element.getFieldPath(descriptor);
+      if (!fieldPath.isWalkable()) {
+        repeatedPredicate = Optional.absent();
+      } else if (matchOp == MatchOp.MATCH_ELEMENT_COUNT) {
+        repeatedPredicate = Optional.<WirePredicate>of(element.toCountPredicate(fieldPath));
+      } else {
+        Optional<FieldPredicate> elementPredicate = element.getFieldPredicate(fieldPath.getElementPath());
+        if (!elementPredicate.isPresent()) {
+          repeatedPredicate = Optional.absent();
+        } else if (matchOp == MatchOp.MATCH_ANY_ELEMENT) {
+          repeatedPredicate = Optional.<WirePredicate>of(RepeatedPredicate.anyElement(fieldPath, elementPredicate.get()));
+        } else {
+          repeatedPredicate = Optional.<WirePredicate>of(RepeatedPredicate.allElements(fieldPath, elementPredicate.get()));
+        }
+      }
+    }
+    return repeatedPredicate;
+  }
+
+  /**
+   * Whether the field is only reachable through repeated fields, but can
+   * still be read off the wire.
+   */
+  private static boolean isWalkedPath(FieldPath fieldPath) {
+    return fieldPath.isWalkable() && !fieldPath.isWireReadable();
+  }
+
+  /**
+   * Tests the values a path through repeated fields selects: a path that can
+   * select several passes if any of them does, and one that selects at most
+   * one is tested like a singular field.
+   */
+  private Optional<WirePredicate> getPathPredicate(FieldPath fieldPath) {
+    if (repeatedPredicate == null) {
+      Optional<FieldPredicate> elementPredicate = getFieldPredicate(fieldPath.getElementPath());
+      if (!elementPredicate.isPresent()) {
+        repeatedPredicate = Optional.absent();
+      } else if (fieldPath.isMultiValued()) {
+        repeatedPredicate = Optional.<WirePredicate>of(RepeatedPredicate.anyElement(fieldPath, elementPredicate.get()));
+      } else {
+        repeatedPredicate = Optional.<WirePredicate>of(RepeatedPredicate.singleValue(fieldPath, elementPredicate.get()));
+      }
+    }
+    return repeatedPredicate;
+  }
+
+  private RepeatedPredicate toCountPredicate(FieldPath fieldPath) {
+    if (matchOp == MatchOp.MATCH_BETWEEN) {
+      return RepeatedPredicate.elementCountBetween(fieldPath, integralOperand(operandValue),
+              integralOperand(rangeOperand.getUpper()), rangeOperand.getInclusivity());
+    }
+    return RepeatedPredicate.elementCount(fieldPath, compareOp, integralOperand(operandValue));
+  }
+
+  private static long integralOperand(DynamicValue operand) {
+    return operand.getTypeValue() == DynamicValue.Type.type_integer ? operand.getValueInteger() : operand.getValueLong();
+  }
+
+  private Optional<FieldPredicate> getRangePredicate(FieldPath fieldPath) {
+    if (rangePredicate == null) {
+      rangePredicate = RangePredicate.forBounds(fieldPath, operandValue,
+              rangeOperand.getUpper(), rangeOperand.getInclusivity());
+    }
+    return rangePredicate;
+  }
+
+  private Optional<FieldPredicate> getStringPredicate(FieldPath fieldPath) {
+    if (stringPredicate == null) {
+      stringPredicate = StringPredicate.forOperand(fieldPath, compareOp, stringPattern);
+    }
+    return stringPredicate;
+  }
+
+  private Optional<FieldPredicate> getBitMaskPredicate(FieldPath fieldPath) {
+    if (bitMaskPredicate == null) {
+      bitMaskPredicate = BitMaskPredicate.forOperand(fieldPath, bitMask);
+    }
+    return bitMaskPredicate;
+  }
+
+  private Optional<FieldPredicate> getHashPredicate(FieldPath fieldPath) {
+    if (hashPredicate == null) {
+      hashPredicate = HashPredicate.forOperand(fieldPath, hashBucket);
+    }
+    return hashPredicate;
+  }
+
+  private Optional<WirePredicate> getPresencePredicate(FieldPath fieldPath) {
+    if (presencePredicate == null) {
+      presencePredicate = PresencePredicate.forPath(fieldPath, compareOp == CompareOp.NOT_EQUAL);
+    }
+    return presencePredicate;
+  }
+
+  private Optional<FieldPredicate> getBloomPredicate(FieldPath fieldPath) {
+    if (bloomPredicate == null) {
+      bloomPredicate = BloomPredicate.forOperand(fieldPath, compareOp, bloomSpec);
+    }
+    return bloomPredicate;
+  }
+
+  private Optional<FieldPredicate> getScalarPredicate(FieldPath fieldPath) {
+    if (scalarPredicate == null) {
+      if (byteArrayComparable != null) {
+        scalarPredicate = ScalarPredicate.forComparable(fieldPath, compareOp, byteArrayComparable);
+      } else if (operandValue == null) {
+        scalarPredicate = Optional.absent();
+      } else {
+        scalarPredicate = ScalarPredicate.forOperand(fieldPath, compareOp, operandValue);
+      }
+    }
+    return scalarPredicate;
+  }
+
+  private Optional<MessageMatcher> getMessageMatcher(Descriptor descriptor) {
+    if (messageMatcher == null) {
+      messageMatcher = MessageMatcher.compile(descriptor, operandMessageBytes, matchOp);
+    }
+    return messageMatcher;
+  }
+
+  private Optional<Message> getGeneratedPrototype() {
+    if (generatedPrototype == null) {
+      generatedPrototype = GeneratedMessageCache.INSTANCE.cachedPrototype(messageName, descriptorHash);
+    }
+    return generatedPrototype;
+  }
+
+  /**
+   * The descriptor of the generated class if the region server has a
+   * matching one, so paths resolve to fields its messages accept, and
+   * otherwise the shipped descriptor.
+   */
   private Descriptor getDescriptor() {
+    Optional<Message> prototype = getGeneratedPrototype();
+    if (prototype.isPresent()) {
+      return prototype.get().getDescriptorForType();
+    }
     try {
       return ServerDescriptorCache.INSTANCE.cachedDescriptorLoad(messageName, descriptorHash, descriptorBytes);
     } catch (Descriptors.DescriptorValidationException e) {
@@ -377,5 +1156,44 @@ public class ProtobufColumnValueFilter extends FilterBase {
 
   void setDescriptorBytes(byte[] descriptorBytes) {
     this.descriptorBytes = descriptorBytes;
+    if (operands != null) {
+      for (ProtobufColumnValueFilter operand : operands) {
+        operand.setDescriptorBytes(descriptorBytes);
+      }
+    }
+  }
+
+  /**
+   * Whether the filter tests one field's value, so it can be applied to each
+   * element of a repeated field.
+   */
+  boolean testsFieldValue() {
+    return matchOp == MatchOp.MATCH_SCALAR || matchOp == MatchOp.MATCH_IN
+            || matchOp == MatchOp.MATCH_IN_APPROXIMATE || matchOp == MatchOp.MATCH_BETWEEN
+            || matchOp == MatchOp.MATCH_STRING || matchOp == MatchOp.MATCH_BITS;
+  }
+
+  /**
+   * Whether the filter compares a field to whole numbers, so it can be applied
+   * to a count instead.
+   */
+  boolean comparesToIntegral() {
+    if (byteArrayComparable != null || operandValue == null) {
+      return false;
+    } else if (matchOp == MatchOp.MATCH_SCALAR) {
+      return isIntegral(operandValue);
+    } else {
+      return matchOp == MatchOp.MATCH_BETWEEN && isIntegral(operandValue) && isIntegral(rangeOperand.getUpper());
+    }
+  }
+
+  private static boolean isIntegral(DynamicValue operand) {
+    return operand.getTypeValue() == DynamicValue.Type.type_integer
+            || operand.getTypeValue() == DynamicValue.Type.type_long;
+  }
+
+  boolean isOnColumn(byte[] columnFamily, byte[] columnQualifier, String messageName) {
+    return Bytes.equals(this.columnFamily, columnFamily) && Bytes.equals(this.columnQualifier, columnQualifier)
+            && equal(this.messageName, messageName);
   }
 }
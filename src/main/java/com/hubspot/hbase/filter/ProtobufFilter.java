@@ -1,16 +1,27 @@
 package com.hubspot.hbase.filter;
 
+import com.google.common.collect.Lists;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import com.google.protobuf.ProtocolMessageEnum;
 import com.hubspot.hbase.filter.client.ClientDescriptorCache;
+import com.hubspot.hbase.filter.models.BitMask;
+import com.hubspot.hbase.filter.models.BloomSpec;
+import com.hubspot.hbase.filter.models.HashBucket;
+import com.hubspot.hbase.filter.models.Inclusivity;
 import com.hubspot.hbase.filter.models.MatchOp;
+import com.hubspot.hbase.filter.models.OperandSet;
+import com.hubspot.hbase.filter.models.RangeOperand;
+import com.hubspot.hbase.filter.models.RelativeTime;
+import com.hubspot.hbase.filter.models.StringPattern;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.WritableByteArrayComparable;
 
 import java.io.IOException;
+import java.util.List;
 
 import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
 import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue.Type;
@@ -39,6 +50,15 @@ public class ProtobufFilter {
     private String operandFieldSpec;
     private DynamicValue operandValue;
     private byte[] operandMessageBytes;
+    private OperandSet operandSet;
+    private BloomSpec bloomSpec;
+    private RangeOperand rangeOperand;
+    private List<ProtobufColumnValueFilter> operands;
+    private String comparedFieldSpec;
+    private RelativeTime relativeTime;
+    private StringPattern stringPattern;
+    private BitMask bitMask;
+    private HashBucket hashBucket;
     private String messageName;
     private long descriptorHash;
     private byte[] descriptorBytes;
@@ -58,7 +78,8 @@ public class ProtobufFilter {
       return new ProtobufColumnValueFilter(
               descriptorBytes, descriptorHash, messageName, operandMessageBytes,
               operandValue, operandFieldSpec, latestVersionOnly, filterIfMissing,
-              matchOp, compareOp, columnQualifier, columnFamily, comparable);
+              matchOp, compareOp, columnQualifier, columnFamily, comparable, operandSet, bloomSpec, rangeOperand, operands,
+              comparedFieldSpec, relativeTime, stringPattern, bitMask, hashBucket);
     }
 
     public Builder<T> filterIfMissing(boolean filterIfMissing) {
@@ -96,6 +117,7 @@ public class ProtobufFilter {
     }
 
     public Filter hasFieldByteComparableTo(String fieldSpec, WritableByteArrayComparable comparable, CompareOp compareOp) {
+      clearOperands();
       this.operandFieldSpec = fieldSpec;
       this.compareOp = compareOp;
       this.comparable = comparable;
@@ -160,10 +182,7 @@ public class ProtobufFilter {
     }
 
     public Filter hasFieldEqualTo(String fieldSpec, Enum<?> value) {
-      operandValue = DynamicValue.newBuilder()
-              .setTypeValue(Type.type_string)
-              .setValueString(value.name())
-              .build();
+      operandValue = enumValue(value);
       return setCompareOp(fieldSpec, CompareOp.EQUAL);
     }
 
@@ -224,10 +243,7 @@ public class ProtobufFilter {
     }
 
     public Filter hasFieldNotEqualTo(String fieldSpec, Enum<?> value) {
-      operandValue = DynamicValue.newBuilder()
-              .setTypeValue(Type.type_string)
-              .setValueString(value.name())
-              .build();
+      operandValue = enumValue(value);
       return setCompareOp(fieldSpec, CompareOp.NOT_EQUAL);
     }
 
@@ -287,6 +303,21 @@ public class ProtobufFilter {
       return setCompareOp(fieldSpec, CompareOp.LESS);
     }
 
+    public Filter hasFieldLessThan(String fieldSpec, Enum<?> value) {
+      operandValue = enumValue(value);
+      return setCompareOp(fieldSpec, CompareOp.LESS);
+    }
+
+    /**
+     * Compares a whole number timestamp field to a time relative to the region
+     * server's clock, resolved once per scanner: {@code
+     * hasFieldGreaterThanOrEqualTo("last_seen_ms", RelativeTime.ago(7, TimeUnit.DAYS))}
+     * matches rows seen in the last week.
+     */
+    public Filter hasFieldLessThan(String fieldSpec, RelativeTime value) {
+      return setRelativeTime(fieldSpec, value, CompareOp.LESS);
+    }
+
     public Filter hasFieldLessThanOrEqualTo(String fieldSpec, int value) {
       operandValue = DynamicValue.newBuilder()
               .setTypeValue(Type.type_integer)
@@ -343,6 +374,15 @@ public class ProtobufFilter {
       return setCompareOp(fieldSpec, CompareOp.LESS_OR_EQUAL);
     }
 
+    public Filter hasFieldLessThanOrEqualTo(String fieldSpec, Enum<?> value) {
+      operandValue = enumValue(value);
+      return setCompareOp(fieldSpec, CompareOp.LESS_OR_EQUAL);
+    }
+
+    public Filter hasFieldLessThanOrEqualTo(String fieldSpec, RelativeTime value) {
+      return setRelativeTime(fieldSpec, value, CompareOp.LESS_OR_EQUAL);
+    }
+
     public Filter hasFieldGreaterThan(String fieldSpec, int value) {
       operandValue = DynamicValue.newBuilder()
               .setTypeValue(Type.type_integer)
@@ -399,6 +439,15 @@ public class ProtobufFilter {
       return setCompareOp(fieldSpec, CompareOp.GREATER);
     }
 
+    public Filter hasFieldGreaterThan(String fieldSpec, Enum<?> value) {
+      operandValue = enumValue(value);
+      return setCompareOp(fieldSpec, CompareOp.GREATER);
+    }
+
+    public Filter hasFieldGreaterThan(String fieldSpec, RelativeTime value) {
+      return setRelativeTime(fieldSpec, value, CompareOp.GREATER);
+    }
+
     public Filter hasFieldGreaterThanOrEqualTo(String fieldSpec, int value) {
       operandValue = DynamicValue.newBuilder()
               .setTypeValue(Type.type_integer)
@@ -455,20 +504,486 @@ public class ProtobufFilter {
       return setCompareOp(fieldSpec, CompareOp.GREATER_OR_EQUAL);
     }
 
+    public Filter hasFieldGreaterThanOrEqualTo(String fieldSpec, Enum<?> value) {
+      operandValue = enumValue(value);
+      return setCompareOp(fieldSpec, CompareOp.GREATER_OR_EQUAL);
+    }
+
+    public Filter hasFieldGreaterThanOrEqualTo(String fieldSpec, RelativeTime value) {
+      return setRelativeTime(fieldSpec, value, CompareOp.GREATER_OR_EQUAL);
+    }
+
+    /**
+     * Matches rows where the enum field is one of {@code values}. Values are
+     * sent and compared by number.
+     */
+    public Filter hasFieldIn(String fieldSpec, Enum<?>... values) {
+      return setOperandSet(fieldSpec, enumNumbers(values), CompareOp.EQUAL);
+    }
+
+    public Filter hasFieldNotIn(String fieldSpec, Enum<?>... values) {
+      return setOperandSet(fieldSpec, enumNumbers(values), CompareOp.NOT_EQUAL);
+    }
+
+    /**
+     * Matches rows where the integral field is one of {@code values}. The set
+     * is sent once and checked with a single hash lookup per row, which is far
+     * cheaper than an OR of equality filters.
+     */
+    public Filter hasFieldIn(String fieldSpec, long... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofNumbers(values), CompareOp.EQUAL);
+    }
+
+    public Filter hasFieldIn(String fieldSpec, int... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofNumbers(values), CompareOp.EQUAL);
+    }
+
+    public Filter hasFieldIn(String fieldSpec, String... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofStrings(values), CompareOp.EQUAL);
+    }
+
+    public Filter hasFieldIn(String fieldSpec, byte[]... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofBytes(values), CompareOp.EQUAL);
+    }
+
+    public Filter hasFieldNotIn(String fieldSpec, long... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofNumbers(values), CompareOp.NOT_EQUAL);
+    }
+
+    public Filter hasFieldNotIn(String fieldSpec, int... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofNumbers(values), CompareOp.NOT_EQUAL);
+    }
+
+    public Filter hasFieldNotIn(String fieldSpec, String... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofStrings(values), CompareOp.NOT_EQUAL);
+    }
+
+    public Filter hasFieldNotIn(String fieldSpec, byte[]... values) {
+      return setOperandSet(fieldSpec, OperandSet.ofBytes(values), CompareOp.NOT_EQUAL);
+    }
+
+    /**
+     * Matches rows passing all of {@code filters}, which must have been built
+     * for this column and message. The whole expression is a single filter: the
+     * region server reads every field it names in one pass over the value, then
+     * evaluates it, stopping as soon as the result is known. Expressions nest,
+     * so {@code or(and(a, b), not(c))} is one filter too.
+     */
+    public Filter and(Filter... filters) {
+      return setExpression(MatchOp.MATCH_ALL_OF, filters);
+    }
+
+    public Filter or(Filter... filters) {
+      return setExpression(MatchOp.MATCH_ANY_OF, filters);
+    }
+
+    public Filter not(Filter filter) {
+      return setExpression(MatchOp.MATCH_NONE_OF, filter);
+    }
+
+    /**
+     * Matches rows where some element of a repeated field passes
+     * {@code filter}, a comparison, set or range filter on that field built for
+     * this column and message. The elements are tested as they are read, and
+     * reading stops at the first one that passes.
+     */
+    public Filter anyElement(Filter filter) {
+      return setElementwise(MatchOp.MATCH_ANY_ELEMENT, filter);
+    }
+
+    /**
+     * Matches rows where every element of a repeated field passes
+     * {@code filter}, including rows where the field is empty.
+     */
+    public Filter allElements(Filter filter) {
+      return setElementwise(MatchOp.MATCH_ALL_ELEMENTS, filter);
+    }
+
+    /**
+     * Matches rows where the number of elements of a repeated field passes
+     * {@code filter}, a comparison or range filter on that field with whole
+     * number operands. {@code elementCount(b.hasFieldGreaterThan("tags", 2))}
+     * matches rows with more than two tags.
+     */
+    public Filter elementCount(Filter filter) {
+      ProtobufColumnValueFilter elementFilter = toElementFilter(filter);
+      if (!elementFilter.comparesToIntegral()) {
+        throw new IllegalArgumentException("Element counts can only be compared to whole numbers: " + filter);
+      }
+      return setElementwise(MatchOp.MATCH_ELEMENT_COUNT, filter);
+    }
+
+    /**
+     * Matches rows where the field equals another field of the same message,
+     * as in {@code hasFieldEqualToField("updated_at", "created_at")}. Both
+     * fields are read in one pass over the cell. Integral fields compare as
+     * whole numbers whatever their width, and compare to floating point
+     * fields as doubles; other types only compare to their own type. A row
+     * missing either field only passes {@link #hasFieldNotEqualToField}.
+     */
+    public Filter hasFieldEqualToField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.EQUAL, otherFieldSpec);
+    }
+
+    public Filter hasFieldNotEqualToField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.NOT_EQUAL, otherFieldSpec);
+    }
+
+    public Filter hasFieldLessThanField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.LESS, otherFieldSpec);
+    }
+
+    public Filter hasFieldLessThanOrEqualToField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.LESS_OR_EQUAL, otherFieldSpec);
+    }
+
+    public Filter hasFieldGreaterThanField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.GREATER, otherFieldSpec);
+    }
+
+    public Filter hasFieldGreaterThanOrEqualToField(String fieldSpec, String otherFieldSpec) {
+      return setFieldComparison(fieldSpec, CompareOp.GREATER_OR_EQUAL, otherFieldSpec);
+    }
+
+    /**
+     * Matches rows where the field lies between {@code lower} and
+     * {@code upper}, with {@code inclusivity} saying which bounds are part of
+     * the range. The field is extracted once and compared to both bounds,
+     * rather than twice as with a list of two comparisons.
+     */
+    public Filter hasFieldBetween(String fieldSpec, int lower, int upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_integer).setValueInteger(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_integer).setValueInteger(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, long lower, long upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_long).setValueLong(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_long).setValueLong(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, float lower, float upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_float).setValueFloat(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_float).setValueFloat(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, double lower, double upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_double).setValueDouble(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_double).setValueDouble(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, String lower, String upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_string).setValueString(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_string).setValueString(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, boolean lower, boolean upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_bool).setValueBool(lower).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_bool).setValueBool(upper).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, byte[] lower, byte[] upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec,
+              DynamicValue.newBuilder().setTypeValue(Type.type_bytes).setValueBytes(ByteString.copyFrom(lower)).build(),
+              DynamicValue.newBuilder().setTypeValue(Type.type_bytes).setValueBytes(ByteString.copyFrom(upper)).build(),
+              inclusivity);
+    }
+
+    public Filter hasFieldBetween(String fieldSpec, Enum<?> lower, Enum<?> upper, Inclusivity inclusivity) {
+      return setRange(fieldSpec, enumValue(lower), enumValue(upper), inclusivity);
+    }
+
+    /**
+     * Matches rows where the field may be in the set summarized by
+     * {@code bloomSpec}, for sets too large to send with {@link #hasFieldIn}.
+     * Rows whose value isn't in the set still pass at about the filter's false
+     * positive rate, so re-check the returned rows against the exact set.
+     */
+    public Filter hasFieldInApproximate(String fieldSpec, BloomSpec bloomSpec) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.bloomSpec = bloomSpec;
+      this.matchOp = MatchOp.MATCH_IN_APPROXIMATE;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    /**
+     * Matches rows where the string or bytes field starts with
+     * {@code prefix}. The field's UTF-8 is matched in place, without decoding
+     * it as comparators do.
+     */
+    public Filter hasFieldStartingWith(String fieldSpec, String prefix) {
+      return hasFieldMatching(fieldSpec, StringPattern.startsWith(prefix));
+    }
+
+    public Filter hasFieldEndingWith(String fieldSpec, String suffix) {
+      return hasFieldMatching(fieldSpec, StringPattern.endsWith(suffix));
+    }
+
+    public Filter hasFieldContaining(String fieldSpec, String substring) {
+      return hasFieldMatching(fieldSpec, StringPattern.contains(substring));
+    }
+
+    /**
+     * Matches rows where the field contains any of {@code substrings}. They
+     * are all looked for in a single pass over the field.
+     */
+    public Filter hasFieldContainingAny(String fieldSpec, String... substrings) {
+      return hasFieldMatching(fieldSpec, StringPattern.contains(substrings));
+    }
+
+    /**
+     * Matches rows where the string or bytes field contains a match for
+     * {@code regex}, like {@code RegexStringComparator} but compiled once per
+     * filter and run on the field's UTF-8 without first copying it out.
+     * Fields lacking the literal text a match must start with are rejected
+     * without running the regex, so regexes that start with literal text, like
+     * {@code "^user-[0-9]+$"}, are cheapest.
+     */
+    public Filter hasFieldMatching(String fieldSpec, String regex) {
+      return hasFieldMatching(fieldSpec, StringPattern.regex(regex));
+    }
+
+    /**
+     * Matches rows where the field matches {@code pattern}, for patterns
+     * ignoring case or with several prefixes or suffixes. A row missing the
+     * field, or whose field isn't a string or bytes field, doesn't match.
+     */
+    public Filter hasFieldMatching(String fieldSpec, StringPattern pattern) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.stringPattern = pattern;
+      this.matchOp = MatchOp.MATCH_STRING;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    /**
+     * Matches rows where the integral field has every bit of {@code mask}
+     * set, testing the decoded value with a single AND. An int mask stands for
+     * its 32 bits, as a 32-bit field's value does, so
+     * {@code hasAllBitsSet("flags", 0x80000000)} tests the field's top bit.
+     * A row missing the field matches none of the bit tests.
+     */
+    public Filter hasAllBitsSet(String fieldSpec, long mask) {
+      return setBitMask(fieldSpec, new BitMask(BitMask.Kind.ALL_SET, mask));
+    }
+
+    public Filter hasAllBitsSet(String fieldSpec, int mask) {
+      return hasAllBitsSet(fieldSpec, mask & 0xffffffffL);
+    }
+
+    public Filter hasAnyBitsSet(String fieldSpec, long mask) {
+      return setBitMask(fieldSpec, new BitMask(BitMask.Kind.ANY_SET, mask));
+    }
+
+    public Filter hasAnyBitsSet(String fieldSpec, int mask) {
+      return hasAnyBitsSet(fieldSpec, mask & 0xffffffffL);
+    }
+
+    public Filter hasNoBitsSet(String fieldSpec, long mask) {
+      return setBitMask(fieldSpec, new BitMask(BitMask.Kind.NONE_SET, mask));
+    }
+
+    public Filter hasNoBitsSet(String fieldSpec, int mask) {
+      return hasNoBitsSet(fieldSpec, mask & 0xffffffffL);
+    }
+
+    /**
+     * Matches rows where the field is set, rather than missing or defaulted.
+     * Along a path every message must be set, and each repeated field must
+     * have the element the path selects: {@code hasField("tags")} matches rows
+     * with any tags, and {@code hasField("tags[2]")} those with at least three.
+     * The answer comes from the cell's tags alone, without decoding the values.
+     */
+    public Filter hasField(String fieldSpec) {
+      return setPresence(fieldSpec, CompareOp.EQUAL);
+    }
+
+    public Filter lacksField(String fieldSpec) {
+      return setPresence(fieldSpec, CompareOp.NOT_EQUAL);
+    }
+
+    /**
+     * Matches rows whose field hashes to {@code bucket} of {@code buckets},
+     * so that parallel scans, each given its own bucket, split a table between
+     * them on the region servers. The field is hashed with murmur3, by value
+     * for numbers and as UTF-8 for strings. Rows missing the column or the
+     * field, or where it holds a message, all fall in bucket 0 whatever
+     * {@link #filterIfMissing} says, so the buckets together cover every row
+     * exactly once. A path selecting several values is hashed by the first.
+     */
+    public Filter hashModulo(String fieldSpec, int buckets, int bucket) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.hashBucket = new HashBucket(buckets, bucket);
+      this.matchOp = MatchOp.MATCH_HASH;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    /**
+     * Enums are sent by name, which older servers compare, and by number when
+     * the value is a protobuf enum, which is what's compared when present.
+     */
+    private static DynamicValue enumValue(Enum<?> value) {
+      DynamicValue.Builder builder = DynamicValue.newBuilder()
+              .setTypeValue(Type.type_string)
+              .setValueString(value.name());
+      if (value instanceof ProtocolMessageEnum) {
+        builder.setValueInteger(((ProtocolMessageEnum) value).getNumber());
+      }
+      return builder.build();
+    }
+
+    private static OperandSet enumNumbers(Enum<?>... values) {
+      long[] numbers = new long[values.length];
+      for (int i = 0; i < values.length; ++i) {
+        if (!(values[i] instanceof ProtocolMessageEnum)) {
+          throw new IllegalArgumentException(values[i].getDeclaringClass().getName() + " is not a protobuf enum");
+        }
+        numbers[i] = ((ProtocolMessageEnum) values[i]).getNumber();
+      }
+      return OperandSet.ofNumbers(numbers);
+    }
+
+    private Filter setExpression(MatchOp matchOp, Filter... filters) {
+      List<ProtobufColumnValueFilter> operands = Lists.newArrayListWithCapacity(filters.length);
+      for (Filter filter : filters) {
+        if (!(filter instanceof ProtobufColumnValueFilter)
+                || !((ProtobufColumnValueFilter) filter).isOnColumn(columnFamily, columnQualifier, messageName)) {
+          throw new IllegalArgumentException("Expressions can only combine filters on the same column and message: " + filter);
+        }
+        operands.add((ProtobufColumnValueFilter) filter);
+      }
+      clearOperands();
+      this.operands = operands;
+      this.matchOp = matchOp;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    private Filter setElementwise(MatchOp matchOp, Filter filter) {
+      clearOperands();
+      this.operands = Lists.newArrayList(toElementFilter(filter));
+      this.matchOp = matchOp;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    private ProtobufColumnValueFilter toElementFilter(Filter filter) {
+      if (!(filter instanceof ProtobufColumnValueFilter)
+              || !((ProtobufColumnValueFilter) filter).isOnColumn(columnFamily, columnQualifier, messageName)
+              || !((ProtobufColumnValueFilter) filter).testsFieldValue()) {
+        throw new IllegalArgumentException("Elements can only be tested by a field filter on the same column and message: " + filter);
+      }
+      return (ProtobufColumnValueFilter) filter;
+    }
+
+    private Filter setRange(String fieldSpec, DynamicValue lower, DynamicValue upper, Inclusivity inclusivity) {
+      clearOperands();
+      this.operandValue = lower;
+      this.operandFieldSpec = fieldSpec;
+      this.rangeOperand = new RangeOperand(upper, inclusivity);
+      this.matchOp = MatchOp.MATCH_BETWEEN;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    private Filter setFieldComparison(String fieldSpec, CompareOp compareOp, String otherFieldSpec) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.comparedFieldSpec = otherFieldSpec;
+      this.matchOp = MatchOp.MATCH_FIELD;
+      this.compareOp = compareOp;
+      return build();
+    }
+
+    private Filter setRelativeTime(String fieldSpec, RelativeTime relativeTime, CompareOp compareOp) {
+      clearOperands();
+      // The client's resolution only stands in until the server resolves its own.
+      this.operandValue = relativeTime.toOperand(System.currentTimeMillis());
+      this.operandFieldSpec = fieldSpec;
+      this.relativeTime = relativeTime;
+      this.matchOp = MatchOp.MATCH_SCALAR;
+      this.compareOp = compareOp;
+      return build();
+    }
+
+    private Filter setBitMask(String fieldSpec, BitMask bitMask) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.bitMask = bitMask;
+      this.matchOp = MatchOp.MATCH_BITS;
+      this.compareOp = CompareOp.EQUAL;
+      return build();
+    }
+
+    private Filter setPresence(String fieldSpec, CompareOp compareOp) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.matchOp = MatchOp.MATCH_PRESENT;
+      this.compareOp = compareOp;
+      return build();
+    }
+
+    private Filter setOperandSet(String fieldSpec, OperandSet operandSet, CompareOp compareOp) {
+      clearOperands();
+      this.operandFieldSpec = fieldSpec;
+      this.operandSet = operandSet;
+      this.matchOp = MatchOp.MATCH_IN;
+      this.compareOp = compareOp;
+      return build();
+    }
+
     private Filter setMatchOp(T matcher, MatchOp matchOp) {
-      this.operandValue = null;
+      clearOperands();
       this.operandMessageBytes = matcher.toByteArray();
       this.matchOp = matchOp;
       return build();
     }
 
     private Filter setCompareOp(String fieldSpec, CompareOp compareOp) {
-      this.comparable = null;
+      // The caller has just set the operand value.
+      DynamicValue operandValue = this.operandValue;
+      clearOperands();
+      this.operandValue = operandValue;
       this.operandFieldSpec = fieldSpec;
-      this.operandMessageBytes = null;
       this.matchOp = MatchOp.MATCH_SCALAR;
       this.compareOp = compareOp;
       return build();
     }
+
+    /**
+     * Forgets the operands of the previous filter built, so each setter only
+     * sets those its match op reads.
+     */
+    private void clearOperands() {
+      this.comparable = null;
+      this.operandValue = null;
+      this.operandFieldSpec = null;
+      this.operandMessageBytes = null;
+      this.operandSet = null;
+      this.bloomSpec = null;
+      this.rangeOperand = null;
+      this.operands = null;
+      this.comparedFieldSpec = null;
+      this.relativeTime = null;
+      this.stringPattern = null;
+      this.bitMask = null;
+      this.hashBucket = null;
+    }
   }
 }
@@ -398,6 +398,21 @@ public final class ExampleProtos {
     // optional int32 default_test = 12 [default = 5];
     boolean hasDefaultTest();
     int getDefaultTest();
+    
+    // optional group Metadata = 13 {
+    boolean hasMetadata();
+    com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata getMetadata();
+    com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder getMetadataOrBuilder();
+    
+    // repeated group Tag = 14 {
+    java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> 
+        getTagList();
+    com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag getTag(int index);
+    int getTagCount();
+    java.util.List<? extends com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder> 
+        getTagOrBuilderList();
+    com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder getTagOrBuilder(
+        int index);
   }
   public static final class ExampleProto extends
       com.google.protobuf.GeneratedMessage
@@ -482,64 +497,871 @@ public final class ExampleProtos {
           throw new java.lang.IllegalArgumentException(
             "EnumValueDescriptor is not for this type.");
         }
-        return VALUES[desc.getIndex()];
+        return VALUES[desc.getIndex()];
+      }
+      
+      private final int index;
+      private final int value;
+      
+      private TestEnum(int index, int value) {
+        this.index = index;
+        this.value = value;
+      }
+      
+      // @@protoc_insertion_point(enum_scope:com.hubspot.hbase.filter.example.ExampleProto.TestEnum)
+    }
+    
+    public interface InnerProtoOrBuilder
+        extends com.google.protobuf.MessageOrBuilder {
+      
+      // optional string name = 1;
+      boolean hasName();
+      String getName();
+    }
+    public static final class InnerProto extends
+        com.google.protobuf.GeneratedMessage
+        implements InnerProtoOrBuilder {
+      // Use InnerProto.newBuilder() to construct.
+      private InnerProto(Builder builder) {
+        super(builder);
+      }
+      private InnerProto(boolean noInit) {}
+      
+      private static final InnerProto defaultInstance;
+      public static InnerProto getDefaultInstance() {
+        return defaultInstance;
+      }
+      
+      public InnerProto getDefaultInstanceForType() {
+        return defaultInstance;
+      }
+      
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_descriptor;
+      }
+      
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_fieldAccessorTable;
+      }
+      
+      private int bitField0_;
+      // optional string name = 1;
+      public static final int NAME_FIELD_NUMBER = 1;
+      private java.lang.Object name_;
+      public boolean hasName() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      public String getName() {
+        java.lang.Object ref = name_;
+        if (ref instanceof String) {
+          return (String) ref;
+        } else {
+          com.google.protobuf.ByteString bs = 
+              (com.google.protobuf.ByteString) ref;
+          String s = bs.toStringUtf8();
+          if (com.google.protobuf.Internal.isValidUtf8(bs)) {
+            name_ = s;
+          }
+          return s;
+        }
+      }
+      private com.google.protobuf.ByteString getNameBytes() {
+        java.lang.Object ref = name_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8((String) ref);
+          name_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      
+      private void initFields() {
+        name_ = "";
+      }
+      private byte memoizedIsInitialized = -1;
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized != -1) return isInitialized == 1;
+        
+        memoizedIsInitialized = 1;
+        return true;
+      }
+      
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        getSerializedSize();
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          output.writeBytes(1, getNameBytes());
+        }
+        getUnknownFields().writeTo(output);
+      }
+      
+      private int memoizedSerializedSize = -1;
+      public int getSerializedSize() {
+        int size = memoizedSerializedSize;
+        if (size != -1) return size;
+      
+        size = 0;
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeBytesSize(1, getNameBytes());
+        }
+        size += getUnknownFields().getSerializedSize();
+        memoizedSerializedSize = size;
+        return size;
+      }
+      
+      private static final long serialVersionUID = 0L;
+      @java.lang.Override
+      protected java.lang.Object writeReplace()
+          throws java.io.ObjectStreamException {
+        return super.writeReplace();
+      }
+      
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        Builder builder = newBuilder();
+        if (builder.mergeDelimitedFrom(input)) {
+          return builder.buildParsed();
+        } else {
+          return null;
+        }
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        Builder builder = newBuilder();
+        if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+          return builder.buildParsed();
+        } else {
+          return null;
+        }
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input, extensionRegistry)
+                 .buildParsed();
+      }
+      
+      public static Builder newBuilder() { return Builder.create(); }
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto prototype) {
+        return newBuilder().mergeFrom(prototype);
+      }
+      public Builder toBuilder() { return newBuilder(this); }
+      
+      @java.lang.Override
+      protected Builder newBuilderForType(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        Builder builder = new Builder(parent);
+        return builder;
+      }
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessage.Builder<Builder>
+         implements com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProtoOrBuilder {
+        public static final com.google.protobuf.Descriptors.Descriptor
+            getDescriptor() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_descriptor;
+        }
+        
+        protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+            internalGetFieldAccessorTable() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_fieldAccessorTable;
+        }
+        
+        // Construct using com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+        
+        private Builder(BuilderParent parent) {
+          super(parent);
+          maybeForceBuilderInitialization();
+        }
+        private void maybeForceBuilderInitialization() {
+          if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          }
+        }
+        private static Builder create() {
+          return new Builder();
+        }
+        
+        public Builder clear() {
+          super.clear();
+          name_ = "";
+          bitField0_ = (bitField0_ & ~0x00000001);
+          return this;
+        }
+        
+        public Builder clone() {
+          return create().mergeFrom(buildPartial());
+        }
+        
+        public com.google.protobuf.Descriptors.Descriptor
+            getDescriptorForType() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDescriptor();
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto getDefaultInstanceForType() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDefaultInstance();
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto build() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+        
+        private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto buildParsed()
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(
+              result).asInvalidProtocolBufferException();
+          }
+          return result;
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto buildPartial() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = new com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+            to_bitField0_ |= 0x00000001;
+          }
+          result.name_ = name_;
+          result.bitField0_ = to_bitField0_;
+          onBuilt();
+          return result;
+        }
+        
+        public Builder mergeFrom(com.google.protobuf.Message other) {
+          if (other instanceof com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto) {
+            return mergeFrom((com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto)other);
+          } else {
+            super.mergeFrom(other);
+            return this;
+          }
+        }
+        
+        public Builder mergeFrom(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto other) {
+          if (other == com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDefaultInstance()) return this;
+          if (other.hasName()) {
+            setName(other.getName());
+          }
+          this.mergeUnknownFields(other.getUnknownFields());
+          return this;
+        }
+        
+        public final boolean isInitialized() {
+          return true;
+        }
+        
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+            com.google.protobuf.UnknownFieldSet.newBuilder(
+              this.getUnknownFields());
+          while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                this.setUnknownFields(unknownFields.build());
+                onChanged();
+                return this;
+              default: {
+                if (!parseUnknownField(input, unknownFields,
+                                       extensionRegistry, tag)) {
+                  this.setUnknownFields(unknownFields.build());
+                  onChanged();
+                  return this;
+                }
+                break;
+              }
+              case 10: {
+                bitField0_ |= 0x00000001;
+                name_ = input.readBytes();
+                break;
+              }
+            }
+          }
+        }
+        
+        private int bitField0_;
+        
+        // optional string name = 1;
+        private java.lang.Object name_ = "";
+        public boolean hasName() {
+          return ((bitField0_ & 0x00000001) == 0x00000001);
+        }
+        public String getName() {
+          java.lang.Object ref = name_;
+          if (!(ref instanceof String)) {
+            String s = ((com.google.protobuf.ByteString) ref).toStringUtf8();
+            name_ = s;
+            return s;
+          } else {
+            return (String) ref;
+          }
+        }
+        public Builder setName(String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+          name_ = value;
+          onChanged();
+          return this;
+        }
+        public Builder clearName() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          name_ = getDefaultInstance().getName();
+          onChanged();
+          return this;
+        }
+        void setName(com.google.protobuf.ByteString value) {
+          bitField0_ |= 0x00000001;
+          name_ = value;
+          onChanged();
+        }
+        
+        // @@protoc_insertion_point(builder_scope:com.hubspot.hbase.filter.example.ExampleProto.InnerProto)
+      }
+      
+      static {
+        defaultInstance = new InnerProto(true);
+        defaultInstance.initFields();
+      }
+      
+      // @@protoc_insertion_point(class_scope:com.hubspot.hbase.filter.example.ExampleProto.InnerProto)
+    }
+    
+    public interface MetadataOrBuilder
+        extends com.google.protobuf.MessageOrBuilder {
+      
+      // optional string source = 1;
+      boolean hasSource();
+      String getSource();
+      
+      // optional int64 version = 2;
+      boolean hasVersion();
+      long getVersion();
+    }
+    public static final class Metadata extends
+        com.google.protobuf.GeneratedMessage
+        implements MetadataOrBuilder {
+      // Use Metadata.newBuilder() to construct.
+      private Metadata(Builder builder) {
+        super(builder);
+      }
+      private Metadata(boolean noInit) {}
+      
+      private static final Metadata defaultInstance;
+      public static Metadata getDefaultInstance() {
+        return defaultInstance;
+      }
+      
+      public Metadata getDefaultInstanceForType() {
+        return defaultInstance;
+      }
+      
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_descriptor;
+      }
+      
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_fieldAccessorTable;
+      }
+      
+      private int bitField0_;
+      // optional string source = 1;
+      public static final int SOURCE_FIELD_NUMBER = 1;
+      private java.lang.Object source_;
+      public boolean hasSource() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      public String getSource() {
+        java.lang.Object ref = source_;
+        if (ref instanceof String) {
+          return (String) ref;
+        } else {
+          com.google.protobuf.ByteString bs = 
+              (com.google.protobuf.ByteString) ref;
+          String s = bs.toStringUtf8();
+          if (com.google.protobuf.Internal.isValidUtf8(bs)) {
+            source_ = s;
+          }
+          return s;
+        }
+      }
+      private com.google.protobuf.ByteString getSourceBytes() {
+        java.lang.Object ref = source_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8((String) ref);
+          source_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      
+      // optional int64 version = 2;
+      public static final int VERSION_FIELD_NUMBER = 2;
+      private long version_;
+      public boolean hasVersion() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      public long getVersion() {
+        return version_;
+      }
+      
+      private void initFields() {
+        source_ = "";
+        version_ = 0L;
+      }
+      private byte memoizedIsInitialized = -1;
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized != -1) return isInitialized == 1;
+        
+        memoizedIsInitialized = 1;
+        return true;
+      }
+      
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        getSerializedSize();
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          output.writeBytes(1, getSourceBytes());
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          output.writeInt64(2, version_);
+        }
+        getUnknownFields().writeTo(output);
+      }
+      
+      private int memoizedSerializedSize = -1;
+      public int getSerializedSize() {
+        int size = memoizedSerializedSize;
+        if (size != -1) return size;
+      
+        size = 0;
+        if (((bitField0_ & 0x00000001) == 0x00000001)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeBytesSize(1, getSourceBytes());
+        }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeInt64Size(2, version_);
+        }
+        size += getUnknownFields().getSerializedSize();
+        memoizedSerializedSize = size;
+        return size;
+      }
+      
+      private static final long serialVersionUID = 0L;
+      @java.lang.Override
+      protected java.lang.Object writeReplace()
+          throws java.io.ObjectStreamException {
+        return super.writeReplace();
+      }
+      
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return newBuilder().mergeFrom(data, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input, extensionRegistry)
+                 .buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        Builder builder = newBuilder();
+        if (builder.mergeDelimitedFrom(input)) {
+          return builder.buildParsed();
+        } else {
+          return null;
+        }
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        Builder builder = newBuilder();
+        if (builder.mergeDelimitedFrom(input, extensionRegistry)) {
+          return builder.buildParsed();
+        } else {
+          return null;
+        }
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input).buildParsed();
+      }
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return newBuilder().mergeFrom(input, extensionRegistry)
+                 .buildParsed();
+      }
+      
+      public static Builder newBuilder() { return Builder.create(); }
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata prototype) {
+        return newBuilder().mergeFrom(prototype);
+      }
+      public Builder toBuilder() { return newBuilder(this); }
+      
+      @java.lang.Override
+      protected Builder newBuilderForType(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        Builder builder = new Builder(parent);
+        return builder;
+      }
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessage.Builder<Builder>
+         implements com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder {
+        public static final com.google.protobuf.Descriptors.Descriptor
+            getDescriptor() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_descriptor;
+        }
+        
+        protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+            internalGetFieldAccessorTable() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_fieldAccessorTable;
+        }
+        
+        // Construct using com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+        
+        private Builder(BuilderParent parent) {
+          super(parent);
+          maybeForceBuilderInitialization();
+        }
+        private void maybeForceBuilderInitialization() {
+          if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          }
+        }
+        private static Builder create() {
+          return new Builder();
+        }
+        
+        public Builder clear() {
+          super.clear();
+          source_ = "";
+          bitField0_ = (bitField0_ & ~0x00000001);
+          version_ = 0L;
+          bitField0_ = (bitField0_ & ~0x00000002);
+          return this;
+        }
+        
+        public Builder clone() {
+          return create().mergeFrom(buildPartial());
+        }
+        
+        public com.google.protobuf.Descriptors.Descriptor
+            getDescriptorForType() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDescriptor();
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata getDefaultInstanceForType() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance();
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata build() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+        
+        private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata buildParsed()
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(
+              result).asInvalidProtocolBufferException();
+          }
+          return result;
+        }
+        
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata buildPartial() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata result = new com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata(this);
+          int from_bitField0_ = bitField0_;
+          int to_bitField0_ = 0;
+          if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+            to_bitField0_ |= 0x00000001;
+          }
+          result.source_ = source_;
+          if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+            to_bitField0_ |= 0x00000002;
+          }
+          result.version_ = version_;
+          result.bitField0_ = to_bitField0_;
+          onBuilt();
+          return result;
+        }
+        
+        public Builder mergeFrom(com.google.protobuf.Message other) {
+          if (other instanceof com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata) {
+            return mergeFrom((com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata)other);
+          } else {
+            super.mergeFrom(other);
+            return this;
+          }
+        }
+        
+        public Builder mergeFrom(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata other) {
+          if (other == com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance()) return this;
+          if (other.hasSource()) {
+            setSource(other.getSource());
+          }
+          if (other.hasVersion()) {
+            setVersion(other.getVersion());
+          }
+          this.mergeUnknownFields(other.getUnknownFields());
+          return this;
+        }
+        
+        public final boolean isInitialized() {
+          return true;
+        }
+        
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+            com.google.protobuf.UnknownFieldSet.newBuilder(
+              this.getUnknownFields());
+          while (true) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                this.setUnknownFields(unknownFields.build());
+                onChanged();
+                return this;
+              default: {
+                if (!parseUnknownField(input, unknownFields,
+                                       extensionRegistry, tag)) {
+                  this.setUnknownFields(unknownFields.build());
+                  onChanged();
+                  return this;
+                }
+                break;
+              }
+              case 10: {
+                bitField0_ |= 0x00000001;
+                source_ = input.readBytes();
+                break;
+              }
+              case 16: {
+                bitField0_ |= 0x00000002;
+                version_ = input.readInt64();
+                break;
+              }
+            }
+          }
+        }
+        
+        private int bitField0_;
+        
+        // optional string source = 1;
+        private java.lang.Object source_ = "";
+        public boolean hasSource() {
+          return ((bitField0_ & 0x00000001) == 0x00000001);
+        }
+        public String getSource() {
+          java.lang.Object ref = source_;
+          if (!(ref instanceof String)) {
+            String s = ((com.google.protobuf.ByteString) ref).toStringUtf8();
+            source_ = s;
+            return s;
+          } else {
+            return (String) ref;
+          }
+        }
+        public Builder setSource(String value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+          source_ = value;
+          onChanged();
+          return this;
+        }
+        public Builder clearSource() {
+          bitField0_ = (bitField0_ & ~0x00000001);
+          source_ = getDefaultInstance().getSource();
+          onChanged();
+          return this;
+        }
+        void setSource(com.google.protobuf.ByteString value) {
+          bitField0_ |= 0x00000001;
+          source_ = value;
+          onChanged();
+        }
+        
+        // optional int64 version = 2;
+        private long version_ ;
+        public boolean hasVersion() {
+          return ((bitField0_ & 0x00000002) == 0x00000002);
+        }
+        public long getVersion() {
+          return version_;
+        }
+        public Builder setVersion(long value) {
+          bitField0_ |= 0x00000002;
+          version_ = value;
+          onChanged();
+          return this;
+        }
+        public Builder clearVersion() {
+          bitField0_ = (bitField0_ & ~0x00000002);
+          version_ = 0L;
+          onChanged();
+          return this;
+        }
+        
+        // @@protoc_insertion_point(builder_scope:com.hubspot.hbase.filter.example.ExampleProto.Metadata)
       }
       
-      private final int index;
-      private final int value;
-      
-      private TestEnum(int index, int value) {
-        this.index = index;
-        this.value = value;
+      static {
+        defaultInstance = new Metadata(true);
+        defaultInstance.initFields();
       }
       
-      // @@protoc_insertion_point(enum_scope:com.hubspot.hbase.filter.example.ExampleProto.TestEnum)
+      // @@protoc_insertion_point(class_scope:com.hubspot.hbase.filter.example.ExampleProto.Metadata)
     }
     
-    public interface InnerProtoOrBuilder
+    public interface TagOrBuilder
         extends com.google.protobuf.MessageOrBuilder {
       
-      // optional string name = 1;
-      boolean hasName();
-      String getName();
+      // optional string label = 1;
+      boolean hasLabel();
+      String getLabel();
     }
-    public static final class InnerProto extends
+    public static final class Tag extends
         com.google.protobuf.GeneratedMessage
-        implements InnerProtoOrBuilder {
-      // Use InnerProto.newBuilder() to construct.
-      private InnerProto(Builder builder) {
+        implements TagOrBuilder {
+      // Use Tag.newBuilder() to construct.
+      private Tag(Builder builder) {
         super(builder);
       }
-      private InnerProto(boolean noInit) {}
+      private Tag(boolean noInit) {}
       
-      private static final InnerProto defaultInstance;
-      public static InnerProto getDefaultInstance() {
+      private static final Tag defaultInstance;
+      public static Tag getDefaultInstance() {
         return defaultInstance;
       }
       
-      public InnerProto getDefaultInstanceForType() {
+      public Tag getDefaultInstanceForType() {
         return defaultInstance;
       }
       
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_descriptor;
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_descriptor;
       }
       
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_fieldAccessorTable;
+        return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_fieldAccessorTable;
       }
       
       private int bitField0_;
-      // optional string name = 1;
-      public static final int NAME_FIELD_NUMBER = 1;
-      private java.lang.Object name_;
-      public boolean hasName() {
+      // optional string label = 1;
+      public static final int LABEL_FIELD_NUMBER = 1;
+      private java.lang.Object label_;
+      public boolean hasLabel() {
         return ((bitField0_ & 0x00000001) == 0x00000001);
       }
-      public String getName() {
-        java.lang.Object ref = name_;
+      public String getLabel() {
+        java.lang.Object ref = label_;
         if (ref instanceof String) {
           return (String) ref;
         } else {
@@ -547,17 +1369,17 @@ public final class ExampleProtos {
               (com.google.protobuf.ByteString) ref;
           String s = bs.toStringUtf8();
           if (com.google.protobuf.Internal.isValidUtf8(bs)) {
-            name_ = s;
+            label_ = s;
           }
           return s;
         }
       }
-      private com.google.protobuf.ByteString getNameBytes() {
-        java.lang.Object ref = name_;
+      private com.google.protobuf.ByteString getLabelBytes() {
+        java.lang.Object ref = label_;
         if (ref instanceof String) {
           com.google.protobuf.ByteString b = 
               com.google.protobuf.ByteString.copyFromUtf8((String) ref);
-          name_ = b;
+          label_ = b;
           return b;
         } else {
           return (com.google.protobuf.ByteString) ref;
@@ -565,7 +1387,7 @@ public final class ExampleProtos {
       }
       
       private void initFields() {
-        name_ = "";
+        label_ = "";
       }
       private byte memoizedIsInitialized = -1;
       public final boolean isInitialized() {
@@ -580,7 +1402,7 @@ public final class ExampleProtos {
                           throws java.io.IOException {
         getSerializedSize();
         if (((bitField0_ & 0x00000001) == 0x00000001)) {
-          output.writeBytes(1, getNameBytes());
+          output.writeBytes(1, getLabelBytes());
         }
         getUnknownFields().writeTo(output);
       }
@@ -593,7 +1415,7 @@ public final class ExampleProtos {
         size = 0;
         if (((bitField0_ & 0x00000001) == 0x00000001)) {
           size += com.google.protobuf.CodedOutputStream
-            .computeBytesSize(1, getNameBytes());
+            .computeBytesSize(1, getLabelBytes());
         }
         size += getUnknownFields().getSerializedSize();
         memoizedSerializedSize = size;
@@ -607,41 +1429,41 @@ public final class ExampleProtos {
         return super.writeReplace();
       }
       
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           com.google.protobuf.ByteString data)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return newBuilder().mergeFrom(data).buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           com.google.protobuf.ByteString data,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return newBuilder().mergeFrom(data, extensionRegistry)
                  .buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(byte[] data)
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(byte[] data)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return newBuilder().mergeFrom(data).buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           byte[] data,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return newBuilder().mergeFrom(data, extensionRegistry)
                  .buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(java.io.InputStream input)
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(java.io.InputStream input)
           throws java.io.IOException {
         return newBuilder().mergeFrom(input).buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           java.io.InputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
         return newBuilder().mergeFrom(input, extensionRegistry)
                  .buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseDelimitedFrom(java.io.InputStream input)
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseDelimitedFrom(java.io.InputStream input)
           throws java.io.IOException {
         Builder builder = newBuilder();
         if (builder.mergeDelimitedFrom(input)) {
@@ -650,7 +1472,7 @@ public final class ExampleProtos {
           return null;
         }
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseDelimitedFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseDelimitedFrom(
           java.io.InputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
@@ -661,12 +1483,12 @@ public final class ExampleProtos {
           return null;
         }
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           com.google.protobuf.CodedInputStream input)
           throws java.io.IOException {
         return newBuilder().mergeFrom(input).buildParsed();
       }
-      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto parseFrom(
+      public static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag parseFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
@@ -676,7 +1498,7 @@ public final class ExampleProtos {
       
       public static Builder newBuilder() { return Builder.create(); }
       public Builder newBuilderForType() { return newBuilder(); }
-      public static Builder newBuilder(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto prototype) {
+      public static Builder newBuilder(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag prototype) {
         return newBuilder().mergeFrom(prototype);
       }
       public Builder toBuilder() { return newBuilder(this); }
@@ -689,18 +1511,18 @@ public final class ExampleProtos {
       }
       public static final class Builder extends
           com.google.protobuf.GeneratedMessage.Builder<Builder>
-         implements com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProtoOrBuilder {
+         implements com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder {
         public static final com.google.protobuf.Descriptors.Descriptor
             getDescriptor() {
-          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_descriptor;
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_descriptor;
         }
         
         protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
             internalGetFieldAccessorTable() {
-          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_fieldAccessorTable;
+          return com.hubspot.hbase.filter.example.ExampleProtos.internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_fieldAccessorTable;
         }
         
-        // Construct using com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.newBuilder()
+        // Construct using com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.newBuilder()
         private Builder() {
           maybeForceBuilderInitialization();
         }
@@ -719,7 +1541,7 @@ public final class ExampleProtos {
         
         public Builder clear() {
           super.clear();
-          name_ = "";
+          label_ = "";
           bitField0_ = (bitField0_ & ~0x00000001);
           return this;
         }
@@ -730,24 +1552,24 @@ public final class ExampleProtos {
         
         public com.google.protobuf.Descriptors.Descriptor
             getDescriptorForType() {
-          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDescriptor();
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.getDescriptor();
         }
         
-        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto getDefaultInstanceForType() {
-          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDefaultInstance();
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag getDefaultInstanceForType() {
+          return com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.getDefaultInstance();
         }
         
-        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto build() {
-          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = buildPartial();
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag build() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag result = buildPartial();
           if (!result.isInitialized()) {
             throw newUninitializedMessageException(result);
           }
           return result;
         }
         
-        private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto buildParsed()
+        private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag buildParsed()
             throws com.google.protobuf.InvalidProtocolBufferException {
-          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = buildPartial();
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag result = buildPartial();
           if (!result.isInitialized()) {
             throw newUninitializedMessageException(
               result).asInvalidProtocolBufferException();
@@ -755,32 +1577,32 @@ public final class ExampleProtos {
           return result;
         }
         
-        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto buildPartial() {
-          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto result = new com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto(this);
+        public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag buildPartial() {
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag result = new com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag(this);
           int from_bitField0_ = bitField0_;
           int to_bitField0_ = 0;
           if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
             to_bitField0_ |= 0x00000001;
           }
-          result.name_ = name_;
+          result.label_ = label_;
           result.bitField0_ = to_bitField0_;
           onBuilt();
           return result;
         }
         
         public Builder mergeFrom(com.google.protobuf.Message other) {
-          if (other instanceof com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto) {
-            return mergeFrom((com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto)other);
+          if (other instanceof com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag) {
+            return mergeFrom((com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag)other);
           } else {
             super.mergeFrom(other);
             return this;
           }
         }
         
-        public Builder mergeFrom(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto other) {
-          if (other == com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.getDefaultInstance()) return this;
-          if (other.hasName()) {
-            setName(other.getName());
+        public Builder mergeFrom(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag other) {
+          if (other == com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.getDefaultInstance()) return this;
+          if (other.hasLabel()) {
+            setLabel(other.getLabel());
           }
           this.mergeUnknownFields(other.getUnknownFields());
           return this;
@@ -815,7 +1637,7 @@ public final class ExampleProtos {
               }
               case 10: {
                 bitField0_ |= 0x00000001;
-                name_ = input.readBytes();
+                label_ = input.readBytes();
                 break;
               }
             }
@@ -824,51 +1646,51 @@ public final class ExampleProtos {
         
         private int bitField0_;
         
-        // optional string name = 1;
-        private java.lang.Object name_ = "";
-        public boolean hasName() {
+        // optional string label = 1;
+        private java.lang.Object label_ = "";
+        public boolean hasLabel() {
           return ((bitField0_ & 0x00000001) == 0x00000001);
         }
-        public String getName() {
-          java.lang.Object ref = name_;
+        public String getLabel() {
+          java.lang.Object ref = label_;
           if (!(ref instanceof String)) {
             String s = ((com.google.protobuf.ByteString) ref).toStringUtf8();
-            name_ = s;
+            label_ = s;
             return s;
           } else {
             return (String) ref;
           }
         }
-        public Builder setName(String value) {
+        public Builder setLabel(String value) {
           if (value == null) {
     throw new NullPointerException();
   }
   bitField0_ |= 0x00000001;
-          name_ = value;
+          label_ = value;
           onChanged();
           return this;
         }
-        public Builder clearName() {
+        public Builder clearLabel() {
           bitField0_ = (bitField0_ & ~0x00000001);
-          name_ = getDefaultInstance().getName();
+          label_ = getDefaultInstance().getLabel();
           onChanged();
           return this;
         }
-        void setName(com.google.protobuf.ByteString value) {
+        void setLabel(com.google.protobuf.ByteString value) {
           bitField0_ |= 0x00000001;
-          name_ = value;
+          label_ = value;
           onChanged();
         }
         
-        // @@protoc_insertion_point(builder_scope:com.hubspot.hbase.filter.example.ExampleProto.InnerProto)
+        // @@protoc_insertion_point(builder_scope:com.hubspot.hbase.filter.example.ExampleProto.Tag)
       }
       
       static {
-        defaultInstance = new InnerProto(true);
+        defaultInstance = new Tag(true);
         defaultInstance.initFields();
       }
       
-      // @@protoc_insertion_point(class_scope:com.hubspot.hbase.filter.example.ExampleProto.InnerProto)
+      // @@protoc_insertion_point(class_scope:com.hubspot.hbase.filter.example.ExampleProto.Tag)
     }
     
     private int bitField0_;
@@ -1021,6 +1843,40 @@ public final class ExampleProtos {
       return defaultTest_;
     }
     
+    // optional group Metadata = 13 {
+    public static final int METADATA_FIELD_NUMBER = 13;
+    private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata metadata_;
+    public boolean hasMetadata() {
+      return ((bitField0_ & 0x00000800) == 0x00000800);
+    }
+    public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata getMetadata() {
+      return metadata_;
+    }
+    public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder getMetadataOrBuilder() {
+      return metadata_;
+    }
+    
+    // repeated group Tag = 14 {
+    public static final int TAG_FIELD_NUMBER = 14;
+    private java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> tag_;
+    public java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> getTagList() {
+      return tag_;
+    }
+    public java.util.List<? extends com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder> 
+        getTagOrBuilderList() {
+      return tag_;
+    }
+    public int getTagCount() {
+      return tag_.size();
+    }
+    public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag getTag(int index) {
+      return tag_.get(index);
+    }
+    public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder getTagOrBuilder(
+        int index) {
+      return tag_.get(index);
+    }
+    
     private void initFields() {
       id_ = 0L;
       portalId_ = 0;
@@ -1034,6 +1890,8 @@ public final class ExampleProtos {
       testEnum_ = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TestEnum.APPLE;
       doubleTest_ = 0D;
       defaultTest_ = 5;
+      metadata_ = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance();
+      tag_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1087,6 +1945,12 @@ public final class ExampleProtos {
       if (((bitField0_ & 0x00000400) == 0x00000400)) {
         output.writeInt32(12, defaultTest_);
       }
+      if (((bitField0_ & 0x00000800) == 0x00000800)) {
+        output.writeGroup(13, metadata_);
+      }
+      for (int i = 0; i < tag_.size(); i++) {
+        output.writeGroup(14, tag_.get(i));
+      }
       getUnknownFields().writeTo(output);
     }
     
@@ -1149,6 +2013,14 @@ public final class ExampleProtos {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(12, defaultTest_);
       }
+      if (((bitField0_ & 0x00000800) == 0x00000800)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeGroupSize(13, metadata_);
+      }
+      for (int i = 0; i < tag_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeGroupSize(14, tag_.get(i));
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1266,6 +2138,8 @@ public final class ExampleProtos {
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
           getChildProtoFieldBuilder();
+          getMetadataFieldBuilder();
+          getTagFieldBuilder();
         }
       }
       private static Builder create() {
@@ -1302,6 +2176,18 @@ public final class ExampleProtos {
         bitField0_ = (bitField0_ & ~0x00000400);
         defaultTest_ = 5;
         bitField0_ = (bitField0_ & ~0x00000800);
+        if (metadataBuilder_ == null) {
+          metadata_ = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance();
+        } else {
+          metadataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
+        if (tagBuilder_ == null) {
+          tag_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00002000);
+        } else {
+          tagBuilder_.clear();
+        }
         return this;
       }
       
@@ -1394,6 +2280,23 @@ public final class ExampleProtos {
           to_bitField0_ |= 0x00000400;
         }
         result.defaultTest_ = defaultTest_;
+        if (((from_bitField0_ & 0x00001000) == 0x00001000)) {
+          to_bitField0_ |= 0x00000800;
+        }
+        if (metadataBuilder_ == null) {
+          result.metadata_ = metadata_;
+        } else {
+          result.metadata_ = metadataBuilder_.build();
+        }
+        if (tagBuilder_ == null) {
+          if (((bitField0_ & 0x00002000) == 0x00002000)) {
+            tag_ = java.util.Collections.unmodifiableList(tag_);
+            bitField0_ = (bitField0_ & ~0x00002000);
+          }
+          result.tag_ = tag_;
+        } else {
+          result.tag_ = tagBuilder_.build();
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1453,6 +2356,35 @@ public final class ExampleProtos {
         if (other.hasDefaultTest()) {
           setDefaultTest(other.getDefaultTest());
         }
+        if (other.hasMetadata()) {
+          mergeMetadata(other.getMetadata());
+        }
+        if (tagBuilder_ == null) {
+          if (!other.tag_.isEmpty()) {
+            if (tag_.isEmpty()) {
+              tag_ = other.tag_;
+              bitField0_ = (bitField0_ & ~0x00002000);
+            } else {
+              ensureTagIsMutable();
+              tag_.addAll(other.tag_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.tag_.isEmpty()) {
+            if (tagBuilder_.isEmpty()) {
+              tagBuilder_.dispose();
+              tagBuilder_ = null;
+              tag_ = other.tag_;
+              bitField0_ = (bitField0_ & ~0x00002000);
+              tagBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getTagFieldBuilder() : null;
+            } else {
+              tagBuilder_.addAllMessages(other.tag_);
+            }
+          }
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -1558,6 +2490,21 @@ public final class ExampleProtos {
               defaultTest_ = input.readInt32();
               break;
             }
+            case 107: {
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder subBuilder = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.newBuilder();
+              if (hasMetadata()) {
+                subBuilder.mergeFrom(getMetadata());
+              }
+              input.readGroup(13, subBuilder, extensionRegistry);
+              setMetadata(subBuilder.buildPartial());
+              break;
+            }
+            case 115: {
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder subBuilder = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.newBuilder();
+              input.readGroup(14, subBuilder, extensionRegistry);
+              addTag(subBuilder.buildPartial());
+              break;
+            }
           }
         }
       }
@@ -1941,6 +2888,282 @@ public final class ExampleProtos {
         return this;
       }
       
+      // optional group Metadata = 13 {
+      private com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata metadata_ = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder> metadataBuilder_;
+      public boolean hasMetadata() {
+        return ((bitField0_ & 0x00001000) == 0x00001000);
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata getMetadata() {
+        if (metadataBuilder_ == null) {
+          return metadata_;
+        } else {
+          return metadataBuilder_.getMessage();
+        }
+      }
+      public Builder setMetadata(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata value) {
+        if (metadataBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          metadata_ = value;
+          onChanged();
+        } else {
+          metadataBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      public Builder setMetadata(
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder builderForValue) {
+        if (metadataBuilder_ == null) {
+          metadata_ = builderForValue.build();
+          onChanged();
+        } else {
+          metadataBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      public Builder mergeMetadata(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata value) {
+        if (metadataBuilder_ == null) {
+          if (((bitField0_ & 0x00001000) == 0x00001000) &&
+              metadata_ != com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance()) {
+            metadata_ =
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.newBuilder(metadata_).mergeFrom(value).buildPartial();
+          } else {
+            metadata_ = value;
+          }
+          onChanged();
+        } else {
+          metadataBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00001000;
+        return this;
+      }
+      public Builder clearMetadata() {
+        if (metadataBuilder_ == null) {
+          metadata_ = com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.getDefaultInstance();
+          onChanged();
+        } else {
+          metadataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00001000);
+        return this;
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder getMetadataBuilder() {
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return getMetadataFieldBuilder().getBuilder();
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder getMetadataOrBuilder() {
+        if (metadataBuilder_ != null) {
+          return metadataBuilder_.getMessageOrBuilder();
+        } else {
+          return metadata_;
+        }
+      }
+      private com.google.protobuf.SingleFieldBuilder<
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder> 
+          getMetadataFieldBuilder() {
+        if (metadataBuilder_ == null) {
+          metadataBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.MetadataOrBuilder>(
+                  metadata_,
+                  getParentForChildren(),
+                  isClean());
+          metadata_ = null;
+        }
+        return metadataBuilder_;
+      }
+      
+      // repeated group Tag = 14 {
+      private java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> tag_ =
+        java.util.Collections.emptyList();
+      private void ensureTagIsMutable() {
+        if (!((bitField0_ & 0x00002000) == 0x00002000)) {
+          tag_ = new java.util.ArrayList<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag>(tag_);
+          bitField0_ |= 0x00002000;
+         }
+      }
+      
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder> tagBuilder_;
+      
+      public java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> getTagList() {
+        if (tagBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(tag_);
+        } else {
+          return tagBuilder_.getMessageList();
+        }
+      }
+      public int getTagCount() {
+        if (tagBuilder_ == null) {
+          return tag_.size();
+        } else {
+          return tagBuilder_.getCount();
+        }
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag getTag(int index) {
+        if (tagBuilder_ == null) {
+          return tag_.get(index);
+        } else {
+          return tagBuilder_.getMessage(index);
+        }
+      }
+      public Builder setTag(
+          int index, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag value) {
+        if (tagBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTagIsMutable();
+          tag_.set(index, value);
+          onChanged();
+        } else {
+          tagBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      public Builder setTag(
+          int index, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder builderForValue) {
+        if (tagBuilder_ == null) {
+          ensureTagIsMutable();
+          tag_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          tagBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      public Builder addTag(com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag value) {
+        if (tagBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTagIsMutable();
+          tag_.add(value);
+          onChanged();
+        } else {
+          tagBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      public Builder addTag(
+          int index, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag value) {
+        if (tagBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureTagIsMutable();
+          tag_.add(index, value);
+          onChanged();
+        } else {
+          tagBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      public Builder addTag(
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder builderForValue) {
+        if (tagBuilder_ == null) {
+          ensureTagIsMutable();
+          tag_.add(builderForValue.build());
+          onChanged();
+        } else {
+          tagBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      public Builder addTag(
+          int index, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder builderForValue) {
+        if (tagBuilder_ == null) {
+          ensureTagIsMutable();
+          tag_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          tagBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      public Builder addAllTag(
+          java.lang.Iterable<? extends com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag> values) {
+        if (tagBuilder_ == null) {
+          ensureTagIsMutable();
+          super.addAll(values, tag_);
+          onChanged();
+        } else {
+          tagBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      public Builder clearTag() {
+        if (tagBuilder_ == null) {
+          tag_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00002000);
+          onChanged();
+        } else {
+          tagBuilder_.clear();
+        }
+        return this;
+      }
+      public Builder removeTag(int index) {
+        if (tagBuilder_ == null) {
+          ensureTagIsMutable();
+          tag_.remove(index);
+          onChanged();
+        } else {
+          tagBuilder_.remove(index);
+        }
+        return this;
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder getTagBuilder(
+          int index) {
+        return getTagFieldBuilder().getBuilder(index);
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder getTagOrBuilder(
+          int index) {
+        if (tagBuilder_ == null) {
+          return tag_.get(index);  } else {
+          return tagBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      public java.util.List<? extends com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder> 
+           getTagOrBuilderList() {
+        if (tagBuilder_ != null) {
+          return tagBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(tag_);
+        }
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder addTagBuilder() {
+        return getTagFieldBuilder().addBuilder(
+            com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.getDefaultInstance());
+      }
+      public com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder addTagBuilder(
+          int index) {
+        return getTagFieldBuilder().addBuilder(
+            index, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.getDefaultInstance());
+      }
+      public java.util.List<com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder> 
+           getTagBuilderList() {
+        return getTagFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder> 
+          getTagFieldBuilder() {
+        if (tagBuilder_ == null) {
+          tagBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder, com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TagOrBuilder>(
+                  tag_,
+                  ((bitField0_ & 0x00002000) == 0x00002000),
+                  getParentForChildren(),
+                  isClean());
+          tag_ = null;
+        }
+        return tagBuilder_;
+      }
+      
       // @@protoc_insertion_point(builder_scope:com.hubspot.hbase.filter.example.ExampleProto)
     }
     
@@ -1967,6 +3190,16 @@ public final class ExampleProtos {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_fieldAccessorTable;
   
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -1978,7 +3211,7 @@ public final class ExampleProtos {
     java.lang.String[] descriptorData = {
       "\n\rexample.proto\022 com.hubspot.hbase.filte" +
       "r.example\"%\n\nChildProto\022\027\n\017child_proto_v" +
-      "al\030\001 \001(\005\"\237\003\n\014ExampleProto\022\n\n\002id\030\001 \001(\003\022\021\n" +
+      "al\030\001 \001(\005\"\356\004\n\014ExampleProto\022\n\n\002id\030\001 \001(\003\022\021\n" +
       "\tportal_id\030\002 \001(\005\022\014\n\004name\030\003 \001(\t\022\021\n\tbool_t" +
       "est\030\004 \001(\010\022\022\n\nfloat_test\030\005 \001(\002\022\022\n\nbytes_t" +
       "est\030\006 \001(\014\022\025\n\rrequired_test\030\007 \002(\005\022\024\n\014arra" +
@@ -1987,9 +3220,14 @@ public final class ExampleProtos {
       "o\022J\n\ttest_enum\030\n \001(\01627.com.hubspot.hbase" +
       ".filter.example.ExampleProto.TestEnum\022\023\n",
       "\013double_test\030\013 \001(\001\022\027\n\014default_test\030\014 \001(\005" +
-      ":\0015\032\032\n\nInnerProto\022\014\n\004name\030\001 \001(\t\"!\n\010TestE" +
-      "num\022\t\n\005APPLE\020\001\022\n\n\006ORANGE\020\002B\017B\rExamplePro" +
-      "tos"
+      ":\0015\022I\n\010metadata\030\r \001(\n27.com.hubspot.hbas" +
+      "e.filter.example.ExampleProto.Metadata\022?" +
+      "\n\003tag\030\016 \003(\n22.com.hubspot.hbase.filter.e" +
+      "xample.ExampleProto.Tag\032\032\n\nInnerProto\022\014\n" +
+      "\004name\030\001 \001(\t\032+\n\010Metadata\022\016\n\006source\030\001 \001(\t\022" +
+      "\017\n\007version\030\002 \001(\003\032\024\n\003Tag\022\r\n\005label\030\001 \001(\t\"!" +
+      "\n\010TestEnum\022\t\n\005APPLE\020\001\022\n\n\006ORANGE\020\002B\017B\rExa" +
+      "mpleProtos"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -2009,7 +3247,7 @@ public final class ExampleProtos {
           internal_static_com_hubspot_hbase_filter_example_ExampleProto_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_com_hubspot_hbase_filter_example_ExampleProto_descriptor,
-              new java.lang.String[] { "Id", "PortalId", "Name", "BoolTest", "FloatTest", "BytesTest", "RequiredTest", "ArrayValues", "ChildProto", "TestEnum", "DoubleTest", "DefaultTest", },
+              new java.lang.String[] { "Id", "PortalId", "Name", "BoolTest", "FloatTest", "BytesTest", "RequiredTest", "ArrayValues", "ChildProto", "TestEnum", "DoubleTest", "DefaultTest", "Metadata", "Tag", },
               com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.class,
               com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Builder.class);
           internal_static_com_hubspot_hbase_filter_example_ExampleProto_InnerProto_descriptor =
@@ -2020,6 +3258,22 @@ public final class ExampleProtos {
               new java.lang.String[] { "Name", },
               com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.class,
               com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.InnerProto.Builder.class);
+          internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_descriptor =
+            internal_static_com_hubspot_hbase_filter_example_ExampleProto_descriptor.getNestedTypes().get(1);
+          internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_com_hubspot_hbase_filter_example_ExampleProto_Metadata_descriptor,
+              new java.lang.String[] { "Source", "Version", },
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.class,
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Metadata.Builder.class);
+          internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_descriptor =
+            internal_static_com_hubspot_hbase_filter_example_ExampleProto_descriptor.getNestedTypes().get(2);
+          internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_com_hubspot_hbase_filter_example_ExampleProto_Tag_descriptor,
+              new java.lang.String[] { "Label", },
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.class,
+              com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.Tag.Builder.class);
           return null;
         }
       };
@@ -0,0 +1,66 @@
+package com.hubspot.hbase.filter.models;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The bits an integral field is tested for, and whether all, any or none of
+ * them must be set. A 32-bit field's value is read as its 32 bits, whatever
+ * its sign.
+ */
+public class BitMask implements Writable {
+  public enum Kind {
+    ALL_SET,
+    ANY_SET,
+    NONE_SET
+  }
+
+  private Kind kind;
+  private long mask;
+
+  public BitMask() {
+  }
+
+  public BitMask(Kind kind, long mask) {
+    this.kind = kind;
+    this.mask = mask;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public long getMask() {
+    return mask;
+  }
+
+  /**
+   * Whether the bits of a value pass the test.
+   */
+  public boolean test(long bits) {
+    switch (kind) {
+      case ALL_SET:
+        return (bits & mask) == mask;
+      case ANY_SET:
+        return (bits & mask) != 0;
+      default:
+        return (bits & mask) == 0;
+    }
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(kind.ordinal());
+    WritableUtils.writeVLong(out, mask);
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    kind = Kind.values()[in.readByte()];
+    mask = WritableUtils.readVLong(in);
+  }
+}
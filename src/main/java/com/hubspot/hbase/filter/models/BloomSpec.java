@@ -0,0 +1,164 @@
+package com.hubspot.hbase.filter.models;
+
+import com.google.common.base.Preconditions;
+import com.hubspot.hbase.filter.utils.Murmur3;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A Bloom filter over a set of numbers (integral values or enum numbers) or
+ * byte strings (UTF-8 strings or raw bytes), for sets too large to send
+ * exactly. It is sized for an expected number of values and a target false
+ * positive rate; values never in the set are let through at about that rate,
+ * so callers that need an exact answer re-check the rows they get back.
+ *
+ * Values are hashed with 64 bits of murmur3 and probed at k positions derived
+ * from its two halves, so the region server probes without allocating.
+ */
+public class BloomSpec implements Writable {
+  private OperandSet.Kind kind;
+  private int numHashes;
+  private long numBits;
+  private long[] words;
+
+  public BloomSpec() {
+  }
+
+  private BloomSpec(OperandSet.Kind kind, int numHashes, long[] words) {
+    this.kind = kind;
+    this.numHashes = numHashes;
+    this.words = words;
+    this.numBits = words.length * 64L;
+  }
+
+  /**
+   * Returns an empty filter for about {@code expectedValues} values of the
+   * given kind, letting through non-members at about {@code falsePositiveRate}.
+   */
+  public static BloomSpec create(OperandSet.Kind kind, int expectedValues, double falsePositiveRate) {
+    Preconditions.checkArgument(expectedValues >= 0, "expectedValues must not be negative");
+    Preconditions.checkArgument(falsePositiveRate > 0 && falsePositiveRate < 1, "falsePositiveRate must be in (0, 1)");
+    long expected = Math.max(expectedValues, 1);
+    long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int numHashes = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+    long numWords = (bits + 63) / 64;
+    Preconditions.checkArgument(numWords <= Integer.MAX_VALUE / 64, "Bloom filter too large");
+    return new BloomSpec(kind, numHashes, new long[(int) numWords]);
+  }
+
+  public static BloomSpec ofNumbers(double falsePositiveRate, long... values) {
+    BloomSpec bloomSpec = create(OperandSet.Kind.NUMBERS, values.length, falsePositiveRate);
+    for (long value : values) {
+      bloomSpec.addNumber(value);
+    }
+    return bloomSpec;
+  }
+
+  public static BloomSpec ofStrings(double falsePositiveRate, String... values) {
+    BloomSpec bloomSpec = create(OperandSet.Kind.STRINGS, values.length, falsePositiveRate);
+    for (String value : values) {
+      bloomSpec.addString(value);
+    }
+    return bloomSpec;
+  }
+
+  public static BloomSpec ofBytes(double falsePositiveRate, byte[]... values) {
+    BloomSpec bloomSpec = create(OperandSet.Kind.BYTES, values.length, falsePositiveRate);
+    for (byte[] value : values) {
+      bloomSpec.addBytes(value);
+    }
+    return bloomSpec;
+  }
+
+  public BloomSpec addNumber(long value) {
+    Preconditions.checkState(kind == OperandSet.Kind.NUMBERS, "Cannot add a number to a filter of %s", kind);
+    addHash(hashNumber(value));
+    return this;
+  }
+
+  public BloomSpec addString(String value) {
+    Preconditions.checkState(kind == OperandSet.Kind.STRINGS, "Cannot add a string to a filter of %s", kind);
+    byte[] encoded = Bytes.toBytes(value);
+    addHash(hashBytes(encoded, 0, encoded.length));
+    return this;
+  }
+
+  public BloomSpec addBytes(byte[] value) {
+    Preconditions.checkState(kind == OperandSet.Kind.BYTES, "Cannot add bytes to a filter of %s", kind);
+    addHash(hashBytes(value, 0, value.length));
+    return this;
+  }
+
+  public OperandSet.Kind getKind() {
+    return kind;
+  }
+
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  public long getNumBits() {
+    return numBits;
+  }
+
+  public static long hashNumber(long value) {
+    return Murmur3.hash64(value);
+  }
+
+  public static long hashBytes(byte[] buf, int offset, int length) {
+    return Murmur3.hash64(buf, offset, length);
+  }
+
+  /**
+   * Whether a value with the given hash may be in the set; false means it
+   * certainly isn't.
+   */
+  public boolean mightContainHash(long hash) {
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= numHashes; ++i) {
+      int combined = hash1 + i * hash2;
+      long bit = (combined < 0 ? ~combined : combined) % numBits;
+      if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addHash(long hash) {
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= numHashes; ++i) {
+      int combined = hash1 + i * hash2;
+      long bit = (combined < 0 ? ~combined : combined) % numBits;
+      words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(kind.ordinal());
+    WritableUtils.writeVInt(out, numHashes);
+    WritableUtils.writeVInt(out, words.length);
+    for (long word : words) {
+      out.writeLong(word);
+    }
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    kind = OperandSet.Kind.values()[in.readByte()];
+    numHashes = WritableUtils.readVInt(in);
+    words = new long[WritableUtils.readVInt(in)];
+    for (int i = 0; i < words.length; ++i) {
+      words[i] = in.readLong();
+    }
+    numBits = words.length * 64L;
+  }
+}
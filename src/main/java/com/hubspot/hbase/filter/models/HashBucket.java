@@ -0,0 +1,75 @@
+package com.hubspot.hbase.filter.models;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedLongs;
+import com.hubspot.hbase.filter.utils.Murmur3;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One of {@code buckets} partitions of a table, holding the rows whose field
+ * hashes to it. Numbers hash by value, so a field keeps its rows' buckets if
+ * it's widened, and strings and bytes hash as their bytes, both with 64 bits
+ * of murmur3.
+ */
+public class HashBucket implements Writable {
+  private int buckets;
+  private int bucket;
+
+  public HashBucket() {
+  }
+
+  public HashBucket(int buckets, int bucket) {
+    Preconditions.checkArgument(buckets > 0, "There must be at least one bucket: %s", buckets);
+    Preconditions.checkArgument(bucket >= 0 && bucket < buckets, "Bucket %s is not one of %s", bucket, buckets);
+    this.buckets = buckets;
+    this.bucket = bucket;
+  }
+
+  public int getBuckets() {
+    return buckets;
+  }
+
+  public int getBucket() {
+    return bucket;
+  }
+
+  public static long hashNumber(long value) {
+    return Murmur3.hash64(value);
+  }
+
+  public static long hashBytes(byte[] buf, int offset, int length) {
+    return Murmur3.hash64(buf, offset, length);
+  }
+
+  /**
+   * Whether a value with the given hash falls in this bucket.
+   */
+  public boolean containsHash(long hash) {
+    return UnsignedLongs.remainder(hash, buckets) == bucket;
+  }
+
+  /**
+   * Whether rows without a value to hash fall in this bucket. They all fall in
+   * the first, so the buckets still cover every row between them.
+   */
+  public boolean containsMissing() {
+    return bucket == 0;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVInt(out, buckets);
+    WritableUtils.writeVInt(out, bucket);
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    buckets = WritableUtils.readVInt(in);
+    bucket = WritableUtils.readVInt(in);
+  }
+}
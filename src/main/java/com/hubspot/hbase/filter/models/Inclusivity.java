@@ -0,0 +1,37 @@
+package com.hubspot.hbase.filter.models;
+
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Which ends of a range are part of it, named as Guava's {@code Range} names
+ * them: CLOSED is {@code [lower, upper]}, CLOSED_OPEN is {@code [lower, upper)}.
+ */
+public enum Inclusivity {
+  CLOSED(true, true),
+  OPEN(false, false),
+  CLOSED_OPEN(true, false),
+  OPEN_CLOSED(false, true)
+  ;
+
+  private final boolean lowerInclusive;
+  private final boolean upperInclusive;
+
+  private Inclusivity(boolean lowerInclusive, boolean upperInclusive) {
+    this.lowerInclusive = lowerInclusive;
+    this.upperInclusive = upperInclusive;
+  }
+
+  /**
+   * The comparison a value must pass against the lower bound.
+   */
+  public CompareOp getLowerOp() {
+    return lowerInclusive ? CompareOp.GREATER_OR_EQUAL : CompareOp.GREATER;
+  }
+
+  /**
+   * The comparison a value must pass against the upper bound.
+   */
+  public CompareOp getUpperOp() {
+    return upperInclusive ? CompareOp.LESS_OR_EQUAL : CompareOp.LESS;
+  }
+}
@@ -7,7 +7,27 @@ public enum MatchOp {
   MATCH_NOT_EXACT(3, true),
   MATCH_ANY(4),
   MATCH_NONE(5),
-  MATCH_SCALAR(6)
+  MATCH_SCALAR(6),
+  MATCH_IN(7),
+  MATCH_IN_APPROXIMATE(8),
+  MATCH_BETWEEN(9),
+  MATCH_ALL_OF(10),
+  MATCH_ANY_OF(11),
+  MATCH_NONE_OF(12),
+  MATCH_ANY_ELEMENT(13),
+  MATCH_ALL_ELEMENTS(14),
+  MATCH_ELEMENT_COUNT(15),
+  MATCH_FIELD(16),
+  MATCH_STRING(17),
+  MATCH_BITS(18),
+  MATCH_HASH(19),
+  MATCH_PRESENT(20),
+  /**
+   * Only sent on the wire, for a scalar comparison whose operand is a
+   * {@link RelativeTime}. Filters hold it as {@link #MATCH_SCALAR} once read,
+   * so plain scalar comparisons keep their original serialization.
+   */
+  MATCH_RELATIVE_TIME(21)
   ;
 
   private final byte key;
@@ -26,6 +46,22 @@ public enum MatchOp {
     return isExact;
   }
 
+  /**
+   * Whether the op combines the results of other predicates rather than
+   * testing a field itself.
+   */
+  public boolean isExpression() {
+    return this == MATCH_ALL_OF || this == MATCH_ANY_OF || this == MATCH_NONE_OF;
+  }
+
+  /**
+   * Whether the op applies another predicate to the elements of a repeated
+   * field.
+   */
+  public boolean isElementwise() {
+    return this == MATCH_ANY_ELEMENT || this == MATCH_ALL_ELEMENTS || this == MATCH_ELEMENT_COUNT;
+  }
+
   public byte getKey() {
     return key;
   }
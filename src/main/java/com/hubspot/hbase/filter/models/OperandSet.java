@@ -0,0 +1,171 @@
+package com.hubspot.hbase.filter.models;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The set of values a field is tested for membership in: either numbers
+ * (integral values or enum value numbers) or byte strings (UTF-8 strings or raw
+ * bytes). Elements are kept sorted and distinct, which lets them be written
+ * compactly, numbers as varint deltas and byte strings as the length of the
+ * prefix shared with the previous element followed by the rest.
+ */
+public class OperandSet implements Writable {
+  public enum Kind {
+    NUMBERS,
+    STRINGS,
+    BYTES
+  }
+
+  private Kind kind;
+  private long[] numbers;
+  private byte[][] elements;
+
+  public OperandSet() {
+  }
+
+  private OperandSet(Kind kind, long[] numbers, byte[][] elements) {
+    this.kind = kind;
+    this.numbers = numbers;
+    this.elements = elements;
+  }
+
+  public static OperandSet ofNumbers(long... numbers) {
+    long[] sorted = numbers.clone();
+    Arrays.sort(sorted);
+    int distinct = 0;
+    for (int i = 0; i < sorted.length; ++i) {
+      if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+        sorted[distinct++] = sorted[i];
+      }
+    }
+    return new OperandSet(Kind.NUMBERS, Arrays.copyOf(sorted, distinct), null);
+  }
+
+  public static OperandSet ofNumbers(int... numbers) {
+    long[] widened = new long[numbers.length];
+    for (int i = 0; i < numbers.length; ++i) {
+      widened[i] = numbers[i];
+    }
+    return ofNumbers(widened);
+  }
+
+  public static OperandSet ofStrings(String... strings) {
+    byte[][] encoded = new byte[strings.length][];
+    for (int i = 0; i < strings.length; ++i) {
+      encoded[i] = Bytes.toBytes(strings[i]);
+    }
+    return new OperandSet(Kind.STRINGS, null, sortedDistinct(encoded));
+  }
+
+  public static OperandSet ofBytes(byte[]... values) {
+    byte[][] copied = new byte[values.length][];
+    for (int i = 0; i < values.length; ++i) {
+      copied[i] = values[i].clone();
+    }
+    return new OperandSet(Kind.BYTES, null, sortedDistinct(copied));
+  }
+
+  private static byte[][] sortedDistinct(byte[][] values) {
+    Arrays.sort(values, Bytes.BYTES_COMPARATOR);
+    int distinct = 0;
+    for (int i = 0; i < values.length; ++i) {
+      if (i == 0 || !Bytes.equals(values[i], values[distinct - 1])) {
+        values[distinct++] = values[i];
+      }
+    }
+    return Arrays.copyOf(values, distinct);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * The sorted numbers of a {@link Kind#NUMBERS} set, and null otherwise.
+   */
+  public long[] getNumbers() {
+    return numbers;
+  }
+
+  /**
+   * The elements of a {@link Kind#STRINGS} or {@link Kind#BYTES} set in
+   * unsigned lexicographic order, strings as UTF-8, and null otherwise.
+   */
+  public byte[][] getElements() {
+    return elements;
+  }
+
+  public boolean containsNumber(long number) {
+    return numbers != null && Arrays.binarySearch(numbers, number) >= 0;
+  }
+
+  public boolean containsElement(byte[] element) {
+    return elements != null && Arrays.binarySearch(elements, element, Bytes.BYTES_COMPARATOR) >= 0;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(kind.ordinal());
+    if (kind == Kind.NUMBERS) {
+      WritableUtils.writeVInt(out, numbers.length);
+      long previous = 0;
+      for (long number : numbers) {
+        // Deltas may wrap for sets spanning more than the long range; reading wraps back.
+        WritableUtils.writeVLong(out, number - previous);
+        previous = number;
+      }
+    } else {
+      WritableUtils.writeVInt(out, elements.length);
+      byte[] previous = new byte[0];
+      for (byte[] element : elements) {
+        int shared = sharedPrefix(previous, element);
+        WritableUtils.writeVInt(out, shared);
+        WritableUtils.writeVInt(out, element.length - shared);
+        out.write(element, shared, element.length - shared);
+        previous = element;
+      }
+    }
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    kind = Kind.values()[in.readByte()];
+    if (kind == Kind.NUMBERS) {
+      elements = null;
+      numbers = new long[WritableUtils.readVInt(in)];
+      long previous = 0;
+      for (int i = 0; i < numbers.length; ++i) {
+        numbers[i] = previous + WritableUtils.readVLong(in);
+        previous = numbers[i];
+      }
+    } else {
+      numbers = null;
+      elements = new byte[WritableUtils.readVInt(in)][];
+      byte[] previous = new byte[0];
+      for (int i = 0; i < elements.length; ++i) {
+        int shared = WritableUtils.readVInt(in);
+        byte[] element = new byte[shared + WritableUtils.readVInt(in)];
+        System.arraycopy(previous, 0, element, 0, shared);
+        in.readFully(element, shared, element.length - shared);
+        elements[i] = element;
+        previous = element;
+      }
+    }
+  }
+
+  private static int sharedPrefix(byte[] a, byte[] b) {
+    int length = Math.min(a.length, b.length);
+    int shared = 0;
+    while (shared < length && a[shared] == b[shared]) {
+      ++shared;
+    }
+    return shared;
+  }
+}
@@ -0,0 +1,113 @@
+package com.hubspot.hbase.filter.models;
+
+import com.google.protobuf.ByteString;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+
+/**
+ * The upper bound and inclusivity of a range predicate; the lower bound travels
+ * as the filter's ordinary operand. Only the bound's type and the one value it
+ * sets are written, rather than a whole serialized DynamicValue.
+ */
+public class RangeOperand implements Writable {
+  private Inclusivity inclusivity;
+  private DynamicValue upper;
+
+  public RangeOperand() {
+  }
+
+  public RangeOperand(DynamicValue upper, Inclusivity inclusivity) {
+    this.upper = upper;
+    this.inclusivity = inclusivity;
+  }
+
+  public DynamicValue getUpper() {
+    return upper;
+  }
+
+  public Inclusivity getInclusivity() {
+    return inclusivity;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(inclusivity.ordinal());
+    out.writeByte(upper.getTypeValue().getNumber());
+    switch (upper.getTypeValue()) {
+      case type_string:
+        // Enums also carry their number.
+        Bytes.writeByteArray(out, Bytes.toBytes(upper.getValueString()));
+        out.writeBoolean(upper.hasValueInteger());
+        if (upper.hasValueInteger()) {
+          WritableUtils.writeVInt(out, upper.getValueInteger());
+        }
+        break;
+      case type_integer:
+        WritableUtils.writeVInt(out, upper.getValueInteger());
+        break;
+      case type_long:
+        WritableUtils.writeVLong(out, upper.getValueLong());
+        break;
+      case type_float:
+        out.writeFloat(upper.getValueFloat());
+        break;
+      case type_double:
+        out.writeDouble(upper.getValueDouble());
+        break;
+      case type_bool:
+        out.writeBoolean(upper.getValueBool());
+        break;
+      case type_bytes:
+        Bytes.writeByteArray(out, upper.getValueBytes().toByteArray());
+        break;
+      default:
+        throw new IOException("Unknown dynamic type: " + upper.getTypeValue());
+    }
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    inclusivity = Inclusivity.values()[in.readByte()];
+    DynamicValue.Type type = DynamicValue.Type.valueOf(in.readByte());
+    if (type == null) {
+      throw new IOException("Unknown dynamic type");
+    }
+    DynamicValue.Builder builder = DynamicValue.newBuilder().setTypeValue(type);
+    switch (type) {
+      case type_string:
+        builder.setValueString(Bytes.toString(Bytes.readByteArray(in)));
+        if (in.readBoolean()) {
+          builder.setValueInteger(WritableUtils.readVInt(in));
+        }
+        break;
+      case type_integer:
+        builder.setValueInteger(WritableUtils.readVInt(in));
+        break;
+      case type_long:
+        builder.setValueLong(WritableUtils.readVLong(in));
+        break;
+      case type_float:
+        builder.setValueFloat(in.readFloat());
+        break;
+      case type_double:
+        builder.setValueDouble(in.readDouble());
+        break;
+      case type_bool:
+        builder.setValueBool(in.readBoolean());
+        break;
+      case type_bytes:
+        builder.setValueBytes(ByteString.copyFrom(Bytes.readByteArray(in)));
+        break;
+      default:
+        throw new IOException("Unknown dynamic type: " + type);
+    }
+    upper = builder.build();
+  }
+}
@@ -0,0 +1,92 @@
+package com.hubspot.hbase.filter.models;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+
+/**
+ * A point in time relative to the clock of the server evaluating a filter,
+ * such as {@code RelativeTime.ago(7, TimeUnit.DAYS)}, compared to a field
+ * holding a timestamp in {@link #in(TimeUnit) the field's unit}. The filter
+ * is sent with the offset rather than an absolute time, and each region server
+ * resolves it once, when the scanner opens, so the same filter can be reused
+ * and long scans compare against a fixed bound.
+ */
+public class RelativeTime implements Writable {
+  private long offsetMicros;
+  private TimeUnit fieldUnit = TimeUnit.MILLISECONDS;
+
+  public RelativeTime() {
+  }
+
+  private RelativeTime(long offsetMicros, TimeUnit fieldUnit) {
+    this.offsetMicros = offsetMicros;
+    this.fieldUnit = fieldUnit;
+  }
+
+  public static RelativeTime now() {
+    return new RelativeTime(0, TimeUnit.MILLISECONDS);
+  }
+
+  public static RelativeTime ago(long duration, TimeUnit unit) {
+    return new RelativeTime(-unit.toMicros(duration), TimeUnit.MILLISECONDS);
+  }
+
+  public static RelativeTime fromNow(long duration, TimeUnit unit) {
+    return new RelativeTime(unit.toMicros(duration), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The same time, compared to a field counting {@code fieldUnit} since the
+   * epoch: seconds, milliseconds (the default) or microseconds.
+   */
+  public RelativeTime in(TimeUnit fieldUnit) {
+    Preconditions.checkArgument(fieldUnit == TimeUnit.SECONDS || fieldUnit == TimeUnit.MILLISECONDS
+            || fieldUnit == TimeUnit.MICROSECONDS, "Timestamps must be in seconds, millis or micros: %s", fieldUnit);
+    return new RelativeTime(offsetMicros, fieldUnit);
+  }
+
+  public long getOffsetMicros() {
+    return offsetMicros;
+  }
+
+  public TimeUnit getFieldUnit() {
+    return fieldUnit;
+  }
+
+  /**
+   * The time in the field's unit, given the current time in millis.
+   */
+  public long resolve(long nowMillis) {
+    return fieldUnit.convert(TimeUnit.MILLISECONDS.toMicros(nowMillis) + offsetMicros, TimeUnit.MICROSECONDS);
+  }
+
+  /**
+   * The time as the operand of a comparison, given the current time in millis.
+   */
+  public DynamicValue toOperand(long nowMillis) {
+    return DynamicValue.newBuilder()
+            .setTypeValue(DynamicValue.Type.type_long)
+            .setValueLong(resolve(nowMillis))
+            .build();
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVLong(out, offsetMicros);
+    WritableUtils.writeEnum(out, fieldUnit);
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    offsetMicros = WritableUtils.readVLong(in);
+    fieldUnit = WritableUtils.readEnum(in, TimeUnit.class);
+  }
+}
@@ -0,0 +1,112 @@
+package com.hubspot.hbase.filter.models;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Byte strings a string or bytes field is matched against: it starts with,
+ * ends with or contains any one of them. Strings are matched as their UTF-8
+ * encoding, which can only match a field's UTF-8 at character boundaries, so
+ * nothing has to be decoded. Case can be ignored for ASCII letters only, as
+ * in {@code StringPattern.contains("error", "fail").ignoringAsciiCase()}.
+ * A field can also be searched for a regular expression, which is sent as
+ * its UTF-8 like the other patterns.
+ */
+public class StringPattern implements Writable {
+  public enum Kind {
+    PREFIX,
+    SUFFIX,
+    CONTAINS,
+    REGEX
+  }
+
+  private Kind kind;
+  private boolean ignoreAsciiCase;
+  private byte[][] patterns;
+
+  public StringPattern() {
+  }
+
+  private StringPattern(Kind kind, boolean ignoreAsciiCase, byte[][] patterns) {
+    this.kind = kind;
+    this.ignoreAsciiCase = ignoreAsciiCase;
+    this.patterns = patterns;
+  }
+
+  public static StringPattern startsWith(String... prefixes) {
+    return of(Kind.PREFIX, prefixes);
+  }
+
+  public static StringPattern endsWith(String... suffixes) {
+    return of(Kind.SUFFIX, suffixes);
+  }
+
+  public static StringPattern contains(String... substrings) {
+    return of(Kind.CONTAINS, substrings);
+  }
+
+  /**
+   * A {@link Pattern java.util.regex} pattern found anywhere in the field, as
+   * with {@code RegexStringComparator}; anchor it to match the whole field.
+   */
+  public static StringPattern regex(String regex) {
+    // Fail on the client rather than on every region server.
+    Pattern.compile(regex);
+    return of(Kind.REGEX, regex);
+  }
+
+  private static StringPattern of(Kind kind, String... patterns) {
+    Preconditions.checkArgument(patterns.length > 0, "At least one pattern is required");
+    byte[][] encoded = new byte[patterns.length][];
+    for (int i = 0; i < patterns.length; ++i) {
+      encoded[i] = Bytes.toBytes(patterns[i]);
+    }
+    return new StringPattern(kind, false, encoded);
+  }
+
+  /**
+   * The same pattern, matching ASCII letters regardless of case.
+   */
+  public StringPattern ignoringAsciiCase() {
+    return new StringPattern(kind, true, patterns);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public boolean isIgnoreAsciiCase() {
+    return ignoreAsciiCase;
+  }
+
+  public byte[][] getPatterns() {
+    return patterns;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(kind.ordinal());
+    out.writeBoolean(ignoreAsciiCase);
+    WritableUtils.writeVInt(out, patterns.length);
+    for (byte[] pattern : patterns) {
+      Bytes.writeByteArray(out, pattern);
+    }
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    kind = Kind.values()[in.readByte()];
+    ignoreAsciiCase = in.readBoolean();
+    patterns = new byte[WritableUtils.readVInt(in)][];
+    for (int i = 0; i < patterns.length; ++i) {
+      patterns[i] = Bytes.readByteArray(in);
+    }
+  }
+}
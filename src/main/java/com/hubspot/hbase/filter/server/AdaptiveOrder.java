@@ -0,0 +1,135 @@
+package com.hubspot.hbase.filter.server;
+
+import org.apache.hadoop.hbase.HBaseConfiguration;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Chooses the order to evaluate the operands of a short-circuiting AND or OR
+ * from what they have been observed to do. Every evaluation's outcome is
+ * counted and one in {@value #SAMPLE_INTERVAL} is timed; every
+ * {@value #ADAPT_INTERVAL} evaluations of the whole operator the operands are
+ * sorted by expected cost per decisive result, cheapest first, and the counts
+ * are halved so the order keeps following the data as it changes.
+ *
+ * For an AND an operand decides by failing, so it is ranked by its cost over
+ * its failure rate; for an OR by its cost over its pass rate. Operands that
+ * haven't been timed yet rank first so they get measured.
+ *
+ * Reordering is only correct for operands without side effects. It can be
+ * turned off on the region server with {@value #ENABLED_KEY}.
+ */
+public class AdaptiveOrder {
+  public static final String ENABLED_KEY = "protobuf.filter.adaptive.enabled";
+  public static final int SAMPLE_INTERVAL = 16;
+  public static final int ADAPT_INTERVAL = 4096;
+
+  private static final boolean ENABLED = HBaseConfiguration.create().getBoolean(ENABLED_KEY, true);
+
+  private final boolean stopOnPass;
+  private final int[] order;
+  private final long[] evaluations;
+  private final long[] passes;
+  private final long[] timings;
+  private final long[] nanos;
+  private int calls = 0;
+  private int evaluationsSinceAdapt = 0;
+
+  private AdaptiveOrder(int size, boolean stopOnPass) {
+    this.stopOnPass = stopOnPass;
+    this.order = new int[size];
+    for (int i = 0; i < size; ++i) {
+      order[i] = i;
+    }
+    this.evaluations = new long[size];
+    this.passes = new long[size];
+    this.timings = new long[size];
+    this.nanos = new long[size];
+  }
+
+  /**
+   * Returns an order for {@code size} operands, or null if there is nothing to
+   * reorder or reordering is turned off. {@code stopOnPass} is true for an OR,
+   * which stops at the first operand that passes, and false for an AND.
+   */
+  public static AdaptiveOrder forOperands(int size, boolean stopOnPass) {
+    return ENABLED && size > 1 ? new AdaptiveOrder(size, stopOnPass) : null;
+  }
+
+  /**
+   * The operand indexes in the order to evaluate them. The array is updated in
+   * place when the order changes.
+   */
+  public int[] getOrder() {
+    return order;
+  }
+
+  /**
+   * Whether to time the next operand evaluation.
+   */
+  public boolean shouldTime() {
+    return (calls++ & (SAMPLE_INTERVAL - 1)) == 0;
+  }
+
+  /**
+   * Records an operand's outcome, and how long it took if it was timed, or a
+   * negative number if not.
+   */
+  public void record(int operand, boolean passed, long elapsedNanos) {
+    ++evaluations[operand];
+    if (passed) {
+      ++passes[operand];
+    }
+    if (elapsedNanos >= 0) {
+      ++timings[operand];
+      nanos[operand] += elapsedNanos;
+    }
+  }
+
+  /**
+   * Marks the end of one evaluation of the operator, reordering the operands
+   * every {@value #ADAPT_INTERVAL} calls. Returns whether the order changed.
+   */
+  public boolean endEvaluation() {
+    if (++evaluationsSinceAdapt < ADAPT_INTERVAL) {
+      return false;
+    }
+    evaluationsSinceAdapt = 0;
+    final double[] ranks = new double[order.length];
+    for (int i = 0; i < order.length; ++i) {
+      ranks[i] = rank(i);
+      evaluations[i] >>= 1;
+      passes[i] >>= 1;
+      timings[i] >>= 1;
+      nanos[i] >>= 1;
+    }
+    Integer[] sorted = new Integer[order.length];
+    for (int i = 0; i < order.length; ++i) {
+      sorted[i] = order[i];
+    }
+    // Stable, so operands that rank the same keep their places.
+    Arrays.sort(sorted, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer left, Integer right) {
+        return Double.compare(ranks[left], ranks[right]);
+      }
+    });
+    boolean changed = false;
+    for (int i = 0; i < order.length; ++i) {
+      changed |= order[i] != sorted[i];
+      order[i] = sorted[i];
+    }
+    return changed;
+  }
+
+  private double rank(int operand) {
+    if (timings[operand] == 0) {
+      return 0;
+    }
+    double cost = (double) nanos[operand] / timings[operand];
+    // Smoothed, so an operand that has never decided still ranks finitely.
+    double passRate = (passes[operand] + 1.0) / (evaluations[operand] + 2.0);
+    return cost / (stopOnPass ? passRate : 1 - passRate);
+  }
+}
@@ -0,0 +1,76 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.BitMask;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * Tests the bits of an integral field straight off the wire, with a single
+ * AND of the decoded value. A missing value never passes.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class BitMaskPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final FieldDescriptor.Type type;
+  private final BitMask bitMask;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private BitMaskPredicate(FieldPath fieldPath, BitMask bitMask) {
+    this.fieldPath = fieldPath;
+    this.type = fieldPath.getLeaf().getType();
+    this.bitMask = bitMask;
+  }
+
+  /**
+   * Returns a predicate for the field and mask, or absent if the field can't
+   * be read off the wire or isn't an integral field.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, BitMask bitMask) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable() || !isIntegral(fieldPath.getLeaf())) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(new BitMaskPredicate(fieldPath, bitMask));
+  }
+
+  static boolean isIntegral(FieldDescriptor field) {
+    return field.getJavaType() == FieldDescriptor.JavaType.INT || field.getJavaType() == FieldDescriptor.JavaType.LONG;
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    return value.isPresent() && bitMask.test(toBits(type, value.getBits()));
+  }
+
+  /**
+   * The bits of an integral field's value, with 32-bit values kept to their
+   * own 32 bits rather than sign extended.
+   */
+  static long toBits(FieldDescriptor.Type type, long bits) {
+    long number = SetPredicate.toNumber(type, bits);
+    switch (type) {
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+      case SINT64:
+        return number;
+      default:
+        return number & 0xffffffffL;
+    }
+  }
+}
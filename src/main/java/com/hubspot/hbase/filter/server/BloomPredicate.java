@@ -0,0 +1,71 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.BloomSpec;
+import com.hubspot.hbase.filter.models.OperandSet;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Probes a Bloom filter with a field read straight off the wire: numbers are
+ * hashed from their decoded value and strings and bytes as a slice of the
+ * cell. EQUAL passes values that may be in the set, NOT_EQUAL those that
+ * certainly aren't; a missing value only passes NOT_EQUAL.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class BloomPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final FieldDescriptor.Type type;
+  private final boolean negated;
+  private final BloomSpec bloomSpec;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private BloomPredicate(FieldPath fieldPath, boolean negated, BloomSpec bloomSpec) {
+    this.fieldPath = fieldPath;
+    this.type = fieldPath.getLeaf().getType();
+    this.negated = negated;
+    this.bloomSpec = bloomSpec;
+  }
+
+  /**
+   * Returns a predicate for the field and filter, or absent if the field can't
+   * be read off the wire or doesn't hold the kind of values in the filter.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, CompareOp compareOp, BloomSpec bloomSpec) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()
+            || (compareOp != CompareOp.EQUAL && compareOp != CompareOp.NOT_EQUAL)
+            || !SetPredicate.holdsKind(fieldPath.getLeaf(), bloomSpec.getKind())) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(new BloomPredicate(fieldPath, compareOp == CompareOp.NOT_EQUAL, bloomSpec));
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    if (!value.isPresent()) {
+      return negated;
+    }
+    long hash;
+    if (bloomSpec.getKind() == OperandSet.Kind.NUMBERS) {
+      hash = BloomSpec.hashNumber(SetPredicate.toNumber(type, value.getBits()));
+    } else {
+      hash = BloomSpec.hashBytes(value.getBuffer(), value.getOffset(), value.getLength());
+    }
+    return bloomSpec.mightContainHash(hash) != negated;
+  }
+}
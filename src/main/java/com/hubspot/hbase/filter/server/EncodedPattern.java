@@ -0,0 +1,196 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * The exact bytes (tag followed by the encoded value) that a field equal to an
+ * operand has on the wire. If those bytes occur nowhere in a cell, no occurrence
+ * of the field holds the operand, so an equality predicate can be decided
+ * without decoding anything.
+ *
+ * This relies on values being written in canonical form (minimal varints), as
+ * every protobuf encoder does, and is only built when the operand differs from
+ * the field's declared default, since an absent field would otherwise still
+ * match. It can be turned off on the region server with {@value #ENABLED_KEY}.
+ */
+public class EncodedPattern {
+  public static final String ENABLED_KEY = "protobuf.filter.prescan.enabled";
+
+  private static final boolean ENABLED = HBaseConfiguration.create().getBoolean(ENABLED_KEY, true);
+
+  private final byte[] pattern;
+  private final int[] shifts;
+
+  private EncodedPattern(byte[] pattern) {
+    this.pattern = pattern;
+    this.shifts = new int[256];
+    Arrays.fill(shifts, pattern.length);
+    for (int i = 0; i < pattern.length - 1; ++i) {
+      shifts[pattern[i] & 0xff] = pattern.length - 1 - i;
+    }
+  }
+
+  /**
+   * Returns the pattern for an EQUAL or NOT_EQUAL predicate on a wire readable
+   * path, or absent if the operand has no single canonical encoding or equals
+   * the field's default.
+   */
+  public static Optional<EncodedPattern> forEquality(FieldPath fieldPath, CompareOp compareOp, DynamicValue operand) {
+    if (!ENABLED || (compareOp != CompareOp.EQUAL && compareOp != CompareOp.NOT_EQUAL)
+            || !fieldPath.isResolved() || !fieldPath.isWireReadable()) {
+      return Optional.absent();
+    }
+    FieldDescriptor leaf = fieldPath.getLeaf();
+    Object value = toFieldValue(leaf, operand);
+    if (value == null) {
+      return Optional.absent();
+    }
+    byte[] pattern = encode(leaf, value);
+    if (leaf.hasDefaultValue() && Arrays.equals(pattern, encode(leaf, leaf.getDefaultValue()))) {
+      return Optional.absent();
+    }
+    return Optional.of(new EncodedPattern(pattern));
+  }
+
+  /**
+   * Whether the pattern occurs anywhere in the slice, found with a
+   * Boyer-Moore-Horspool search.
+   */
+  public boolean occursIn(byte[] buf, int offset, int length) {
+    int last = pattern.length - 1;
+    int end = offset + length - last;
+    int position = offset;
+    while (position < end) {
+      int i = last;
+      while (buf[position + i] == pattern[i]) {
+        if (i == 0) {
+          return true;
+        }
+        --i;
+      }
+      position += shifts[buf[position + last] & 0xff];
+    }
+    return false;
+  }
+
+  /**
+   * The operand as the field's own Java type, or null if no value of the field
+   * is equal to it under a single encoding.
+   */
+  private static Object toFieldValue(FieldDescriptor field, DynamicValue operand) {
+    switch (field.getJavaType()) {
+      case INT:
+        Long intValue = integralOperand(operand);
+        return intValue != null && intValue == intValue.intValue() ? (Object) intValue.intValue() : null;
+      case LONG:
+        return integralOperand(operand);
+      case FLOAT:
+        return operand.getTypeValue() == DynamicValue.Type.type_float && !Float.isNaN(operand.getValueFloat())
+                ? operand.getValueFloat() : null;
+      case DOUBLE:
+        return operand.getTypeValue() == DynamicValue.Type.type_double && !Double.isNaN(operand.getValueDouble())
+                ? operand.getValueDouble() : null;
+      case BOOLEAN:
+        return operand.getTypeValue() == DynamicValue.Type.type_bool ? operand.getValueBool() : null;
+      case STRING:
+        return operand.getTypeValue() == DynamicValue.Type.type_string ? operand.getValueString() : null;
+      case BYTE_STRING:
+        return operand.getTypeValue() == DynamicValue.Type.type_bytes ? operand.getValueBytes() : null;
+      case ENUM:
+        if (operand.getTypeValue() != DynamicValue.Type.type_string) {
+          return null;
+        }
+        return operand.hasValueInteger()
+                ? field.getEnumType().findValueByNumber(operand.getValueInteger())
+                : field.getEnumType().findValueByName(operand.getValueString());
+      default:
+        return null;
+    }
+  }
+
+  private static Long integralOperand(DynamicValue operand) {
+    switch (operand.getTypeValue()) {
+      case type_integer:
+        return (long) operand.getValueInteger();
+      case type_long:
+        return operand.getValueLong();
+      default:
+        return null;
+    }
+  }
+
+  private static byte[] encode(FieldDescriptor field, Object value) {
+    int number = field.getNumber();
+    ByteString.Output encoded = ByteString.newOutput();
+    CodedOutputStream output = CodedOutputStream.newInstance(encoded);
+    try {
+      switch (field.getType()) {
+        case DOUBLE:
+          output.writeDouble(number, (Double) value);
+          break;
+        case FLOAT:
+          output.writeFloat(number, (Float) value);
+          break;
+        case INT64:
+          output.writeInt64(number, (Long) value);
+          break;
+        case UINT64:
+          output.writeUInt64(number, (Long) value);
+          break;
+        case INT32:
+          output.writeInt32(number, (Integer) value);
+          break;
+        case FIXED64:
+          output.writeFixed64(number, (Long) value);
+          break;
+        case FIXED32:
+          output.writeFixed32(number, (Integer) value);
+          break;
+        case BOOL:
+          output.writeBool(number, (Boolean) value);
+          break;
+        case STRING:
+          output.writeString(number, (String) value);
+          break;
+        case BYTES:
+          output.writeBytes(number, (ByteString) value);
+          break;
+        case UINT32:
+          output.writeUInt32(number, (Integer) value);
+          break;
+        case ENUM:
+          output.writeEnum(number, ((EnumValueDescriptor) value).getNumber());
+          break;
+        case SFIXED32:
+          output.writeSFixed32(number, (Integer) value);
+          break;
+        case SFIXED64:
+          output.writeSFixed64(number, (Long) value);
+          break;
+        case SINT32:
+          output.writeSInt32(number, (Integer) value);
+          break;
+        case SINT64:
+          output.writeSInt64(number, (Long) value);
+          break;
+        default:
+          throw new IllegalArgumentException("Cannot encode " + field.getType());
+      }
+      output.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return encoded.toByteString().toByteArray();
+  }
+}
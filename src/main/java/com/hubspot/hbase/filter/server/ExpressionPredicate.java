@@ -0,0 +1,173 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates an AND/OR/NOT tree of predicates on one cell. The fields the tree's
+ * field predicates name are read together in one pass over the cell, then the
+ * tree is evaluated, stopping at the first operand that decides each AND or
+ * OR, with operands tried in the order found cheapest so far. Leaves that
+ * can't be tested on an extracted value are handed the whole cell.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class ExpressionPredicate implements WirePredicate {
+  private final Node root;
+  private final MultiFieldExtractor extractor;
+
+  public ExpressionPredicate(Node root) {
+    this.root = root;
+    Map<String, Integer> slots = Maps.newHashMap();
+    List<FieldPath> paths = Lists.newArrayList();
+    root.assignSlots(slots, paths);
+    this.extractor = paths.isEmpty() ? null : new MultiFieldExtractor(paths);
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    if (extractor != null) {
+      extractor.extract(buf, offset, length);
+    }
+    return root.evaluate(buf, offset, length, extractor);
+  }
+
+  public static Node allOf(List<Node> operands) {
+    return new Branch(operands.toArray(new Node[operands.size()]), false, false);
+  }
+
+  public static Node anyOf(List<Node> operands) {
+    return new Branch(operands.toArray(new Node[operands.size()]), true, true);
+  }
+
+  public static Node noneOf(List<Node> operands) {
+    return new Branch(operands.toArray(new Node[operands.size()]), true, false);
+  }
+
+  /**
+   * A leaf tested on its field's value, read along with the tree's other fields.
+   */
+  public static Node field(FieldPredicate predicate) {
+    return new FieldLeaf(predicate);
+  }
+
+  /**
+   * A leaf tested on the whole cell.
+   */
+  public static Node cell(WirePredicate predicate) {
+    return new CellLeaf(predicate);
+  }
+
+  public abstract static class Node {
+    abstract void assignSlots(Map<String, Integer> slots, List<FieldPath> paths);
+
+    abstract boolean evaluate(byte[] buf, int offset, int length, MultiFieldExtractor extractor);
+  }
+
+  /**
+   * An AND, OR or NOT-OR of operands, evaluated until one returns
+   * {@code stopOn}, which makes the result {@code resultIfStopped}. Operands
+   * are tried in the order {@link AdaptiveOrder} finds cheapest.
+   */
+  private static final class Branch extends Node {
+    private final Node[] operands;
+    private final boolean stopOn;
+    private final boolean resultIfStopped;
+    private final AdaptiveOrder adaptiveOrder;
+    private final int[] order;
+
+    private Branch(Node[] operands, boolean stopOn, boolean resultIfStopped) {
+      this.operands = operands;
+      this.stopOn = stopOn;
+      this.resultIfStopped = resultIfStopped;
+      this.adaptiveOrder = AdaptiveOrder.forOperands(operands.length, stopOn);
+      if (adaptiveOrder != null) {
+        this.order = adaptiveOrder.getOrder();
+      } else {
+        this.order = new int[operands.length];
+        for (int i = 0; i < operands.length; ++i) {
+          order[i] = i;
+        }
+      }
+    }
+
+    @Override
+    void assignSlots(Map<String, Integer> slots, List<FieldPath> paths) {
+      for (Node operand : operands) {
+        operand.assignSlots(slots, paths);
+      }
+    }
+
+    @Override
+    boolean evaluate(byte[] buf, int offset, int length, MultiFieldExtractor extractor) {
+      boolean stopped = false;
+      for (int index : order) {
+        boolean result;
+        if (adaptiveOrder == null) {
+          result = operands[index].evaluate(buf, offset, length, extractor);
+        } else if (adaptiveOrder.shouldTime()) {
+          long start = System.nanoTime();
+          result = operands[index].evaluate(buf, offset, length, extractor);
+          adaptiveOrder.record(index, result, System.nanoTime() - start);
+        } else {
+          result = operands[index].evaluate(buf, offset, length, extractor);
+          adaptiveOrder.record(index, result, -1);
+        }
+        if (result == stopOn) {
+          stopped = true;
+          break;
+        }
+      }
+      if (adaptiveOrder != null) {
+        adaptiveOrder.endEvaluation();
+      }
+      return stopped == resultIfStopped;
+    }
+  }
+
+  private static final class FieldLeaf extends Node {
+    private final FieldPredicate predicate;
+    private int slot;
+
+    private FieldLeaf(FieldPredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    @Override
+    void assignSlots(Map<String, Integer> slots, List<FieldPath> paths) {
+      FieldPath path = predicate.getFieldPath();
+      Integer existing = slots.get(path.getFieldSpec());
+      if (existing == null) {
+        existing = paths.size();
+        slots.put(path.getFieldSpec(), existing);
+        paths.add(path);
+      }
+      slot = existing;
+    }
+
+    @Override
+    boolean evaluate(byte[] buf, int offset, int length, MultiFieldExtractor extractor) {
+      return predicate.testValue(extractor.getValue(slot));
+    }
+  }
+
+  private static final class CellLeaf extends Node {
+    private final WirePredicate predicate;
+
+    private CellLeaf(WirePredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    @Override
+    void assignSlots(Map<String, Integer> slots, List<FieldPath> paths) {
+    }
+
+    @Override
+    boolean evaluate(byte[] buf, int offset, int length, MultiFieldExtractor extractor) {
+      return predicate.test(buf, offset, length);
+    }
+  }
+}
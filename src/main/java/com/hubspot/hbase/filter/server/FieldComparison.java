@@ -0,0 +1,291 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Compares two fields of the same message, as in {@code updated_at > created_at}.
+ *
+ * How the two values are compared is settled once, from the fields' types:
+ * integral fields of any width or encoding compare as longs, an integral field
+ * and a floating point one, or two floating point ones, compare as doubles,
+ * enums of the same type compare by number, strings compare as
+ * {@link String#compareTo} would and bytes compare byte by byte. Any other
+ * pair of types only passes a not equal comparison. As with a constant
+ * operand, a missing value only passes a not equal comparison.
+ */
+public abstract class FieldComparison {
+  private final CompareOp compareOp;
+
+  private FieldComparison(CompareOp compareOp) {
+    this.compareOp = compareOp;
+  }
+
+  /**
+   * Returns the comparison of the two fields' values, or null if their types
+   * can't be compared.
+   */
+  public static FieldComparison forFields(FieldPath left, CompareOp compareOp, FieldPath right) {
+    if (!left.isResolved() || !right.isResolved()) {
+      return null;
+    }
+    FieldDescriptor leftField = left.getLeaf();
+    FieldDescriptor rightField = right.getLeaf();
+    Encoding leftEncoding = Encoding.of(leftField);
+    Encoding rightEncoding = Encoding.of(rightField);
+    if (leftEncoding == null || rightEncoding == null) {
+      return null;
+    } else if (leftEncoding.isNumeric() && rightEncoding.isNumeric()) {
+      if (leftEncoding.isIntegral() && rightEncoding.isIntegral()) {
+        return new IntegralComparison(compareOp, leftEncoding, rightEncoding);
+      }
+      return new FloatingComparison(compareOp, leftEncoding, rightEncoding);
+    } else if (leftEncoding == Encoding.BOOL && rightEncoding == Encoding.BOOL) {
+      return new IntegralComparison(compareOp, leftEncoding, rightEncoding);
+    } else if (leftEncoding == Encoding.ENUM && rightEncoding == Encoding.ENUM
+            && leftField.getEnumType() == rightField.getEnumType()) {
+      return new IntegralComparison(compareOp, leftEncoding, rightEncoding);
+    } else if (leftEncoding == Encoding.SLICE && leftField.getType() == rightField.getType()) {
+      return new SliceComparison(compareOp, leftField.getType() == FieldDescriptor.Type.STRING);
+    }
+    return null;
+  }
+
+  /**
+   * Returns a predicate reading both fields off the wire in one pass, or
+   * absent if either isn't {@link FieldPath#isWireReadable() wire readable}.
+   * Fields whose types can't be compared only pass a not equal comparison.
+   */
+  public static Optional<WirePredicate> predicateFor(FieldPath left, CompareOp compareOp, FieldPath right) {
+    final FieldComparison comparison = forFields(left, compareOp, right);
+    if (comparison == null) {
+      final boolean result = compareOp == CompareOp.NOT_EQUAL;
+      return Optional.<WirePredicate>of(new WirePredicate() {
+        @Override
+        public boolean test(byte[] buf, int offset, int length) {
+          return result;
+        }
+      });
+    } else if (!left.isWireReadable() || !right.isWireReadable()) {
+      return Optional.absent();
+    }
+    boolean sameField = isSameField(left, right);
+    final MultiFieldExtractor extractor = new MultiFieldExtractor(
+            sameField ? ImmutableList.of(left) : ImmutableList.of(left, right));
+    final int rightSlot = sameField ? 0 : 1;
+    return Optional.<WirePredicate>of(new WirePredicate() {
+      @Override
+      public boolean test(byte[] buf, int offset, int length) {
+        extractor.extract(buf, offset, length);
+        return comparison.test(extractor.getValue(0), extractor.getValue(rightSlot));
+      }
+    });
+  }
+
+  /**
+   * Compares two values read off the wire.
+   */
+  public boolean test(FieldValue left, FieldValue right) {
+    if (!left.isPresent() || !right.isPresent()) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    return ScalarPredicate.interpret(compareOp, compare(left, right));
+  }
+
+  /**
+   * Compares two values taken from a parsed message, in the form
+   * {@link FieldPath#extract} reports them.
+   */
+  public boolean test(FieldPath left, Object leftScalar, FieldPath right, Object rightScalar) {
+    if (leftScalar == null || rightScalar == null) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    return ScalarPredicate.interpret(compareOp, compare(left, leftScalar, right, rightScalar));
+  }
+
+  abstract int compare(FieldValue left, FieldValue right);
+
+  abstract int compare(FieldPath left, Object leftScalar, FieldPath right, Object rightScalar);
+
+  private static boolean isSameField(FieldPath left, FieldPath right) {
+    if (left.depth() != right.depth()) {
+      return false;
+    }
+    for (int i = 0; i < left.depth(); ++i) {
+      if (left.getTag(i) != right.getTag(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * How a field's value sits on the wire, and so how to decode it.
+   */
+  private enum Encoding {
+    INT32, SINT32, INT64, SINT64, FLOAT, DOUBLE, BOOL, ENUM, SLICE;
+
+    static Encoding of(FieldDescriptor field) {
+      switch (field.getType()) {
+        case INT32:
+        case UINT32:
+        case FIXED32:
+        case SFIXED32:
+          return INT32;
+        case SINT32:
+          return SINT32;
+        case INT64:
+        case UINT64:
+        case FIXED64:
+        case SFIXED64:
+          return INT64;
+        case SINT64:
+          return SINT64;
+        case FLOAT:
+          return FLOAT;
+        case DOUBLE:
+          return DOUBLE;
+        case BOOL:
+          return BOOL;
+        case ENUM:
+          return ENUM;
+        case STRING:
+        case BYTES:
+          return SLICE;
+        default:
+          return null;
+      }
+    }
+
+    boolean isNumeric() {
+      return this != BOOL && this != ENUM && this != SLICE;
+    }
+
+    boolean isIntegral() {
+      return this != FLOAT && this != DOUBLE;
+    }
+
+    /**
+     * The value as the long Java reports it as; unsigned fields keep the
+     * sign Java gives them, as they do when compared to a constant.
+     */
+    long toLong(long bits) {
+      switch (this) {
+        case INT32:
+        case ENUM:
+          return (int) bits;
+        case SINT32:
+          return Wire.decodeZigZag32((int) bits);
+        case SINT64:
+          return Wire.decodeZigZag64(bits);
+        case BOOL:
+          return bits == 0 ? 0 : 1;
+        default:
+          return bits;
+      }
+    }
+
+    double toDouble(long bits) {
+      switch (this) {
+        case FLOAT:
+          return Float.intBitsToFloat((int) bits);
+        case DOUBLE:
+          return Double.longBitsToDouble(bits);
+        default:
+          return toLong(bits);
+      }
+    }
+  }
+
+  private static long scalarToLong(FieldPath path, Object scalar) {
+    if (scalar instanceof Boolean) {
+      return (Boolean) scalar ? 1 : 0;
+    } else if (scalar instanceof String) {
+      // Enums are reported by name.
+      EnumValueDescriptor value = path.getLeaf().getEnumType().findValueByName((String) scalar);
+      return value.getNumber();
+    }
+    return ((Number) scalar).longValue();
+  }
+
+  private static byte[] scalarToBytes(Object scalar) {
+    return scalar instanceof ByteString ? ((ByteString) scalar).toByteArray() : Bytes.toBytes((String) scalar);
+  }
+
+  private static final class IntegralComparison extends FieldComparison {
+    private final Encoding left;
+    private final Encoding right;
+
+    private IntegralComparison(CompareOp compareOp, Encoding left, Encoding right) {
+      super(compareOp);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int compare(FieldValue leftValue, FieldValue rightValue) {
+      return Longs.compare(left.toLong(leftValue.getBits()), right.toLong(rightValue.getBits()));
+    }
+
+    @Override
+    int compare(FieldPath leftPath, Object leftScalar, FieldPath rightPath, Object rightScalar) {
+      return Longs.compare(scalarToLong(leftPath, leftScalar), scalarToLong(rightPath, rightScalar));
+    }
+  }
+
+  private static final class FloatingComparison extends FieldComparison {
+    private final Encoding left;
+    private final Encoding right;
+
+    private FloatingComparison(CompareOp compareOp, Encoding left, Encoding right) {
+      super(compareOp);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int compare(FieldValue leftValue, FieldValue rightValue) {
+      return Doubles.compare(left.toDouble(leftValue.getBits()), right.toDouble(rightValue.getBits()));
+    }
+
+    @Override
+    int compare(FieldPath leftPath, Object leftScalar, FieldPath rightPath, Object rightScalar) {
+      return Doubles.compare(((Number) leftScalar).doubleValue(), ((Number) rightScalar).doubleValue());
+    }
+  }
+
+  private static final class SliceComparison extends FieldComparison {
+    private final boolean utf8;
+
+    private SliceComparison(CompareOp compareOp, boolean utf8) {
+      super(compareOp);
+      this.utf8 = utf8;
+    }
+
+    @Override
+    int compare(FieldValue left, FieldValue right) {
+      if (utf8) {
+        return SliceComparator.compareUtf8(left.getBuffer(), left.getOffset(), left.getLength(),
+                right.getBuffer(), right.getOffset(), right.getLength());
+      }
+      return Bytes.compareTo(left.getBuffer(), left.getOffset(), left.getLength(),
+              right.getBuffer(), right.getOffset(), right.getLength());
+    }
+
+    @Override
+    int compare(FieldPath leftPath, Object leftScalar, FieldPath rightPath, Object rightScalar) {
+      if (utf8) {
+        return ((String) leftScalar).compareTo((String) rightScalar);
+      }
+      return Bytes.compareTo(scalarToBytes(leftScalar), scalarToBytes(rightScalar));
+    }
+  }
+}
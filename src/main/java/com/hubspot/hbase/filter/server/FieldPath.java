@@ -0,0 +1,611 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.UnsignedInts;
+import com.google.common.primitives.UnsignedLongs;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import com.google.protobuf.WireFormat;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.protobuf.Descriptors.Descriptor;
+import static com.google.protobuf.Descriptors.EnumDescriptor;
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * A dotted field spec resolved once against a descriptor, so rows can be
+ * interrogated by field number instead of by name.
+ *
+ * A repeated field along the path can select its elements: {@code items[*]}
+ * selects all of them, {@code items[0]} the first and {@code items[last]} the
+ * last. A repeated field without a selector selects all of its elements, so
+ * {@code items.sku} is {@code items[*].sku}.
+ *
+ * A repeated message emulating a map, with {@code key} and {@code value}
+ * fields, can be looked up by key instead: {@code attributes["plan"]} is the
+ * value of the last entry whose key is {@code plan}, and the path goes on
+ * from there, as in {@code attributes["plan"].tier} if the value is a message.
+ * The key is parsed as the key field's type.
+ */
+public class FieldPath {
+  public static final int ALL_ELEMENTS = -1;
+  public static final int LAST_ELEMENT = -2;
+  public static final int KEYED_ELEMENT = -3;
+
+  private static final int MAX_DENSE_ENUM_NUMBER = 1024;
+  private static final Pattern SEGMENT = Pattern.compile("(\\w+)(?:\\[(?:(\\*|last|\\d+)|\"((?:[^\"\\\\]|\\\\.)*)\")\\])?");
+  private static final Pattern ESCAPE = Pattern.compile("\\\\(.)");
+
+  private final String fieldSpec;
+  private final FieldDescriptor[] fields;
+  private final int[] selectors;
+  private final EntryKey[] keys;
+  private final int[] fieldNumbers;
+  private final int[] wireTypes;
+  private final int[] tags;
+  private final boolean wireReadable;
+  private final boolean walkable;
+  private final boolean multiValued;
+  private final boolean singular;
+  private final Object defaultValue;
+  private final long defaultBits;
+  private final byte[] defaultBytes;
+  private final String[] enumNames;
+
+  private FieldPath(String fieldSpec, FieldDescriptor[] fields, int[] selectors, EntryKey[] keys,
+                    boolean elementPath) {
+    this.fieldSpec = fieldSpec;
+    this.fields = fields;
+    this.selectors = selectors;
+    this.keys = keys;
+    this.fieldNumbers = new int[fields.length];
+    this.wireTypes = new int[fields.length];
+    this.tags = new int[fields.length];
+
+    boolean wireReadable = fields.length > 0;
+    boolean walkable = fields.length > 0;
+    boolean multiValued = false;
+    boolean singular = true;
+    for (int i = 0; i < fields.length; ++i) {
+      fieldNumbers[i] = fields[i].getNumber();
+      wireTypes[i] = fields[i].getLiteType().getWireType();
+      tags[i] = Wire.makeTag(fieldNumbers[i], wireTypes[i]);
+      if (fields[i].getType() == FieldDescriptor.Type.GROUP) {
+        wireReadable = false;
+        walkable = false;
+      }
+      if (fields[i].isRepeated()) {
+        wireReadable = wireReadable && elementPath;
+        singular = false;
+        multiValued = multiValued || selectors[i] == ALL_ELEMENTS;
+      }
+    }
+
+    FieldDescriptor leaf = fields.length == 0 ? null : fields[fields.length - 1];
+    if (leaf != null && leaf.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+      wireReadable = false;
+      walkable = false;
+    }
+    this.wireReadable = wireReadable;
+    this.walkable = walkable;
+    this.multiValued = multiValued;
+    this.singular = singular;
+    this.defaultValue = leaf == null || leaf.isRepeated() || !leaf.hasDefaultValue() ? null : toScalar(leaf, leaf.getDefaultValue());
+    this.enumNames = leaf != null && leaf.getJavaType() == FieldDescriptor.JavaType.ENUM ? denseEnumNames(leaf.getEnumType()) : null;
+    this.defaultBits = defaultValue == null ? 0L : toWireBits(leaf, leaf.getDefaultValue());
+    this.defaultBytes = defaultValue == null ? null : toWireBytes(defaultValue);
+  }
+
+  /**
+   * Resolves each segment of the spec by name. Resolution stops at the first
+   * segment that isn't a message, and an unknown name, a selector on a field
+   * that isn't repeated, or a key on one that isn't a map-style entry
+   * resolves to an empty path which never yields a value.
+   */
+  public static FieldPath compile(Descriptor descriptor, String fieldSpec) {
+    List<FieldDescriptor> fields = Lists.newArrayList();
+    List<Integer> selectors = Lists.newArrayList();
+    List<EntryKey> keys = Lists.newArrayList();
+    Descriptor current = descriptor;
+    Matcher matcher = SEGMENT.matcher(fieldSpec);
+    int position = 0;
+    while (current != null && position < fieldSpec.length()) {
+      if (fieldSpec.charAt(position) == '.') {
+        ++position;
+        continue;
+      }
+      matcher.region(position, fieldSpec.length());
+      FieldDescriptor field = matcher.lookingAt() ? current.findFieldByName(matcher.group(1)) : null;
+      if (field == null || !endsSegment(fieldSpec, matcher.end())) {
+        return unresolved(fieldSpec);
+      }
+      position = matcher.end();
+
+      EntryKey key = null;
+      if (matcher.group(3) != null) {
+        key = EntryKey.parse(field, ESCAPE.matcher(matcher.group(3)).replaceAll("$1"));
+        if (key == null) {
+          return unresolved(fieldSpec);
+        }
+      } else if (matcher.group(2) != null && !field.isRepeated()) {
+        return unresolved(fieldSpec);
+      }
+      fields.add(field);
+      selectors.add(key == null ? toSelector(matcher.group(2)) : KEYED_ELEMENT);
+      keys.add(key);
+      if (key != null) {
+        // The lookup leads to the value of the entry.
+        field = key.valueField;
+        fields.add(field);
+        selectors.add(ALL_ELEMENTS);
+        keys.add(null);
+      }
+      current = field.getJavaType() == FieldDescriptor.JavaType.MESSAGE ? field.getMessageType() : null;
+    }
+    return new FieldPath(fieldSpec, fields.toArray(new FieldDescriptor[fields.size()]), Ints.toArray(selectors),
+            keys.toArray(new EntryKey[keys.size()]), false);
+  }
+
+  private static FieldPath unresolved(String fieldSpec) {
+    return new FieldPath(fieldSpec, new FieldDescriptor[0], new int[0], new EntryKey[0], false);
+  }
+
+  private static boolean endsSegment(String fieldSpec, int position) {
+    return position == fieldSpec.length() || fieldSpec.charAt(position) == '.';
+  }
+
+  private static int toSelector(String selector) {
+    if (selector == null || selector.equals("*")) {
+      return ALL_ELEMENTS;
+    } else if (selector.equals("last")) {
+      return LAST_ELEMENT;
+    }
+    try {
+      return Integer.parseInt(selector);
+    } catch (NumberFormatException e) {
+      // Too large to ever select anything.
+      return Integer.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Whether the values the path selects can be read off the wire by a
+   * {@link PathWalker}: no segment is a group and the leaf is a scalar.
+   */
+  public boolean isWalkable() {
+    return walkable;
+  }
+
+  /**
+   * Whether the path can select more than one value, because a repeated
+   * field along it selects all of its elements.
+   */
+  public boolean isMultiValued() {
+    return multiValued;
+  }
+
+  /**
+   * The path to one of the values a walkable path selects. It is wire
+   * readable, so predicates on the leaf's values can be built on it, but only
+   * a {@link PathWalker} should read with it: reading it as a singular field
+   * would ignore the selectors.
+   */
+  public FieldPath getElementPath() {
+    if (!walkable) {
+      throw new IllegalStateException(fieldSpec + " can't be read off the wire");
+    }
+    return new FieldPath(fieldSpec, fields, selectors, keys, true);
+  }
+
+  public String getFieldSpec() {
+    return fieldSpec;
+  }
+
+  public boolean isResolved() {
+    return fields.length > 0;
+  }
+
+  /**
+   * Whether the leaf can be pulled straight off the wire: every segment is a
+   * singular, non-group field and the leaf is a scalar.
+   */
+  public boolean isWireReadable() {
+    return wireReadable;
+  }
+
+  public int depth() {
+    return fields.length;
+  }
+
+  public FieldDescriptor getField(int depth) {
+    return fields[depth];
+  }
+
+  public FieldDescriptor getLeaf() {
+    return fields[fields.length - 1];
+  }
+
+  public int getFieldNumber(int depth) {
+    return fieldNumbers[depth];
+  }
+
+  public int getWireType(int depth) {
+    return wireTypes[depth];
+  }
+
+  public int getTag(int depth) {
+    return tags[depth];
+  }
+
+  /**
+   * Which elements a repeated segment selects: {@link #ALL_ELEMENTS},
+   * {@link #LAST_ELEMENT}, {@link #KEYED_ELEMENT} or an index.
+   */
+  public int getSelector(int depth) {
+    return selectors[depth];
+  }
+
+  /**
+   * The tag of the key field of the entries a {@link #KEYED_ELEMENT} segment
+   * looks up.
+   */
+  public int getKeyTag(int depth) {
+    return keys[depth].tag;
+  }
+
+  /**
+   * Whether the key of an entry, read off the wire with the key field's wire
+   * type, is the one a {@link #KEYED_ELEMENT} segment looks up. An entry
+   * without a key has the key field's default.
+   */
+  public boolean matchesKey(int depth, FieldValue key) {
+    EntryKey entryKey = keys[depth];
+    if (!key.isPresent()) {
+      return entryKey.matchesMissing;
+    } else if (entryKey.bytes != null) {
+      return Bytes.equals(entryKey.bytes, 0, entryKey.bytes.length, key.getBuffer(), key.getOffset(), key.getLength());
+    } else {
+      return entryKey.bits == key.getBits();
+    }
+  }
+
+  /**
+   * The leaf's declared default in scalar form, or null if it has none.
+   */
+  public Object getDefaultValue() {
+    return defaultValue;
+  }
+
+  public boolean hasDefaultValue() {
+    return defaultValue != null;
+  }
+
+  /**
+   * Loads the leaf's declared default into {@code value} in the form it would
+   * have been read off the wire.
+   */
+  public void loadDefaultValue(FieldValue value) {
+    if (defaultBytes != null) {
+      value.setSlice(defaultBytes, 0, defaultBytes.length);
+    } else {
+      value.setBits(defaultBits);
+    }
+  }
+
+  /**
+   * Decodes a value read off the wire for the leaf into the same form
+   * a parsed message would report it (enums by name).
+   */
+  public Object toScalar(FieldValue value) {
+    long bits = value.getBits();
+    switch (getLeaf().getType()) {
+      case DOUBLE:
+        return Double.longBitsToDouble(bits);
+      case FLOAT:
+        return Float.intBitsToFloat((int) bits);
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+        return bits;
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+        return (int) bits;
+      case SINT32:
+        return Wire.decodeZigZag32((int) bits);
+      case SINT64:
+        return Wire.decodeZigZag64(bits);
+      case BOOL:
+        return bits != 0;
+      case STRING:
+        return Bytes.toString(value.getBuffer(), value.getOffset(), value.getLength());
+      case BYTES:
+        return ByteString.copyFrom(value.getBuffer(), value.getOffset(), value.getLength());
+      case ENUM:
+        return getEnumName((int) bits);
+      default:
+        throw new IllegalArgumentException("Cannot decode scalar of type " + getLeaf().getType());
+    }
+  }
+
+  /**
+   * Whether the leaf enum has a value with the given number. Unknown numbers
+   * are kept as unknown fields by the parser, so they don't count as set.
+   */
+  public boolean isKnownEnumNumber(int number) {
+    return getEnumName(number) != null;
+  }
+
+  /**
+   * Returns the name of the leaf enum's value with the given number, or null if
+   * the number is not part of the enum.
+   */
+  public String getEnumName(int number) {
+    if (enumNames != null) {
+      return number >= 0 && number < enumNames.length ? enumNames[number] : null;
+    }
+    EnumValueDescriptor value = getLeaf().getEnumType().findValueByNumber(number);
+    return value == null ? null : value.getName();
+  }
+
+  /**
+   * Walks an already parsed message along the path, for values the wire reader
+   * can't handle. Returns the first value if the path selects several.
+   */
+  public Object extract(Message message) {
+    if (!singular) {
+      List<Object> values = extractAll(message);
+      return values.isEmpty() ? null : values.get(0);
+    }
+    Message current = message;
+    for (int i = 0; i < fields.length; ++i) {
+      FieldDescriptor field = fields[i];
+      if (!current.hasField(field)) {
+        return i == fields.length - 1 ? defaultValue : null;
+      }
+      Object value = current.getField(field);
+      if (i < fields.length - 1) {
+        current = (Message) value;
+      } else {
+        return toScalar(field, value);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Walks an already parsed message along the path, returning every value it
+   * selects in the order they appear.
+   */
+  public List<Object> extractAll(Message message) {
+    List<Object> values = Lists.newArrayList();
+    if (fields.length > 0) {
+      collect(message, 0, values);
+    }
+    return values;
+  }
+
+  /**
+   * Whether the path selects a value that is set in an already parsed
+   * message, rather than defaulted: every singular field along it is set,
+   * and the repeated ones have the elements it selects.
+   */
+  public boolean isSetIn(Message message) {
+    return fields.length > 0 && isSetIn(message, 0);
+  }
+
+  private boolean isSetIn(Message message, int depth) {
+    FieldDescriptor field = fields[depth];
+    boolean isLeaf = depth == fields.length - 1;
+    if (!field.isRepeated()) {
+      return message.hasField(field) && (isLeaf || isSetIn((Message) message.getField(field), depth + 1));
+    }
+    int[] range = selectedRange(message, depth);
+    for (int i = range[0]; i < range[1]; ++i) {
+      if (isLeaf || isSetIn((Message) message.getRepeatedField(field, i), depth + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void collect(Message message, int depth, List<Object> values) {
+    FieldDescriptor field = fields[depth];
+    boolean isLeaf = depth == fields.length - 1;
+    if (field.isRepeated()) {
+      int[] range = selectedRange(message, depth);
+      for (int i = range[0]; i < range[1]; ++i) {
+        Object value = message.getRepeatedField(field, i);
+        if (isLeaf) {
+          values.add(toScalar(field, value));
+        } else {
+          collect((Message) value, depth + 1, values);
+        }
+      }
+    } else if (message.hasField(field)) {
+      Object value = message.getField(field);
+      if (isLeaf) {
+        values.add(toScalar(field, value));
+      } else {
+        collect((Message) value, depth + 1, values);
+      }
+    } else if (isLeaf && defaultValue != null) {
+      values.add(defaultValue);
+    }
+  }
+
+  /**
+   * The range of indexes of the elements the repeated field at {@code depth}
+   * selects in a parsed message.
+   */
+  private int[] selectedRange(Message message, int depth) {
+    FieldDescriptor field = fields[depth];
+    int count = message.getRepeatedFieldCount(field);
+    int from = 0;
+    int to = count;
+    if (selectors[depth] == LAST_ELEMENT) {
+      from = Math.max(count - 1, 0);
+    } else if (selectors[depth] == KEYED_ELEMENT) {
+      from = count;
+      for (int i = count - 1; i >= 0; --i) {
+        if (keys[depth].matches((Message) message.getRepeatedField(field, i))) {
+          from = i;
+          to = i + 1;
+          break;
+        }
+      }
+    } else if (selectors[depth] != ALL_ELEMENTS) {
+      from = Math.min(selectors[depth], count);
+      to = Math.min(selectors[depth] + 1, count);
+    }
+    return new int[] {from, to};
+  }
+
+  private static Object toScalar(FieldDescriptor field, Object value) {
+    if (field.getJavaType() == FieldDescriptor.JavaType.ENUM && value instanceof EnumValueDescriptor) {
+      return ((EnumValueDescriptor) value).getName();
+    }
+    return value;
+  }
+
+  private static long toWireBits(FieldDescriptor field, Object value) {
+    switch (field.getType()) {
+      case DOUBLE:
+        return Double.doubleToRawLongBits((Double) value);
+      case FLOAT:
+        return Float.floatToRawIntBits((Float) value) & 0xffffffffL;
+      case SINT32:
+        return CodedOutputStream.encodeZigZag32((Integer) value) & 0xffffffffL;
+      case SINT64:
+        return CodedOutputStream.encodeZigZag64((Long) value);
+      case BOOL:
+        return (Boolean) value ? 1L : 0L;
+      case ENUM:
+        return ((EnumValueDescriptor) value).getNumber();
+      case STRING:
+      case BYTES:
+        return 0L;
+      default:
+        return ((Number) value).longValue();
+    }
+  }
+
+  private static byte[] toWireBytes(Object value) {
+    if (value instanceof String) {
+      return Bytes.toBytes((String) value);
+    } else if (value instanceof ByteString) {
+      return ((ByteString) value).toByteArray();
+    } else {
+      return null;
+    }
+  }
+
+  private static String[] denseEnumNames(EnumDescriptor enumType) {
+    int maxNumber = -1;
+    for (EnumValueDescriptor value : enumType.getValues()) {
+      if (value.getNumber() < 0 || value.getNumber() > MAX_DENSE_ENUM_NUMBER) {
+        return null;
+      }
+      maxNumber = Math.max(maxNumber, value.getNumber());
+    }
+    String[] names = new String[maxNumber + 1];
+    for (EnumValueDescriptor value : enumType.getValues()) {
+      if (names[value.getNumber()] == null) {
+        names[value.getNumber()] = value.getName();
+      }
+    }
+    return names;
+  }
+
+  /**
+   * The key a map-style segment looks up, along with the form it takes on the
+   * wire so entries can be matched without being decoded.
+   */
+  private static final class EntryKey {
+    private final FieldDescriptor keyField;
+    private final FieldDescriptor valueField;
+    private final Object value;
+    private final int tag;
+    private final long bits;
+    private final byte[] bytes;
+    private final boolean matchesMissing;
+
+    private EntryKey(FieldDescriptor keyField, FieldDescriptor valueField, Object value) {
+      this.keyField = keyField;
+      this.valueField = valueField;
+      this.value = value;
+      this.tag = Wire.makeTag(keyField.getNumber(), keyField.getLiteType().getWireType());
+      long bits = toWireBits(keyField, value);
+      if (keyField.getType() == FieldDescriptor.Type.UINT32 || Wire.wireType(tag) == WireFormat.WIRETYPE_FIXED32) {
+        bits &= 0xffffffffL;
+      }
+      this.bits = bits;
+      this.bytes = toWireBytes(value);
+      this.matchesMissing = value.equals(keyField.getDefaultValue());
+    }
+
+    /**
+     * Returns the key {@code literal} denotes for the entries of
+     * {@code field}, or null if they aren't map-style entries or the literal
+     * isn't a valid key.
+     */
+    static EntryKey parse(FieldDescriptor field, String literal) {
+      if (!field.isRepeated() || field.getType() != FieldDescriptor.Type.MESSAGE) {
+        return null;
+      }
+      FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+      FieldDescriptor valueField = field.getMessageType().findFieldByName("value");
+      if (keyField == null || valueField == null || keyField.isRepeated() || valueField.isRepeated()) {
+        return null;
+      }
+      Object value = parseKey(keyField, literal);
+      return value == null ? null : new EntryKey(keyField, valueField, value);
+    }
+
+    boolean matches(Message entry) {
+      return value.equals(entry.getField(keyField));
+    }
+
+    private static Object parseKey(FieldDescriptor keyField, String literal) {
+      try {
+        switch (keyField.getType()) {
+          case STRING:
+            return literal;
+          case BYTES:
+            return ByteString.copyFromUtf8(literal);
+          case BOOL:
+            return literal.equals("true") ? Boolean.TRUE : literal.equals("false") ? Boolean.FALSE : null;
+          case INT32:
+          case SINT32:
+          case SFIXED32:
+            return Integer.valueOf(literal);
+          case UINT32:
+          case FIXED32:
+            return UnsignedInts.parseUnsignedInt(literal);
+          case INT64:
+          case SINT64:
+          case SFIXED64:
+            return Long.valueOf(literal);
+          case UINT64:
+          case FIXED64:
+            return UnsignedLongs.parseUnsignedLong(literal);
+          case ENUM:
+            return keyField.getEnumType().findValueByName(literal);
+          default:
+            return null;
+        }
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+  }
+}
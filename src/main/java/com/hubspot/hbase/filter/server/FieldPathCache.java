@@ -0,0 +1,60 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hubspot.hbase.filter.models.ProtobufKey;
+
+import static com.google.common.base.Objects.equal;
+import static com.google.protobuf.Descriptors.Descriptor;
+
+public enum FieldPathCache {
+  INSTANCE;
+
+  private final Cache<FieldPathKey, FieldPath> fieldPathCache = CacheBuilder.newBuilder()
+          .maximumSize(1000)
+          .softValues()
+          .build();
+
+  public FieldPath cachedCompile(ProtobufKey protobufKey, Descriptor descriptor, String fieldSpec) {
+    FieldPathKey key = new FieldPathKey(protobufKey, fieldSpec);
+    FieldPath cachedResult = fieldPathCache.asMap().get(key);
+    if (cachedResult == null) {
+      FieldPath fieldPath = FieldPath.compile(descriptor, fieldSpec);
+      fieldPathCache.asMap().put(key, fieldPath);
+      return fieldPath;
+    } else {
+      return cachedResult;
+    }
+  }
+
+  private static class FieldPathKey {
+    private final ProtobufKey protobufKey;
+    private final String fieldSpec;
+
+    private FieldPathKey(ProtobufKey protobufKey, String fieldSpec) {
+      this.protobufKey = protobufKey;
+      this.fieldSpec = fieldSpec;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(protobufKey, fieldSpec);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+
+      if (!(obj instanceof FieldPathKey)) {
+        return false;
+      }
+
+      FieldPathKey other = (FieldPathKey)obj;
+      return equal(protobufKey, other.protobufKey) &&
+              equal(fieldSpec, other.fieldSpec);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.hubspot.hbase.filter.server;
+
+/**
+ * A predicate on the value of a single field. Besides testing a serialized
+ * message, it can test a value that was already extracted, so several
+ * predicates can share one pass over a cell.
+ */
+public interface FieldPredicate extends WirePredicate {
+  FieldPath getFieldPath();
+
+  /**
+   * Tests an extracted value; a value that isn't {@link FieldValue#isPresent()
+   * present} means the field is unset and has no default.
+   */
+  boolean testValue(FieldValue value);
+}
@@ -0,0 +1,62 @@
+package com.hubspot.hbase.filter.server;
+
+/**
+ * A reusable slot holding one field value as it appears on the wire: the raw
+ * varint or fixed-width bits for numeric types, or a slice of the cell for
+ * length-delimited ones. Nothing is decoded until a comparator asks for it.
+ */
+public final class FieldValue {
+  private boolean present;
+  private long bits;
+  private byte[] buffer;
+  private int offset;
+  private int length;
+
+  public void clear() {
+    present = false;
+    bits = 0;
+    buffer = null;
+    offset = 0;
+    length = 0;
+  }
+
+  public void setBits(long bits) {
+    this.present = true;
+    this.bits = bits;
+  }
+
+  public void setSlice(byte[] buffer, int offset, int length) {
+    this.present = true;
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  public void set(FieldValue other) {
+    this.present = other.present;
+    this.bits = other.bits;
+    this.buffer = other.buffer;
+    this.offset = other.offset;
+    this.length = other.length;
+  }
+
+  public boolean isPresent() {
+    return present;
+  }
+
+  public long getBits() {
+    return bits;
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+}
@@ -0,0 +1,139 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Message;
+import com.hubspot.hbase.filter.models.DescriptorSerializer;
+import com.hubspot.hbase.filter.models.ProtobufKey;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * Finds the generated class for a message on the region server, so cells can
+ * be parsed by its generated code instead of by DynamicMessage. Classes are
+ * loaded from the jars listed in {@value #JARS_KEY}, or else from the region
+ * server's own classpath. Only parsing is done by generated code; fields are
+ * still read through the reflective {@link Message} interface.
+ *
+ * A class is only used if its descriptor serializes to the same hash the
+ * client sent, so a server with an older or newer build of the message keeps
+ * parsing with the shipped descriptor. It must also implement the same
+ * {@link Message} as this filter. The shaded jar relocates protobuf, so this
+ * only happens when the filter is deployed unshaded; from the shaded jar
+ * every lookup misses and cells are parsed dynamically. The lookup and the
+ * check are done once per message name and descriptor hash, and their
+ * result, found or not, is cached. It can be turned off with
+ * {@value #ENABLED_KEY}.
+ */
+public enum GeneratedMessageCache {
+  INSTANCE;
+
+  public static final String ENABLED_KEY = "protobuf.filter.generated.enabled";
+  public static final String JARS_KEY = "protobuf.filter.generated.jars";
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeneratedMessageCache.class);
+
+  private final boolean enabled;
+  private final ClassLoader classLoader;
+
+  private final Cache<ProtobufKey, Optional<Message>> prototypeCache = CacheBuilder.newBuilder()
+          .maximumSize(100)
+          .build();
+
+  GeneratedMessageCache() {
+    Configuration conf = HBaseConfiguration.create();
+    this.enabled = conf.getBoolean(ENABLED_KEY, true);
+    this.classLoader = newClassLoader(conf.getStrings(JARS_KEY));
+  }
+
+  /**
+   * Returns the default instance of the generated class for the message, or
+   * absent if there is none or its descriptor doesn't match {@code hash}.
+   */
+  public Optional<Message> cachedPrototype(String messageName, long hash) {
+    if (!enabled) {
+      return Optional.absent();
+    }
+    ProtobufKey key = new ProtobufKey(messageName, hash);
+    Optional<Message> cachedResult = prototypeCache.asMap().get(key);
+    if (cachedResult == null) {
+      Optional<Message> prototype = findPrototype(messageName, hash);
+      Optional<Message> raced = prototypeCache.asMap().putIfAbsent(key, prototype);
+      return raced == null ? prototype : raced;
+    } else {
+      return cachedResult;
+    }
+  }
+
+  private Optional<Message> findPrototype(String messageName, long hash) {
+    Optional<Class<?>> maybeClass = loadClass(messageName);
+    if (!maybeClass.isPresent() || !Message.class.isAssignableFrom(maybeClass.get())) {
+      return Optional.absent();
+    }
+    try {
+      Message prototype = (Message) maybeClass.get().getMethod("getDefaultInstance").invoke(null);
+      byte[] serialized = DescriptorSerializer.serialize(prototype.getDescriptorForType());
+      if (Hashing.murmur3_128().hashBytes(serialized).asLong() != hash) {
+        LOG.info("Descriptor of {} on the classpath differs from the filter's, parsing dynamically", messageName);
+        return Optional.absent();
+      }
+      return Optional.of(prototype);
+    } catch (Exception e) {
+      LOG.warn("Could not use generated class for {}, parsing dynamically", messageName, e);
+      return Optional.absent();
+    } catch (LinkageError e) {
+      LOG.warn("Could not load generated class for {}, parsing dynamically", messageName, e);
+      return Optional.absent();
+    }
+  }
+
+  /**
+   * Loads the class a canonical name refers to. Nested classes are named with
+   * dots, so each dot from the right is tried as the nesting separator.
+   */
+  private Optional<Class<?>> loadClass(String canonicalName) {
+    String name = canonicalName;
+    while (true) {
+      try {
+        return Optional.<Class<?>>of(Class.forName(name, true, classLoader));
+      } catch (ClassNotFoundException e) {
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+          return Optional.absent();
+        }
+        name = name.substring(0, dot) + '$' + name.substring(dot + 1);
+      } catch (LinkageError e) {
+        LOG.warn("Could not load generated class {}", name, e);
+        return Optional.absent();
+      }
+    }
+  }
+
+  private static ClassLoader newClassLoader(String[] jars) {
+    ClassLoader parent = GeneratedMessageCache.class.getClassLoader();
+    if (jars == null || jars.length == 0) {
+      return parent;
+    }
+    List<URL> urls = Lists.newArrayList();
+    for (String jar : jars) {
+      try {
+        urls.add(new File(jar.trim()).toURI().toURL());
+      } catch (MalformedURLException e) {
+        // Runs while INSTANCE is constructed, before LOG is set.
+        LoggerFactory.getLogger(GeneratedMessageCache.class).warn("Ignoring invalid jar {} in {}", jar, JARS_KEY);
+      }
+    }
+    return new URLClassLoader(urls.toArray(new URL[urls.size()]), parent);
+  }
+}
@@ -0,0 +1,78 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.HashBucket;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * Tests which hash bucket a field read straight off the wire falls in:
+ * numbers are hashed from their decoded value, floating point ones as a
+ * double, and strings and bytes as a slice of the cell. A missing value falls
+ * in the first bucket.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class HashPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final FieldDescriptor.Type type;
+  private final HashBucket hashBucket;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private HashPredicate(FieldPath fieldPath, HashBucket hashBucket) {
+    this.fieldPath = fieldPath;
+    this.type = fieldPath.getLeaf().getType();
+    this.hashBucket = hashBucket;
+  }
+
+  /**
+   * Returns a predicate for the field and bucket, or absent if the field
+   * can't be read off the wire or isn't a scalar.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, HashBucket hashBucket) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()
+            || fieldPath.getLeaf().getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(new HashPredicate(fieldPath, hashBucket));
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    if (!value.isPresent()) {
+      return hashBucket.containsMissing();
+    }
+    long hash;
+    switch (type) {
+      case STRING:
+      case BYTES:
+        hash = HashBucket.hashBytes(value.getBuffer(), value.getOffset(), value.getLength());
+        break;
+      case FLOAT:
+        hash = HashBucket.hashNumber(Double.doubleToLongBits(Float.intBitsToFloat((int) value.getBits())));
+        break;
+      case DOUBLE:
+        hash = HashBucket.hashNumber(Double.doubleToLongBits(Double.longBitsToDouble(value.getBits())));
+        break;
+      case BOOL:
+        hash = HashBucket.hashNumber(value.getBits() == 0 ? 0 : 1);
+        break;
+      default:
+        hash = HashBucket.hashNumber(SetPredicate.toNumber(type, value.getBits()));
+    }
+    return hashBucket.containsHash(hash);
+  }
+}
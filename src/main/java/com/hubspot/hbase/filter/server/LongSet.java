@@ -0,0 +1,91 @@
+package com.hubspot.hbase.filter.server;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of longs that answers membership without boxing. Small
+ * sets are binary searched, since a few comparisons over one array beat
+ * hashing; larger ones use open addressing with linear probing.
+ */
+public abstract class LongSet {
+  static final int MAX_SORTED_SIZE = 16;
+
+  public abstract boolean contains(long value);
+
+  /**
+   * Returns the set of {@code values}, which must be sorted and distinct.
+   */
+  public static LongSet of(long[] values) {
+    return values.length <= MAX_SORTED_SIZE ? new SortedLongSet(values) : new OpenLongSet(values);
+  }
+
+  private static final class SortedLongSet extends LongSet {
+    private final long[] values;
+
+    private SortedLongSet(long[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public boolean contains(long value) {
+      return Arrays.binarySearch(values, value) >= 0;
+    }
+  }
+
+  /**
+   * Zero marks an empty slot, so whether zero is in the set is kept aside.
+   */
+  private static final class OpenLongSet extends LongSet {
+    private final long[] slots;
+    private final int mask;
+    private final boolean containsZero;
+
+    private OpenLongSet(long[] values) {
+      // At most half full, so probe sequences stay short.
+      int capacity = Integer.highestOneBit(values.length * 2 - 1) << 1;
+      this.slots = new long[capacity];
+      this.mask = capacity - 1;
+      boolean containsZero = false;
+      for (long value : values) {
+        if (value == 0) {
+          containsZero = true;
+          continue;
+        }
+        int slot = mix(value) & mask;
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+      }
+      this.containsZero = containsZero;
+    }
+
+    @Override
+    public boolean contains(long value) {
+      if (value == 0) {
+        return containsZero;
+      }
+      int slot = mix(value) & mask;
+      long current;
+      while ((current = slots[slot]) != 0) {
+        if (current == value) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Spreads sequential ids across the table (the murmur3 64-bit finalizer).
+   */
+  static int mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return (int) value;
+  }
+}
@@ -0,0 +1,404 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.WireFormat;
+import com.hubspot.hbase.filter.models.MatchOp;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.protobuf.Descriptors.Descriptor;
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * Evaluates a message match (MATCH_EQUAL, MATCH_EXACT, MATCH_ANY, ...) in one
+ * pass over the value's wire tags, with no DynamicMessage and no per-row map.
+ *
+ * The operand is compiled once into a table of the fields it sets, in field
+ * number order, holding the expected value of each in wire form. Values are
+ * compared the way the parsed messages would be: the last occurrence of a
+ * singular field wins, repeated fields compare element by element whether
+ * packed or not, and unknown enum numbers don't count as set. Because a later
+ * occurrence can always override an earlier one, the pass only stops early when
+ * an exact match meets a field the operand doesn't set.
+ *
+ * Operands that set a message or group field aren't supported and compile to
+ * absent. Instances hold per-row state and must not be shared between filters.
+ */
+public class MessageMatcher {
+  private static final int NOT_IN_OPERAND = -1;
+  private static final int MAX_DENSE_ENUM_NUMBER = 1024;
+
+  private final MatchOp matchOp;
+  private final FieldTable table;
+  private final int[] slots;
+  private final boolean[] repeated;
+  private final long[][] expectedBits;
+  private final byte[][][] expectedSlices;
+
+  private final boolean[] seen;
+  private final int[] matchedElements;
+  private final boolean[] mismatched;
+  private final WireReader reader = new WireReader();
+  private final RowVisitor rowVisitor = new RowVisitor();
+
+  private MessageMatcher(MatchOp matchOp, FieldTable table, int[] slots, boolean[] repeated,
+                         long[][] expectedBits, byte[][][] expectedSlices) {
+    this.matchOp = matchOp;
+    this.table = table;
+    this.slots = slots;
+    this.repeated = repeated;
+    this.expectedBits = expectedBits;
+    this.expectedSlices = expectedSlices;
+    this.seen = new boolean[expectedBits.length];
+    this.matchedElements = new int[expectedBits.length];
+    this.mismatched = new boolean[expectedBits.length];
+  }
+
+  /**
+   * Compiles the serialized operand, or returns absent if it sets a field that
+   * can't be compared on the wire.
+   */
+  public static Optional<MessageMatcher> compile(Descriptor descriptor, byte[] operandBytes, MatchOp matchOp) {
+    FieldTable table = new FieldTable(descriptor);
+    OperandRecorder recorder = new OperandRecorder(table);
+    if (!scan(new WireReader().reset(operandBytes, 0, operandBytes.length), table, recorder)) {
+      return Optional.absent();
+    }
+
+    int[] slots = new int[table.size()];
+    List<Boolean> repeated = Lists.newArrayList();
+    List<long[]> expectedBits = Lists.newArrayList();
+    List<byte[][]> expectedSlices = Lists.newArrayList();
+    for (int i = 0; i < table.size(); ++i) {
+      if (recorder.bits.get(i).isEmpty()) {
+        slots[i] = NOT_IN_OPERAND;
+        continue;
+      }
+      slots[i] = expectedBits.size();
+      repeated.add(table.fields[i].isRepeated());
+      expectedBits.add(Longs.toArray(recorder.bits.get(i)));
+      List<byte[]> slices = recorder.slices.get(i);
+      expectedSlices.add(slices.contains(null) ? null : slices.toArray(new byte[slices.size()][]));
+    }
+
+    boolean[] repeatedSlots = new boolean[repeated.size()];
+    for (int i = 0; i < repeatedSlots.length; ++i) {
+      repeatedSlots[i] = repeated.get(i);
+    }
+    return Optional.of(new MessageMatcher(matchOp, table, slots, repeatedSlots,
+            expectedBits.toArray(new long[expectedBits.size()][]),
+            expectedSlices.toArray(new byte[expectedSlices.size()][][])));
+  }
+
+  public boolean matches(byte[] buf, int offset, int length) {
+    Arrays.fill(seen, false);
+    Arrays.fill(matchedElements, 0);
+    Arrays.fill(mismatched, false);
+
+    if (!scan(reader.reset(buf, offset, length), table, rowVisitor)) {
+      // The value sets a field the operand doesn't, so it can't be an exact match.
+      return matchOp == MatchOp.MATCH_NOT_EXACT;
+    }
+
+    boolean hasInequality = false;
+    boolean hasEquality = false;
+
+    for (int slot = 0; slot < expectedBits.length; ++slot) {
+      boolean isEqual = seen[slot] && !mismatched[slot]
+              && (!repeated[slot] || matchedElements[slot] == expectedBits[slot].length);
+      if (isEqual) {
+        hasEquality = true;
+        if (matchOp == MatchOp.MATCH_ANY) {
+          return true;
+        }
+      } else {
+        if (matchOp == MatchOp.MATCH_EQUAL || matchOp == MatchOp.MATCH_NOT_EQUAL) {
+          return matchOp == MatchOp.MATCH_NOT_EQUAL;
+        } else {
+          hasInequality = true;
+        }
+      }
+    }
+
+    switch (matchOp) {
+      case MATCH_EXACT:
+      case MATCH_NOT_EXACT:
+        if (!hasInequality) {
+          return matchOp == MatchOp.MATCH_EXACT;
+        } else {
+          return matchOp == MatchOp.MATCH_NOT_EXACT;
+        }
+      case MATCH_NONE:
+        return !hasEquality;
+      default:
+        return matchOp == MatchOp.MATCH_EQUAL;
+    }
+  }
+
+  /**
+   * Walks the fields of one message, handing each element of a known field to
+   * the visitor in normalized form. Returns false if the visitor stopped early.
+   */
+  private static boolean scan(WireReader reader, FieldTable table, ElementVisitor visitor) {
+    int tag;
+    while ((tag = reader.readTag()) != 0) {
+      int index = table.indexOf(Wire.fieldNumber(tag));
+      if (index < 0) {
+        reader.skipField(tag);
+        continue;
+      }
+      int wireType = Wire.wireType(tag);
+      if (wireType == table.wireTypes[index]) {
+        if (table.isMessage(index)) {
+          reader.skipField(tag);
+          if (!visitor.onMessage(index)) {
+            return false;
+          }
+        } else if (!readElement(reader, table, index, visitor)) {
+          return false;
+        }
+      } else if (wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED && table.fields[index].isPackable()) {
+        int oldLimit = reader.pushLimit(reader.readLength());
+        while (!reader.isAtEnd()) {
+          if (!readElement(reader, table, index, visitor)) {
+            return false;
+          }
+        }
+        reader.popLimit(oldLimit);
+      } else {
+        // The parser keeps a field with the wrong wire type as an unknown field.
+        reader.skipField(tag);
+      }
+    }
+    return true;
+  }
+
+  private static boolean readElement(WireReader reader, FieldTable table, int index, ElementVisitor visitor) {
+    switch (table.wireTypes[index]) {
+      case WireFormat.WIRETYPE_VARINT:
+        long bits = reader.readVarint64();
+        if (table.isKnownValue(index, bits)) {
+          return visitor.onBits(index, table.normalize(index, bits));
+        }
+        return true;
+      case WireFormat.WIRETYPE_FIXED32:
+        return visitor.onBits(index, table.normalize(index, reader.readFixed32() & 0xffffffffL));
+      case WireFormat.WIRETYPE_FIXED64:
+        return visitor.onBits(index, table.normalize(index, reader.readFixed64()));
+      case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+        int length = reader.readLength();
+        int position = reader.getPosition();
+        reader.skipRawBytes(length);
+        return visitor.onSlice(index, reader.getBuffer(), position, length);
+      default:
+        throw new IllegalArgumentException("Cannot read element of " + table.fields[index].getFullName());
+    }
+  }
+
+  private abstract static class ElementVisitor {
+    abstract boolean onBits(int index, long bits);
+
+    abstract boolean onSlice(int index, byte[] buf, int offset, int length);
+
+    abstract boolean onMessage(int index);
+  }
+
+  private class RowVisitor extends ElementVisitor {
+    @Override
+    boolean onBits(int index, long bits) {
+      int slot = slots[index];
+      if (slot == NOT_IN_OPERAND) {
+        return !matchOp.isExact();
+      }
+      long[] expected = expectedBits[slot];
+      if (repeated[slot]) {
+        int element = matchedElements[slot];
+        if (!mismatched[slot] && element < expected.length && expected[element] == bits) {
+          matchedElements[slot] = element + 1;
+        } else {
+          mismatched[slot] = true;
+        }
+      } else {
+        mismatched[slot] = expected[0] != bits;
+      }
+      seen[slot] = true;
+      return true;
+    }
+
+    @Override
+    boolean onSlice(int index, byte[] buf, int offset, int length) {
+      int slot = slots[index];
+      if (slot == NOT_IN_OPERAND) {
+        return !matchOp.isExact();
+      }
+      byte[][] expected = expectedSlices[slot];
+      if (repeated[slot]) {
+        int element = matchedElements[slot];
+        if (!mismatched[slot] && element < expected.length && equals(expected[element], buf, offset, length)) {
+          matchedElements[slot] = element + 1;
+        } else {
+          mismatched[slot] = true;
+        }
+      } else {
+        mismatched[slot] = !equals(expected[0], buf, offset, length);
+      }
+      seen[slot] = true;
+      return true;
+    }
+
+    @Override
+    boolean onMessage(int index) {
+      return !matchOp.isExact();
+    }
+
+    private boolean equals(byte[] expected, byte[] buf, int offset, int length) {
+      return Bytes.equals(expected, 0, expected.length, buf, offset, length);
+    }
+  }
+
+  /**
+   * Collects the operand's values per field, applying last-wins to singular
+   * fields. Stops if the operand sets a message field.
+   */
+  private static class OperandRecorder extends ElementVisitor {
+    private final List<List<Long>> bits = Lists.newArrayList();
+    private final List<List<byte[]>> slices = Lists.newArrayList();
+    private final boolean[] repeated;
+
+    private OperandRecorder(FieldTable table) {
+      this.repeated = new boolean[table.size()];
+      for (int i = 0; i < table.size(); ++i) {
+        bits.add(Lists.<Long>newArrayList());
+        slices.add(Lists.<byte[]>newArrayList());
+        repeated[i] = table.fields[i].isRepeated();
+      }
+    }
+
+    @Override
+    boolean onBits(int index, long value) {
+      add(index, value, null);
+      return true;
+    }
+
+    @Override
+    boolean onSlice(int index, byte[] buf, int offset, int length) {
+      add(index, 0L, Arrays.copyOfRange(buf, offset, offset + length));
+      return true;
+    }
+
+    @Override
+    boolean onMessage(int index) {
+      return false;
+    }
+
+    private void add(int index, long value, byte[] slice) {
+      if (!repeated[index]) {
+        bits.get(index).clear();
+        slices.get(index).clear();
+      }
+      bits.get(index).add(value);
+      slices.get(index).add(slice);
+    }
+  }
+
+  /**
+   * Every field of the message, sorted by number, with what's needed to read
+   * and normalize its values.
+   */
+  private static class FieldTable {
+    private final FieldDescriptor[] fields;
+    private final int[] fieldNumbers;
+    private final int[] wireTypes;
+    private final boolean[][] knownEnumNumbers;
+
+    private FieldTable(Descriptor descriptor) {
+      List<FieldDescriptor> sortedFields = Lists.newArrayList(descriptor.getFields());
+      Collections.sort(sortedFields, new Comparator<FieldDescriptor>() {
+        @Override
+        public int compare(FieldDescriptor left, FieldDescriptor right) {
+          return left.getNumber() - right.getNumber();
+        }
+      });
+      this.fields = sortedFields.toArray(new FieldDescriptor[sortedFields.size()]);
+      this.fieldNumbers = new int[fields.length];
+      this.wireTypes = new int[fields.length];
+      this.knownEnumNumbers = new boolean[fields.length][];
+      for (int i = 0; i < fields.length; ++i) {
+        fieldNumbers[i] = fields[i].getNumber();
+        wireTypes[i] = fields[i].getLiteType().getWireType();
+        if (fields[i].getJavaType() == FieldDescriptor.JavaType.ENUM) {
+          knownEnumNumbers[i] = denseKnownNumbers(fields[i]);
+        }
+      }
+    }
+
+    private int size() {
+      return fields.length;
+    }
+
+    private int indexOf(int fieldNumber) {
+      return Arrays.binarySearch(fieldNumbers, fieldNumber);
+    }
+
+    private boolean isMessage(int index) {
+      return fields[index].getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+    }
+
+    private boolean isKnownValue(int index, long bits) {
+      if (fields[index].getJavaType() != FieldDescriptor.JavaType.ENUM) {
+        return true;
+      }
+      int number = (int) bits;
+      boolean[] known = knownEnumNumbers[index];
+      if (known != null) {
+        return number >= 0 && number < known.length && known[number];
+      }
+      return fields[index].getEnumType().findValueByNumber(number) != null;
+    }
+
+    /**
+     * Maps wire bits to a form where equal bits mean equal parsed values.
+     */
+    private long normalize(int index, long bits) {
+      switch (fields[index].getType()) {
+        case INT32:
+        case UINT32:
+        case SINT32:
+        case FIXED32:
+        case SFIXED32:
+        case ENUM:
+          return (int) bits;
+        case BOOL:
+          return bits != 0 ? 1L : 0L;
+        case FLOAT:
+          return Float.floatToIntBits(Float.intBitsToFloat((int) bits));
+        case DOUBLE:
+          return Double.doubleToLongBits(Double.longBitsToDouble(bits));
+        default:
+          return bits;
+      }
+    }
+
+    private static boolean[] denseKnownNumbers(FieldDescriptor field) {
+      int maxNumber = -1;
+      for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+        if (value.getNumber() < 0 || value.getNumber() > MAX_DENSE_ENUM_NUMBER) {
+          return null;
+        }
+        maxNumber = Math.max(maxNumber, value.getNumber());
+      }
+      boolean[] known = new boolean[maxNumber + 1];
+      for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+        known[value.getNumber()] = true;
+      }
+      return known;
+    }
+  }
+}
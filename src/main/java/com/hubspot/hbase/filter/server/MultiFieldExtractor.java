@@ -0,0 +1,134 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.primitives.Ints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the leaves of several field paths out of a serialized message in a
+ * single pass. The paths are merged into a tree by their tags, so each nested
+ * message is scanned once however many paths run through it, and tags no path
+ * names are skipped without being decoded. Each path's value follows the same
+ * rules as {@link WireFieldExtractor#extract}.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class MultiFieldExtractor {
+  private final FieldPath[] paths;
+  private final Level root;
+  private final FieldValue[] values;
+  private final boolean[] parentPresent;
+  private final WireReader reader = new WireReader();
+
+  /**
+   * The paths must be distinct, resolved and wire readable; values are read
+   * into the slot with the same index as their path.
+   */
+  public MultiFieldExtractor(List<FieldPath> paths) {
+    this.paths = paths.toArray(new FieldPath[paths.size()]);
+    this.root = new Level();
+    this.values = new FieldValue[this.paths.length];
+    this.parentPresent = new boolean[this.paths.length];
+    for (int slot = 0; slot < this.paths.length; ++slot) {
+      values[slot] = new FieldValue();
+      root.add(this.paths[slot], 0, slot);
+    }
+    root.freeze();
+  }
+
+  public FieldValue getValue(int slot) {
+    return values[slot];
+  }
+
+  public void extract(byte[] buf, int offset, int length) {
+    for (int slot = 0; slot < paths.length; ++slot) {
+      values[slot].clear();
+      parentPresent[slot] = paths[slot].depth() == 1;
+    }
+    reader.reset(buf, offset, length);
+    scan(root);
+    for (int slot = 0; slot < paths.length; ++slot) {
+      if (!values[slot].isPresent() && parentPresent[slot] && paths[slot].hasDefaultValue()) {
+        paths[slot].loadDefaultValue(values[slot]);
+      }
+    }
+  }
+
+  private void scan(Level level) {
+    int tag;
+    while ((tag = reader.readTag()) != 0) {
+      int index = level.indexOf(tag);
+      if (index < 0) {
+        reader.skipField(tag);
+      } else if (level.children[index] == null) {
+        int slot = level.slots[index];
+        WireFieldExtractor.readValue(reader, paths[slot], values[slot]);
+      } else {
+        Level child = level.children[index];
+        for (int slot : child.leafSlots) {
+          parentPresent[slot] = true;
+        }
+        int oldLimit = reader.pushLimit(reader.readLength());
+        scan(child);
+        reader.popLimit(oldLimit);
+      }
+    }
+  }
+
+  /**
+   * One message on the paths: the tags read at it, each either a leaf with
+   * its slot or a nested message.
+   */
+  private static final class Level {
+    private final List<Integer> tagList = new ArrayList<Integer>();
+    private final List<Level> childList = new ArrayList<Level>();
+    private final List<Integer> slotList = new ArrayList<Integer>();
+    private final List<Integer> leafSlotList = new ArrayList<Integer>();
+
+    private int[] tags;
+    private Level[] children;
+    private int[] slots;
+    private int[] leafSlots;
+
+    private void add(FieldPath path, int depth, int slot) {
+      int tag = path.getTag(depth);
+      int index = tagList.indexOf(tag);
+      if (depth == path.depth() - 1) {
+        tagList.add(tag);
+        childList.add(null);
+        slotList.add(slot);
+        leafSlotList.add(slot);
+        return;
+      }
+      if (index < 0) {
+        index = tagList.size();
+        tagList.add(tag);
+        childList.add(new Level());
+        slotList.add(-1);
+      }
+      childList.get(index).add(path, depth + 1, slot);
+    }
+
+    private void freeze() {
+      tags = Ints.toArray(tagList);
+      children = childList.toArray(new Level[childList.size()]);
+      slots = Ints.toArray(slotList);
+      leafSlots = Ints.toArray(leafSlotList);
+      for (Level child : children) {
+        if (child != null) {
+          child.freeze();
+        }
+      }
+    }
+
+    private int indexOf(int tag) {
+      for (int i = 0; i < tags.length; ++i) {
+        if (tags[i] == tag) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
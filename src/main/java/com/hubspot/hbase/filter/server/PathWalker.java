@@ -0,0 +1,294 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.WireFormat;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * Reads the values a path through repeated fields selects straight off the
+ * wire, handing each to a visitor as it is found and stopping as soon as the
+ * visitor has seen enough. Nothing is parsed into messages: each element of a
+ * repeated message along the path is just a range of the cell, walked in
+ * place.
+ *
+ * The path is followed one segment at a time. Singular messages are merged the
+ * way a parser would, by walking every occurrence in turn. At a repeated field
+ * the elements are counted across all of those occurrences and the selected
+ * ones are walked for the rest of the path; the last element is only known
+ * once its enclosing message has been read, so it is walked afterwards. A
+ * lookup by key is the last element whose key matches, which is found by
+ * comparing the key of each entry as it appears on the wire. Once
+ * only singular fields are left the single value they lead to is extracted
+ * with the usual last-occurrence-wins and default rules. Elements of repeated
+ * scalars are accepted packed or unpacked.
+ *
+ * A walker made {@link #forPresence for presence} finds where a path is set
+ * instead, as {@code hasField} would report along it. Declared defaults don't
+ * count, every occurrence of a singular field is looked in rather than just
+ * the last, and the leaf can be a message. The visitor is called for each
+ * selected element or set leaf, and should ignore the value it is handed.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class PathWalker {
+  public interface Visitor {
+    /**
+     * Takes the next selected value, returning false to stop walking.
+     */
+    boolean visit(FieldValue value);
+  }
+
+  private final FieldPath path;
+  private final FieldPath elementPath;
+  private final boolean presence;
+  private final int scalarLeafDepth;
+  private final int[] nextRepeated;
+  private final int[] packedTags;
+  private final int[] counts;
+  private final int[] lastOffsets;
+  private final int[] lastLengths;
+  private final FieldValue[] lastValues;
+  private final WireReader reader = new WireReader();
+  private final WireReader keyReader = new WireReader();
+  private final FieldValue value = new FieldValue();
+  private final FieldValue key = new FieldValue();
+  private Visitor visitor;
+
+  public PathWalker(FieldPath path) {
+    this(path, false);
+  }
+
+  private PathWalker(FieldPath path, boolean presence) {
+    Preconditions.checkArgument(presence ? isPresenceWalkable(path) : path.isWalkable(),
+            "%s can't be read off the wire", path.getFieldSpec());
+    this.path = path;
+    this.presence = presence;
+    int depth = path.depth();
+    boolean messageLeaf = path.getLeaf().getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+    this.elementPath = messageLeaf ? null : path.getElementPath();
+    this.scalarLeafDepth = messageLeaf ? -1 : depth - 1;
+    this.nextRepeated = new int[depth + 1];
+    this.packedTags = new int[depth];
+    this.counts = new int[depth];
+    this.lastOffsets = new int[depth];
+    this.lastLengths = new int[depth];
+    this.lastValues = new FieldValue[depth];
+
+    nextRepeated[depth] = -1;
+    for (int i = depth - 1; i >= 0; --i) {
+      nextRepeated[i] = path.getField(i).isRepeated() ? i : nextRepeated[i + 1];
+      lastValues[i] = new FieldValue();
+    }
+    int leafDepth = depth - 1;
+    if (path.getLeaf().isRepeated() && path.getWireType(leafDepth) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+      packedTags[leafDepth] = Wire.makeTag(path.getFieldNumber(leafDepth), WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    }
+  }
+
+  /**
+   * Returns a walker finding where the path is set rather than reading its
+   * values. Any resolved path not going through a group can be walked so.
+   */
+  public static PathWalker forPresence(FieldPath path) {
+    return new PathWalker(path, true);
+  }
+
+  /**
+   * Whether {@link #forPresence} can walk the path. A group's end is marked by
+   * a tag rather than a length, so paths through groups can't be.
+   */
+  public static boolean isPresenceWalkable(FieldPath path) {
+    if (!path.isResolved()) {
+      return false;
+    }
+    for (int i = 0; i < path.depth(); ++i) {
+      if (path.getField(i).getType() == FieldDescriptor.Type.GROUP) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public FieldPath getPath() {
+    return path;
+  }
+
+  /**
+   * The path to one of the selected values, for building predicates on them.
+   */
+  public FieldPath getElementPath() {
+    return elementPath;
+  }
+
+  /**
+   * Hands each value the path selects in the cell to {@code visitor}, in the
+   * order they appear. Returns false if the visitor stopped the walk.
+   */
+  public boolean walk(byte[] buf, int offset, int length, Visitor visitor) {
+    this.visitor = visitor;
+    reader.reset(buf, offset, length);
+    return walkFrom(0);
+  }
+
+  /**
+   * Walks the path from {@code depth} on through the message the reader is
+   * limited to.
+   */
+  private boolean walkFrom(int depth) {
+    int repeated = nextRepeated[depth];
+    if (repeated < 0 && presence) {
+      return !isSingularSet(depth) || visitor.visit(value);
+    } else if (repeated < 0) {
+      return !WireFieldExtractor.extract(path, depth, reader, value) || visitor.visit(value);
+    }
+    counts[repeated] = 0;
+    lastLengths[repeated] = -1;
+    lastValues[repeated].clear();
+    if (!scan(depth, repeated)) {
+      return false;
+    }
+    int selector = path.getSelector(repeated);
+    if (selector != FieldPath.LAST_ELEMENT && selector != FieldPath.KEYED_ELEMENT) {
+      return true;
+    } else if (repeated == scalarLeafDepth) {
+      return !lastValues[repeated].isPresent() || visitor.visit(lastValues[repeated]);
+    } else if (lastLengths[repeated] < 0) {
+      return true;
+    }
+    byte[] buffer = reader.getBuffer();
+    int position = reader.getPosition();
+    int limit = reader.getLimit();
+    reader.reset(buffer, lastOffsets[repeated], lastLengths[repeated]);
+    boolean result = walkFrom(repeated + 1);
+    reader.reset(buffer, position, limit - position);
+    return result;
+  }
+
+  /**
+   * Scans one level of the singular messages leading to the repeated field at
+   * {@code repeated}, or the level holding it.
+   */
+  private boolean scan(int depth, int repeated) {
+    int expectedTag = path.getTag(depth);
+    int tag;
+    while ((tag = reader.readTag()) != 0) {
+      if (tag == expectedTag && depth < repeated) {
+        int oldLimit = reader.pushLimit(reader.readLength());
+        if (!scan(depth + 1, repeated)) {
+          return false;
+        }
+        reader.popLimit(oldLimit);
+      } else if (tag == expectedTag) {
+        if (!element(depth)) {
+          return false;
+        }
+      } else if (tag == packedTags[depth] && depth == repeated) {
+        int oldLimit = reader.pushLimit(reader.readLength());
+        while (!reader.isAtEnd()) {
+          if (!element(depth)) {
+            return false;
+          }
+        }
+        reader.popLimit(oldLimit);
+      } else {
+        reader.skipField(tag);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads one element of the repeated field at {@code depth}, walking the rest
+   * of the path through it if it is selected.
+   */
+  private boolean element(int depth) {
+    int selector = path.getSelector(depth);
+    if (depth == scalarLeafDepth) {
+      value.clear();
+      WireFieldExtractor.readValue(reader, elementPath, value);
+      if (!value.isPresent()) {
+        // Unknown enum numbers are kept as unknown fields, not as elements.
+        return true;
+      }
+      int index = counts[depth]++;
+      if (selector == FieldPath.ALL_ELEMENTS || selector == index) {
+        return visitor.visit(value);
+      } else if (selector == FieldPath.LAST_ELEMENT) {
+        lastValues[depth].set(value);
+      }
+      return true;
+    }
+
+    int length = reader.readLength();
+    int index = counts[depth]++;
+    if (selector == FieldPath.ALL_ELEMENTS || selector == index) {
+      int oldLimit = reader.pushLimit(length);
+      if (!walkFrom(depth + 1)) {
+        return false;
+      }
+      reader.popLimit(oldLimit);
+      return true;
+    } else if (selector == FieldPath.LAST_ELEMENT
+            || (selector == FieldPath.KEYED_ELEMENT
+                && hasKey(path, depth, keyReader.reset(reader.getBuffer(), reader.getPosition(), length), key))) {
+      lastOffsets[depth] = reader.getPosition();
+      lastLengths[depth] = length;
+    }
+    reader.skipRawBytes(length);
+    return true;
+  }
+
+  /**
+   * Whether the singular fields from {@code depth} on are set, in any
+   * occurrence of each, in the message the reader is limited to. Past the
+   * leaf, the element that led here is all there is to be set.
+   */
+  private boolean isSingularSet(int depth) {
+    if (depth == path.depth()) {
+      return true;
+    }
+    int expectedTag = path.getTag(depth);
+    int tag;
+    while ((tag = reader.readTag()) != 0) {
+      if (tag != expectedTag) {
+        reader.skipField(tag);
+      } else if (depth == scalarLeafDepth) {
+        value.clear();
+        WireFieldExtractor.readValue(reader, elementPath, value);
+        // Unknown enum numbers are kept as unknown fields, not as values.
+        if (value.isPresent()) {
+          return true;
+        }
+      } else if (depth == path.depth() - 1) {
+        return true;
+      } else {
+        int oldLimit = reader.pushLimit(reader.readLength());
+        if (isSingularSet(depth + 1)) {
+          return true;
+        }
+        reader.popLimit(oldLimit);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the entry of the keyed field at {@code depth} that
+   * {@code keyReader} is set to has the key the path looks up. Only the key is
+   * read, into {@code key}; the last one wins.
+   */
+  static boolean hasKey(FieldPath path, int depth, WireReader keyReader, FieldValue key) {
+    int keyTag = path.getKeyTag(depth);
+    key.clear();
+    int tag;
+    while ((tag = keyReader.readTag()) != 0) {
+      if (tag == keyTag) {
+        WireFieldExtractor.readValue(keyReader, Wire.wireType(tag), key);
+      } else {
+        keyReader.skipField(tag);
+      }
+    }
+    return path.matchesKey(depth, key);
+  }
+}
@@ -0,0 +1,671 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.ByteString;
+import com.hubspot.hbase.filter.models.ProtobufKey;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Objects.equal;
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Generates a class per scalar predicate whose {@code test} method walks the
+ * wire format for one specific field path and compares against a constant
+ * operand, with no type dispatch left at runtime.
+ *
+ * Only combinations where the result is certain to agree with the interpreter
+ * are generated; everything else (and any generation failure) reports absent
+ * so callers fall back to interpreting the predicate. Generation can be turned
+ * off on the region server with {@value #ENABLED_KEY}.
+ *
+ * Generated classes are cached by descriptor hash, field spec, compare op and
+ * kind of operand. The operand itself is passed to each instance, so scans
+ * that only differ in the value they compare to, such as one per tenant, share
+ * one class.
+ */
+public enum PredicateCompiler {
+  INSTANCE;
+
+  public static final String ENABLED_KEY = "protobuf.filter.codegen.enabled";
+
+  /**
+   * Number of cells a filter interprets before asking for a generated class,
+   * so short scans and Gets don't pay for class generation.
+   */
+  public static final int COMPILE_THRESHOLD = 256;
+
+  private static final Logger LOG = LoggerFactory.getLogger(PredicateCompiler.class);
+  private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+  private static final String GENERATED_CLASS_PREFIX = WirePredicate.class.getName() + "Generated";
+  private static final int MAX_DENSE_ENUM_NUMBER = 1024;
+
+  private final boolean enabled = HBaseConfiguration.create().getBoolean(ENABLED_KEY, true);
+
+  private final ClassPool pool = newClassPool();
+
+  private final Cache<ClassKey, Optional<Constructor<?>>> classCache = CacheBuilder.newBuilder()
+          .maximumSize(1000)
+          .build();
+
+  /**
+   * Returns a predicate from a class that was already generated for this
+   * filter's shape, without generating one.
+   */
+  public Optional<WirePredicate> getIfCompiled(ProtobufKey protobufKey, FieldPath fieldPath,
+                                               CompareOp compareOp, DynamicValue operand) {
+    ValueKind kind = enabled ? kindFor(fieldPath, compareOp, operand) : null;
+    if (kind == null) {
+      return Optional.absent();
+    }
+    Optional<Constructor<?>> cachedResult = classCache.getIfPresent(
+            new ClassKey(protobufKey, fieldPath.getFieldSpec(), compareOp, kind));
+    return cachedResult == null ? Optional.<WirePredicate>absent() : instantiate(cachedResult, fieldPath, operand, kind);
+  }
+
+  public Optional<WirePredicate> cachedCompile(ProtobufKey protobufKey, final FieldPath fieldPath,
+                                               final CompareOp compareOp, DynamicValue operand) {
+    final ValueKind kind = enabled ? kindFor(fieldPath, compareOp, operand) : null;
+    if (kind == null) {
+      return Optional.absent();
+    }
+    try {
+      // Loaded once per key, however many scanners ask at the same time.
+      Optional<Constructor<?>> constructor = classCache.get(
+              new ClassKey(protobufKey, fieldPath.getFieldSpec(), compareOp, kind),
+              new Callable<Optional<Constructor<?>>>() {
+                @Override
+                public Optional<Constructor<?>> call() {
+                  return generate(fieldPath, compareOp, kind);
+                }
+              });
+      return instantiate(constructor, fieldPath, operand, kind);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  public Optional<WirePredicate> compile(FieldPath fieldPath, CompareOp compareOp, DynamicValue operand) {
+    ValueKind kind = kindFor(fieldPath, compareOp, operand);
+    if (kind == null) {
+      return Optional.absent();
+    }
+    return instantiate(generate(fieldPath, compareOp, kind), fieldPath, operand, kind);
+  }
+
+  /**
+   * The value kind to generate for, or null if this predicate is left to the
+   * interpreter.
+   */
+  private static ValueKind kindFor(FieldPath fieldPath, CompareOp compareOp, DynamicValue operand) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable() || operatorFor(compareOp) == null) {
+      return null;
+    }
+    FieldDescriptor leaf = fieldPath.getLeaf();
+    ValueKind kind = ValueKind.forField(leaf, operand, compareOp);
+    if (kind == ValueKind.ENUM && knownEnumNumbers(leaf) == null) {
+      return null;
+    }
+    return kind;
+  }
+
+  private Optional<Constructor<?>> generate(FieldPath fieldPath, CompareOp compareOp, ValueKind kind) {
+    try {
+      return Optional.<Constructor<?>>of(generateClass(fieldPath, compareOp, kind)
+              .getConstructor(byte[].class, byte[].class, boolean[].class, long.class, double.class, boolean.class));
+    } catch (Exception e) {
+      LOG.warn("Could not generate predicate for {}, falling back to interpreter", fieldPath.getFieldSpec(), e);
+      return Optional.absent();
+    } catch (LinkageError e) {
+      LOG.warn("Could not load predicate for {}, falling back to interpreter", fieldPath.getFieldSpec(), e);
+      return Optional.absent();
+    }
+  }
+
+  /**
+   * Creates a predicate comparing to {@code operand}, which only fills in the
+   * operand fields of the generated class.
+   */
+  private static Optional<WirePredicate> instantiate(Optional<Constructor<?>> constructor, FieldPath fieldPath,
+                                                     DynamicValue operand, ValueKind kind) {
+    if (!constructor.isPresent()) {
+      return Optional.absent();
+    }
+    boolean[] knownEnumNumbers = kind == ValueKind.ENUM ? knownEnumNumbers(fieldPath.getLeaf()) : null;
+    try {
+      return Optional.of((WirePredicate) constructor.get().newInstance(
+              operandBytes(kind, operand), defaultBytes(kind, fieldPath), knownEnumNumbers,
+              kind.operandLong(operand, fieldPath), kind.operandDouble(operand),
+              kind.isKnownOperand(operand, fieldPath)));
+    } catch (Exception e) {
+      LOG.warn("Could not create predicate for {}, falling back to interpreter", fieldPath.getFieldSpec(), e);
+      return Optional.absent();
+    }
+  }
+
+  private synchronized Class<?> generateClass(FieldPath fieldPath, CompareOp compareOp, ValueKind kind) throws Exception {
+    String className = GENERATED_CLASS_PREFIX + CLASS_COUNTER.incrementAndGet();
+
+    CtClass ctClass = pool.makeClass(className);
+    ctClass.addInterface(pool.get(WirePredicate.class.getName()));
+    ctClass.addField(CtField.make("private final byte[] operandBytes;", ctClass));
+    ctClass.addField(CtField.make("private final byte[] defaultBytes;", ctClass));
+    ctClass.addField(CtField.make("private final boolean[] knownEnumNumbers;", ctClass));
+    ctClass.addField(CtField.make("private final long operandLong;", ctClass));
+    ctClass.addField(CtField.make("private final float operandFloat;", ctClass));
+    ctClass.addField(CtField.make("private final double operandDouble;", ctClass));
+    ctClass.addField(CtField.make("private final boolean operandKnown;", ctClass));
+    ctClass.addConstructor(CtNewConstructor.make(
+            "public " + ctClass.getSimpleName() + "(byte[] operandBytes, byte[] defaultBytes, boolean[] knownEnumNumbers,"
+                    + " long operandLong, double operandDouble, boolean operandKnown) {"
+                    + " this.operandBytes = $1; this.defaultBytes = $2; this.knownEnumNumbers = $3;"
+                    + " this.operandLong = $4; this.operandFloat = (float) $5; this.operandDouble = $5;"
+                    + " this.operandKnown = $6; }", ctClass));
+    ctClass.addMethod(CtNewMethod.make(testMethodSource(fieldPath, compareOp, kind), ctClass));
+
+    byte[] bytecode = ctClass.toBytecode();
+    ctClass.detach();
+
+    return new GeneratedClassLoader(WirePredicate.class.getClassLoader()).define(className, bytecode);
+  }
+
+  private static ClassPool newClassPool() {
+    ClassPool pool = new ClassPool(true);
+    pool.insertClassPath(new ClassClassPath(WirePredicate.class));
+    return pool;
+  }
+
+  private static String testMethodSource(FieldPath fieldPath, CompareOp compareOp, ValueKind kind) {
+    StringBuilder source = new StringBuilder();
+    String wire = Wire.class.getName();
+
+    source.append("public boolean test(byte[] buf, int off, int len) {\n");
+    source.append("int pos = off;\n");
+    source.append("int end0 = off + len;\n");
+    for (int depth = 1; depth < fieldPath.depth(); ++depth) {
+      source.append("int end").append(depth).append(" = 0;\n");
+    }
+    source.append("int tag = 0;\n");
+    source.append("long v = 0L;\n");
+    source.append("int shift = 0;\n");
+    source.append("int b = 0;\n");
+    source.append("boolean found = false;\n");
+    source.append("boolean parentPresent = ").append(fieldPath.depth() == 1).append(";\n");
+    source.append(kind.declareValue());
+
+    for (int depth = 0; depth < fieldPath.depth(); ++depth) {
+      String end = "end" + depth;
+      source.append("while (pos < ").append(end).append(") {\n");
+      appendVarint(source, end);
+      source.append("tag = (int) v;\n");
+      source.append("if (tag == ").append(Wire.makeTag(fieldPath.getFieldNumber(depth), fieldPath.getWireType(depth))).append(") {\n");
+      if (depth < fieldPath.depth() - 1) {
+        String innerEnd = "end" + (depth + 1);
+        appendVarint(source, end);
+        source.append("if (v < 0L || v > (long) (").append(end).append(" - pos)) { throw ").append(wire).append(".truncated(); }\n");
+        source.append(innerEnd).append(" = pos + (int) v;\n");
+        if (depth == fieldPath.depth() - 2) {
+          source.append("parentPresent = true;\n");
+        }
+      } else {
+        appendReadLeaf(source, fieldPath.getLeaf(), kind, end);
+      }
+    }
+    for (int depth = fieldPath.depth() - 1; depth >= 0; --depth) {
+      if (depth < fieldPath.depth() - 1) {
+        source.append("pos = end").append(depth + 1).append(";\n");
+      }
+      source.append("} else {\n");
+      source.append("pos = ").append(wire).append(".skipField(buf, pos, end").append(depth).append(", tag);\n");
+      source.append("}\n");
+      source.append("}\n");
+    }
+
+    Object defaultValue = fieldPath.getDefaultValue();
+    if (defaultValue != null) {
+      source.append("if (!found && parentPresent) {\n");
+      source.append("found = true;\n");
+      source.append(kind.assignDefault(fieldPath));
+      source.append("}\n");
+    }
+    source.append("if (!found) { return ").append(compareOp == CompareOp.NOT_EQUAL).append("; }\n");
+    source.append("return ").append(kind.compareExpression(operatorFor(compareOp))).append(";\n");
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private static void appendVarint(StringBuilder source, String end) {
+    source.append("v = 0L;\n");
+    source.append("shift = 0;\n");
+    source.append("do {\n");
+    source.append("if (pos >= ").append(end).append(" || shift >= 64) { throw ").append(Wire.class.getName()).append(".truncated(); }\n");
+    source.append("b = buf[pos];\n");
+    source.append("pos = pos + 1;\n");
+    source.append("v = v | (((long) (b & 0x7F)) << shift);\n");
+    source.append("shift = shift + 7;\n");
+    source.append("} while ((b & 0x80) != 0);\n");
+  }
+
+  private static void appendReadLeaf(StringBuilder source, FieldDescriptor leaf, ValueKind kind, String end) {
+    String wire = Wire.class.getName();
+    switch (leaf.getType()) {
+      case INT32:
+      case UINT32:
+        appendVarint(source, end);
+        source.append("found = true;\n");
+        source.append("value = (long) ((int) v);\n");
+        break;
+      case INT64:
+      case UINT64:
+        appendVarint(source, end);
+        source.append("found = true;\n");
+        source.append("value = v;\n");
+        break;
+      case SINT32:
+        appendVarint(source, end);
+        source.append("found = true;\n");
+        source.append("value = (long) ((((int) v) >>> 1) ^ -(((int) v) & 1));\n");
+        break;
+      case SINT64:
+        appendVarint(source, end);
+        source.append("found = true;\n");
+        source.append("value = (v >>> 1) ^ -(v & 1L);\n");
+        break;
+      case BOOL:
+        appendVarint(source, end);
+        source.append("found = true;\n");
+        source.append("value = v != 0L;\n");
+        break;
+      case ENUM:
+        appendVarint(source, end);
+        source.append("if ((int) v >= 0 && (int) v < knownEnumNumbers.length && knownEnumNumbers[(int) v]) {\n");
+        source.append("found = true;\n");
+        source.append("value = (long) ((int) v);\n");
+        source.append("}\n");
+        break;
+      case FIXED32:
+      case SFIXED32:
+        source.append("pos = ").append(wire).append(".advance(pos, 4, ").append(end).append(");\n");
+        source.append("found = true;\n");
+        source.append("value = (long) ").append(wire).append(".readFixed32(buf, pos - 4);\n");
+        break;
+      case FIXED64:
+      case SFIXED64:
+        source.append("pos = ").append(wire).append(".advance(pos, 8, ").append(end).append(");\n");
+        source.append("found = true;\n");
+        source.append("value = ").append(wire).append(".readFixed64(buf, pos - 8);\n");
+        break;
+      case FLOAT:
+        source.append("pos = ").append(wire).append(".advance(pos, 4, ").append(end).append(");\n");
+        source.append("found = true;\n");
+        source.append("value = Float.intBitsToFloat(").append(wire).append(".readFixed32(buf, pos - 4));\n");
+        break;
+      case DOUBLE:
+        source.append("pos = ").append(wire).append(".advance(pos, 8, ").append(end).append(");\n");
+        source.append("found = true;\n");
+        source.append("value = Double.longBitsToDouble(").append(wire).append(".readFixed64(buf, pos - 8));\n");
+        break;
+      case STRING:
+      case BYTES:
+        appendVarint(source, end);
+        source.append("if (v < 0L || v > (long) (").append(end).append(" - pos)) { throw ").append(wire).append(".truncated(); }\n");
+        source.append("found = true;\n");
+        source.append("valueBuf = buf;\n");
+        source.append("valueOffset = pos;\n");
+        source.append("valueLength = (int) v;\n");
+        source.append("pos = pos + (int) v;\n");
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot generate a reader for " + leaf.getType());
+    }
+  }
+
+  private static String operatorFor(CompareOp compareOp) {
+    switch (compareOp) {
+      case LESS:
+        return "<";
+      case LESS_OR_EQUAL:
+        return "<=";
+      case EQUAL:
+        return "==";
+      case NOT_EQUAL:
+        return "!=";
+      case GREATER_OR_EQUAL:
+        return ">=";
+      case GREATER:
+        return ">";
+      default:
+        return null;
+    }
+  }
+
+  private static byte[] operandBytes(ValueKind kind, DynamicValue operand) {
+    switch (kind) {
+      case BYTES:
+        return operand.getValueBytes().toByteArray();
+      case STRING:
+        return Bytes.toBytes(operand.getValueString());
+      default:
+        return null;
+    }
+  }
+
+  private static byte[] defaultBytes(ValueKind kind, FieldPath fieldPath) {
+    Object defaultValue = fieldPath.getDefaultValue();
+    if (defaultValue == null) {
+      return null;
+    }
+    switch (kind) {
+      case BYTES:
+        return ((ByteString) defaultValue).toByteArray();
+      case STRING:
+        return Bytes.toBytes((String) defaultValue);
+      default:
+        return null;
+    }
+  }
+
+  private static boolean[] knownEnumNumbers(FieldDescriptor field) {
+    int maxNumber = -1;
+    for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+      if (value.getNumber() < 0 || value.getNumber() > MAX_DENSE_ENUM_NUMBER) {
+        return null;
+      }
+      maxNumber = Math.max(maxNumber, value.getNumber());
+    }
+    boolean[] known = new boolean[maxNumber + 1];
+    for (EnumValueDescriptor value : field.getEnumType().getValues()) {
+      known[value.getNumber()] = true;
+    }
+    return known;
+  }
+
+  private static String longLiteral(long value) {
+    return "0x" + Long.toHexString(value) + "L";
+  }
+
+  private enum ValueKind {
+    LONG {
+      @Override
+      String declareValue() {
+        return "long value = 0L;\n";
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return "value = " + longLiteral(((Number) fieldPath.getDefaultValue()).longValue()) + ";\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        return "value " + operator + " operandLong";
+      }
+
+      @Override
+      long operandLong(DynamicValue operand, FieldPath fieldPath) {
+        return operand.getTypeValue() == DynamicValue.Type.type_integer
+                ? operand.getValueInteger() : operand.getValueLong();
+      }
+    },
+    FLOAT {
+      @Override
+      String declareValue() {
+        return "float value = 0.0f;\n";
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return "value = " + floatLiteral((Float) fieldPath.getDefaultValue()) + ";\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        return "Float.compare(value, operandFloat) " + operator + " 0";
+      }
+
+      @Override
+      double operandDouble(DynamicValue operand) {
+        return operand.getValueFloat();
+      }
+
+      private String floatLiteral(float value) {
+        return "Float.intBitsToFloat(0x" + Integer.toHexString(Float.floatToRawIntBits(value)) + ")";
+      }
+    },
+    DOUBLE {
+      @Override
+      String declareValue() {
+        return "double value = 0.0d;\n";
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return "value = " + doubleLiteral((Double) fieldPath.getDefaultValue()) + ";\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        return "Double.compare(value, operandDouble) " + operator + " 0";
+      }
+
+      @Override
+      double operandDouble(DynamicValue operand) {
+        return operand.getValueDouble();
+      }
+
+      private String doubleLiteral(double value) {
+        return "Double.longBitsToDouble(" + longLiteral(Double.doubleToRawLongBits(value)) + ")";
+      }
+    },
+    BOOL {
+      @Override
+      String declareValue() {
+        return "boolean value = false;\n";
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return "value = " + fieldPath.getDefaultValue() + ";\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        return "(value ? 1L : 0L) " + operator + " operandLong";
+      }
+
+      @Override
+      long operandLong(DynamicValue operand, FieldPath fieldPath) {
+        return operand.getValueBool() ? 1L : 0L;
+      }
+    },
+    BYTES {
+      @Override
+      String declareValue() {
+        return "byte[] valueBuf = null;\nint valueOffset = 0;\nint valueLength = 0;\n";
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return "valueBuf = defaultBytes;\nvalueOffset = 0;\nvalueLength = defaultBytes.length;\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        return Bytes.class.getName() + ".compareTo(valueBuf, valueOffset, valueLength, operandBytes, 0, operandBytes.length) "
+                + operator + " 0";
+      }
+    },
+    STRING {
+      @Override
+      String declareValue() {
+        return BYTES.declareValue();
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        return BYTES.assignDefault(fieldPath);
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        if ("==".equals(operator) || "!=".equals(operator)) {
+          return Bytes.class.getName() + ".equals(valueBuf, valueOffset, valueLength, operandBytes, 0, operandBytes.length) "
+                  + ("==".equals(operator) ? "== true" : "== false");
+        }
+        return SliceComparator.class.getName() + ".compareUtf8(valueBuf, valueOffset, valueLength, operandBytes, 0, operandBytes.length) "
+                + operator + " 0";
+      }
+    },
+    ENUM {
+      @Override
+      String declareValue() {
+        return LONG.declareValue();
+      }
+
+      @Override
+      String assignDefault(FieldPath fieldPath) {
+        EnumValueDescriptor defaultValue = (EnumValueDescriptor) fieldPath.getLeaf().getDefaultValue();
+        return "value = " + longLiteral(defaultValue.getNumber()) + ";\n";
+      }
+
+      @Override
+      String compareExpression(String operator) {
+        // A name that isn't part of the enum can't equal any value that was read.
+        return "(operandKnown ? value " + operator + " operandLong : " + "!=".equals(operator) + ")";
+      }
+
+      @Override
+      long operandLong(DynamicValue operand, FieldPath fieldPath) {
+        if (operand.hasValueInteger()) {
+          return operand.getValueInteger();
+        }
+        EnumValueDescriptor operandValue = fieldPath.getLeaf().getEnumType().findValueByName(operand.getValueString());
+        return operandValue == null ? 0L : operandValue.getNumber();
+      }
+
+      @Override
+      boolean isKnownOperand(DynamicValue operand, FieldPath fieldPath) {
+        return operand.hasValueInteger()
+                || fieldPath.getLeaf().getEnumType().findValueByName(operand.getValueString()) != null;
+      }
+    };
+
+    abstract String declareValue();
+
+    abstract String assignDefault(FieldPath fieldPath);
+
+    /**
+     * The comparison of the value read to the operand fields of the class.
+     */
+    abstract String compareExpression(String operator);
+
+    long operandLong(DynamicValue operand, FieldPath fieldPath) {
+      return 0L;
+    }
+
+    double operandDouble(DynamicValue operand) {
+      return 0.0d;
+    }
+
+    boolean isKnownOperand(DynamicValue operand, FieldPath fieldPath) {
+      return true;
+    }
+
+    /**
+     * The value kind to generate for, or null if the interpreter would compare
+     * this field and operand some other way (or fail).
+     */
+    static ValueKind forField(FieldDescriptor field, DynamicValue operand, CompareOp compareOp) {
+      boolean isEquality = compareOp == CompareOp.EQUAL || compareOp == CompareOp.NOT_EQUAL;
+      switch (field.getJavaType()) {
+        case INT:
+        case LONG:
+          // Integral operands are widened to long, matching PrimitiveComparator.
+          return operand.getTypeValue() == DynamicValue.Type.type_integer
+                  || operand.getTypeValue() == DynamicValue.Type.type_long ? LONG : null;
+        case FLOAT:
+          return operand.getTypeValue() == DynamicValue.Type.type_float ? FLOAT : null;
+        case DOUBLE:
+          return operand.getTypeValue() == DynamicValue.Type.type_double ? DOUBLE : null;
+        case BOOLEAN:
+          return operand.getTypeValue() == DynamicValue.Type.type_bool ? BOOL : null;
+        case BYTE_STRING:
+          return operand.getTypeValue() == DynamicValue.Type.type_bytes ? BYTES : null;
+        case STRING:
+          return operand.getTypeValue() == DynamicValue.Type.type_string ? STRING : null;
+        case ENUM:
+          // Enums sent by name alone are ordered by name, which isn't generated.
+          return operand.getTypeValue() == DynamicValue.Type.type_string
+                  && (isEquality || operand.hasValueInteger()) ? ENUM : null;
+        default:
+          return null;
+      }
+    }
+  }
+
+  private static class GeneratedClassLoader extends ClassLoader {
+    private GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    private Class<?> define(String className, byte[] bytecode) {
+      return defineClass(className, bytecode, 0, bytecode.length);
+    }
+  }
+
+  private static class ClassKey {
+    private final ProtobufKey protobufKey;
+    private final String fieldSpec;
+    private final CompareOp compareOp;
+    private final ValueKind kind;
+
+    private ClassKey(ProtobufKey protobufKey, String fieldSpec, CompareOp compareOp, ValueKind kind) {
+      this.protobufKey = protobufKey;
+      this.fieldSpec = fieldSpec;
+      this.compareOp = compareOp;
+      this.kind = kind;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(protobufKey, fieldSpec, compareOp, kind);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+
+      if (!(obj instanceof ClassKey)) {
+        return false;
+      }
+
+      ClassKey other = (ClassKey)obj;
+      return equal(protobufKey, other.protobufKey) &&
+              equal(fieldSpec, other.fieldSpec) &&
+              equal(compareOp, other.compareOp) &&
+              equal(kind, other.kind);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+
+/**
+ * Tests whether a path is set in a cell, as {@code hasField} would report
+ * along it for a parsed message, by walking the cell's tags. Declared defaults
+ * don't count: every singular field along the path must be present, and each
+ * repeated one must have the element the path selects, so {@code items[2]} is
+ * set if there are at least three items. The leaf can be a message.
+ *
+ * The walk is a {@link PathWalker#forPresence presence} walk, which skips over
+ * values, and stops at the first one found. EQUAL passes cells where the path
+ * is set and NOT_EQUAL those where it isn't.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class PresencePredicate implements WirePredicate, PathWalker.Visitor {
+  private final PathWalker walker;
+  private final boolean negated;
+
+  private PresencePredicate(FieldPath path, boolean negated) {
+    this.walker = PathWalker.forPresence(path);
+    this.negated = negated;
+  }
+
+  /**
+   * Returns a predicate for the path, or absent if it is unresolved or goes
+   * through a group, whose end is marked by a tag rather than a length.
+   */
+  public static Optional<WirePredicate> forPath(FieldPath path, boolean negated) {
+    if (!PathWalker.isPresenceWalkable(path)) {
+      return Optional.absent();
+    }
+    return Optional.<WirePredicate>of(new PresencePredicate(path, negated));
+  }
+
+  public FieldPath getFieldPath() {
+    return walker.getPath();
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    // The walk is only stopped by finding a value.
+    boolean isSet = !walker.walk(buf, offset, length, this);
+    return isSet != negated;
+  }
+
+  @Override
+  public boolean visit(FieldValue value) {
+    return false;
+  }
+}
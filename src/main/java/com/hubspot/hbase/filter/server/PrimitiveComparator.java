@@ -0,0 +1,234 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.primitives.Booleans;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Floats;
+import com.google.common.primitives.Longs;
+
+import static com.google.protobuf.Descriptors.EnumDescriptor;
+import static com.google.protobuf.Descriptors.EnumValueDescriptor;
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+
+/**
+ * Compares the raw wire bits of a numeric, boolean or enum field against a
+ * constant operand without boxing either side. The decoding for the field's
+ * wire encoding and any widening of the operand are chosen once, when the
+ * comparator is created.
+ */
+public abstract class PrimitiveComparator {
+
+  /**
+   * Compares the value held in {@code bits}, as read off the wire, to the
+   * operand, returning a negative, zero or positive result.
+   */
+  public abstract int compare(long bits);
+
+  /**
+   * Returns the comparator for the given field and operand, or null if they
+   * can't be compared numerically (strings, bytes, or an operand whose type
+   * doesn't fit the field).
+   *
+   * Integral operands are accepted for any integral field, and float and double
+   * operands for either floating point field, with the narrower side widened.
+   * Enums compare by number when the operand carries one, and otherwise by
+   * name, as older clients expect.
+   */
+  public static PrimitiveComparator forField(FieldDescriptor field, DynamicValue operand) {
+    switch (field.getType()) {
+      case INT32:
+      case UINT32:
+      case FIXED32:
+      case SFIXED32:
+        return isIntegral(operand) ? new Int32Comparator(integralOperand(operand)) : null;
+      case SINT32:
+        return isIntegral(operand) ? new SInt32Comparator(integralOperand(operand)) : null;
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+        return isIntegral(operand) ? new Int64Comparator(integralOperand(operand)) : null;
+      case SINT64:
+        return isIntegral(operand) ? new SInt64Comparator(integralOperand(operand)) : null;
+      case FLOAT:
+        if (operand.getTypeValue() == DynamicValue.Type.type_float) {
+          return new FloatComparator(operand.getValueFloat());
+        } else if (operand.getTypeValue() == DynamicValue.Type.type_double) {
+          return new FloatAsDoubleComparator(operand.getValueDouble());
+        } else {
+          return null;
+        }
+      case DOUBLE:
+        if (operand.getTypeValue() == DynamicValue.Type.type_double) {
+          return new DoubleComparator(operand.getValueDouble());
+        } else if (operand.getTypeValue() == DynamicValue.Type.type_float) {
+          return new DoubleComparator(operand.getValueFloat());
+        } else {
+          return null;
+        }
+      case BOOL:
+        return operand.getTypeValue() == DynamicValue.Type.type_bool ? new BoolComparator(operand.getValueBool()) : null;
+      case ENUM:
+        if (operand.getTypeValue() != DynamicValue.Type.type_string) {
+          return null;
+        } else if (operand.hasValueInteger()) {
+          return new Int32Comparator(operand.getValueInteger());
+        } else {
+          return EnumNameComparator.forOperand(field.getEnumType(), operand.getValueString());
+        }
+      default:
+        return null;
+    }
+  }
+
+  private static boolean isIntegral(DynamicValue operand) {
+    return operand.getTypeValue() == DynamicValue.Type.type_integer
+            || operand.getTypeValue() == DynamicValue.Type.type_long;
+  }
+
+  private static long integralOperand(DynamicValue operand) {
+    return operand.getTypeValue() == DynamicValue.Type.type_integer ? operand.getValueInteger() : operand.getValueLong();
+  }
+
+  private static final class Int32Comparator extends PrimitiveComparator {
+    private final long operand;
+
+    private Int32Comparator(long operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Longs.compare((int) bits, operand);
+    }
+  }
+
+  private static final class SInt32Comparator extends PrimitiveComparator {
+    private final long operand;
+
+    private SInt32Comparator(long operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Longs.compare(Wire.decodeZigZag32((int) bits), operand);
+    }
+  }
+
+  private static final class Int64Comparator extends PrimitiveComparator {
+    private final long operand;
+
+    private Int64Comparator(long operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Longs.compare(bits, operand);
+    }
+  }
+
+  private static final class SInt64Comparator extends PrimitiveComparator {
+    private final long operand;
+
+    private SInt64Comparator(long operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Longs.compare(Wire.decodeZigZag64(bits), operand);
+    }
+  }
+
+  private static final class FloatComparator extends PrimitiveComparator {
+    private final float operand;
+
+    private FloatComparator(float operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Floats.compare(Float.intBitsToFloat((int) bits), operand);
+    }
+  }
+
+  private static final class FloatAsDoubleComparator extends PrimitiveComparator {
+    private final double operand;
+
+    private FloatAsDoubleComparator(double operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Doubles.compare(Float.intBitsToFloat((int) bits), operand);
+    }
+  }
+
+  private static final class DoubleComparator extends PrimitiveComparator {
+    private final double operand;
+
+    private DoubleComparator(double operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Doubles.compare(Double.longBitsToDouble(bits), operand);
+    }
+  }
+
+  private static final class BoolComparator extends PrimitiveComparator {
+    private final boolean operand;
+
+    private BoolComparator(boolean operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(long bits) {
+      return Booleans.compare(bits != 0, operand);
+    }
+  }
+
+  /**
+   * Compares enums by name without looking the name up per cell: the result of
+   * comparing each value's name to the operand is worked out up front.
+   */
+  private static final class EnumNameComparator extends PrimitiveComparator {
+    private static final int MAX_DENSE_NUMBER = 1024;
+
+    private final byte[] results;
+
+    private EnumNameComparator(byte[] results) {
+      this.results = results;
+    }
+
+    private static EnumNameComparator forOperand(EnumDescriptor enumType, String operand) {
+      int maxNumber = -1;
+      for (EnumValueDescriptor value : enumType.getValues()) {
+        if (value.getNumber() < 0 || value.getNumber() > MAX_DENSE_NUMBER) {
+          return null;
+        }
+        maxNumber = Math.max(maxNumber, value.getNumber());
+      }
+      byte[] results = new byte[maxNumber + 1];
+      for (EnumValueDescriptor value : enumType.getValues()) {
+        // A number with several names reads as the first of them.
+        if (enumType.findValueByNumber(value.getNumber()) == value) {
+          results[value.getNumber()] = (byte) Integer.signum(value.getName().compareTo(operand));
+        }
+      }
+      return new EnumNameComparator(results);
+    }
+
+    @Override
+    public int compare(long bits) {
+      // Only known numbers are ever extracted.
+      return results[(int) bits];
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.Inclusivity;
+
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Tests that a field lies between two bounds, extracting it off the wire once
+ * and comparing it to each bound in place. A missing value is never in range.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class RangePredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final CompareOp lowerOp;
+  private final CompareOp upperOp;
+  private final PrimitiveComparator lower;
+  private final PrimitiveComparator upper;
+  private final SliceComparator lowerSlice;
+  private final SliceComparator upperSlice;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private RangePredicate(FieldPath fieldPath, Inclusivity inclusivity,
+                         PrimitiveComparator lower, PrimitiveComparator upper,
+                         SliceComparator lowerSlice, SliceComparator upperSlice) {
+    this.fieldPath = fieldPath;
+    this.lowerOp = inclusivity.getLowerOp();
+    this.upperOp = inclusivity.getUpperOp();
+    this.lower = lower;
+    this.upper = upper;
+    this.lowerSlice = lowerSlice;
+    this.upperSlice = upperSlice;
+  }
+
+  /**
+   * Returns a predicate for the field and bounds, or absent if the field
+   * can't be read off the wire or either bound can't be compared in place.
+   */
+  public static Optional<FieldPredicate> forBounds(FieldPath fieldPath, DynamicValue lowerBound,
+                                                   DynamicValue upperBound, Inclusivity inclusivity) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()) {
+      return Optional.absent();
+    }
+    PrimitiveComparator lower = PrimitiveComparator.forField(fieldPath.getLeaf(), lowerBound);
+    PrimitiveComparator upper = PrimitiveComparator.forField(fieldPath.getLeaf(), upperBound);
+    if (lower != null && upper != null) {
+      return Optional.<FieldPredicate>of(new RangePredicate(fieldPath, inclusivity, lower, upper, null, null));
+    }
+    SliceComparator lowerSlice = SliceComparator.forField(fieldPath.getLeaf(), lowerBound);
+    SliceComparator upperSlice = SliceComparator.forField(fieldPath.getLeaf(), upperBound);
+    if (lowerSlice != null && upperSlice != null) {
+      return Optional.<FieldPredicate>of(new RangePredicate(fieldPath, inclusivity, null, null, lowerSlice, upperSlice));
+    }
+    return Optional.absent();
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    if (!value.isPresent()) {
+      return false;
+    }
+    if (lower != null) {
+      long bits = value.getBits();
+      return ScalarPredicate.interpret(lowerOp, lower.compare(bits))
+              && ScalarPredicate.interpret(upperOp, upper.compare(bits));
+    } else {
+      byte[] valueBuf = value.getBuffer();
+      int valueOffset = value.getOffset();
+      int valueLength = value.getLength();
+      return ScalarPredicate.interpret(lowerOp, lowerSlice.compare(valueBuf, valueOffset, valueLength))
+              && ScalarPredicate.interpret(upperOp, upperSlice.compare(valueBuf, valueOffset, valueLength));
+    }
+  }
+}
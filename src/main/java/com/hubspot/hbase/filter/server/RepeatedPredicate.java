@@ -0,0 +1,206 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.primitives.Longs;
+import com.hubspot.hbase.filter.models.Inclusivity;
+
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Tests the values a path selects, such as the elements of a repeated field
+ * or a field of each element of a repeated message, one by one as a
+ * {@link PathWalker} reads them off the wire. Nothing is collected into a list,
+ * and reading stops as soon as the result is known.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public abstract class RepeatedPredicate implements WirePredicate, PathWalker.Visitor {
+  private final PathWalker walker;
+
+  private RepeatedPredicate(FieldPath fieldPath) {
+    this.walker = new PathWalker(fieldPath);
+  }
+
+  /**
+   * Passes if any value passes {@code predicate}, which must have been built
+   * on the path's {@link FieldPath#getElementPath() element path}. A path
+   * without values doesn't pass.
+   */
+  public static RepeatedPredicate anyElement(FieldPath fieldPath, FieldPredicate predicate) {
+    return new AnyElement(fieldPath, predicate);
+  }
+
+  /**
+   * Passes if every value passes {@code predicate}, including when there are
+   * none.
+   */
+  public static RepeatedPredicate allElements(FieldPath fieldPath, FieldPredicate predicate) {
+    return new AllElements(fieldPath, predicate);
+  }
+
+  /**
+   * Tests the value a path that selects at most one, such as
+   * {@code items[0].price}, leads to, as a singular field would be tested: a
+   * missing value is handed to {@code predicate} as missing.
+   */
+  public static RepeatedPredicate singleValue(FieldPath fieldPath, FieldPredicate predicate) {
+    return new SingleValue(fieldPath, predicate);
+  }
+
+  /**
+   * Passes if the number of values compares to {@code operand} as
+   * {@code compareOp} says.
+   */
+  public static RepeatedPredicate elementCount(FieldPath fieldPath, CompareOp compareOp, long operand) {
+    return new ElementCount(fieldPath, compareOp, operand, null, 0);
+  }
+
+  /**
+   * Passes if the number of values lies between the bounds.
+   */
+  public static RepeatedPredicate elementCountBetween(FieldPath fieldPath, long lower, long upper,
+                                                      Inclusivity inclusivity) {
+    return new ElementCount(fieldPath, inclusivity.getLowerOp(), lower, inclusivity.getUpperOp(), upper);
+  }
+
+  public FieldPath getFieldPath() {
+    return walker.getPath();
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    start();
+    walker.walk(buf, offset, length, this);
+    return finish();
+  }
+
+  abstract void start();
+
+  abstract boolean finish();
+
+  private static final class AnyElement extends RepeatedPredicate {
+    private final FieldPredicate predicate;
+    private boolean found;
+
+    private AnyElement(FieldPath fieldPath, FieldPredicate predicate) {
+      super(fieldPath);
+      this.predicate = predicate;
+    }
+
+    @Override
+    void start() {
+      found = false;
+    }
+
+    @Override
+    public boolean visit(FieldValue element) {
+      found = predicate.testValue(element);
+      return !found;
+    }
+
+    @Override
+    boolean finish() {
+      return found;
+    }
+  }
+
+  private static final class AllElements extends RepeatedPredicate {
+    private final FieldPredicate predicate;
+    private boolean failed;
+
+    private AllElements(FieldPath fieldPath, FieldPredicate predicate) {
+      super(fieldPath);
+      this.predicate = predicate;
+    }
+
+    @Override
+    void start() {
+      failed = false;
+    }
+
+    @Override
+    public boolean visit(FieldValue element) {
+      failed = !predicate.testValue(element);
+      return !failed;
+    }
+
+    @Override
+    boolean finish() {
+      return !failed;
+    }
+  }
+
+  private static final class SingleValue extends RepeatedPredicate {
+    private final FieldPredicate predicate;
+    private final FieldValue value = new FieldValue();
+
+    private SingleValue(FieldPath fieldPath, FieldPredicate predicate) {
+      super(fieldPath);
+      this.predicate = predicate;
+    }
+
+    @Override
+    void start() {
+      value.clear();
+    }
+
+    @Override
+    public boolean visit(FieldValue element) {
+      value.set(element);
+      return false;
+    }
+
+    @Override
+    boolean finish() {
+      return predicate.testValue(value);
+    }
+  }
+
+  /**
+   * Counts values up to one past the largest operand, after which more values
+   * can't change the result.
+   */
+  private static final class ElementCount extends RepeatedPredicate {
+    private final CompareOp firstOp;
+    private final long first;
+    private final CompareOp secondOp;
+    private final long second;
+    private final long stopAt;
+    private long count;
+
+    private ElementCount(FieldPath fieldPath, CompareOp firstOp, long first, CompareOp secondOp, long second) {
+      super(fieldPath);
+      this.firstOp = firstOp;
+      this.first = first;
+      this.secondOp = secondOp;
+      this.second = second;
+      long largest = secondOp == null ? first : Math.max(first, second);
+      this.stopAt = largest == Long.MAX_VALUE ? largest : largest + 1;
+    }
+
+    @Override
+    public boolean test(byte[] buf, int offset, int length) {
+      if (stopAt <= 0) {
+        // Every count is past the operands.
+        start();
+        return finish();
+      }
+      return super.test(buf, offset, length);
+    }
+
+    @Override
+    void start() {
+      count = 0;
+    }
+
+    @Override
+    public boolean visit(FieldValue element) {
+      return ++count < stopAt;
+    }
+
+    @Override
+    boolean finish() {
+      return ScalarPredicate.interpret(firstOp, Longs.compare(count, first))
+              && (secondOp == null || ScalarPredicate.interpret(secondOp, Longs.compare(count, second)));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hbase.filter.WritableByteArrayComparable;
+
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Interprets a scalar predicate directly against the wire format. Numeric and
+ * boolean values are compared on their raw bits, and strings and bytes as a
+ * slice of the cell. The reader and value slot are reused across cells, so
+ * evaluating a cell allocates nothing.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class ScalarPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final CompareOp compareOp;
+  private final PrimitiveComparator comparator;
+  private final SliceComparator sliceComparator;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private ScalarPredicate(FieldPath fieldPath, CompareOp compareOp,
+                          PrimitiveComparator comparator, SliceComparator sliceComparator) {
+    this.fieldPath = fieldPath;
+    this.compareOp = compareOp;
+    this.comparator = comparator;
+    this.sliceComparator = sliceComparator;
+  }
+
+  /**
+   * Returns a predicate for the field and operand, or absent if the field
+   * can't be read off the wire or compared in place.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, CompareOp compareOp, DynamicValue operand) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()) {
+      return Optional.absent();
+    }
+    PrimitiveComparator comparator = PrimitiveComparator.forField(fieldPath.getLeaf(), operand);
+    SliceComparator sliceComparator = comparator == null ? SliceComparator.forField(fieldPath.getLeaf(), operand) : null;
+    if (comparator == null && sliceComparator == null) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(new ScalarPredicate(fieldPath, compareOp, comparator, sliceComparator));
+  }
+
+  /**
+   * Returns a predicate handing a string or bytes field straight to a user
+   * supplied comparable, or absent for any other field.
+   */
+  public static Optional<FieldPredicate> forComparable(FieldPath fieldPath, CompareOp compareOp,
+                                                       WritableByteArrayComparable comparable) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()) {
+      return Optional.absent();
+    }
+    SliceComparator sliceComparator = SliceComparator.forComparable(fieldPath.getLeaf(), comparable);
+    if (sliceComparator == null) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(new ScalarPredicate(fieldPath, compareOp, null, sliceComparator));
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    // Only pass nulls if not equal.
+    if (!value.isPresent()) {
+      return compareOp == CompareOp.NOT_EQUAL;
+    }
+    if (comparator != null) {
+      return interpret(compareOp, comparator.compare(value.getBits()));
+    } else {
+      return interpret(compareOp, sliceComparator.compare(value.getBuffer(), value.getOffset(), value.getLength()));
+    }
+  }
+
+  public static boolean interpret(CompareOp compareOp, int compareResult) {
+    switch (compareOp) {
+      case LESS:
+        return compareResult < 0;
+      case LESS_OR_EQUAL:
+        return compareResult <= 0;
+      case EQUAL:
+        return compareResult == 0;
+      case NOT_EQUAL:
+        return compareResult != 0;
+      case GREATER_OR_EQUAL:
+        return compareResult >= 0;
+      case GREATER:
+        return compareResult > 0;
+      default:
+        throw new RuntimeException("Unknown Compare op " + compareOp.name());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.OperandSet;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Tests a field for membership in a set straight off the wire: integral and
+ * enum fields against a set of numbers, and string and bytes fields against a
+ * set of byte strings, compared as a slice of the cell. EQUAL means the value
+ * is in the set and NOT_EQUAL that it isn't; as with scalar predicates, a
+ * missing value only passes NOT_EQUAL.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class SetPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final FieldDescriptor.Type type;
+  private final boolean negated;
+  private final LongSet numbers;
+  private final SliceSet elements;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private SetPredicate(FieldPath fieldPath, boolean negated, LongSet numbers, SliceSet elements) {
+    this.fieldPath = fieldPath;
+    this.type = fieldPath.getLeaf().getType();
+    this.negated = negated;
+    this.numbers = numbers;
+    this.elements = elements;
+  }
+
+  /**
+   * Returns a predicate for the field and set, or absent if the field can't
+   * be read off the wire or doesn't hold the kind of values in the set.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, CompareOp compareOp, OperandSet operandSet) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()
+            || (compareOp != CompareOp.EQUAL && compareOp != CompareOp.NOT_EQUAL)
+            || !holdsKind(fieldPath.getLeaf(), operandSet.getKind())) {
+      return Optional.absent();
+    }
+    boolean negated = compareOp == CompareOp.NOT_EQUAL;
+    if (operandSet.getKind() == OperandSet.Kind.NUMBERS) {
+      return Optional.<FieldPredicate>of(new SetPredicate(fieldPath, negated, LongSet.of(operandSet.getNumbers()), null));
+    } else {
+      return Optional.<FieldPredicate>of(new SetPredicate(fieldPath, negated, null, SliceSet.of(operandSet.getElements())));
+    }
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    if (!value.isPresent()) {
+      return negated;
+    }
+    if (numbers != null) {
+      return numbers.contains(toNumber(type, value.getBits())) != negated;
+    } else {
+      return elements.contains(value.getBuffer(), value.getOffset(), value.getLength()) != negated;
+    }
+  }
+
+  /**
+   * Whether the field holds values of the given kind: numbers for integral
+   * and enum fields, and strings or bytes for fields of that type.
+   */
+  static boolean holdsKind(FieldDescriptor field, OperandSet.Kind kind) {
+    switch (kind) {
+      case NUMBERS:
+        FieldDescriptor.JavaType javaType = field.getJavaType();
+        return javaType == FieldDescriptor.JavaType.INT || javaType == FieldDescriptor.JavaType.LONG
+                || javaType == FieldDescriptor.JavaType.ENUM;
+      case STRINGS:
+        return field.getType() == FieldDescriptor.Type.STRING;
+      case BYTES:
+        return field.getType() == FieldDescriptor.Type.BYTES;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * The value of an integral or enum field as its Java type reads it.
+   */
+  static long toNumber(FieldDescriptor.Type type, long bits) {
+    switch (type) {
+      case SINT32:
+        return Wire.decodeZigZag32((int) bits);
+      case SINT64:
+        return Wire.decodeZigZag64(bits);
+      case INT64:
+      case UINT64:
+      case FIXED64:
+      case SFIXED64:
+        return bits;
+      default:
+        return (int) bits;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.hubspot.hbase.filter.server;
+
+import org.apache.hadoop.hbase.filter.WritableByteArrayComparable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+
+/**
+ * Compares a string or bytes field in place, as a slice of the cell, against an
+ * operand that was encoded once up front. Nothing is copied or decoded per cell.
+ */
+public abstract class SliceComparator {
+  private static final int SUPPLEMENTARY_LEAD_BYTE = 0xf0;
+  private static final int HIGH_BMP_LEAD_BYTE = 0xee;
+
+  public abstract int compare(byte[] buf, int offset, int length);
+
+  /**
+   * Returns the comparator for the given field and operand, or null if the
+   * field isn't a string or bytes field of the operand's type.
+   */
+  public static SliceComparator forField(FieldDescriptor field, DynamicValue operand) {
+    switch (field.getType()) {
+      case STRING:
+        return operand.getTypeValue() == DynamicValue.Type.type_string
+                ? new StringComparator(Bytes.toBytes(operand.getValueString())) : null;
+      case BYTES:
+        return operand.getTypeValue() == DynamicValue.Type.type_bytes
+                ? new BytesComparator(operand.getValueBytes().toByteArray()) : null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Hands the slice to a user supplied comparable. A string or bytes field's
+   * wire bytes are exactly what the comparable would otherwise have been given.
+   */
+  public static SliceComparator forComparable(FieldDescriptor field, WritableByteArrayComparable comparable) {
+    switch (field.getType()) {
+      case STRING:
+      case BYTES:
+        return new ComparableComparator(comparable);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Compares two UTF-8 slices in the order {@link String#compareTo} would give
+   * for the decoded strings.
+   *
+   * Unsigned byte order of UTF-8 is code point order, which agrees with UTF-16
+   * order except between supplementary characters (surrogate pairs in UTF-16)
+   * and characters from U+E000 to U+FFFF. That case is recognised from the lead
+   * byte of the first differing character and flipped.
+   */
+  public static int compareUtf8(byte[] left, int leftOffset, int leftLength,
+                                byte[] right, int rightOffset, int rightLength) {
+    int length = Math.min(leftLength, rightLength);
+    int i = 0;
+    while (i < length && left[leftOffset + i] == right[rightOffset + i]) {
+      ++i;
+    }
+    if (i == length) {
+      return leftLength - rightLength;
+    }
+
+    // The prefixes are identical, so both characters start at the same index.
+    int start = i;
+    while (start > 0 && (left[leftOffset + start] & 0xc0) == 0x80) {
+      --start;
+    }
+    int leftLead = left[leftOffset + start] & 0xff;
+    int rightLead = right[rightOffset + start] & 0xff;
+    if (leftLead >= SUPPLEMENTARY_LEAD_BYTE && isHighBmpLead(rightLead)) {
+      return -1;
+    } else if (rightLead >= SUPPLEMENTARY_LEAD_BYTE && isHighBmpLead(leftLead)) {
+      return 1;
+    }
+    return (left[leftOffset + i] & 0xff) - (right[rightOffset + i] & 0xff);
+  }
+
+  private static boolean isHighBmpLead(int lead) {
+    return lead >= HIGH_BMP_LEAD_BYTE && lead < SUPPLEMENTARY_LEAD_BYTE;
+  }
+
+  private static final class StringComparator extends SliceComparator {
+    private final byte[] operand;
+
+    private StringComparator(byte[] operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(byte[] buf, int offset, int length) {
+      return compareUtf8(buf, offset, length, operand, 0, operand.length);
+    }
+  }
+
+  private static final class BytesComparator extends SliceComparator {
+    private final byte[] operand;
+
+    private BytesComparator(byte[] operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int compare(byte[] buf, int offset, int length) {
+      return Bytes.compareTo(buf, offset, length, operand, 0, operand.length);
+    }
+  }
+
+  private static final class ComparableComparator extends SliceComparator {
+    private final WritableByteArrayComparable comparable;
+
+    private ComparableComparator(WritableByteArrayComparable comparable) {
+      this.comparable = comparable;
+    }
+
+    @Override
+    public int compare(byte[] buf, int offset, int length) {
+      return comparable.compareTo(buf, offset, length);
+    }
+  }
+}
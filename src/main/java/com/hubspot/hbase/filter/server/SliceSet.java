@@ -0,0 +1,85 @@
+package com.hubspot.hbase.filter.server;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * An immutable set of byte strings that answers membership for a slice of a
+ * cell without copying it. Small sets are binary searched in unsigned order;
+ * larger ones use open addressing with linear probing on the slice's hash.
+ */
+public abstract class SliceSet {
+
+  public abstract boolean contains(byte[] buf, int offset, int length);
+
+  /**
+   * Returns the set of {@code values}, which must be distinct and sorted in
+   * unsigned lexicographic order.
+   */
+  public static SliceSet of(byte[][] values) {
+    return values.length <= LongSet.MAX_SORTED_SIZE ? new SortedSliceSet(values) : new OpenSliceSet(values);
+  }
+
+  private static final class SortedSliceSet extends SliceSet {
+    private final byte[][] values;
+
+    private SortedSliceSet(byte[][] values) {
+      this.values = values;
+    }
+
+    @Override
+    public boolean contains(byte[] buf, int offset, int length) {
+      int low = 0;
+      int high = values.length - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        byte[] value = values[middle];
+        int result = Bytes.compareTo(value, 0, value.length, buf, offset, length);
+        if (result < 0) {
+          low = middle + 1;
+        } else if (result > 0) {
+          high = middle - 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class OpenSliceSet extends SliceSet {
+    private final byte[][] slots;
+    private final int[] hashes;
+    private final int mask;
+
+    private OpenSliceSet(byte[][] values) {
+      // At most half full, so probe sequences stay short.
+      int capacity = Integer.highestOneBit(values.length * 2 - 1) << 1;
+      this.slots = new byte[capacity][];
+      this.hashes = new int[capacity];
+      this.mask = capacity - 1;
+      for (byte[] value : values) {
+        int hash = Bytes.hashCode(value, 0, value.length);
+        int slot = LongSet.mix(hash) & mask;
+        while (slots[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        hashes[slot] = hash;
+      }
+    }
+
+    @Override
+    public boolean contains(byte[] buf, int offset, int length) {
+      int hash = Bytes.hashCode(buf, offset, length);
+      int slot = LongSet.mix(hash) & mask;
+      byte[] current;
+      while ((current = slots[slot]) != null) {
+        if (hashes[slot] == hash && Bytes.equals(current, 0, current.length, buf, offset, length)) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,339 @@
+package com.hubspot.hbase.filter.server;
+
+import com.hubspot.hbase.filter.models.StringPattern;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a slice of bytes against a {@link StringPattern} without decoding
+ * it. Prefixes and suffixes are compared in place, a single substring is
+ * found by scanning for its first byte, and several substrings are found in
+ * one pass by an Aho-Corasick automaton built when the matcher is. Ignoring
+ * case folds ASCII letters of both the patterns and the input through a
+ * table; other bytes, including every byte of a multi-byte UTF-8 character,
+ * are left alone.
+ *
+ * Regular expressions are run by {@code java.util.regex} behind a check for
+ * the literal text they start with. Their matchers are reused from cell to
+ * cell, so a regex matcher must not be shared between threads.
+ */
+public abstract class StringMatcher {
+  private static final byte[] IDENTITY = new byte[256];
+  private static final byte[] ASCII_LOWER_CASE = new byte[256];
+
+  static {
+    for (int i = 0; i < 256; ++i) {
+      IDENTITY[i] = (byte) i;
+      ASCII_LOWER_CASE[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+    }
+  }
+
+  /**
+   * Folds each byte before it is compared.
+   */
+  final byte[] fold;
+
+  private StringMatcher(byte[] fold) {
+    this.fold = fold;
+  }
+
+  public static StringMatcher compile(StringPattern pattern) {
+    byte[] fold = pattern.isIgnoreAsciiCase() ? ASCII_LOWER_CASE : IDENTITY;
+    byte[][] patterns = new byte[pattern.getPatterns().length][];
+    for (int i = 0; i < patterns.length; ++i) {
+      patterns[i] = foldAll(pattern.getPatterns()[i], fold);
+    }
+    switch (pattern.getKind()) {
+      case PREFIX:
+        return new Prefix(fold, patterns);
+      case SUFFIX:
+        return new Suffix(fold, patterns);
+      case REGEX:
+        return new Regex(Bytes.toString(pattern.getPatterns()[0]), pattern.isIgnoreAsciiCase());
+      default:
+        if (patterns.length == 1) {
+          return new Substring(fold, patterns[0]);
+        }
+        return new Automaton(fold, patterns);
+    }
+  }
+
+  public abstract boolean matches(byte[] buf, int offset, int length);
+
+  private static byte[] foldAll(byte[] bytes, byte[] fold) {
+    byte[] folded = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; ++i) {
+      folded[i] = fold[bytes[i] & 0xff];
+    }
+    return folded;
+  }
+
+  /**
+   * Whether {@code pattern} occurs in {@code buf} at {@code offset}, which
+   * must leave room for it.
+   */
+  final boolean occursAt(byte[] buf, int offset, byte[] pattern) {
+    for (int i = 0; i < pattern.length; ++i) {
+      if (fold[buf[offset + i] & 0xff] != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static final class Prefix extends StringMatcher {
+    private final byte[][] prefixes;
+
+    private Prefix(byte[] fold, byte[][] prefixes) {
+      super(fold);
+      this.prefixes = prefixes;
+    }
+
+    @Override
+    public boolean matches(byte[] buf, int offset, int length) {
+      for (byte[] prefix : prefixes) {
+        if (prefix.length <= length && occursAt(buf, offset, prefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class Suffix extends StringMatcher {
+    private final byte[][] suffixes;
+
+    private Suffix(byte[] fold, byte[][] suffixes) {
+      super(fold);
+      this.suffixes = suffixes;
+    }
+
+    @Override
+    public boolean matches(byte[] buf, int offset, int length) {
+      for (byte[] suffix : suffixes) {
+        if (suffix.length <= length && occursAt(buf, offset + length - suffix.length, suffix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static final class Substring extends StringMatcher {
+    private final byte[] substring;
+
+    private Substring(byte[] fold, byte[] substring) {
+      super(fold);
+      this.substring = substring;
+    }
+
+    @Override
+    public boolean matches(byte[] buf, int offset, int length) {
+      if (substring.length == 0) {
+        return true;
+      }
+      byte first = substring[0];
+      int last = offset + length - substring.length;
+      for (int i = offset; i <= last; ++i) {
+        if (fold[buf[i] & 0xff] == first && occursAt(buf, i, substring)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * An Aho-Corasick automaton with its failure links resolved into a dense
+   * table of transitions, so each input byte costs one lookup. A state accepts
+   * if some pattern ends there or at any state its failure links lead to.
+   */
+  private static final class Automaton extends StringMatcher {
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private Automaton(byte[] fold, byte[][] patterns) {
+      super(fold);
+      List<int[]> trie = new ArrayList<int[]>();
+      List<Boolean> ends = new ArrayList<Boolean>();
+      trie.add(newState());
+      ends.add(false);
+      for (byte[] pattern : patterns) {
+        int state = 0;
+        for (byte b : pattern) {
+          int next = trie.get(state)[b & 0xff];
+          if (next < 0) {
+            next = trie.size();
+            trie.get(state)[b & 0xff] = next;
+            trie.add(newState());
+            ends.add(false);
+          }
+          state = next;
+        }
+        ends.set(state, true);
+      }
+
+      int states = trie.size();
+      this.transitions = new int[states << 8];
+      this.accepting = new boolean[states];
+      int[] failure = new int[states];
+      int[] queue = new int[states];
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = 0;
+      while (head < tail) {
+        int state = queue[head++];
+        accepting[state] = ends.get(state) || (state != 0 && accepting[failure[state]]);
+        int[] children = trie.get(state);
+        for (int b = 0; b < 256; ++b) {
+          int fallback = state == 0 ? 0 : transitions[(failure[state] << 8) | b];
+          if (children[b] < 0) {
+            transitions[(state << 8) | b] = fallback;
+          } else {
+            failure[children[b]] = fallback;
+            transitions[(state << 8) | b] = children[b];
+            queue[tail++] = children[b];
+          }
+        }
+      }
+    }
+
+    private static int[] newState() {
+      int[] children = new int[256];
+      Arrays.fill(children, -1);
+      return children;
+    }
+
+    @Override
+    public boolean matches(byte[] buf, int offset, int length) {
+      if (accepting[0]) {
+        return true;
+      }
+      int state = 0;
+      for (int i = offset, end = offset + length; i < end; ++i) {
+        state = transitions[(state << 8) | (fold[buf[i] & 0xff] & 0xff)];
+        if (accepting[state]) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Finds a regular expression in the field. A field that doesn't contain the
+   * literal text every match starts with, or start with it when the regex is
+   * anchored, is rejected without running the regex. ASCII fields, the common
+   * case, are read through a view of the cell rather than decoded.
+   */
+  private static final class Regex extends StringMatcher {
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String OPTIONAL_QUANTIFIERS = "?*{";
+
+    private final Matcher matcher;
+    private final StringMatcher prefilter;
+    private final AsciiView asciiView = new AsciiView();
+
+    private Regex(String regex, boolean ignoreAsciiCase) {
+      super(IDENTITY);
+      this.matcher = Pattern.compile(regex, ignoreAsciiCase ? Pattern.CASE_INSENSITIVE : 0).matcher("");
+      boolean anchored = regex.startsWith("^");
+      String literal = literalPrefix(regex, anchored ? 1 : 0);
+      if (literal.isEmpty()) {
+        this.prefilter = null;
+      } else {
+        StringPattern literalPattern = anchored ? StringPattern.startsWith(literal) : StringPattern.contains(literal);
+        this.prefilter = compile(ignoreAsciiCase ? literalPattern.ignoringAsciiCase() : literalPattern);
+      }
+    }
+
+    /**
+     * The literal text a match must start with, from {@code start} up to the
+     * first metacharacter. Empty if there is none, or if the regex has
+     * alternatives and so may not need it at all.
+     */
+    static String literalPrefix(String regex, int start) {
+      if (regex.indexOf('|') >= 0) {
+        return "";
+      }
+      StringBuilder literal = new StringBuilder();
+      int i = start;
+      while (i < regex.length()) {
+        char c = regex.charAt(i);
+        int next = i + 1;
+        if (c == '\\' && next < regex.length() && !Character.isLetterOrDigit(regex.charAt(next))) {
+          // An escaped punctuation character stands for itself.
+          c = regex.charAt(next++);
+        } else if (METACHARACTERS.indexOf(c) >= 0 || Character.isSurrogate(c)) {
+          break;
+        }
+        if (next < regex.length() && OPTIONAL_QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+          break;
+        }
+        literal.append(c);
+        i = next;
+      }
+      return literal.toString();
+    }
+
+    @Override
+    public boolean matches(byte[] buf, int offset, int length) {
+      if (prefilter != null && !prefilter.matches(buf, offset, length)) {
+        return false;
+      }
+      matcher.reset(isAscii(buf, offset, length)
+              ? asciiView.wrap(buf, offset, length) : Bytes.toString(buf, offset, length));
+      return matcher.find();
+    }
+
+    private static boolean isAscii(byte[] buf, int offset, int length) {
+      for (int i = offset, end = offset + length; i < end; ++i) {
+        if (buf[i] < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * ASCII bytes read as the characters they encode.
+   */
+  private static final class AsciiView implements CharSequence {
+    private byte[] buf;
+    private int offset;
+    private int length;
+
+    private AsciiView wrap(byte[] buf, int offset, int length) {
+      this.buf = buf;
+      this.offset = offset;
+      this.length = length;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) buf[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return Bytes.toString(buf, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return Bytes.toString(buf, offset, length);
+    }
+  }
+}
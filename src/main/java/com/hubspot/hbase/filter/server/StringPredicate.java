@@ -0,0 +1,64 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.common.base.Optional;
+import com.hubspot.hbase.filter.models.StringPattern;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+/**
+ * Tests whether a string or bytes field starts with, ends with or contains a
+ * pattern, matching its slice of the cell in place. EQUAL means the value
+ * matches and NOT_EQUAL that it doesn't; a missing value only passes
+ * NOT_EQUAL.
+ *
+ * Instances hold per-cell state and must not be shared between filters.
+ */
+public class StringPredicate implements FieldPredicate {
+  private final FieldPath fieldPath;
+  private final boolean negated;
+  private final StringMatcher matcher;
+  private final WireReader reader = new WireReader();
+  private final FieldValue value = new FieldValue();
+
+  private StringPredicate(FieldPath fieldPath, boolean negated, StringMatcher matcher) {
+    this.fieldPath = fieldPath;
+    this.negated = negated;
+    this.matcher = matcher;
+  }
+
+  /**
+   * Returns a predicate for the field and pattern, or absent if the field
+   * can't be read off the wire or isn't a string or bytes field.
+   */
+  public static Optional<FieldPredicate> forOperand(FieldPath fieldPath, CompareOp compareOp, StringPattern pattern) {
+    if (!fieldPath.isResolved() || !fieldPath.isWireReadable()
+            || (compareOp != CompareOp.EQUAL && compareOp != CompareOp.NOT_EQUAL)
+            || (fieldPath.getLeaf().getType() != FieldDescriptor.Type.STRING
+                && fieldPath.getLeaf().getType() != FieldDescriptor.Type.BYTES)) {
+      return Optional.absent();
+    }
+    return Optional.<FieldPredicate>of(
+            new StringPredicate(fieldPath, compareOp == CompareOp.NOT_EQUAL, StringMatcher.compile(pattern)));
+  }
+
+  @Override
+  public FieldPath getFieldPath() {
+    return fieldPath;
+  }
+
+  @Override
+  public boolean test(byte[] buf, int offset, int length) {
+    reader.reset(buf, offset, length);
+    WireFieldExtractor.extract(fieldPath, reader, value);
+    return testValue(value);
+  }
+
+  @Override
+  public boolean testValue(FieldValue value) {
+    if (!value.isPresent()) {
+      return negated;
+    }
+    return matcher.matches(value.getBuffer(), value.getOffset(), value.getLength()) != negated;
+  }
+}
@@ -0,0 +1,152 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Allocation free helpers for walking protobuf wire data held in a byte array.
+ * These are public so generated predicates, which live in their own class
+ * loader, can call them.
+ */
+public final class Wire {
+  public static final int TAG_TYPE_BITS = 3;
+  public static final int TAG_TYPE_MASK = (1 << TAG_TYPE_BITS) - 1;
+
+  private Wire() {
+  }
+
+  public static int fieldNumber(int tag) {
+    return tag >>> TAG_TYPE_BITS;
+  }
+
+  public static int wireType(int tag) {
+    return tag & TAG_TYPE_MASK;
+  }
+
+  public static int makeTag(int fieldNumber, int wireType) {
+    return (fieldNumber << TAG_TYPE_BITS) | wireType;
+  }
+
+  /**
+   * Skips the value of a field whose tag has already been consumed, returning
+   * the position just past it.
+   */
+  public static int skipField(byte[] buf, int pos, int limit, int tag) {
+    if (fieldNumber(tag) == 0) {
+      throw invalidTag();
+    }
+    switch (wireType(tag)) {
+      case WireFormat.WIRETYPE_VARINT:
+        return skipVarint(buf, pos, limit);
+      case WireFormat.WIRETYPE_FIXED64:
+        return advance(pos, 8, limit);
+      case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+        int length = 0;
+        int shift = 0;
+        while (true) {
+          if (pos >= limit) {
+            throw truncated();
+          }
+          byte b = buf[pos++];
+          length |= (b & 0x7F) << shift;
+          if (b >= 0) {
+            break;
+          }
+          shift += 7;
+          if (shift >= 32) {
+            throw malformedVarint();
+          }
+        }
+        if (length < 0) {
+          throw invalid("CodedInputStream encountered an embedded string or message which claimed to have negative size.");
+        }
+        return advance(pos, length, limit);
+      case WireFormat.WIRETYPE_START_GROUP:
+        int endTag = makeTag(fieldNumber(tag), WireFormat.WIRETYPE_END_GROUP);
+        while (true) {
+          if (pos >= limit) {
+            throw truncated();
+          }
+          int innerTag = 0;
+          shift = 0;
+          while (true) {
+            if (pos >= limit) {
+              throw truncated();
+            }
+            byte b = buf[pos++];
+            innerTag |= (b & 0x7F) << shift;
+            if (b >= 0) {
+              break;
+            }
+            shift += 7;
+            if (shift >= 32) {
+              throw malformedVarint();
+            }
+          }
+          if (innerTag == endTag) {
+            return pos;
+          }
+          pos = skipField(buf, pos, limit, innerTag);
+        }
+      case WireFormat.WIRETYPE_FIXED32:
+        return advance(pos, 4, limit);
+      default:
+        throw invalid("Protocol message tag had invalid wire type.");
+    }
+  }
+
+  public static int skipVarint(byte[] buf, int pos, int limit) {
+    for (int i = 0; i < 10; ++i) {
+      if (pos >= limit) {
+        throw truncated();
+      }
+      if (buf[pos++] >= 0) {
+        return pos;
+      }
+    }
+    throw malformedVarint();
+  }
+
+  public static int readFixed32(byte[] buf, int pos) {
+    return (buf[pos] & 0xff)
+            | ((buf[pos + 1] & 0xff) << 8)
+            | ((buf[pos + 2] & 0xff) << 16)
+            | ((buf[pos + 3] & 0xff) << 24);
+  }
+
+  public static long readFixed64(byte[] buf, int pos) {
+    return (readFixed32(buf, pos) & 0xffffffffL)
+            | (((long) readFixed32(buf, pos + 4)) << 32);
+  }
+
+  public static int decodeZigZag32(int n) {
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  public static long decodeZigZag64(long n) {
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  public static int advance(int pos, int length, int limit) {
+    if (length < 0 || length > limit - pos) {
+      throw truncated();
+    }
+    return pos + length;
+  }
+
+  public static RuntimeException invalidTag() {
+    return invalid("Protocol message contained an invalid tag (zero).");
+  }
+
+  public static RuntimeException truncated() {
+    return invalid("While parsing a protocol message, the input ended unexpectedly in the middle of a field.");
+  }
+
+  public static RuntimeException malformedVarint() {
+    return invalid("CodedInputStream encountered a malformed varint.");
+  }
+
+  private static RuntimeException invalid(String message) {
+    return new RuntimeException(new InvalidProtocolBufferException(message));
+  }
+}
@@ -0,0 +1,124 @@
+package com.hubspot.hbase.filter.server;
+
+import com.google.protobuf.WireFormat;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor;
+
+/**
+ * Pulls a single scalar out of a serialized message by walking the wire format,
+ * rather than building a DynamicMessage for the whole value.
+ *
+ * Tags that are not on the field path are skipped without being decoded, and only
+ * the nested messages named by the path are descended into. Protobuf semantics are
+ * preserved: the last occurrence of the leaf wins, repeated occurrences of a parent
+ * message are merged, and declared defaults apply when the parent is present but
+ * the leaf is not.
+ */
+public class WireFieldExtractor {
+  private WireFieldExtractor() {
+  }
+
+  /**
+   * Returns the value of the leaf of {@code path} in the same form DynamicMessage
+   * would report it (enums by name), its declared default if it is unset, or null.
+   * The path must be {@link FieldPath#isWireReadable() wire readable}.
+   */
+  public static Object extractScalar(FieldPath path, byte[] data, int offset, int length) {
+    FieldValue value = new FieldValue();
+    if (extract(path, new WireReader().reset(data, offset, length), value)) {
+      return path.toScalar(value);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the leaf of {@code path} into {@code value} without decoding it,
+   * falling back to its declared default. Returns false if there is no value.
+   */
+  public static boolean extract(FieldPath path, WireReader reader, FieldValue value) {
+    return extract(path, 0, reader, value);
+  }
+
+  /**
+   * Reads the leaf of {@code path} into {@code value} from a message holding
+   * the path's fields from {@code depth} on, such as one element of a repeated
+   * field along the path. Every field below {@code depth} must be singular.
+   */
+  static boolean extract(FieldPath path, int depth, WireReader reader, FieldValue value) {
+    value.clear();
+    boolean parentPresent = scan(reader, path, depth, value);
+
+    if (value.isPresent()) {
+      return true;
+    } else if ((parentPresent || depth == path.depth() - 1) && path.hasDefaultValue()) {
+      path.loadDefaultValue(value);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Scans one level of the path, returning whether the leaf's parent message
+   * was seen at or below it.
+   */
+  private static boolean scan(WireReader reader, FieldPath path, int depth, FieldValue value) {
+    int expectedTag = path.getTag(depth);
+    boolean isLeaf = depth == path.depth() - 1;
+    boolean isParent = depth == path.depth() - 2;
+    boolean parentPresent = false;
+
+    int tag;
+    while ((tag = reader.readTag()) != 0) {
+      if (tag != expectedTag) {
+        reader.skipField(tag);
+      } else if (isLeaf) {
+        readValue(reader, path, value);
+      } else {
+        int oldLimit = reader.pushLimit(reader.readLength());
+        boolean childSawParent = scan(reader, path, depth + 1, value);
+        parentPresent = parentPresent || isParent || childSawParent;
+        reader.popLimit(oldLimit);
+      }
+    }
+    return parentPresent;
+  }
+
+  static void readValue(WireReader reader, FieldPath path, FieldValue value) {
+    int wireType = path.getWireType(path.depth() - 1);
+    if (wireType == WireFormat.WIRETYPE_VARINT && path.getLeaf().getType() == FieldDescriptor.Type.ENUM) {
+      long bits = reader.readVarint64();
+      if (path.isKnownEnumNumber((int) bits)) {
+        value.setBits(bits);
+      }
+    } else {
+      readValue(reader, wireType, value);
+    }
+  }
+
+  /**
+   * Reads a value of the given wire type into {@code value} without
+   * interpreting it.
+   */
+  static void readValue(WireReader reader, int wireType, FieldValue value) {
+    switch (wireType) {
+      case WireFormat.WIRETYPE_VARINT:
+        value.setBits(reader.readVarint64());
+        break;
+      case WireFormat.WIRETYPE_FIXED32:
+        value.setBits(reader.readFixed32() & 0xffffffffL);
+        break;
+      case WireFormat.WIRETYPE_FIXED64:
+        value.setBits(reader.readFixed64());
+        break;
+      case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+        int length = reader.readLength();
+        value.setSlice(reader.getBuffer(), reader.getPosition(), length);
+        reader.skipRawBytes(length);
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot read scalar of wire type " + wireType);
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.hubspot.hbase.filter.server;
+
+/**
+ * A predicate evaluated directly against a serialized message.
+ */
+public interface WirePredicate {
+  boolean test(byte[] buf, int offset, int length);
+}
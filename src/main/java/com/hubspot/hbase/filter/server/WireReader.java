@@ -0,0 +1,113 @@
+package com.hubspot.hbase.filter.server;
+
+/**
+ * A resettable cursor over protobuf wire data in a byte array. Unlike
+ * CodedInputStream it can be pointed at a new cell without allocating, which
+ * keeps per-cell evaluation garbage free.
+ */
+public final class WireReader {
+  private byte[] buffer;
+  private int position;
+  private int limit;
+
+  public WireReader reset(byte[] buffer, int offset, int length) {
+    this.buffer = buffer;
+    this.position = offset;
+    this.limit = offset + length;
+    return this;
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public boolean isAtEnd() {
+    return position >= limit;
+  }
+
+  /**
+   * Reads the next tag, or returns 0 once the current limit is reached.
+   */
+  public int readTag() {
+    if (position >= limit) {
+      return 0;
+    }
+    int tag = readVarint32();
+    if (Wire.fieldNumber(tag) == 0) {
+      throw Wire.invalidTag();
+    }
+    return tag;
+  }
+
+  public long readVarint64() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position >= limit) {
+        throw Wire.truncated();
+      }
+      byte b = buffer[position++];
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw Wire.malformedVarint();
+  }
+
+  public int readVarint32() {
+    return (int) readVarint64();
+  }
+
+  public int readFixed32() {
+    position = Wire.advance(position, 4, limit);
+    return Wire.readFixed32(buffer, position - 4);
+  }
+
+  public long readFixed64() {
+    position = Wire.advance(position, 8, limit);
+    return Wire.readFixed64(buffer, position - 8);
+  }
+
+  /**
+   * Reads the length prefix of a length-delimited value and checks that the
+   * value fits inside the current limit.
+   */
+  public int readLength() {
+    long length = readVarint64();
+    if (length < 0 || length > limit - position) {
+      throw Wire.truncated();
+    }
+    return (int) length;
+  }
+
+  public void skipRawBytes(int length) {
+    position = Wire.advance(position, length, limit);
+  }
+
+  public void skipField(int tag) {
+    position = Wire.skipField(buffer, position, limit, tag);
+  }
+
+  /**
+   * Narrows the readable region to the next {@code length} bytes, returning
+   * the previous limit to hand back to {@link #popLimit(int)}.
+   */
+  public int pushLimit(int length) {
+    int oldLimit = limit;
+    limit = Wire.advance(position, length, limit);
+    return oldLimit;
+  }
+
+  public void popLimit(int oldLimit) {
+    position = limit;
+    limit = oldLimit;
+  }
+}
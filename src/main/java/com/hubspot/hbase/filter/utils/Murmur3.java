@@ -0,0 +1,101 @@
+package com.hubspot.hbase.filter.utils;
+
+/**
+ * The x64 128-bit variant of murmur3, seed 0, returning the first 64 bits of
+ * the hash. Results equal Guava's {@code Hashing.murmur3_128().hashBytes(...).asLong()}
+ * (and {@code hashLong} for longs), but nothing is allocated and a slice of a
+ * larger array can be hashed in place.
+ */
+public class Murmur3 {
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private Murmur3() {
+  }
+
+  public static long hash64(long value) {
+    // A long hashes as its 8 little endian bytes, all of them tail.
+    long h1 = mixH1(0, value);
+    long h2 = 0;
+    return finish(h1, h2, 8);
+  }
+
+  public static long hash64(byte[] buf, int offset, int length) {
+    long h1 = 0;
+    long h2 = 0;
+    int end = offset + (length & ~15);
+    int position = offset;
+    for (; position < end; position += 16) {
+      long k1 = readLongLittleEndian(buf, position);
+      long k2 = readLongLittleEndian(buf, position + 8);
+      h1 = mixH1(h1, k1);
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 = mixH2(h2, k2);
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    int remaining = offset + length - position;
+    if (remaining > 0) {
+      long k1 = 0;
+      long k2 = 0;
+      for (int i = remaining - 1; i >= 8; --i) {
+        k2 |= (buf[position + i] & 0xffL) << ((i - 8) * 8);
+      }
+      for (int i = Math.min(remaining, 8) - 1; i >= 0; --i) {
+        k1 |= (buf[position + i] & 0xffL) << (i * 8);
+      }
+      if (remaining > 8) {
+        h2 = mixH2(h2, k2);
+      }
+      h1 = mixH1(h1, k1);
+    }
+    return finish(h1, h2, length);
+  }
+
+  private static long mixH1(long h1, long k1) {
+    k1 *= C1;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= C2;
+    return h1 ^ k1;
+  }
+
+  private static long mixH2(long h2, long k2) {
+    k2 *= C2;
+    k2 = Long.rotateLeft(k2, 33);
+    k2 *= C1;
+    return h2 ^ k2;
+  }
+
+  private static long finish(long h1, long h2, int length) {
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    return h1 + h2;
+  }
+
+  public static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  private static long readLongLittleEndian(byte[] buf, int position) {
+    return (buf[position] & 0xffL)
+            | (buf[position + 1] & 0xffL) << 8
+            | (buf[position + 2] & 0xffL) << 16
+            | (buf[position + 3] & 0xffL) << 24
+            | (buf[position + 4] & 0xffL) << 32
+            | (buf[position + 5] & 0xffL) << 40
+            | (buf[position + 6] & 0xffL) << 48
+            | (buf[position + 7] & 0xffL) << 56;
+  }
+}
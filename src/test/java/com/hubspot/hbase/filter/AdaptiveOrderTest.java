@@ -0,0 +1,110 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.hubspot.hbase.filter.server.AdaptiveOrder;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.apache.hadoop.hbase.HConstants.EMPTY_BYTE_ARRAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveOrderTest extends BaseProtoFilterTest {
+
+  private static final byte[] COLUMN_A = Bytes.toBytes("a");
+  private static final byte[] COLUMN_B = Bytes.toBytes("b");
+
+  @Test
+  public void itShouldTryTheMostSelectiveOperandOfAnAndFirst() {
+    AdaptiveOrder order = AdaptiveOrder.forOperands(3, false);
+    for (int i = 0; i < AdaptiveOrder.ADAPT_INTERVAL; ++i) {
+      order.record(0, true, 100);
+      order.record(1, false, 100);
+      order.record(2, true, 100);
+      order.endEvaluation();
+    }
+    assertThat(order.getOrder()[0]).isEqualTo(1);
+  }
+
+  @Test
+  public void itShouldTryTheCheapestOperandOfAnOrFirst() {
+    AdaptiveOrder order = AdaptiveOrder.forOperands(2, true);
+    for (int i = 0; i < AdaptiveOrder.ADAPT_INTERVAL; ++i) {
+      order.record(0, true, 1000);
+      order.record(1, true, 10);
+      order.endEvaluation();
+    }
+    assertThat(order.getOrder()).containsExactly(1, 0);
+  }
+
+  @Test
+  public void itShouldKeepOrderWhenNothingIsLearned() {
+    AdaptiveOrder order = AdaptiveOrder.forOperands(3, false);
+    for (int i = 0; i < AdaptiveOrder.ADAPT_INTERVAL; ++i) {
+      assertThat(order.endEvaluation()).isFalse();
+    }
+    assertThat(order.getOrder()).containsExactly(0, 1, 2);
+    assertThat(AdaptiveOrder.forOperands(1, false)).isNull();
+  }
+
+  @Test
+  public void itShouldGiveTheSameAnswersAfterReordering() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter expression = b.and(b.hasFieldGreaterThan("id", 0L), b.hasFieldLessThan("portal_id", 100), b.hasFieldEqualTo("name", "x"));
+    ProtoFilterList list = roundTrip(ProtoFilterList.and(
+            b.hasFieldGreaterThan("id", 0L), b.hasFieldLessThan("portal_id", 100), b.hasFieldEqualTo("name", "x")));
+
+    Random random = new Random(11);
+    for (int i = 0; i < 3 * AdaptiveOrder.ADAPT_INTERVAL; ++i) {
+      ExampleProto.Builder proto = ExampleProto.newBuilder()
+              .setRequiredTest(1)
+              .setId(random.nextInt(100) - 1)
+              .setPortalId(random.nextInt(110))
+              .setName(random.nextInt(4) == 0 ? "x" : "y");
+      list.reset();
+      list.filterKeyValue(buildKeyValue(proto));
+      boolean expected = proto.getId() > 0 && proto.getPortalId() < 100 && proto.getName().equals("x");
+      assertThat(!list.filterRow()).as(proto.toString()).isEqualTo(expected);
+      if (i % 64 == 0) {
+        assertThat(matches(expression, proto)).as(proto.toString()).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void itShouldGiveTheSameAnswersForRowsWithSeveralColumns() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> first = ProtobufFilter.forColumn(COLUMN_A, COLUMN_A, ExampleProto.class);
+    ProtobufFilter.Builder<ExampleProto> second = ProtobufFilter.forColumn(COLUMN_B, COLUMN_B, ExampleProto.class);
+    ProtoFilterList list = roundTrip(ProtoFilterList.and(
+            first.hasFieldGreaterThan("id", 0L), second.hasFieldLessThan("portal_id", 10)));
+
+    Random random = new Random(13);
+    for (int i = 0; i < 3 * AdaptiveOrder.ADAPT_INTERVAL; ++i) {
+      ExampleProto.Builder a = ExampleProto.newBuilder().setRequiredTest(1).setId(random.nextInt(5) - 1);
+      ExampleProto.Builder b = ExampleProto.newBuilder().setRequiredTest(1).setPortalId(random.nextInt(100));
+      list.reset();
+      if (list.filterKeyValue(keyValue(COLUMN_A, a)) == Filter.ReturnCode.INCLUDE) {
+        list.filterKeyValue(keyValue(COLUMN_B, b));
+      }
+      boolean expected = a.getId() > 0 && b.getPortalId() < 10;
+      assertThat(!list.filterRow()).as(a + " " + b).isEqualTo(expected);
+    }
+  }
+
+  private static KeyValue keyValue(byte[] column, ExampleProto.Builder value) {
+    return new KeyValue(EMPTY_BYTE_ARRAY, column, column, value.build().toByteArray());
+  }
+
+  private static ProtoFilterList roundTrip(ProtoFilterList list) throws Exception {
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    list.write(output);
+    ProtoFilterList read = new ProtoFilterList();
+    read.readFields(ByteStreams.newDataInput(output.toByteArray()));
+    return read;
+  }
+}
@@ -17,9 +17,17 @@ public class BaseProtoFilterTest {
     return ProtobufFilter.forColumn(EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, ExampleProtos.ExampleProto.class);
   }
 
+  protected static ExampleProtos.ExampleProto.Builder proto() {
+    return ExampleProtos.ExampleProto.newBuilder().setRequiredTest(1);
+  }
+
   protected boolean matches(Filter filter, ExampleProtos.ExampleProto.Builder columnValue) {
+    return matches(filter, columnValue.build().toByteArray());
+  }
+
+  protected boolean matches(Filter filter, byte[] columnValue) {
     ProtobufColumnValueFilter protoFilter = serializeAndDeserialize((ProtobufColumnValueFilter) filter);
-    protoFilter.filterKeyValue(buildKeyValue(columnValue));
+    protoFilter.filterKeyValue(new KeyValue(EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, columnValue));
     return !protoFilter.filterRow();
   }
 
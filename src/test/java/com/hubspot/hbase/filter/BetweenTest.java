@@ -0,0 +1,64 @@
+package com.hubspot.hbase.filter;
+
+import com.google.protobuf.ByteString;
+import com.hubspot.hbase.filter.models.Inclusivity;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BetweenTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder PROTO = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setId(100L)
+          .setPortalId(53)
+          .setName("m")
+          .setFloatTest(1.5f)
+          .setDoubleTest(-2.5)
+          .setBytesTest(ByteString.copyFrom(new byte[] {(byte) 0x80}))
+          .setTestEnum(ExampleProto.TestEnum.ORANGE);
+
+  @Test
+  public void itShouldRespectInclusivity() throws Exception {
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 100L, 200L, Inclusivity.CLOSED), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 100L, 200L, Inclusivity.CLOSED_OPEN), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 100L, 200L, Inclusivity.OPEN_CLOSED), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 50L, 100L, Inclusivity.OPEN_CLOSED), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 50L, 100L, Inclusivity.OPEN), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldBetween("id", 200L, 50L, Inclusivity.CLOSED), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldCompareEveryType() throws Exception {
+    assertThat(matches(filterBuilder().hasFieldBetween("portal_id", 50, 60, Inclusivity.CLOSED), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("portal_id", 54, 60, Inclusivity.CLOSED), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldBetween("float_test", 1f, 2f, Inclusivity.OPEN), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("double_test", -3.0, -2.5, Inclusivity.CLOSED_OPEN), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldBetween("name", "a", "n", Inclusivity.CLOSED_OPEN), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("name", "n", "z", Inclusivity.CLOSED_OPEN), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldBetween("bool_test", false, true, Inclusivity.CLOSED), PROTO.clone().setBoolTest(true))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("bytes_test",
+            new byte[] {0x7f}, new byte[] {(byte) 0xff}, Inclusivity.CLOSED), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("test_enum",
+            ExampleProto.TestEnum.APPLE, ExampleProto.TestEnum.ORANGE, Inclusivity.CLOSED), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("test_enum",
+            ExampleProto.TestEnum.APPLE, ExampleProto.TestEnum.ORANGE, Inclusivity.CLOSED_OPEN), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldNotMatchMissingValues() throws Exception {
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(filterBuilder().hasFieldBetween("id", Long.MIN_VALUE, Long.MAX_VALUE, Inclusivity.CLOSED), empty)).isFalse();
+    // The declared default is in range.
+    assertThat(matches(filterBuilder().hasFieldBetween("default_test", 0, 10, Inclusivity.CLOSED), empty)).isTrue();
+  }
+
+  @Test
+  public void itShouldCompareNestedFields() throws Exception {
+    ExampleProto.Builder nested = PROTO.clone().setChildProto(
+            ChildProto.newBuilder().setChildProtoVal(7));
+    assertThat(matches(filterBuilder().hasFieldBetween("child_proto.child_proto_val", 7, 8, Inclusivity.CLOSED_OPEN), nested)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldBetween("child_proto.child_proto_val", 7, 8, Inclusivity.OPEN), nested)).isFalse();
+  }
+}
@@ -0,0 +1,72 @@
+package com.hubspot.hbase.filter;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitMaskTest extends BaseProtoFilterTest {
+
+  @Test
+  public void itShouldTestFlagBits() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setPortalId(0b1011).setId(1L << 40 | 1);
+    assertThat(matches(b.hasAllBitsSet("portal_id", 0b0011), proto)).isTrue();
+    assertThat(matches(b.hasAllBitsSet("portal_id", 0b0111), proto)).isFalse();
+    assertThat(matches(b.hasAnyBitsSet("portal_id", 0b0110), proto)).isTrue();
+    assertThat(matches(b.hasAnyBitsSet("portal_id", 0b0100), proto)).isFalse();
+    assertThat(matches(b.hasNoBitsSet("portal_id", 0b0100), proto)).isTrue();
+    assertThat(matches(b.hasNoBitsSet("portal_id", 0b1100), proto)).isFalse();
+    assertThat(matches(b.hasAllBitsSet("id", 1L << 40 | 1), proto)).isTrue();
+    assertThat(matches(b.hasAnyBitsSet("id", 1L << 41), proto)).isFalse();
+    assertThat(matches(b.hasAllBitsSet("portal_id", 0), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldReadThirtyTwoBitFieldsAsTheirOwnBits() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setPortalId(-1);
+    assertThat(matches(b.hasAllBitsSet("portal_id", 0xffffffff), proto)).isTrue();
+    assertThat(matches(b.hasAllBitsSet("portal_id", 0x80000000), proto)).isTrue();
+    // Negative 32-bit values aren't sign extended to 64 bits.
+    assertThat(matches(b.hasAnyBitsSet("portal_id", 1L << 32), proto)).isFalse();
+    assertThat(matches(b.hasAllBitsSet("id", 0x80000000), proto().setId(0x80000000L))).isTrue();
+    assertThat(matches(b.hasAllBitsSet("id", 0x80000000), proto().setId(0x7fffffffL))).isFalse();
+  }
+
+  @Test
+  public void itShouldNotMatchMissingOrNonIntegralFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.hasNoBitsSet("portal_id", 1), proto())).isFalse();
+    assertThat(matches(b.not(b.hasAnyBitsSet("portal_id", 1)), proto())).isTrue();
+    assertThat(matches(b.hasNoBitsSet("name", 1), proto().setName("a"))).isFalse();
+    assertThat(matches(b.hasNoBitsSet("nope", 1), proto())).isFalse();
+    // A declared default is the field's value.
+    assertThat(matches(b.hasAllBitsSet("default_test", 0b101), proto())).isTrue();
+  }
+
+  @Test
+  public void itShouldCombineWithOtherPredicates() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Random random = new Random(22);
+    for (int i = 0; i < 300; ++i) {
+      ExampleProto.Builder proto = proto();
+      if (random.nextInt(4) > 0) {
+        proto.setPortalId(random.nextInt());
+      }
+      if (random.nextBoolean()) {
+        proto.setChildProto(ChildProto.newBuilder().setChildProtoVal(random.nextInt(16)));
+      }
+      int mask = random.nextInt(16);
+      boolean portalFlags = proto.hasPortalId() && (proto.getPortalId() & mask) != 0;
+      boolean childFlags = proto.hasChildProto() && (proto.getChildProto().getChildProtoVal() & mask) == mask;
+
+      String message = proto.toString() + " mask " + mask;
+      assertThat(matches(b.or(b.hasAnyBitsSet("portal_id", mask), b.hasAllBitsSet("child_proto.child_proto_val", mask)), proto))
+              .as(message).isEqualTo(portalFlags || childFlags);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.hubspot.hbase.filter.models.BloomSpec;
+import com.hubspot.hbase.filter.models.OperandSet;
+import com.hubspot.hbase.filter.utils.Murmur3;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomMembershipTest extends BaseProtoFilterTest {
+
+  @Test
+  public void itShouldHashLikeGuava() {
+    Random random = new Random(42);
+    for (int length = 0; length < 40; ++length) {
+      byte[] bytes = new byte[length + 3];
+      random.nextBytes(bytes);
+      assertThat(Murmur3.hash64(bytes, 3, length))
+              .isEqualTo(Hashing.murmur3_128().hashBytes(bytes, 3, length).asLong());
+    }
+    for (long value : new long[] {0L, 1L, -1L, Long.MIN_VALUE, random.nextLong()}) {
+      assertThat(Murmur3.hash64(value)).isEqualTo(Hashing.murmur3_128().hashLong(value).asLong());
+    }
+  }
+
+  @Test
+  public void itShouldPassEveryMemberAndFewOthers() throws Exception {
+    long[] ids = new long[20000];
+    for (int i = 0; i < ids.length; ++i) {
+      ids[i] = i * 2L;
+    }
+    BloomSpec bloomSpec = BloomSpec.ofNumbers(0.01, ids);
+    for (long id = 0; id < 1000; id += 2) {
+      assertThat(matches(filterBuilder().hasFieldInApproximate("id", bloomSpec), proto().setId(id))).isTrue();
+    }
+    int falsePositives = 0;
+    for (long id = 1; id < 10000; id += 2) {
+      if (matches(filterBuilder().hasFieldInApproximate("id", bloomSpec), proto().setId(id))) {
+        ++falsePositives;
+      }
+    }
+    assertThat(falsePositives).isLessThan(100);
+  }
+
+  @Test
+  public void itShouldProbeStringsAndEnumsInPlace() throws Exception {
+    BloomSpec names = BloomSpec.ofStrings(0.001, "alice", "bob");
+    assertThat(matches(filterBuilder().hasFieldInApproximate("name", names), proto().setName("bob"))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldInApproximate("name", names), proto().setName("carol"))).isFalse();
+
+    BloomSpec enums = BloomSpec.ofNumbers(0.001, ExampleProto.TestEnum.ORANGE.getNumber());
+    assertThat(matches(filterBuilder().hasFieldInApproximate("test_enum", enums),
+            proto().setTestEnum(ExampleProto.TestEnum.ORANGE))).isTrue();
+  }
+
+  @Test
+  public void itShouldNotPassMissingValuesOrTheWrongKind() throws Exception {
+    BloomSpec ids = BloomSpec.ofNumbers(0.001, 0L);
+    assertThat(matches(filterBuilder().hasFieldInApproximate("id", ids), proto())).isFalse();
+    assertThat(matches(filterBuilder().hasFieldInApproximate("name", ids), proto().setName("0"))).isFalse();
+  }
+
+  @Test
+  public void itShouldBeSizedForTheFalsePositiveRate() throws Exception {
+    BloomSpec bloomSpec = BloomSpec.create(OperandSet.Kind.NUMBERS, 1000000, 0.01);
+    assertThat(bloomSpec.getNumHashes()).isEqualTo(7);
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    bloomSpec.write(output);
+    // About 9.6 bits a value.
+    assertThat(output.toByteArray().length).isBetween(1190000, 1210000);
+  }
+}
@@ -0,0 +1,79 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.primitives.Bytes;
+import com.hubspot.hbase.filter.server.EncodedPattern;
+import com.hubspot.hbase.filter.server.FieldPath;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EncodedPatternTest extends BaseProtoFilterTest {
+  @Test
+  public void itShouldFindTheEncodedField() throws Exception {
+    EncodedPattern pattern = pattern("portal_id", 300);
+    byte[] value = ExampleProto.newBuilder().setRequiredTest(1).setId(7L).setPortalId(300).build().toByteArray();
+    byte[] padded = Bytes.concat(new byte[] { 0x10, (byte) 0xac }, value, new byte[] { 0x02 });
+
+    assertThat(pattern.occursIn(value, 0, value.length)).isTrue();
+    assertThat(pattern.occursIn(padded, 2, value.length)).isTrue();
+    assertThat(pattern.occursIn(padded, 0, 2)).isFalse();
+
+    byte[] other = ExampleProto.newBuilder().setRequiredTest(1).setPortalId(301).build().toByteArray();
+    assertThat(pattern.occursIn(other, 0, other.length)).isFalse();
+  }
+
+  @Test
+  public void itShouldNotBuildPatternsThatTheDefaultWouldMatch() throws Exception {
+    assertThat(EncodedPattern.forEquality(path("default_test"), CompareOp.EQUAL, intValue(5)).isPresent()).isFalse();
+    assertThat(EncodedPattern.forEquality(path("default_test"), CompareOp.EQUAL, intValue(6)).isPresent()).isTrue();
+    assertThat(EncodedPattern.forEquality(path("portal_id"), CompareOp.LESS, intValue(6)).isPresent()).isFalse();
+    assertThat(EncodedPattern.forEquality(path("portal_id"), CompareOp.EQUAL,
+            DynamicValue.newBuilder().setTypeValue(DynamicValue.Type.type_long).setValueLong(1L << 40).build()).isPresent()).isFalse();
+  }
+
+  @Test
+  public void itShouldKeepFilterResults() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setPortalId(5)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 6), exampleProto)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotEqualTo("portal_id", 6), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("default_test", 5), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotEqualTo("default_test", 6), exampleProto)).isTrue();
+
+    // The pattern occurs, but a later occurrence wins.
+    byte[] columnValue = Bytes.concat(
+            exampleProto.build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).setPortalId(6).build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 5), columnValue)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 6), columnValue)).isTrue();
+  }
+
+  private static EncodedPattern pattern(String fieldSpec, int value) {
+    return EncodedPattern.forEquality(path(fieldSpec), CompareOp.EQUAL, intValue(value)).get();
+  }
+
+  private static FieldPath path(String fieldSpec) {
+    return FieldPath.compile(ExampleProto.getDescriptor(), fieldSpec);
+  }
+
+  private static DynamicValue intValue(int value) {
+    return DynamicValue.newBuilder().setTypeValue(DynamicValue.Type.type_integer).setValueInteger(value).build();
+  }
+}
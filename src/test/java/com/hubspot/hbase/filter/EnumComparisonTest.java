@@ -0,0 +1,69 @@
+package com.hubspot.hbase.filter;
+
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TestEnum;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EnumComparisonTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder ORANGE = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setTestEnum(TestEnum.ORANGE);
+
+  @Test
+  public void itShouldOrderEnumsByNumber() throws Exception {
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("test_enum", TestEnum.ORANGE), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("test_enum", TestEnum.APPLE), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("test_enum", TestEnum.ORANGE), ORANGE)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThanOrEqualTo("test_enum", TestEnum.ORANGE), ORANGE)).isTrue();
+
+    // Unset, with no declared default.
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThanOrEqualTo("test_enum", TestEnum.APPLE), ExampleProto.newBuilder().setRequiredTest(1))).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchSetsOfEnums() throws Exception {
+    assertThat(matches(filterBuilder()
+            .hasFieldIn("test_enum", TestEnum.APPLE, TestEnum.ORANGE), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldIn("test_enum", TestEnum.APPLE), ORANGE)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotIn("test_enum", TestEnum.APPLE), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotIn("test_enum", TestEnum.ORANGE, TestEnum.APPLE), ORANGE)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldIn("test_enum", new TestEnum[0]), ORANGE)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotIn("test_enum", TestEnum.ORANGE), ExampleProto.newBuilder().setRequiredTest(1))).isTrue();
+  }
+
+  @Test
+  public void itShouldStillCompareNamesFromOlderClients() throws Exception {
+    // Sent by name only, so ordered by name: "APPLE" < "ORANGE" < "PEAR".
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("test_enum", "PEAR"), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("test_enum", "APPLE"), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("test_enum", "ORANGE"), ORANGE)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("test_enum", "APPLE"), ORANGE)).isFalse();
+  }
+}
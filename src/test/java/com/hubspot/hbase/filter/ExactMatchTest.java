@@ -0,0 +1,48 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.primitives.Bytes;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExactMatchTest extends BaseProtoFilterTest {
+  private static final ExampleProto OPERAND = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setName("name")
+          .setChildProto(ChildProto.newBuilder().setChildProtoVal(2))
+          .build();
+
+  @Test
+  public void itShouldMatchIdenticalBytes() throws Exception {
+    assertThat(matches(filterBuilder()
+            .isEqualTo(OPERAND), OPERAND.toByteArray())).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .isNotEqualTo(OPERAND), OPERAND.toByteArray())).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchTheSameFieldsInAnotherOrder() throws Exception {
+    byte[] reordered = Bytes.concat(
+            ExampleProto.newBuilder().setRequiredTest(1).setChildProto(ChildProto.newBuilder().setChildProtoVal(2)).build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).setName("name").build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .isEqualTo(OPERAND), reordered)).isTrue();
+  }
+
+  @Test
+  public void itShouldRejectDifferentMessages() throws Exception {
+    assertThat(matches(filterBuilder()
+            .isEqualTo(OPERAND), OPERAND.toBuilder().setChildProto(ChildProto.newBuilder().setChildProtoVal(3)).build().toByteArray())).isFalse();
+
+    // An explicitly set default is still a set field.
+    assertThat(matches(filterBuilder()
+            .isEqualTo(OPERAND), OPERAND.toBuilder().setDefaultTest(5).build().toByteArray())).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .isNotEqualTo(OPERAND), OPERAND.toBuilder().setBoolTest(false).build().toByteArray())).isTrue();
+  }
+}
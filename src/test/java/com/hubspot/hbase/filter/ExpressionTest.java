@@ -0,0 +1,103 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.hubspot.hbase.filter.models.Inclusivity;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.apache.hadoop.hbase.HConstants.EMPTY_BYTE_ARRAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpressionTest extends BaseProtoFilterTest {
+
+  @Test
+  public void itShouldEvaluateAndOrNot() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    // (portal_id = 1 AND id > 5) OR NOT name IN ("a", "b")
+    Filter filter = b.or(
+            b.and(b.hasFieldEqualTo("portal_id", 1), b.hasFieldGreaterThan("id", 5L)),
+            b.not(b.hasFieldIn("name", "a", "b")));
+
+    assertThat(matches(filter, proto().setPortalId(1).setId(6L).setName("a"))).isTrue();
+    assertThat(matches(filter, proto().setPortalId(1).setId(5L).setName("a"))).isFalse();
+    assertThat(matches(filter, proto().setPortalId(2).setId(6L).setName("c"))).isTrue();
+    assertThat(matches(filter, proto().setPortalId(2).setId(6L).setName("b"))).isFalse();
+    // Missing name is not in the set.
+    assertThat(matches(filter, proto())).isTrue();
+  }
+
+  @Test
+  public void itShouldAgreeWithFilterLists() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter expression = b.or(
+            b.and(b.hasFieldLessThan("child_proto.child_proto_val", 3), b.hasFieldEqualTo("bool_test", true)),
+            b.and(b.hasFieldBetween("id", 10L, 20L, Inclusivity.CLOSED_OPEN), b.not(b.hasFieldEqualTo("default_test", 5))));
+    ProtoFilterList list = roundTrip(ProtoFilterList.or(
+            ProtoFilterList.and(b.hasFieldLessThan("child_proto.child_proto_val", 3), b.hasFieldEqualTo("bool_test", true)),
+            ProtoFilterList.and(b.hasFieldBetween("id", 10L, 20L, Inclusivity.CLOSED_OPEN), b.hasFieldNotEqualTo("default_test", 5))));
+
+    Random random = new Random(7);
+    for (int i = 0; i < 200; ++i) {
+      ExampleProto.Builder proto = proto();
+      if (random.nextBoolean()) {
+        proto.setChildProto(ChildProto.newBuilder().setChildProtoVal(random.nextInt(6)));
+      }
+      if (random.nextBoolean()) {
+        proto.setBoolTest(random.nextBoolean());
+      }
+      if (random.nextBoolean()) {
+        proto.setId(random.nextInt(30));
+      }
+      if (random.nextBoolean()) {
+        proto.setDefaultTest(random.nextInt(8));
+      }
+      list.reset();
+      list.filterKeyValue(buildKeyValue(proto));
+      assertThat(matches(expression, proto)).as(proto.toString()).isEqualTo(!list.filterRow());
+    }
+  }
+
+  @Test
+  public void itShouldCombineMessageMatchesAndUnknownFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter filter = b.and(
+            b.containingFieldsMatched(ExampleProto.newBuilder().setRequiredTest(1).setName("x").build()),
+            b.hasFieldNotEqualTo("no_such_field", 3));
+
+    assertThat(matches(filter, proto().setName("x"))).isTrue();
+    assertThat(matches(filter, proto().setName("y"))).isFalse();
+  }
+
+  @Test
+  public void itShouldSurviveFilterListDescriptorSharing() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter expression = b.and(b.hasFieldEqualTo("portal_id", 1), b.not(b.hasFieldEqualTo("id", 2L)));
+    ProtoFilterList read = roundTrip(ProtoFilterList.and(expression, b.hasFieldEqualTo("required_test", 1)));
+
+    read.filterKeyValue(buildKeyValue(proto().setPortalId(1).setId(3L)));
+    assertThat(read.filterRow()).isFalse();
+    read.reset();
+    read.filterKeyValue(buildKeyValue(proto().setPortalId(1).setId(2L)));
+    assertThat(read.filterRow()).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void itShouldRejectFiltersOnOtherColumns() throws Exception {
+    Filter other = ProtobufFilter.forColumn(new byte[] {1}, EMPTY_BYTE_ARRAY, ExampleProto.class)
+            .hasFieldEqualTo("id", 1L);
+    filterBuilder().and(filterBuilder().hasFieldEqualTo("id", 1L), other);
+  }
+
+  private static ProtoFilterList roundTrip(ProtoFilterList list) throws Exception {
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    list.write(output);
+    ProtoFilterList read = new ProtoFilterList();
+    read.readFields(ByteStreams.newDataInput(output.toByteArray()));
+    return read;
+  }
+}
@@ -0,0 +1,95 @@
+package com.hubspot.hbase.filter;
+
+import org.apache.hadoop.hbase.filter.Filter;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldComparisonTest extends BaseProtoFilterTest {
+
+  @Test
+  public void itShouldPromoteIntegralFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setId(7L).setPortalId(5);
+    assertThat(matches(b.hasFieldGreaterThanField("id", "portal_id"), proto)).isTrue();
+    assertThat(matches(b.hasFieldLessThanField("id", "portal_id"), proto)).isFalse();
+    assertThat(matches(b.hasFieldEqualToField("portal_id", "default_test"), proto)).isTrue();
+    assertThat(matches(b.hasFieldLessThanField("child_proto.child_proto_val", "portal_id"),
+            proto.clone().setChildProto(ChildProto.newBuilder().setChildProtoVal(-2)))).isTrue();
+  }
+
+  @Test
+  public void itShouldPromoteIntegralToFloatingPointFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setPortalId(2).setFloatTest(2.5f).setDoubleTest(2.0);
+    assertThat(matches(b.hasFieldLessThanField("portal_id", "float_test"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualToField("double_test", "portal_id"), proto)).isTrue();
+    assertThat(matches(b.hasFieldGreaterThanOrEqualToField("double_test", "float_test"), proto)).isFalse();
+  }
+
+  @Test
+  public void itShouldCompareStringsAndBooleans() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setName("b").addArrayValues("a").addArrayValues("c").setBoolTest(true);
+    assertThat(matches(b.hasFieldGreaterThanField("name", "array_values[0]"), proto)).isTrue();
+    assertThat(matches(b.hasFieldGreaterThanField("name", "array_values[last]"), proto)).isFalse();
+    // A side selecting several values passes if any of them does.
+    assertThat(matches(b.hasFieldLessThanField("name", "array_values"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualToField("bool_test", "bool_test"), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldOrderStringsLikeConstantOperands() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    // U+1F600 sorts before U+E000 as a String but after it as UTF-8 bytes.
+    String supplementary = "\uD83D\uDE00";
+    ExampleProto.Builder proto = proto().setName("\uE000").addArrayValues(supplementary);
+    assertThat(matches(b.hasFieldGreaterThan("name", supplementary), proto)).isTrue();
+    assertThat(matches(b.hasFieldGreaterThanField("name", "array_values"), proto)).isTrue();
+    assertThat(matches(b.hasFieldLessThanField("array_values[0]", "name"), proto)).isTrue();
+    assertThat(matches(b.and(b.hasFieldLessThanField("array_values[last]", "name"), b.hasField("name")), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldOnlyPassMissingOrIncomparableFieldsIfNotEqual() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto().setName("x").setPortalId(1);
+    assertThat(matches(b.hasFieldEqualToField("id", "portal_id"), proto)).isFalse();
+    assertThat(matches(b.hasFieldNotEqualToField("id", "portal_id"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualToField("name", "portal_id"), proto)).isFalse();
+    assertThat(matches(b.hasFieldNotEqualToField("name", "portal_id"), proto)).isTrue();
+    assertThat(matches(b.hasFieldLessThanField("nope", "portal_id"), proto)).isFalse();
+  }
+
+  @Test
+  public void itShouldAgreeWithTheParsedMessage() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Random random = new Random(17);
+    for (int i = 0; i < 500; ++i) {
+      ExampleProto.Builder proto = proto();
+      if (random.nextInt(5) > 0) {
+        proto.setId(random.nextInt(7) - 3);
+      }
+      if (random.nextInt(5) > 0) {
+        proto.setPortalId(random.nextInt(7) - 3);
+      }
+      if (random.nextBoolean()) {
+        proto.addArrayValues(String.valueOf(random.nextInt(3)));
+      }
+      long id = proto.getId();
+      int portalId = proto.getPortalId();
+      boolean bothSet = proto.hasId() && proto.hasPortalId();
+
+      String message = proto.toString();
+      assertThat(matches(b.hasFieldLessThanField("id", "portal_id"), proto)).as(message).isEqualTo(bothSet && id < portalId);
+      assertThat(matches(b.hasFieldNotEqualToField("portal_id", "id"), proto)).as(message).isEqualTo(!bothSet || id != portalId);
+      // The parsed message is used for paths through repeated fields.
+      Filter parsed = b.and(b.hasFieldLessThanField("id", "portal_id"), b.hasFieldNotEqualToField("array_values[0]", "name"));
+      assertThat(matches(parsed, proto)).as(message).isEqualTo(bothSet && id < portalId);
+    }
+  }
+}
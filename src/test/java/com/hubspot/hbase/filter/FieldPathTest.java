@@ -0,0 +1,51 @@
+package com.hubspot.hbase.filter;
+
+import com.hubspot.hbase.filter.models.ProtobufKey;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.FieldPathCache;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldPathTest {
+  @Test
+  public void itShouldResolveNestedPaths() throws Exception {
+    FieldPath fieldPath = FieldPath.compile(ExampleProto.getDescriptor(), "child_proto.child_proto_val");
+
+    assertThat(fieldPath.isResolved()).isTrue();
+    assertThat(fieldPath.isWireReadable()).isTrue();
+    assertThat(fieldPath.depth()).isEqualTo(2);
+    assertThat(fieldPath.getFieldNumber(0)).isEqualTo(ExampleProto.CHILD_PROTO_FIELD_NUMBER);
+    assertThat(fieldPath.getFieldNumber(1)).isEqualTo(1);
+  }
+
+  @Test
+  public void itShouldPrecomputeDefaultsAndEnums() throws Exception {
+    assertThat(FieldPath.compile(ExampleProto.getDescriptor(), "default_test").getDefaultValue()).isEqualTo(5);
+    assertThat(FieldPath.compile(ExampleProto.getDescriptor(), "portal_id").getDefaultValue()).isNull();
+
+    FieldPath enumPath = FieldPath.compile(ExampleProto.getDescriptor(), "test_enum");
+    assertThat(enumPath.getEnumName(ExampleProto.TestEnum.ORANGE.getNumber())).isEqualTo("ORANGE");
+    assertThat(enumPath.getEnumName(42)).isNull();
+  }
+
+  @Test
+  public void itShouldNotReadRepeatedFieldsFromTheWire() throws Exception {
+    assertThat(FieldPath.compile(ExampleProto.getDescriptor(), "array_values").isWireReadable()).isFalse();
+    assertThat(FieldPath.compile(ExampleProto.getDescriptor(), "child_proto").isWireReadable()).isFalse();
+    assertThat(FieldPath.compile(ExampleProto.getDescriptor(), "no_such_field").isResolved()).isFalse();
+  }
+
+  @Test
+  public void itShouldCachePlansPerDescriptorAndSpec() throws Exception {
+    ProtobufKey key = new ProtobufKey(ExampleProto.class.getCanonicalName(), 1L);
+
+    FieldPath first = FieldPathCache.INSTANCE.cachedCompile(key, ExampleProto.getDescriptor(), "portal_id");
+    FieldPath second = FieldPathCache.INSTANCE.cachedCompile(key, ExampleProto.getDescriptor(), "portal_id");
+    FieldPath other = FieldPathCache.INSTANCE.cachedCompile(key, ExampleProto.getDescriptor(), "id");
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).isNotSameAs(first);
+  }
+}
@@ -0,0 +1,48 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.hash.Hashing;
+import com.hubspot.hbase.filter.client.ClientDescriptorCache;
+import com.hubspot.hbase.filter.server.GeneratedMessageCache;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeneratedMessageTest extends BaseProtoFilterTest {
+  private static final String NAME = ExampleProto.class.getCanonicalName();
+
+  @Test
+  public void itShouldFindTheGeneratedClassForTheShippedDescriptor() throws Exception {
+    long hash = Hashing.murmur3_128()
+            .hashBytes(ClientDescriptorCache.INSTANCE.getPayloadForDescriptor(ExampleProto.class))
+            .asLong();
+    assertThat(GeneratedMessageCache.INSTANCE.cachedPrototype(NAME, hash).orNull())
+            .isSameAs(ExampleProto.getDefaultInstance());
+  }
+
+  @Test
+  public void itShouldNotUseClassesWithADifferentDescriptor() throws Exception {
+    assertThat(GeneratedMessageCache.INSTANCE.cachedPrototype(NAME, 42L).isPresent()).isFalse();
+    assertThat(GeneratedMessageCache.INSTANCE.cachedPrototype(NAME + "Missing", 42L).isPresent()).isFalse();
+    assertThat(GeneratedMessageCache.INSTANCE.cachedPrototype(String.class.getName(), 42L).isPresent()).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchWhenParsingWithTheGeneratedClass() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1)
+            .setName("alice")
+            .setTestEnum(ExampleProto.TestEnum.ORANGE)
+            .setChildProto(ChildProto.newBuilder().setChildProtoVal(3))
+            .addArrayValues("a")
+            .addArrayValues("b");
+    assertThat(matches(b.hasFieldEqualTo("array_values[1]", "b"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("array_values[last]", "a"), proto)).isFalse();
+    assertThat(matches(b.isEqualTo(proto.build()), proto)).isTrue();
+    assertThat(matches(b.isEqualTo(proto.clone().clearArrayValues().build()), proto)).isFalse();
+    assertThat(matches(b.anyFieldsMatched(proto.clone().setName("bob").build()), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("child_proto.child_proto_val", 3), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("test_enum", ExampleProto.TestEnum.ORANGE), proto)).isTrue();
+  }
+}
@@ -0,0 +1,85 @@
+package com.hubspot.hbase.filter;
+
+import org.apache.hadoop.hbase.filter.Filter;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paths through groups can't be read off the wire, so they are answered from
+ * the parsed message. Each row mirrors its groups into plain fields, which are
+ * read off the wire, and both must give the same answers.
+ */
+public class GroupFieldTest extends BaseProtoFilterTest {
+
+  @Test
+  public void itShouldReadGroupsFromTheParsedMessage() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = proto()
+            .setMetadata(ExampleProto.Metadata.newBuilder().setSource("s").setVersion(3L))
+            .addTag(ExampleProto.Tag.newBuilder().setLabel("a"))
+            .addTag(ExampleProto.Tag.newBuilder().setLabel("b"));
+    assertThat(matches(b.hasFieldEqualTo("metadata.source", "s"), proto)).isTrue();
+    assertThat(matches(b.hasFieldGreaterThan("metadata.version", 2), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("tag[1].label", "b"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("tag.label", "c"), proto)).isFalse();
+    assertThat(matches(b.hasField("metadata"), proto)).isTrue();
+    assertThat(matches(b.hasField("tag[2]"), proto)).isFalse();
+    // Fields outside the groups are still read off the wire, past the groups.
+    assertThat(matches(b.hasFieldEqualTo("required_test", 1), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldAgreeWithTheWirePaths() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Random random = new Random(29);
+    for (int i = 0; i < 500; ++i) {
+      ExampleProto.Builder proto = proto().setPortalId(random.nextInt(5));
+      if (random.nextInt(4) > 0) {
+        ExampleProto.Metadata.Builder metadata = ExampleProto.Metadata.newBuilder();
+        if (random.nextBoolean()) {
+          String source = String.valueOf(random.nextInt(10));
+          metadata.setSource(source);
+          proto.setName(source);
+        }
+        if (random.nextBoolean()) {
+          long version = random.nextInt(5);
+          metadata.setVersion(version);
+          proto.setId(version);
+        }
+        proto.setMetadata(metadata);
+      }
+      for (int j = random.nextInt(4); j > 0; --j) {
+        String label = String.valueOf((char) ('a' + random.nextInt(3)));
+        proto.addTag(ExampleProto.Tag.newBuilder().setLabel(label));
+        proto.addArrayValues(label);
+      }
+
+      String message = proto.toString();
+      String label = String.valueOf((char) ('a' + random.nextInt(3)));
+      int bucket = random.nextInt(4);
+      assertAgree(message, proto, b.hasFieldEqualTo("tag.label", label), b.hasFieldEqualTo("array_values", label));
+      assertAgree(message, proto, b.anyElement(b.hasFieldEqualTo("tag.label", label)),
+              b.anyElement(b.hasFieldEqualTo("array_values", label)));
+      assertAgree(message, proto, b.allElements(b.hasFieldNotEqualTo("tag.label", label)),
+              b.allElements(b.hasFieldNotEqualTo("array_values", label)));
+      assertAgree(message, proto, b.hasFieldLessThanField("metadata.version", "portal_id"),
+              b.hasFieldLessThanField("id", "portal_id"));
+      assertAgree(message, proto, b.hashModulo("metadata.source", 4, bucket), b.hashModulo("name", 4, bucket));
+      assertAgree(message, proto, b.hasField("metadata.source"), b.hasField("name"));
+      assertAgree(message, proto, b.hasField("tag[1]"), b.hasField("array_values[1]"));
+      assertAgree(message, proto, b.lacksField("tag[last]"), b.lacksField("array_values[last]"));
+      // Integral operands of either width are widened the same way.
+      assertAgree(message, proto, b.hasFieldGreaterThan("metadata.version", 2), b.hasFieldGreaterThan("id", 2));
+      assertAgree(message, proto, b.hasFieldLessThan("metadata.version", 2L), b.hasFieldLessThan("id", 2L));
+      assertAgree(message, proto, b.hasFieldEqualTo("metadata.version", 1L), b.hasFieldEqualTo("id", 1L));
+    }
+  }
+
+  private void assertAgree(String message, ExampleProto.Builder proto, Filter group, Filter wire) {
+    assertThat(matches(group, proto)).as(group + " on " + message).isEqualTo(matches(wire, proto));
+  }
+}
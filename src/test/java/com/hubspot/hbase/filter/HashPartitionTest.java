@@ -0,0 +1,143 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.UnsignedLongs;
+import com.google.protobuf.ByteString;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.apache.hadoop.hbase.HConstants.EMPTY_BYTE_ARRAY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashPartitionTest extends BaseProtoFilterTest {
+  private static final int BUCKETS = 7;
+
+  @Test
+  public void itShouldPutEachRowInExactlyOneBucket() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    String[] fields = {"id", "portal_id", "name", "bytes_test", "float_test", "double_test", "bool_test", "test_enum"};
+    Random random = new Random(23);
+    for (int i = 0; i < 200; ++i) {
+      ExampleProto.Builder proto = randomProto(random);
+      for (String field : fields) {
+        int found = 0;
+        for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+          if (matches(b.hashModulo(field, BUCKETS, bucket), proto)) {
+            ++found;
+          }
+        }
+        assertThat(found).as(field + " of " + proto).isEqualTo(1);
+      }
+    }
+  }
+
+  @Test
+  public void itShouldSpreadRowsEvenly() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    int[] counts = new int[BUCKETS];
+    for (long id = 0; id < 7000; ++id) {
+      ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1).setId(id);
+      for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+        if (matches(b.hashModulo("id", BUCKETS, bucket), proto)) {
+          ++counts[bucket];
+        }
+      }
+    }
+    for (int count : counts) {
+      assertThat(count).isBetween(850, 1150);
+    }
+  }
+
+  @Test
+  public void itShouldHashLikeGuavaMurmur3() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1).setId(123456789L).setName("alice");
+    int idBucket = (int) UnsignedLongs.remainder(Hashing.murmur3_128().hashLong(123456789L).asLong(), BUCKETS);
+    int nameBucket = (int) UnsignedLongs.remainder(
+            Hashing.murmur3_128().hashString("alice", Charsets.UTF_8).asLong(), BUCKETS);
+    assertThat(matches(b.hashModulo("id", BUCKETS, idBucket), proto)).isTrue();
+    assertThat(matches(b.hashModulo("name", BUCKETS, nameBucket), proto)).isTrue();
+    // Numbers hash by value, whatever the field's width.
+    int portalBucket = (int) UnsignedLongs.remainder(Hashing.murmur3_128().hashLong(-5L).asLong(), BUCKETS);
+    assertThat(matches(b.hashModulo("portal_id", BUCKETS, portalBucket), proto.clone().setPortalId(-5))).isTrue();
+  }
+
+  @Test
+  public void itShouldPutRowsMissingTheFieldInTheFirstBucket() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(b.hashModulo("name", BUCKETS, 0), empty)).isTrue();
+    assertThat(matches(b.hashModulo("name", BUCKETS, 1), empty)).isFalse();
+    assertThat(matches(b.hashModulo("nope", BUCKETS, 0), empty)).isTrue();
+    assertThat(matches(b.hashModulo("child_proto", BUCKETS, 0), empty)).isTrue();
+    assertThat(matches(b.hashModulo("array_values[0]", BUCKETS, 0), empty)).isTrue();
+  }
+
+  @Test
+  public void itShouldPutRowsMissingTheColumnInTheFirstBucket() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    KeyValue otherColumn = new KeyValue(EMPTY_BYTE_ARRAY, Bytes.toBytes("f"), Bytes.toBytes("q"), Bytes.toBytes("v"));
+    for (boolean filterIfMissing : new boolean[] {false, true}) {
+      for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+        Filter filter = b.filterIfMissing(filterIfMissing).hashModulo("id", BUCKETS, bucket);
+        filter.filterKeyValue(otherColumn);
+        assertThat(filter.filterRow()).as("bucket " + bucket).isEqualTo(bucket != 0);
+      }
+    }
+  }
+
+  @Test
+  public void itShouldHashParsedValuesLikeWireValues() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Random random = new Random(230);
+    for (int i = 0; i < 100; ++i) {
+      String value = Long.toString(random.nextLong(), 36);
+      ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1).setName(value).addArrayValues(value);
+      for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+        Filter wire = b.hashModulo("name", BUCKETS, bucket);
+        Filter parsed = b.hashModulo("array_values[0]", BUCKETS, bucket);
+        assertThat(matches(parsed, proto)).as(value).isEqualTo(matches(wire, proto));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void itShouldRejectBucketsOutOfRange() throws Exception {
+    filterBuilder().hashModulo("id", 4, 4);
+  }
+
+  private static ExampleProto.Builder randomProto(Random random) {
+    ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1);
+    if (random.nextBoolean()) {
+      proto.setId(random.nextLong());
+    }
+    if (random.nextBoolean()) {
+      proto.setPortalId(random.nextInt());
+    }
+    if (random.nextBoolean()) {
+      proto.setName(Integer.toString(random.nextInt()));
+    }
+    if (random.nextBoolean()) {
+      proto.setBytesTest(ByteString.copyFromUtf8(Integer.toString(random.nextInt())));
+    }
+    if (random.nextBoolean()) {
+      proto.setFloatTest(random.nextFloat());
+    }
+    if (random.nextBoolean()) {
+      proto.setDoubleTest(random.nextDouble());
+    }
+    if (random.nextBoolean()) {
+      proto.setBoolTest(random.nextBoolean());
+    }
+    if (random.nextBoolean()) {
+      proto.setTestEnum(random.nextBoolean() ? ExampleProto.TestEnum.APPLE : ExampleProto.TestEnum.ORANGE);
+    }
+    return proto;
+  }
+}
@@ -0,0 +1,190 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.FieldValue;
+import com.hubspot.hbase.filter.server.PathWalker;
+import com.hubspot.hbase.filter.server.RepeatedPredicate;
+import com.hubspot.hbase.filter.server.ScalarPredicate;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MapLookupTest {
+  private static final Descriptor ACCOUNT = accountDescriptor();
+  private static final Descriptor ATTRIBUTE = ACCOUNT.findFieldByName("attributes").getMessageType();
+  private static final Descriptor LIMIT = ACCOUNT.findFieldByName("limits").getMessageType();
+  private static final Descriptor QUOTA = LIMIT.findFieldByName("value").getMessageType();
+
+  @Test
+  public void itShouldCompileLookups() {
+    FieldPath plan = FieldPath.compile(ACCOUNT, "attributes[\"plan\"]");
+    assertThat(plan.depth()).isEqualTo(2);
+    assertThat(plan.getLeaf().getName()).isEqualTo("value");
+    assertThat(plan.getSelector(0)).isEqualTo(FieldPath.KEYED_ELEMENT);
+    assertThat(plan.isWalkable()).isTrue();
+    assertThat(plan.isMultiValued()).isFalse();
+
+    assertThat(FieldPath.compile(ACCOUNT, "limits[\"-3\"].max").getLeaf().getName()).isEqualTo("max");
+    assertThat(FieldPath.compile(ACCOUNT, "attributes[\"a.b[\\\"c\\\"]\"]").isResolved()).isTrue();
+
+    assertThat(FieldPath.compile(ACCOUNT, "limits[\"x\"]").isResolved()).isFalse();
+    assertThat(FieldPath.compile(ACCOUNT, "limits[\"-3\"].value.max").isResolved()).isFalse();
+    assertThat(FieldPath.compile(ACCOUNT, "name[\"x\"]").isResolved()).isFalse();
+    assertThat(FieldPath.compile(ACCOUNT, "attributes[\"plan\"]x").isResolved()).isFalse();
+  }
+
+  @Test
+  public void itShouldLookUpTheLastEntryWithTheKey() {
+    byte[] cell = account(attribute("plan", "starter"), attribute("seats", "3"), attribute("plan", "enterprise"))
+            .toByteArray();
+    FieldPath plan = FieldPath.compile(ACCOUNT, "attributes[\"plan\"]");
+    assertThat(test(plan, CompareOp.EQUAL, "enterprise", cell)).isTrue();
+    assertThat(test(plan, CompareOp.EQUAL, "starter", cell)).isFalse();
+
+    FieldPath region = FieldPath.compile(ACCOUNT, "attributes[\"region\"]");
+    assertThat(test(region, CompareOp.EQUAL, "", cell)).isFalse();
+    assertThat(test(region, CompareOp.NOT_EQUAL, "eu", cell)).isTrue();
+  }
+
+  @Test
+  public void itShouldSelectTheSameValuesAsAParsedMessage() throws Exception {
+    String[] specs = {
+            "attributes[\"plan\"]", "attributes[\"\"]", "attributes[\"k1\"]", "limits[\"0\"].max",
+            "limits[\"-3\"].max", "limits[\"7\"].max", "attributes[*].value"
+    };
+    Random random = new Random(5);
+    for (int i = 0; i < 300; ++i) {
+      byte[] cell = randomAccount(random).toByteArray();
+      if (random.nextInt(4) == 0) {
+        cell = Bytes.concat(cell, randomAccount(random).toByteArray());
+      }
+      DynamicMessage parsed = DynamicMessage.parseFrom(ACCOUNT, cell);
+      for (String spec : specs) {
+        FieldPath path = FieldPath.compile(ACCOUNT, spec);
+        assertThat(walk(path, cell)).as(spec + " in " + parsed).isEqualTo(path.extractAll(parsed));
+      }
+    }
+  }
+
+  private static boolean test(FieldPath path, CompareOp compareOp, String operand, byte[] cell) {
+    DynamicValue value = DynamicValue.newBuilder()
+            .setTypeValue(DynamicValue.Type.type_string)
+            .setValueString(operand)
+            .build();
+    RepeatedPredicate predicate = RepeatedPredicate.singleValue(path,
+            ScalarPredicate.forOperand(path.getElementPath(), compareOp, value).get());
+    return predicate.test(cell, 0, cell.length);
+  }
+
+  private static List<Object> walk(FieldPath path, byte[] cell) {
+    final List<Object> values = Lists.newArrayList();
+    final PathWalker walker = new PathWalker(path);
+    walker.walk(cell, 0, cell.length, new PathWalker.Visitor() {
+      @Override
+      public boolean visit(FieldValue value) {
+        values.add(walker.getElementPath().toScalar(value));
+        return true;
+      }
+    });
+    return values;
+  }
+
+  private static DynamicMessage randomAccount(Random random) {
+    DynamicMessage.Builder account = DynamicMessage.newBuilder(ACCOUNT);
+    for (int i = random.nextInt(5); i > 0; --i) {
+      DynamicMessage.Builder attribute = DynamicMessage.newBuilder(ATTRIBUTE);
+      if (random.nextInt(4) > 0) {
+        attribute.setField(ATTRIBUTE.findFieldByName("key"), random.nextBoolean() ? "plan" : "k" + random.nextInt(3));
+      }
+      if (random.nextInt(4) > 0) {
+        attribute.setField(ATTRIBUTE.findFieldByName("value"), "v" + random.nextInt(3));
+      }
+      account.addRepeatedField(ACCOUNT.findFieldByName("attributes"), attribute.build());
+    }
+    for (int i = random.nextInt(4); i > 0; --i) {
+      DynamicMessage.Builder limit = DynamicMessage.newBuilder(LIMIT);
+      if (random.nextInt(4) > 0) {
+        limit.setField(LIMIT.findFieldByName("key"), random.nextInt(3) - 1 == 0 ? 0 : random.nextBoolean() ? -3 : 7);
+      }
+      if (random.nextInt(4) > 0) {
+        limit.setField(LIMIT.findFieldByName("value"), DynamicMessage.newBuilder(QUOTA)
+                .setField(QUOTA.findFieldByName("max"), (long) random.nextInt(100))
+                .build());
+      }
+      account.addRepeatedField(ACCOUNT.findFieldByName("limits"), limit.build());
+    }
+    return account.build();
+  }
+
+  private static DynamicMessage account(DynamicMessage... attributes) {
+    DynamicMessage.Builder account = DynamicMessage.newBuilder(ACCOUNT);
+    for (DynamicMessage attribute : attributes) {
+      account.addRepeatedField(ACCOUNT.findFieldByName("attributes"), attribute);
+    }
+    return account.build();
+  }
+
+  private static DynamicMessage attribute(String key, String value) {
+    return DynamicMessage.newBuilder(ATTRIBUTE)
+            .setField(ATTRIBUTE.findFieldByName("key"), key)
+            .setField(ATTRIBUTE.findFieldByName("value"), value)
+            .build();
+  }
+
+  private static Descriptor accountDescriptor() {
+    DescriptorProto attribute = DescriptorProto.newBuilder()
+            .setName("Attribute")
+            .addField(field("key", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("value", 2, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .build();
+    DescriptorProto quota = DescriptorProto.newBuilder()
+            .setName("Quota")
+            .addField(field("max", 1, FieldDescriptorProto.Type.TYPE_INT64, false).setDefaultValue("10"))
+            .build();
+    DescriptorProto limit = DescriptorProto.newBuilder()
+            .setName("Limit")
+            .addField(field("value", 1, FieldDescriptorProto.Type.TYPE_MESSAGE, false).setTypeName("Quota"))
+            .addField(field("key", 2, FieldDescriptorProto.Type.TYPE_SINT32, false))
+            .build();
+    DescriptorProto account = DescriptorProto.newBuilder()
+            .setName("Account")
+            .addField(field("name", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("attributes", 2, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("Attribute"))
+            .addField(field("limits", 3, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("Limit"))
+            .build();
+    FileDescriptorProto file = FileDescriptorProto.newBuilder()
+            .setName("account.proto")
+            .addMessageType(attribute)
+            .addMessageType(quota)
+            .addMessageType(limit)
+            .addMessageType(account)
+            .build();
+    try {
+      return FileDescriptor.buildFrom(file, new FileDescriptor[0]).findMessageTypeByName("Account");
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static FieldDescriptorProto.Builder field(String name, int number, FieldDescriptorProto.Type type,
+                                                    boolean repeated) {
+    return FieldDescriptorProto.newBuilder()
+            .setName(name)
+            .setNumber(number)
+            .setType(type)
+            .setLabel(repeated ? FieldDescriptorProto.Label.LABEL_REPEATED : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+  }
+}
@@ -0,0 +1,86 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.DynamicMessage;
+import com.hubspot.hbase.filter.models.MatchOp;
+import com.hubspot.hbase.filter.server.MessageMatcher;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TestEnum;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessageMatcherTest extends BaseProtoFilterTest {
+  private static final List<ExampleProto> MESSAGES = ImmutableList.of(
+          ExampleProto.newBuilder().setRequiredTest(1).build(),
+          ExampleProto.newBuilder().setRequiredTest(1).setName("name").build(),
+          ExampleProto.newBuilder().setRequiredTest(2).setName("name").setPortalId(-3).build(),
+          ExampleProto.newBuilder().setRequiredTest(1).setName("name").setFloatTest(-0.0f).build(),
+          ExampleProto.newBuilder().setRequiredTest(1).setFloatTest(0.0f).setTestEnum(TestEnum.APPLE).build(),
+          ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("a").addArrayValues("b").build(),
+          ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("a").build(),
+          ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("b").addArrayValues("a").setBoolTest(true).build());
+
+  @Test
+  public void itShouldAgreeWithTheParsedComparison() throws Exception {
+    for (MatchOp matchOp : MatchOp.values()) {
+      if (matchOp == MatchOp.MATCH_SCALAR) {
+        continue;
+      }
+      for (ExampleProto operand : MESSAGES) {
+        MessageMatcher matcher = MessageMatcher.compile(ExampleProto.getDescriptor(), operand.toByteArray(), matchOp).get();
+        for (ExampleProto value : MESSAGES) {
+          boolean expected = ProtobufColumnValueFilter.matchMessages(
+                  DynamicMessage.parseFrom(ExampleProto.getDescriptor(), operand.toByteArray()),
+                  DynamicMessage.parseFrom(ExampleProto.getDescriptor(), value.toByteArray()),
+                  matchOp);
+          byte[] valueBytes = value.toByteArray();
+          assertThat(matcher.matches(valueBytes, 0, valueBytes.length))
+                  .as(matchOp + " of " + operand + " against " + value)
+                  .isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void itShouldUseTheLastOccurrence() throws Exception {
+    byte[] columnValue = Bytes.concat(
+            ExampleProto.newBuilder().setRequiredTest(1).setName("first").build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).setName("second").build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .isEqualTo(ExampleProto.newBuilder().setRequiredTest(1).setName("second").build()), columnValue)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .anyFieldsMatched(ExampleProto.newBuilder().setRequiredTest(2).setName("first").build()), columnValue)).isFalse();
+  }
+
+  @Test
+  public void itShouldAppendRepeatedOccurrences() throws Exception {
+    byte[] columnValue = Bytes.concat(
+            ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("a").build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("b").build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .containingFieldsMatched(ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("a").addArrayValues("b").build()),
+            columnValue)).isTrue();
+  }
+
+  @Test
+  public void itShouldFallBackForMessageOperands() throws Exception {
+    ExampleProto operand = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setChildProto(ChildProto.newBuilder().setChildProtoVal(2))
+            .build();
+
+    assertThat(MessageMatcher.compile(ExampleProto.getDescriptor(), operand.toByteArray(), MatchOp.MATCH_EXACT).isPresent()).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .isEqualTo(operand), operand.toByteArray())).isTrue();
+  }
+}
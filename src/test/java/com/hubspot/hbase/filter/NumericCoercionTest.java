@@ -0,0 +1,109 @@
+package com.hubspot.hbase.filter;
+
+import com.hubspot.hbase.filter.server.FieldPath;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue.Type;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NumericCoercionTest extends BaseProtoFilterTest {
+  @Test
+  public void itShouldCompareIntegralFieldsAgainstEitherIntegralOperand() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setId(1)
+            .setPortalId(2)
+            .setRequiredTest(3)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 2L), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("id", 1), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("portal_id", 1L << 40), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("id", 1), exampleProto)).isFalse();
+  }
+
+  @Test
+  public void itShouldWidenFloatingPointOperands() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setFloatTest(1.5f)
+            .setDoubleTest(2.5)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("float_test", 1.5d), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("double_test", 2.5f), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("double_test", 2f), exampleProto)).isFalse();
+  }
+
+  @Test
+  public void itShouldCompareNegativeValues() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setPortalId(-4)
+            .setId(-5L)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("portal_id", 0), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", -4L), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("id", -6L), exampleProto)).isTrue();
+  }
+
+  @Test
+  public void itShouldCoerceTheSameWayOnParsedMessages() throws Exception {
+    ExampleProto exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setPortalId(5)
+            .setId(-5L)
+            .setFloatTest(1.5f)
+            .setDoubleTest(2.5)
+            .build();
+
+    assertThat(matchParsed(exampleProto, "portal_id", CompareOp.EQUAL, longValue(5L))).isTrue();
+    assertThat(matchParsed(exampleProto, "portal_id", CompareOp.LESS, longValue(1L << 40))).isTrue();
+    assertThat(matchParsed(exampleProto, "id", CompareOp.EQUAL, intValue(-5))).isTrue();
+    assertThat(matchParsed(exampleProto, "id", CompareOp.GREATER, intValue(-5))).isFalse();
+    assertThat(matchParsed(exampleProto, "float_test", CompareOp.EQUAL, doubleValue(1.5))).isTrue();
+    assertThat(matchParsed(exampleProto, "double_test", CompareOp.EQUAL, floatValue(2.5f))).isTrue();
+    assertThat(matchParsed(exampleProto, "double_test", CompareOp.LESS, floatValue(2f))).isFalse();
+  }
+
+  private static boolean matchParsed(ExampleProto value, String fieldSpec, CompareOp compareOp, DynamicValue operand) {
+    FieldPath fieldPath = FieldPath.compile(ExampleProto.getDescriptor(), fieldSpec);
+    return ProtobufColumnValueFilter.matchScalar(fieldPath, operand, compareOp, value, null);
+  }
+
+  private static DynamicValue intValue(int value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_integer).setValueInteger(value).build();
+  }
+
+  private static DynamicValue longValue(long value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_long).setValueLong(value).build();
+  }
+
+  private static DynamicValue floatValue(float value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_float).setValueFloat(value).build();
+  }
+
+  private static DynamicValue doubleValue(double value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_double).setValueDouble(value).build();
+  }
+}
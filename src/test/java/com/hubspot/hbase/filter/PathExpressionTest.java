@@ -0,0 +1,237 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldOptions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.FieldPredicate;
+import com.hubspot.hbase.filter.server.FieldValue;
+import com.hubspot.hbase.filter.server.PathWalker;
+import com.hubspot.hbase.filter.server.RepeatedPredicate;
+import com.hubspot.hbase.filter.server.ScalarPredicate;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathExpressionTest extends BaseProtoFilterTest {
+  private static final Descriptor ORDER = orderDescriptor();
+  private static final Descriptor LINE_ITEM = ORDER.findFieldByName("items").getMessageType();
+
+  @Test
+  public void itShouldCompileSelectors() throws Exception {
+    FieldPath all = FieldPath.compile(ORDER, "items[*].sku");
+    assertThat(all.isWalkable()).isTrue();
+    assertThat(all.isWireReadable()).isFalse();
+    assertThat(all.isMultiValued()).isTrue();
+    assertThat(all.getSelector(0)).isEqualTo(FieldPath.ALL_ELEMENTS);
+
+    FieldPath first = FieldPath.compile(ORDER, "items[0].price");
+    assertThat(first.isMultiValued()).isFalse();
+    assertThat(first.getSelector(0)).isEqualTo(0);
+    assertThat(FieldPath.compile(ORDER, "items[last].status").getSelector(0)).isEqualTo(FieldPath.LAST_ELEMENT);
+    assertThat(FieldPath.compile(ORDER, "items.sku").isMultiValued()).isTrue();
+
+    assertThat(FieldPath.compile(ORDER, "customer[0].favorites").isResolved()).isFalse();
+    assertThat(FieldPath.compile(ORDER, "items[x].sku").isResolved()).isFalse();
+    assertThat(FieldPath.compile(ORDER, "items[*]").isWalkable()).isFalse();
+  }
+
+  @Test
+  public void itShouldSelectTheSameValuesAsAParsedMessage() throws Exception {
+    String[] specs = {
+            "items[*].sku", "items[0].price", "items[1].price", "items[last].status", "items.tags",
+            "items[last].tags[0]", "items[*].tags[last]", "codes", "codes[last]", "codes[2]",
+            "customer.favorites[*].sku", "customer.favorites[last].status", "customer.name"
+    };
+    Random random = new Random(3);
+    for (int i = 0; i < 300; ++i) {
+      byte[] cell = randomOrder(random).toByteArray();
+      if (random.nextInt(4) == 0) {
+        // Concatenated messages parse as if merged.
+        cell = Bytes.concat(cell, randomOrder(random).toByteArray());
+      }
+      DynamicMessage parsed = DynamicMessage.parseFrom(ORDER, cell);
+      for (String spec : specs) {
+        FieldPath path = FieldPath.compile(ORDER, spec);
+        assertThat(walk(path, cell)).as(spec + " in " + parsed).isEqualTo(path.extractAll(parsed));
+      }
+    }
+  }
+
+  @Test
+  public void itShouldStopWalkingOnceDecided() throws Exception {
+    DynamicMessage order = order(item("a", 3), item("b", 10), item("c", 1));
+    byte[] cell = order.toByteArray();
+    FieldPath prices = FieldPath.compile(ORDER, "items[*].price");
+
+    final List<Long> seen = Lists.newArrayList();
+    new PathWalker(prices).walk(cell, 0, cell.length, new PathWalker.Visitor() {
+      @Override
+      public boolean visit(FieldValue value) {
+        seen.add(value.getBits());
+        return value.getBits() < 10;
+      }
+    });
+    assertThat(seen).containsExactly(3L, 10L);
+
+    assertThat(test(RepeatedPredicate.anyElement(prices, greaterThan(prices, 5)), cell)).isTrue();
+    assertThat(test(RepeatedPredicate.allElements(prices, greaterThan(prices, 0)), cell)).isTrue();
+    assertThat(test(RepeatedPredicate.allElements(prices, greaterThan(prices, 2)), cell)).isFalse();
+    assertThat(test(RepeatedPredicate.elementCount(prices, CompareOp.EQUAL, 3), cell)).isTrue();
+  }
+
+  @Test
+  public void itShouldTestIndexedPathsLikeSingularFields() throws Exception {
+    byte[] cell = order(item("a", 3)).toByteArray();
+    FieldPath second = FieldPath.compile(ORDER, "items[1].price");
+    FieldPath last = FieldPath.compile(ORDER, "items[last].price");
+
+    assertThat(test(RepeatedPredicate.singleValue(last, greaterThan(last, 2)), cell)).isTrue();
+    assertThat(test(RepeatedPredicate.singleValue(second, greaterThan(second, 2)), cell)).isFalse();
+    // A missing value only passes a not equal comparison.
+    DynamicValue zero = DynamicValue.newBuilder().setTypeValue(DynamicValue.Type.type_long).setValueLong(0).build();
+    assertThat(test(RepeatedPredicate.singleValue(second,
+            ScalarPredicate.forOperand(second.getElementPath(), CompareOp.NOT_EQUAL, zero).get()), cell)).isTrue();
+  }
+
+  @Test
+  public void itShouldTestPlainFieldsThroughTheWalker() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1).addArrayValues("x").addArrayValues("y");
+    assertThat(matches(b.hasFieldEqualTo("array_values[last]", "y"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEqualTo("array_values[0]", "y"), proto)).isFalse();
+    assertThat(matches(b.hasFieldEqualTo("array_values[*]", "y"), proto)).isTrue();
+    assertThat(matches(b.hasFieldNotEqualTo("array_values[2]", "y"), proto)).isTrue();
+    assertThat(matches(b.anyElement(b.hasFieldIn("array_values[1]", "y")), proto)).isTrue();
+  }
+
+  private static boolean test(RepeatedPredicate predicate, byte[] cell) {
+    return predicate.test(cell, 0, cell.length);
+  }
+
+  private static FieldPredicate greaterThan(FieldPath path, long operand) {
+    DynamicValue value = DynamicValue.newBuilder().setTypeValue(DynamicValue.Type.type_long).setValueLong(operand).build();
+    return ScalarPredicate.forOperand(path.getElementPath(), CompareOp.GREATER, value).get();
+  }
+
+  private static List<Object> walk(final FieldPath path, byte[] cell) {
+    final List<Object> values = Lists.newArrayList();
+    final PathWalker walker = new PathWalker(path);
+    walker.walk(cell, 0, cell.length, new PathWalker.Visitor() {
+      @Override
+      public boolean visit(FieldValue value) {
+        values.add(walker.getElementPath().toScalar(value));
+        return true;
+      }
+    });
+    return values;
+  }
+
+  private static DynamicMessage randomOrder(Random random) {
+    DynamicMessage.Builder order = DynamicMessage.newBuilder(ORDER);
+    for (int i = random.nextInt(4); i > 0; --i) {
+      order.addRepeatedField(ORDER.findFieldByName("items"), randomItem(random));
+    }
+    for (int i = random.nextInt(4); i > 0; --i) {
+      order.addRepeatedField(ORDER.findFieldByName("codes"), random.nextInt(100) - 50);
+    }
+    if (random.nextBoolean()) {
+      Descriptor customer = ORDER.findFieldByName("customer").getMessageType();
+      DynamicMessage.Builder builder = DynamicMessage.newBuilder(customer);
+      if (random.nextBoolean()) {
+        builder.setField(customer.findFieldByName("name"), "c" + random.nextInt(3));
+      }
+      for (int i = random.nextInt(3); i > 0; --i) {
+        builder.addRepeatedField(customer.findFieldByName("favorites"), randomItem(random));
+      }
+      order.setField(ORDER.findFieldByName("customer"), builder.build());
+    }
+    return order.build();
+  }
+
+  private static DynamicMessage randomItem(Random random) {
+    DynamicMessage.Builder item = DynamicMessage.newBuilder(LINE_ITEM);
+    if (random.nextBoolean()) {
+      item.setField(LINE_ITEM.findFieldByName("sku"), "s" + random.nextInt(5));
+    }
+    if (random.nextBoolean()) {
+      item.setField(LINE_ITEM.findFieldByName("price"), (long) random.nextInt(20));
+    }
+    if (random.nextBoolean()) {
+      item.setField(LINE_ITEM.findFieldByName("status"), random.nextInt(3));
+    }
+    for (int i = random.nextInt(3); i > 0; --i) {
+      item.addRepeatedField(LINE_ITEM.findFieldByName("tags"), "t" + random.nextInt(4));
+    }
+    return item.build();
+  }
+
+  private static DynamicMessage order(DynamicMessage... items) {
+    DynamicMessage.Builder order = DynamicMessage.newBuilder(ORDER);
+    for (DynamicMessage item : items) {
+      order.addRepeatedField(ORDER.findFieldByName("items"), item);
+    }
+    return order.build();
+  }
+
+  private static DynamicMessage item(String sku, long price) {
+    return DynamicMessage.newBuilder(LINE_ITEM)
+            .setField(LINE_ITEM.findFieldByName("sku"), sku)
+            .setField(LINE_ITEM.findFieldByName("price"), price)
+            .build();
+  }
+
+  private static Descriptor orderDescriptor() {
+    DescriptorProto lineItem = DescriptorProto.newBuilder()
+            .setName("LineItem")
+            .addField(field("sku", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("price", 2, FieldDescriptorProto.Type.TYPE_INT64, false))
+            .addField(field("status", 3, FieldDescriptorProto.Type.TYPE_INT32, false).setDefaultValue("7"))
+            .addField(field("tags", 4, FieldDescriptorProto.Type.TYPE_STRING, true))
+            .build();
+    DescriptorProto customer = DescriptorProto.newBuilder()
+            .setName("Customer")
+            .addField(field("name", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("favorites", 2, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("LineItem"))
+            .build();
+    DescriptorProto order = DescriptorProto.newBuilder()
+            .setName("Order")
+            .addField(field("items", 1, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("LineItem"))
+            .addField(field("customer", 2, FieldDescriptorProto.Type.TYPE_MESSAGE, false).setTypeName("Customer"))
+            .addField(field("codes", 3, FieldDescriptorProto.Type.TYPE_SINT32, true)
+                    .setOptions(FieldOptions.newBuilder().setPacked(true)))
+            .build();
+    FileDescriptorProto file = FileDescriptorProto.newBuilder()
+            .setName("order.proto")
+            .addMessageType(lineItem)
+            .addMessageType(customer)
+            .addMessageType(order)
+            .build();
+    try {
+      return FileDescriptor.buildFrom(file, new FileDescriptor[0]).findMessageTypeByName("Order");
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static FieldDescriptorProto.Builder field(String name, int number, FieldDescriptorProto.Type type,
+                                                    boolean repeated) {
+    return FieldDescriptorProto.newBuilder()
+            .setName(name)
+            .setNumber(number)
+            .setType(type)
+            .setLabel(repeated ? FieldDescriptorProto.Label.LABEL_REPEATED : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+  }
+}
@@ -0,0 +1,169 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.base.Optional;
+import com.google.protobuf.ByteString;
+import com.hubspot.hbase.filter.models.ProtobufKey;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.PredicateCompiler;
+import com.hubspot.hbase.filter.server.WirePredicate;
+import org.apache.hadoop.hbase.KeyValue;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue.Type;
+import static org.apache.hadoop.hbase.HConstants.EMPTY_BYTE_ARRAY;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PredicateCompilerTest {
+  private static final ExampleProto EXAMPLE = ExampleProto.newBuilder()
+          .setId(-1L)
+          .setPortalId(2)
+          .setName("name")
+          .setBoolTest(true)
+          .setFloatTest(1.2f)
+          .setBytesTest(ByteString.copyFromUtf8("testutf8"))
+          .setRequiredTest(3)
+          .setDoubleTest(1.5)
+          .setTestEnum(ExampleProto.TestEnum.ORANGE)
+          .setChildProto(ChildProto.newBuilder().setChildProtoVal(7))
+          .build();
+
+  @Test
+  public void itShouldGenerateNumericPredicates() throws Exception {
+    assertThat(test("id", CompareOp.EQUAL, longValue(-1L))).isTrue();
+    assertThat(test("id", CompareOp.LESS, longValue(0L))).isTrue();
+    assertThat(test("portal_id", CompareOp.GREATER, intValue(1))).isTrue();
+    assertThat(test("portal_id", CompareOp.GREATER, intValue(2))).isFalse();
+    assertThat(test("float_test", CompareOp.EQUAL, floatValue(1.2f))).isTrue();
+    assertThat(test("double_test", CompareOp.LESS_OR_EQUAL, doubleValue(1.4))).isFalse();
+    assertThat(test("bool_test", CompareOp.GREATER, boolValue(false))).isTrue();
+    assertThat(test("child_proto.child_proto_val", CompareOp.EQUAL, intValue(7))).isTrue();
+  }
+
+  @Test
+  public void itShouldGenerateStringBytesAndEnumPredicates() throws Exception {
+    assertThat(test("name", CompareOp.EQUAL, stringValue("name"))).isTrue();
+    assertThat(test("name", CompareOp.NOT_EQUAL, stringValue("other"))).isTrue();
+    assertThat(test("name", CompareOp.LESS, stringValue("z"))).isTrue();
+    assertThat(test("name", CompareOp.GREATER_OR_EQUAL, stringValue("namf"))).isFalse();
+    assertThat(test("bytes_test", CompareOp.GREATER, bytesValue("test"))).isTrue();
+    assertThat(test("test_enum", CompareOp.EQUAL, stringValue("ORANGE"))).isTrue();
+    assertThat(test("test_enum", CompareOp.EQUAL, stringValue("APPLE"))).isFalse();
+    assertThat(test("test_enum", CompareOp.NOT_EQUAL, stringValue("NOT_A_VALUE"))).isTrue();
+    assertThat(test("test_enum", CompareOp.GREATER, enumValue(ExampleProto.TestEnum.APPLE))).isTrue();
+    assertThat(test("test_enum", CompareOp.LESS, enumValue(ExampleProto.TestEnum.ORANGE))).isFalse();
+  }
+
+  @Test
+  public void itShouldApplyDefaultsAndMissingValues() throws Exception {
+    ExampleProto empty = ExampleProto.newBuilder().setRequiredTest(1).build();
+
+    assertThat(test("default_test", CompareOp.EQUAL, intValue(5), empty)).isTrue();
+    assertThat(test("portal_id", CompareOp.EQUAL, intValue(0), empty)).isFalse();
+    assertThat(test("portal_id", CompareOp.NOT_EQUAL, intValue(0), empty)).isTrue();
+    assertThat(test("child_proto.child_proto_val", CompareOp.NOT_EQUAL, intValue(0), empty)).isTrue();
+  }
+
+  @Test
+  public void itShouldLeaveUnsupportedPredicatesToTheInterpreter() throws Exception {
+    assertThat(compile("test_enum", CompareOp.LESS, stringValue("ORANGE")).isPresent()).isFalse();
+    assertThat(compile("id", CompareOp.EQUAL, stringValue("1")).isPresent()).isFalse();
+    assertThat(compile("float_test", CompareOp.EQUAL, doubleValue(1.5)).isPresent()).isFalse();
+    assertThat(compile("array_values", CompareOp.EQUAL, stringValue("a")).isPresent()).isFalse();
+    assertThat(compile("id", CompareOp.NO_OP, longValue(1L)).isPresent()).isFalse();
+  }
+
+  @Test
+  public void itShouldSwitchToTheGeneratedPredicateOnceHot() throws Exception {
+    ProtobufColumnValueFilter filter = (ProtobufColumnValueFilter) ProtobufFilter
+            .forColumn(EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, ExampleProto.class)
+            .hasFieldGreaterThan("portal_id", 1);
+
+    for (int i = 0; i < PredicateCompiler.COMPILE_THRESHOLD * 2; ++i) {
+      ExampleProto value = ExampleProto.newBuilder().setRequiredTest(1).setPortalId(i % 3).build();
+      filter.reset();
+      filter.filterKeyValue(new KeyValue(EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, EMPTY_BYTE_ARRAY, value.toByteArray()));
+      assertThat(filter.filterRow()).isEqualTo(i % 3 <= 1);
+    }
+  }
+
+  @Test
+  public void itShouldShareOneClassAcrossOperands() throws Exception {
+    ProtobufKey key = new ProtobufKey("shared", 1L);
+    FieldPath portalId = FieldPath.compile(ExampleProto.getDescriptor(), "portal_id");
+    FieldPath testEnum = FieldPath.compile(ExampleProto.getDescriptor(), "test_enum");
+    byte[] bytes = EXAMPLE.toByteArray();
+
+    WirePredicate two = PredicateCompiler.INSTANCE.cachedCompile(key, portalId, CompareOp.EQUAL, intValue(2)).get();
+    WirePredicate three = PredicateCompiler.INSTANCE.cachedCompile(key, portalId, CompareOp.EQUAL, longValue(3L)).get();
+    WirePredicate four = PredicateCompiler.INSTANCE.getIfCompiled(key, portalId, CompareOp.EQUAL, intValue(4)).get();
+    assertThat(three.getClass()).isSameAs(two.getClass());
+    assertThat(four.getClass()).isSameAs(two.getClass());
+    assertThat(two.test(bytes, 0, bytes.length)).isTrue();
+    assertThat(three.test(bytes, 0, bytes.length)).isFalse();
+    assertThat(four.test(bytes, 0, bytes.length)).isFalse();
+
+    WirePredicate orange = PredicateCompiler.INSTANCE.cachedCompile(key, testEnum, CompareOp.NOT_EQUAL, stringValue("ORANGE")).get();
+    WirePredicate unknown = PredicateCompiler.INSTANCE.cachedCompile(key, testEnum, CompareOp.NOT_EQUAL, stringValue("PEAR")).get();
+    assertThat(unknown.getClass()).isSameAs(orange.getClass());
+    assertThat(orange.test(bytes, 0, bytes.length)).isFalse();
+    assertThat(unknown.test(bytes, 0, bytes.length)).isTrue();
+
+    // Another compare op is another shape.
+    WirePredicate less = PredicateCompiler.INSTANCE.cachedCompile(key, portalId, CompareOp.LESS, intValue(3)).get();
+    assertThat(less.getClass()).isNotSameAs(two.getClass());
+    assertThat(less.test(bytes, 0, bytes.length)).isTrue();
+  }
+
+  private static boolean test(String fieldSpec, CompareOp compareOp, DynamicValue operand) {
+    return test(fieldSpec, compareOp, operand, EXAMPLE);
+  }
+
+  private static boolean test(String fieldSpec, CompareOp compareOp, DynamicValue operand, ExampleProto value) {
+    Optional<WirePredicate> predicate = compile(fieldSpec, compareOp, operand);
+    assertThat(predicate.isPresent()).isTrue();
+    byte[] bytes = value.toByteArray();
+    byte[] padded = new byte[bytes.length + 6];
+    System.arraycopy(bytes, 0, padded, 3, bytes.length);
+    return predicate.get().test(padded, 3, bytes.length);
+  }
+
+  private static Optional<WirePredicate> compile(String fieldSpec, CompareOp compareOp, DynamicValue operand) {
+    return PredicateCompiler.INSTANCE.compile(FieldPath.compile(ExampleProto.getDescriptor(), fieldSpec), compareOp, operand);
+  }
+
+  private static DynamicValue intValue(int value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_integer).setValueInteger(value).build();
+  }
+
+  private static DynamicValue longValue(long value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_long).setValueLong(value).build();
+  }
+
+  private static DynamicValue floatValue(float value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_float).setValueFloat(value).build();
+  }
+
+  private static DynamicValue doubleValue(double value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_double).setValueDouble(value).build();
+  }
+
+  private static DynamicValue boolValue(boolean value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_bool).setValueBool(value).build();
+  }
+
+  private static DynamicValue stringValue(String value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_string).setValueString(value).build();
+  }
+
+  private static DynamicValue enumValue(ExampleProto.TestEnum value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_string).setValueString(value.name()).setValueInteger(value.getNumber()).build();
+  }
+
+  private static DynamicValue bytesValue(String value) {
+    return DynamicValue.newBuilder().setTypeValue(Type.type_bytes).setValueBytes(ByteString.copyFromUtf8(value)).build();
+  }
+}
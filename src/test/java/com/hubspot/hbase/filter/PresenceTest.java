@@ -0,0 +1,197 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldOptions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.PresencePredicate;
+import com.hubspot.hbase.filter.server.WirePredicate;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PresenceTest extends BaseProtoFilterTest {
+  private static final Descriptor ACCOUNT = accountDescriptor();
+  private static final Descriptor ATTRIBUTE = ACCOUNT.findFieldByName("attributes").getMessageType();
+  private static final Descriptor LIMIT = ACCOUNT.findFieldByName("limits").getMessageType();
+  private static final Descriptor QUOTA = LIMIT.findFieldByName("value").getMessageType();
+
+  @Test
+  public void itShouldNotCountDefaults() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(b.hasField("default_test"), empty)).isFalse();
+    assertThat(matches(b.lacksField("default_test"), empty)).isTrue();
+    assertThat(matches(b.hasField("default_test"), empty.clone().setDefaultTest(5))).isTrue();
+    assertThat(matches(b.hasField("name"), empty.clone().setName(""))).isTrue();
+    assertThat(matches(b.hasField("required_test"), empty)).isTrue();
+    assertThat(matches(b.hasField("nope"), empty)).isFalse();
+    assertThat(matches(b.lacksField("nope"), empty)).isTrue();
+  }
+
+  @Test
+  public void itShouldFollowNestedAndRepeatedFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = ExampleProto.newBuilder().setRequiredTest(1)
+            .setChildProto(ChildProto.newBuilder())
+            .addArrayValues("a")
+            .addArrayValues("b");
+    assertThat(matches(b.hasField("child_proto"), proto)).isTrue();
+    assertThat(matches(b.hasField("child_proto.child_proto_val"), proto)).isFalse();
+    assertThat(matches(b.hasField("child_proto.child_proto_val"),
+            proto.clone().setChildProto(ChildProto.newBuilder().setChildProtoVal(0)))).isTrue();
+    assertThat(matches(b.hasField("array_values"), proto)).isTrue();
+    assertThat(matches(b.hasField("array_values[1]"), proto)).isTrue();
+    assertThat(matches(b.hasField("array_values[2]"), proto)).isFalse();
+    assertThat(matches(b.hasField("array_values[last]"), proto)).isTrue();
+    assertThat(matches(b.lacksField("array_values"), proto.clone().clearArrayValues())).isTrue();
+    assertThat(matches(b.and(b.hasField("child_proto"), b.lacksField("array_values[2]")), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldNotCountUnknownEnumNumbers() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    byte[] required = ExampleProto.newBuilder().setRequiredTest(1).build().toByteArray();
+    // test_enum is field 10, a varint.
+    assertThat(matches(b.hasField("test_enum"), Bytes.concat(required, new byte[] {80, 2}))).isTrue();
+    assertThat(matches(b.hasField("test_enum"), Bytes.concat(required, new byte[] {80, 99}))).isFalse();
+  }
+
+  @Test
+  public void itShouldAgreeWithTheParsedMessage() throws Exception {
+    String[] specs = {
+            "name", "attributes", "attributes[0]", "attributes[2]", "attributes[last]", "attributes.value",
+            "attributes[1].key", "attributes[\"plan\"]", "attributes[\"k1\"]", "limits[\"0\"].max",
+            "limits[\"-3\"]", "limits[last].value.max", "limits[*].value", "scores", "scores[3]", "scores[last]",
+            "tiers", "tiers[1]", "primary", "primary.value.max", "primary.key"
+    };
+    Random random = new Random(24);
+    for (int i = 0; i < 500; ++i) {
+      byte[] cell = randomAccount(random).toByteArray();
+      if (random.nextInt(4) == 0) {
+        cell = Bytes.concat(cell, randomAccount(random).toByteArray());
+      }
+      DynamicMessage parsed = DynamicMessage.parseFrom(ACCOUNT, cell);
+      for (String spec : specs) {
+        FieldPath path = FieldPath.compile(ACCOUNT, spec);
+        assertThat(path.isResolved()).as(spec).isTrue();
+        WirePredicate hasField = PresencePredicate.forPath(path, false).get();
+        WirePredicate lacksField = PresencePredicate.forPath(path, true).get();
+        boolean expected = path.isSetIn(parsed);
+        assertThat(hasField.test(cell, 0, cell.length)).as(spec + " in " + parsed).isEqualTo(expected);
+        assertThat(lacksField.test(cell, 0, cell.length)).as(spec + " in " + parsed).isEqualTo(!expected);
+      }
+    }
+  }
+
+  private static DynamicMessage randomAccount(Random random) {
+    DynamicMessage.Builder account = DynamicMessage.newBuilder(ACCOUNT);
+    if (random.nextBoolean()) {
+      account.setField(ACCOUNT.findFieldByName("name"), "n");
+    }
+    for (int i = random.nextInt(4); i > 0; --i) {
+      DynamicMessage.Builder attribute = DynamicMessage.newBuilder(ATTRIBUTE);
+      if (random.nextInt(4) > 0) {
+        attribute.setField(ATTRIBUTE.findFieldByName("key"), random.nextBoolean() ? "plan" : "k" + random.nextInt(3));
+      }
+      if (random.nextInt(4) > 0) {
+        attribute.setField(ATTRIBUTE.findFieldByName("value"), "v");
+      }
+      account.addRepeatedField(ACCOUNT.findFieldByName("attributes"), attribute.build());
+    }
+    for (int i = random.nextInt(3); i > 0; --i) {
+      account.addRepeatedField(ACCOUNT.findFieldByName("limits"), randomLimit(random));
+    }
+    for (int i = random.nextInt(6); i > 0; --i) {
+      account.addRepeatedField(ACCOUNT.findFieldByName("scores"), random.nextInt(3) - 1);
+    }
+    for (int i = random.nextInt(3); i > 0; --i) {
+      account.addRepeatedField(ACCOUNT.findFieldByName("tiers"),
+              ACCOUNT.findFieldByName("tiers").getEnumType().findValueByNumber(1 + random.nextInt(2)));
+    }
+    if (random.nextBoolean()) {
+      account.setField(ACCOUNT.findFieldByName("primary"), randomLimit(random));
+    }
+    return account.build();
+  }
+
+  private static DynamicMessage randomLimit(Random random) {
+    DynamicMessage.Builder limit = DynamicMessage.newBuilder(LIMIT);
+    if (random.nextInt(4) > 0) {
+      limit.setField(LIMIT.findFieldByName("key"), random.nextBoolean() ? 0 : -3);
+    }
+    if (random.nextInt(4) > 0) {
+      DynamicMessage.Builder quota = DynamicMessage.newBuilder(QUOTA);
+      if (random.nextBoolean()) {
+        quota.setField(QUOTA.findFieldByName("max"), (long) random.nextInt(100));
+      }
+      limit.setField(LIMIT.findFieldByName("value"), quota.build());
+    }
+    return limit.build();
+  }
+
+  private static Descriptor accountDescriptor() {
+    DescriptorProto attribute = DescriptorProto.newBuilder()
+            .setName("Attribute")
+            .addField(field("key", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("value", 2, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .build();
+    DescriptorProto quota = DescriptorProto.newBuilder()
+            .setName("Quota")
+            .addField(field("max", 1, FieldDescriptorProto.Type.TYPE_INT64, false).setDefaultValue("10"))
+            .build();
+    DescriptorProto limit = DescriptorProto.newBuilder()
+            .setName("Limit")
+            .addField(field("value", 1, FieldDescriptorProto.Type.TYPE_MESSAGE, false).setTypeName("Quota"))
+            .addField(field("key", 2, FieldDescriptorProto.Type.TYPE_SINT32, false))
+            .build();
+    EnumDescriptorProto tier = EnumDescriptorProto.newBuilder()
+            .setName("Tier")
+            .addValue(EnumValueDescriptorProto.newBuilder().setName("FREE").setNumber(1))
+            .addValue(EnumValueDescriptorProto.newBuilder().setName("PAID").setNumber(2))
+            .build();
+    DescriptorProto account = DescriptorProto.newBuilder()
+            .setName("Account")
+            .addField(field("name", 1, FieldDescriptorProto.Type.TYPE_STRING, false))
+            .addField(field("attributes", 2, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("Attribute"))
+            .addField(field("limits", 3, FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName("Limit"))
+            .addField(field("scores", 4, FieldDescriptorProto.Type.TYPE_SINT32, true)
+                    .setOptions(FieldOptions.newBuilder().setPacked(true)))
+            .addField(field("tiers", 5, FieldDescriptorProto.Type.TYPE_ENUM, true).setTypeName("Tier"))
+            .addField(field("primary", 6, FieldDescriptorProto.Type.TYPE_MESSAGE, false).setTypeName("Limit"))
+            .build();
+    FileDescriptorProto file = FileDescriptorProto.newBuilder()
+            .setName("account.proto")
+            .addMessageType(attribute)
+            .addMessageType(quota)
+            .addMessageType(limit)
+            .addMessageType(account)
+            .addEnumType(tier)
+            .build();
+    try {
+      return FileDescriptor.buildFrom(file, new FileDescriptor[0]).findMessageTypeByName("Account");
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static FieldDescriptorProto.Builder field(String name, int number, FieldDescriptorProto.Type type,
+                                                    boolean repeated) {
+    return FieldDescriptorProto.newBuilder()
+            .setName(name)
+            .setNumber(number)
+            .setType(type)
+            .setLabel(repeated ? FieldDescriptorProto.Label.LABEL_REPEATED : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+  }
+}
@@ -0,0 +1,79 @@
+package com.hubspot.hbase.filter;
+
+import com.hubspot.hbase.filter.models.StringPattern;
+import com.hubspot.hbase.filter.server.StringMatcher;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegexMatchTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder PROTO = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setName("user-1234@example.com");
+
+  @Test
+  public void itShouldFindTheRegexAnywhereInTheField() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.hasFieldMatching("name", "[0-9]{4}@"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "^user-[0-9]+@example\\.com$"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "^user-[0-9]+$"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldMatching("name", "^example"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldMatching("name", "example|nope"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "users?-12"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "(?i)USER"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.regex("^USER-\\d+").ignoringAsciiCase()), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "^USER-\\d+"), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchNonAsciiFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = PROTO.clone().setName("Zoë – café");
+    assertThat(matches(b.hasFieldMatching("name", "^Zo.\\s–\\scaf.$"), proto)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "ë"), proto)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", "e\\b"), proto)).isFalse();
+  }
+
+  @Test
+  public void itShouldTestElementsAndMissingFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = PROTO.clone().addArrayValues("a1").addArrayValues("b2");
+    assertThat(matches(b.anyElement(b.hasFieldMatching("array_values", "^b\\d$")), proto)).isTrue();
+    assertThat(matches(b.allElements(b.hasFieldMatching("array_values", "^[ab]\\d$")), proto)).isTrue();
+    assertThat(matches(b.allElements(b.hasFieldMatching("array_values", "^a")), proto)).isFalse();
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(b.hasFieldMatching("name", ".*"), empty)).isFalse();
+    assertThat(matches(b.not(b.hasFieldMatching("name", ".*")), empty)).isTrue();
+  }
+
+  @Test(expected = PatternSyntaxException.class)
+  public void itShouldRejectInvalidRegexesOnTheClient() throws Exception {
+    filterBuilder().hasFieldMatching("name", "user-(");
+  }
+
+  @Test
+  public void itShouldAgreeWithJavaRegex() throws Exception {
+    String[] regexes = {"ab", "^ab", "a.b", "ab?c", "ab*", "ab+c", "a{2}", "^\\.a", "\\.b|c", "^b[ab]+$",
+        "(ab)+", "a\\.?b", "\\Qa.\\E", "^é", "éa?", "b$"};
+    Random random = new Random(21);
+    for (String regex : regexes) {
+      Pattern pattern = Pattern.compile(regex);
+      StringMatcher matcher = StringMatcher.compile(StringPattern.regex(regex));
+      for (int i = 0; i < 200; ++i) {
+        StringBuilder value = new StringBuilder();
+        for (int j = random.nextInt(8); j > 0; --j) {
+          value.append("abc.é".charAt(random.nextInt(5)));
+        }
+        byte[] bytes = Bytes.toBytes("|" + value + "|");
+        assertThat(matcher.matches(bytes, 1, bytes.length - 2)).as(regex + " in " + value)
+                .isEqualTo(pattern.matcher(value).find());
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.hubspot.hbase.filter.client.ClientDescriptorCache;
+import com.hubspot.hbase.filter.models.MatchOp;
+import com.hubspot.hbase.filter.models.RelativeTime;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
+import org.apache.hadoop.hbase.util.ManualEnvironmentEdge;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.util.concurrent.TimeUnit;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.HConstants.EMPTY_BYTE_ARRAY;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RelativeTimeTest extends BaseProtoFilterTest {
+  private static final long NOW = 1500000000123L;
+
+  @After
+  public void resetClock() {
+    EnvironmentEdgeManager.reset();
+  }
+
+  @Test
+  public void itShouldResolveInTheFieldsUnit() {
+    assertThat(RelativeTime.now().resolve(NOW)).isEqualTo(NOW);
+    assertThat(RelativeTime.ago(7, TimeUnit.DAYS).resolve(NOW)).isEqualTo(NOW - TimeUnit.DAYS.toMillis(7));
+    assertThat(RelativeTime.fromNow(1, TimeUnit.MINUTES).in(TimeUnit.SECONDS).resolve(NOW)).isEqualTo(NOW / 1000 + 60);
+    assertThat(RelativeTime.ago(5, TimeUnit.MICROSECONDS).in(TimeUnit.MICROSECONDS).resolve(NOW)).isEqualTo(NOW * 1000 - 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void itShouldRejectOtherFieldUnits() {
+    RelativeTime.now().in(TimeUnit.HOURS);
+  }
+
+  @Test
+  public void itShouldResolveAgainstTheServerClock() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter seenThisWeek = b.hasFieldGreaterThanOrEqualTo("id", RelativeTime.ago(7, TimeUnit.DAYS));
+    ExampleProto.Builder proto = proto().setId(NOW - TimeUnit.DAYS.toMillis(6));
+
+    setClock(NOW);
+    assertThat(matches(seenThisWeek, proto)).isTrue();
+    // The filter is resolved again whenever it is read, as a scanner opens.
+    setClock(NOW + TimeUnit.DAYS.toMillis(2));
+    assertThat(matches(seenThisWeek, proto)).isFalse();
+  }
+
+  @Test
+  public void itShouldCompareFieldsInSeconds() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    setClock(NOW);
+    int nowSeconds = (int) (NOW / 1000);
+    Filter future = b.hasFieldGreaterThan("portal_id", RelativeTime.now().in(TimeUnit.SECONDS));
+    assertThat(matches(future, proto().setPortalId(nowSeconds + 1))).isTrue();
+    assertThat(matches(future, proto().setPortalId(nowSeconds))).isFalse();
+    assertThat(matches(b.not(future), proto().setPortalId(nowSeconds))).isTrue();
+  }
+
+  @Test
+  public void itShouldSerializeOtherScalarComparisonsAsBefore() throws Exception {
+    byte[] legacy = legacyScalarFilter("id", CompareOp.LESS, 42L);
+    ByteArrayDataOutput out = ByteStreams.newDataOutput();
+    ((ProtobufColumnValueFilter) filterBuilder().hasFieldLessThan("id", 42L)).write(out);
+    assertThat(out.toByteArray()).isEqualTo(legacy);
+
+    // A filter from a client that predates relative times, followed by another.
+    ByteArrayDataOutput stream = ByteStreams.newDataOutput();
+    stream.write(legacy);
+    stream.writeInt(7);
+    DataInput in = ByteStreams.newDataInput(stream.toByteArray());
+    ProtobufColumnValueFilter filter = new ProtobufColumnValueFilter();
+    filter.readFields(in);
+    assertThat(in.readInt()).isEqualTo(7);
+    assertThat(matches(filter, proto().setId(41))).isTrue();
+    assertThat(matches(filter, proto().setId(42))).isFalse();
+  }
+
+  @Test
+  public void itShouldSendRelativeTimesWithTheirOwnMatchOp() throws Exception {
+    ByteArrayDataOutput out = ByteStreams.newDataOutput();
+    ((ProtobufColumnValueFilter) filterBuilder().hasFieldLessThan("id", RelativeTime.now())).write(out);
+    byte[] bytes = out.toByteArray();
+    // The match op follows the two empty column names and the compare op's name, "LESS".
+    assertThat(bytes[2 + 1 + "LESS".length()]).isEqualTo(MatchOp.MATCH_RELATIVE_TIME.getKey());
+  }
+
+  /**
+   * A scalar comparison as every release before relative times wrote it.
+   */
+  private static byte[] legacyScalarFilter(String fieldSpec, CompareOp compareOp, long value) throws Exception {
+    byte[] descriptorBytes = ClientDescriptorCache.INSTANCE.getPayloadForDescriptor(ExampleProto.class);
+    ByteArrayDataOutput out = ByteStreams.newDataOutput();
+    Bytes.writeByteArray(out, EMPTY_BYTE_ARRAY);
+    Bytes.writeByteArray(out, EMPTY_BYTE_ARRAY);
+    WritableUtils.writeEnum(out, compareOp);
+    out.writeByte(MatchOp.MATCH_SCALAR.getKey());
+    out.writeBoolean(false);
+    out.writeBoolean(true);
+    out.writeUTF(fieldSpec);
+    WritableUtils.writeCompressedByteArray(out, DynamicValue.newBuilder()
+            .setTypeValue(DynamicValue.Type.type_long)
+            .setValueLong(value)
+            .build()
+            .toByteArray());
+    WritableUtils.writeCompressedByteArray(out, null);
+    out.writeUTF(ExampleProto.class.getCanonicalName());
+    out.writeLong(Hashing.murmur3_128().hashBytes(descriptorBytes).asLong());
+    Bytes.writeByteArray(out, descriptorBytes);
+    out.writeBoolean(false);
+    return out.toByteArray();
+  }
+
+  private static void setClock(long millis) {
+    ManualEnvironmentEdge clock = new ManualEnvironmentEdge();
+    clock.setValue(millis);
+    EnvironmentEdgeManager.injectEdge(clock);
+  }
+}
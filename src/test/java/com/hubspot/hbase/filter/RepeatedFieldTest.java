@@ -0,0 +1,148 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldOptions;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.hubspot.hbase.filter.models.Inclusivity;
+import com.hubspot.hbase.filter.server.FieldPath;
+import com.hubspot.hbase.filter.server.FieldPredicate;
+import com.hubspot.hbase.filter.server.RepeatedPredicate;
+import com.hubspot.hbase.filter.server.ScalarPredicate;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.models.ProtobufFilterProtos.DynamicValue;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepeatedFieldTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder PROTO = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .addArrayValues("apple")
+          .addArrayValues("banana")
+          .addArrayValues("cherry");
+
+  @Test
+  public void itShouldMatchAnyElement() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.anyElement(b.hasFieldEqualTo("array_values", "banana")), PROTO)).isTrue();
+    assertThat(matches(b.anyElement(b.hasFieldEqualTo("array_values", "grape")), PROTO)).isFalse();
+    assertThat(matches(b.anyElement(b.hasFieldIn("array_values", "grape", "cherry")), PROTO)).isTrue();
+    assertThat(matches(b.anyElement(b.hasFieldBetween("array_values", "b", "c", Inclusivity.CLOSED)), PROTO)).isTrue();
+    assertThat(matches(b.anyElement(b.hasFieldEqualTo("array_values", "apple")), proto())).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchAllElements() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.allElements(b.hasFieldGreaterThan("array_values", "a")), PROTO)).isTrue();
+    assertThat(matches(b.allElements(b.hasFieldLessThan("array_values", "c")), PROTO)).isFalse();
+    assertThat(matches(b.allElements(b.hasFieldEqualTo("array_values", "apple")), proto())).isTrue();
+  }
+
+  @Test
+  public void itShouldCountElements() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.elementCount(b.hasFieldEqualTo("array_values", 3)), PROTO)).isTrue();
+    assertThat(matches(b.elementCount(b.hasFieldGreaterThan("array_values", 3L)), PROTO)).isFalse();
+    assertThat(matches(b.elementCount(b.hasFieldLessThan("array_values", 4)), PROTO)).isTrue();
+    assertThat(matches(b.elementCount(b.hasFieldNotEqualTo("array_values", 2)), PROTO)).isTrue();
+    assertThat(matches(b.elementCount(b.hasFieldBetween("array_values", 1, 3, Inclusivity.CLOSED_OPEN)), PROTO)).isFalse();
+    assertThat(matches(b.elementCount(b.hasFieldEqualTo("array_values", 0)), proto())).isTrue();
+    assertThat(matches(b.elementCount(b.hasFieldGreaterThan("array_values", -1)), proto())).isTrue();
+  }
+
+  @Test
+  public void itShouldCombineWithExpressions() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    Filter filter = b.and(
+            b.anyElement(b.hasFieldEqualTo("array_values", "apple")),
+            b.not(b.elementCount(b.hasFieldGreaterThan("array_values", 3))));
+
+    assertThat(matches(filter, PROTO)).isTrue();
+    assertThat(matches(filter, PROTO.clone().addArrayValues("date"))).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void itShouldRejectCountsComparedToStrings() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    b.elementCount(b.hasFieldEqualTo("array_values", "3"));
+  }
+
+  @Test
+  public void itShouldReadPackedAndUnpackedElements() throws Exception {
+    Descriptor descriptor = scoresDescriptor();
+    FieldPath scores = FieldPath.compile(descriptor, "scores");
+    RepeatedPredicate anyAboveTen = RepeatedPredicate.anyElement(scores, greaterThan(scores, 10));
+    RepeatedPredicate allAboveZero = RepeatedPredicate.allElements(scores, greaterThan(scores, 0));
+    RepeatedPredicate countOfThree = RepeatedPredicate.elementCountBetween(scores, 3, 3, Inclusivity.CLOSED);
+
+    DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+    builder.addRepeatedField(descriptor.findFieldByName("scores"), -4);
+    builder.addRepeatedField(descriptor.findFieldByName("scores"), 12);
+    byte[] packed = builder.build().toByteArray();
+
+    assertThat(test(anyAboveTen, packed)).isTrue();
+    assertThat(test(allAboveZero, packed)).isFalse();
+    assertThat(test(countOfThree, packed)).isFalse();
+
+    // Parsers accept unpacked elements of packed fields, and concatenate them.
+    ByteArrayOutputStream unpacked = new ByteArrayOutputStream();
+    CodedOutputStream output = CodedOutputStream.newInstance(unpacked);
+    output.writeSInt32(1, 5);
+    output.writeInt64(2, 99L);
+    output.flush();
+    byte[] mixed = Bytes.concat(packed, unpacked.toByteArray());
+
+    assertThat(test(countOfThree, mixed)).isTrue();
+    assertThat(test(anyAboveTen, unpacked.toByteArray())).isFalse();
+    assertThat(test(allAboveZero, unpacked.toByteArray())).isTrue();
+
+    FieldPath ids = FieldPath.compile(descriptor, "ids");
+    assertThat(test(RepeatedPredicate.elementCount(ids, CompareOp.EQUAL, 1), mixed)).isTrue();
+    assertThat(test(RepeatedPredicate.anyElement(ids, greaterThan(ids, 98)), mixed)).isTrue();
+  }
+
+  private static boolean test(RepeatedPredicate predicate, byte[] value) {
+    return predicate.test(value, 0, value.length);
+  }
+
+  private static FieldPredicate greaterThan(FieldPath fieldPath, long operand) {
+    DynamicValue value = DynamicValue.newBuilder()
+            .setTypeValue(DynamicValue.Type.type_long)
+            .setValueLong(operand)
+            .build();
+    return ScalarPredicate.forOperand(fieldPath.getElementPath(), CompareOp.GREATER, value).get();
+  }
+
+  private static Descriptor scoresDescriptor() throws Exception {
+    DescriptorProto message = DescriptorProto.newBuilder()
+            .setName("Scores")
+            .addField(FieldDescriptorProto.newBuilder()
+                    .setName("scores")
+                    .setNumber(1)
+                    .setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+                    .setType(FieldDescriptorProto.Type.TYPE_SINT32)
+                    .setOptions(FieldOptions.newBuilder().setPacked(true)))
+            .addField(FieldDescriptorProto.newBuilder()
+                    .setName("ids")
+                    .setNumber(2)
+                    .setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+                    .setType(FieldDescriptorProto.Type.TYPE_INT64))
+            .build();
+    FileDescriptorProto file = FileDescriptorProto.newBuilder()
+            .setName("scores.proto")
+            .addMessageType(message)
+            .build();
+    return FileDescriptor.buildFrom(file, new FileDescriptor[0]).findMessageTypeByName("Scores");
+  }
+}
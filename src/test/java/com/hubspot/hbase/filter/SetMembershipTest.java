@@ -0,0 +1,90 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.ByteString;
+import com.hubspot.hbase.filter.models.OperandSet;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SetMembershipTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder PROTO = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setId(1000L)
+          .setPortalId(-7)
+          .setName("bob")
+          .setBytesTest(ByteString.copyFrom(new byte[] {1, 2, (byte) 0xff}));
+
+  @Test
+  public void itShouldMatchSmallSets() throws Exception {
+    assertThat(matches(filterBuilder().hasFieldIn("id", 5L, 1000L), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("id", 5L, 999L), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldIn("portal_id", 3, -7), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("name", "alice", "bob"), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("name", "alice", "bobby"), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldIn("bytes_test", new byte[] {1, 2, (byte) 0xff}), PROTO)).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("bytes_test", new byte[] {1, 2}), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchLargeSets() throws Exception {
+    long[] ids = new long[5000];
+    String[] names = new String[5000];
+    for (int i = 0; i < ids.length; ++i) {
+      ids[i] = i * 3L;
+      names[i] = "name" + i;
+    }
+    assertThat(matches(filterBuilder().hasFieldIn("id", ids), PROTO.clone().setId(0L))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("id", ids), PROTO.clone().setId(14997L))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("id", ids), PROTO.clone().setId(14998L))).isFalse();
+    assertThat(matches(filterBuilder().hasFieldNotIn("id", ids), PROTO.clone().setId(1L))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("name", names), PROTO.clone().setName("name4321"))).isTrue();
+    assertThat(matches(filterBuilder().hasFieldIn("name", names), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldTreatMissingValuesAsNotInTheSet() throws Exception {
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(filterBuilder().hasFieldIn("id", 0L), empty)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldNotIn("id", 0L), empty)).isTrue();
+    // A declared default is the field's value.
+    assertThat(matches(filterBuilder().hasFieldIn("default_test", 5), empty)).isTrue();
+  }
+
+  @Test
+  public void itShouldNotMatchSetsOfTheWrongKind() throws Exception {
+    assertThat(matches(filterBuilder().hasFieldIn("id", "1000"), PROTO)).isFalse();
+    assertThat(matches(filterBuilder().hasFieldNotIn("name", 1L), PROTO)).isTrue();
+  }
+
+  @Test
+  public void itShouldWriteSetsCompactly() throws Exception {
+    long[] ids = new long[1000];
+    for (int i = 0; i < ids.length; ++i) {
+      ids[i] = 1000000000L + i;
+    }
+    OperandSet operandSet = OperandSet.ofNumbers(ids);
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    operandSet.write(output);
+    // One byte per delta, after the kind, the count and the first value.
+    assertThat(output.toByteArray().length).isLessThan(ids.length + 16);
+
+    assertThat(roundTrip(OperandSet.ofNumbers(Long.MAX_VALUE, Long.MIN_VALUE, 0L, -1L)).getNumbers())
+            .containsExactly(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE);
+    OperandSet strings = roundTrip(OperandSet.ofStrings("prefix-b", "prefix-a", "prefix-a", "", "p"));
+    assertThat(strings.getKind()).isEqualTo(OperandSet.Kind.STRINGS);
+    assertThat(strings.getElements()).containsExactly(
+            Bytes.toBytes(""), Bytes.toBytes("p"), Bytes.toBytes("prefix-a"), Bytes.toBytes("prefix-b"));
+  }
+
+  private static OperandSet roundTrip(OperandSet operandSet) throws Exception {
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    operandSet.write(output);
+    OperandSet read = new OperandSet();
+    read.readFields(ByteStreams.newDataInput(output.toByteArray()));
+    return read;
+  }
+}
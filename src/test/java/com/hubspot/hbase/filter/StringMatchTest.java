@@ -0,0 +1,113 @@
+package com.hubspot.hbase.filter;
+
+import com.google.protobuf.ByteString;
+import com.hubspot.hbase.filter.models.StringPattern;
+import com.hubspot.hbase.filter.server.StringMatcher;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringMatchTest extends BaseProtoFilterTest {
+  private static final ExampleProto.Builder PROTO = ExampleProto.newBuilder()
+          .setRequiredTest(1)
+          .setName("Connection reset by peer")
+          .setBytesTest(ByteString.copyFrom(new byte[] {1, 2, (byte) 0xff}));
+
+  @Test
+  public void itShouldMatchPrefixesSuffixesAndSubstrings() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.hasFieldStartingWith("name", "Connection"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldStartingWith("name", "connection"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldEndingWith("name", "peer"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldEndingWith("name", "Connection reset by peer!"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldContaining("name", "reset"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldContaining("name", "refused"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldContaining("name", ""), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldContainingAny("name", "refused", "by pe", "timeout"), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldContainingAny("name", "refused", "timeout"), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.startsWith("Disk", "Conn")), PROTO)).isTrue();
+  }
+
+  @Test
+  public void itShouldIgnoreAsciiCaseOnlyWhenAsked() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.startsWith("CONNECTION").ignoringAsciiCase()), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.endsWith("PEER").ignoringAsciiCase()), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.contains("RESET", "x").ignoringAsciiCase()), PROTO)).isTrue();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.contains("RESET", "x")), PROTO)).isFalse();
+    // Non-ASCII letters keep their case.
+    ExampleProto.Builder accented = PROTO.clone().setName("Élan");
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.startsWith("élan").ignoringAsciiCase()), accented)).isFalse();
+    assertThat(matches(b.hasFieldMatching("name", StringPattern.startsWith("ÉLAN").ignoringAsciiCase()), accented)).isTrue();
+  }
+
+  @Test
+  public void itShouldMatchMultiByteCharacters() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder proto = PROTO.clone().setName("naïve café ☕");
+    assertThat(matches(b.hasFieldContaining("name", "ï"), proto)).isTrue();
+    assertThat(matches(b.hasFieldEndingWith("name", "é ☕"), proto)).isTrue();
+    assertThat(matches(b.hasFieldContainingAny("name", "ü", "café"), proto)).isTrue();
+    assertThat(matches(b.hasFieldContainingAny("name", "ü", "cafe"), proto)).isFalse();
+  }
+
+  @Test
+  public void itShouldMatchBytesFieldsAndRepeatedFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    assertThat(matches(b.hasFieldMatching("bytes_test", StringPattern.startsWith("\u0001\u0002")), PROTO)).isTrue();
+    ExampleProto.Builder proto = PROTO.clone().addArrayValues("alpha").addArrayValues("beta");
+    assertThat(matches(b.anyElement(b.hasFieldStartingWith("array_values", "be")), proto)).isTrue();
+    assertThat(matches(b.allElements(b.hasFieldEndingWith("array_values", "a")), proto)).isTrue();
+    assertThat(matches(b.allElements(b.hasFieldStartingWith("array_values", "a")), proto)).isFalse();
+    assertThat(matches(b.hasFieldContaining("array_values[last]", "et"), proto)).isTrue();
+    assertThat(matches(b.and(b.hasFieldContaining("name", "peer"), b.hasFieldContaining("array_values[0]", "ph")), proto)).isTrue();
+  }
+
+  @Test
+  public void itShouldNotMatchMissingOrNonStringFields() throws Exception {
+    ProtobufFilter.Builder<ExampleProto> b = filterBuilder();
+    ExampleProto.Builder empty = ExampleProto.newBuilder().setRequiredTest(1);
+    assertThat(matches(b.hasFieldContaining("name", ""), empty)).isFalse();
+    assertThat(matches(b.not(b.hasFieldContaining("name", "x")), empty)).isTrue();
+    assertThat(matches(b.hasFieldStartingWith("nope", ""), PROTO)).isFalse();
+    assertThat(matches(b.hasFieldStartingWith("required_test", "1"), PROTO)).isFalse();
+  }
+
+  @Test
+  public void itShouldFindAnyOfManySubstrings() throws Exception {
+    Random random = new Random(20);
+    for (int i = 0; i < 200; ++i) {
+      String[] substrings = new String[1 + random.nextInt(6)];
+      for (int j = 0; j < substrings.length; ++j) {
+        substrings[j] = randomString(random, 1 + random.nextInt(4));
+      }
+      StringPattern pattern = StringPattern.contains(substrings);
+      StringMatcher matcher = StringMatcher.compile(pattern);
+      StringMatcher folding = StringMatcher.compile(pattern.ignoringAsciiCase());
+      for (int j = 0; j < 20; ++j) {
+        String value = randomString(random, random.nextInt(20));
+        byte[] bytes = Bytes.toBytes("__" + value + "__");
+        boolean expected = false;
+        boolean expectedFolded = false;
+        for (String substring : substrings) {
+          expected |= value.contains(substring);
+          expectedFolded |= value.toLowerCase().contains(substring.toLowerCase());
+        }
+        assertThat(matcher.matches(bytes, 2, bytes.length - 4)).as(value).isEqualTo(expected);
+        assertThat(folding.matches(bytes, 2, bytes.length - 4)).as(value).isEqualTo(expectedFolded);
+      }
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; ++i) {
+      builder.append("abAB".charAt(random.nextInt(4)));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,67 @@
+package com.hubspot.hbase.filter;
+
+import com.google.protobuf.ByteString;
+import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringOrderingTest extends BaseProtoFilterTest {
+  private static final String SUPPLEMENTARY = "\uD83D\uDE00";
+  private static final String HIGH_BMP = "\uFFFD";
+
+  @Test
+  public void itShouldOrderStringsLikeStringCompareTo() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setName("a" + SUPPLEMENTARY)
+            ;
+
+    // UTF-16 puts surrogate pairs below U+E000..U+FFFF, even though UTF-8 bytes sort them above.
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("name", "a" + HIGH_BMP), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("name", "a\u00e9"), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("name", "a"), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("name", "a"), exampleProto)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("name", "a" + SUPPLEMENTARY), exampleProto)).isTrue();
+  }
+
+  @Test
+  public void itShouldCompareBytesUnsigned() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setBytesTest(ByteString.copyFrom(new byte[] { (byte) 0x80 }))
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldGreaterThan("bytes_test", new byte[] { 0x7f }), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("bytes_test", new byte[] { (byte) 0x80, 0 }), exampleProto)).isTrue();
+  }
+
+  @Test
+  public void itShouldHandComparablesTheRawSlice() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setName("prefixed")
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldByteComparableTo("name", new BinaryPrefixComparator(Bytes.toBytes("pre")), CompareOp.EQUAL), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldByteComparableTo("name", new BinaryPrefixComparator(Bytes.toBytes("post")), CompareOp.EQUAL), exampleProto)).isFalse();
+  }
+}
@@ -0,0 +1,74 @@
+package com.hubspot.hbase.filter;
+
+import com.google.common.primitives.Bytes;
+import org.junit.Test;
+
+import static com.hubspot.hbase.filter.example.ExampleProtos.ChildProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto;
+import static com.hubspot.hbase.filter.example.ExampleProtos.ExampleProto.TestEnum;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WireExtractionTest extends BaseProtoFilterTest {
+  @Test
+  public void itShouldUseTheLastOccurrence() throws Exception {
+    byte[] columnValue = Bytes.concat(
+            ExampleProto.newBuilder().setRequiredTest(1).setPortalId(5).setName("first").build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).setPortalId(6).build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 6), columnValue)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("portal_id", 5), columnValue)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("name", "first"), columnValue)).isTrue();
+  }
+
+  @Test
+  public void itShouldMergeRepeatedChildMessages() throws Exception {
+    byte[] columnValue = Bytes.concat(
+            ExampleProto.newBuilder().setRequiredTest(1).setChildProto(ChildProto.newBuilder().setChildProtoVal(3)).build().toByteArray(),
+            ExampleProto.newBuilder().setRequiredTest(1).setChildProto(ChildProto.newBuilder()).build().toByteArray());
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("child_proto.child_proto_val", 3), columnValue)).isTrue();
+  }
+
+  @Test
+  public void itShouldTreatMissingChildAsNull() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("child_proto.child_proto_val", 0), exampleProto)).isFalse();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldNotEqualTo("child_proto.child_proto_val", 0), exampleProto)).isTrue();
+  }
+
+  @Test
+  public void itShouldSkipUnrelatedFields() throws Exception {
+    ExampleProto.Builder exampleProto = ExampleProto.newBuilder()
+            .setRequiredTest(1)
+            .setId(7L)
+            .setName("name")
+            .setFloatTest(1.5f)
+            .setDoubleTest(2.5)
+            .addArrayValues("a")
+            .addArrayValues("b")
+            .setChildProto(ChildProto.newBuilder().setChildProtoVal(9))
+            .setTestEnum(TestEnum.ORANGE)
+            ;
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("test_enum", TestEnum.ORANGE), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldEqualTo("double_test", 2.5), exampleProto)).isTrue();
+
+    assertThat(matches(filterBuilder()
+            .hasFieldLessThan("child_proto.child_proto_val", 10), exampleProto)).isTrue();
+  }
+}